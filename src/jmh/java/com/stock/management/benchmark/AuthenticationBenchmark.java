@@ -0,0 +1,94 @@
+package com.stock.management.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.stock.management.security.AccessTokenService;
+import com.stock.management.security.TokenAuthenticationFilter;
+import com.stock.management.security.TokenProperties;
+
+import jakarta.servlet.FilterChain;
+
+/**
+ * Authenticated requests per second on one core: a request carrying an access token, checked by
+ * {@link TokenAuthenticationFilter}, against one re-sending its password, checked with BCrypt at
+ * the given work factors. Run with:
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="AuthenticationBenchmark -rf json -rff target/jmh-result.json"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> SecurityContextHolder.clearContext();
+
+    @State(Scope.Thread)
+    public static class TokenRequest {
+
+        private TokenAuthenticationFilter filter;
+        private MockHttpServletRequest request;
+        private MockHttpServletResponse response;
+
+        @Setup
+        public void setUp() {
+            TokenProperties properties = new TokenProperties();
+            properties.setSecret("0123456789abcdef0123456789abcdef");
+            properties.setTtl(Duration.ofHours(1));
+            AccessTokenService accessTokenService = new AccessTokenService(properties);
+            filter = new TokenAuthenticationFilter(accessTokenService);
+            request = new MockHttpServletRequest("GET", "/api/users/user123/stocks/portfolio");
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + accessTokenService.issue("user123").accessToken());
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PasswordRequest {
+
+        @Param({ "10", "12" })
+        public int strength;
+
+        private BCryptPasswordEncoder encoder;
+        private String hash;
+
+        @Setup
+        public void setUp() {
+            encoder = new BCryptPasswordEncoder(strength);
+            hash = encoder.encode("password123");
+        }
+    }
+
+    @Benchmark
+    public int tokenAuthentication(TokenRequest state) throws Exception {
+        state.filter.doFilter(state.request, state.response, NO_OP_CHAIN);
+        return state.response.getStatus();
+    }
+
+    @Benchmark
+    public boolean passwordAuthentication(PasswordRequest state) {
+        return state.encoder.matches("password123", state.hash);
+    }
+}
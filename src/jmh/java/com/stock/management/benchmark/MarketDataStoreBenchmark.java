@@ -0,0 +1,75 @@
+package com.stock.management.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.stock.management.external.marketdata.MarketDataStore;
+import com.stock.management.external.service.impl.MarketDataStockFetchingStrategy;
+
+/**
+ * Cost of serving a quote from the {@link MarketDataStore} through the {@code market-data}
+ * strategy, and of applying a pushed tick. Run with:
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="MarketDataStoreBenchmark -prof gc -rf json -rff target/jmh-result.json"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarketDataStoreBenchmark {
+
+    @Param({ "100", "10000" })
+    public int symbols;
+
+    private MarketDataStore store;
+    private MarketDataStockFetchingStrategy strategy;
+    private String[] symbolNames;
+    private int next;
+    private long tick;
+
+    @Setup
+    public void setUp() {
+        store = new MarketDataStore(symbols);
+        strategy = new MarketDataStockFetchingStrategy(store, Duration.ofMinutes(5));
+        symbolNames = new String[symbols];
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < symbols; i++) {
+            symbolNames[i] = "SYM" + i;
+            store.update(symbolNames[i], 100.0 + i, now);
+        }
+        tick = now;
+    }
+
+    @Benchmark
+    public Double getStockPrice() {
+        return strategy.getStockPrice(nextSymbol());
+    }
+
+    @Benchmark
+    public boolean update() {
+        return store.update(nextSymbol(), 101.0, ++tick);
+    }
+
+    private String nextSymbol() {
+        int index = next++;
+        if (next == symbols) {
+            next = 0;
+        }
+        return symbolNames[index];
+    }
+}
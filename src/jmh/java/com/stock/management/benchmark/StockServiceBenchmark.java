@@ -0,0 +1,170 @@
+package com.stock.management.benchmark;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.data.jpa.model.StockDetails;
+import com.stock.management.dto.StockDTO;
+import com.stock.management.dto.StockHistoryDTO;
+import com.stock.management.dto.UserStockDTO;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.service.StockHistoryService;
+import com.stock.management.service.StockManagementService;
+
+/**
+ * Average time of the StockManagementService and StockHistoryService hot paths for a user with a
+ * synthetic ledger of {@code ledgerRows} rows over 20 symbols, on H2, with quotes served by a
+ * stub that waits {@code quoteLatencyMicros} per lookup.
+ * <p>
+ * Each trial starts the application in its own fork. The trade benchmarks add to the ledger as
+ * they run, so its size grows slightly during a trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StockServiceBenchmark {
+
+    private static final String USER_ID = "jmh";
+    private static final int SYMBOLS = 20;
+    private static final int SEED_CHUNK = 250_000;
+    private static final StockDTO TRADE = new StockDTO("SYM1", 1);
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int ledgerRows;
+
+    @Param({"0"})
+    private long quoteLatencyMicros;
+
+    private ConfigurableApplicationContext context;
+    private StockManagementService stockManagementService;
+    private StockHistoryService stockHistoryService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(StockManagementApplication.class)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new StubQuotes(quoteLatencyMicros)))
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;DATABASE_TO_UPPER=false",
+                        "--logging.level.root=warn",
+                        "--logging.level.org.springframework.security=warn",
+                        "--logging.level.com.stock.management=warn");
+        stockManagementService = context.getBean(StockManagementService.class);
+        stockHistoryService = context.getBean(StockHistoryService.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public StockDetails addOrUpdateStock() {
+        return stockManagementService.addOrUpdateStock(USER_ID, TRADE);
+    }
+
+    @Benchmark
+    public void removeStock() {
+        stockManagementService.removeStock(USER_ID, TRADE);
+    }
+
+    @Benchmark
+    public List<UserStockDTO> getStocksByUser() {
+        return stockManagementService.getStocksByUser(USER_ID);
+    }
+
+    @Benchmark
+    public double calculatePortfolioValue() {
+        return stockManagementService.calculatePortfolioValue(USER_ID);
+    }
+
+    @Benchmark
+    public List<StockHistoryDTO> getStockHistory() {
+        return stockHistoryService.getStockHistory(USER_ID);
+    }
+
+    /**
+     * Seeds the ledger with the last row of each symbol active, and holdings large enough that
+     * removeStock never runs out of stocks.
+     */
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO user_details (user_id, username, password, email) VALUES (?, ?, 'not-used', ?)",
+                USER_ID, USER_ID, USER_ID + "@example.com");
+        for (int from = 1; from <= ledgerRows; from += SEED_CHUNK) {
+            jdbcTemplate.update("INSERT INTO stock_details (user_id, symbol, existing_stock_quantity, new_stock_quantity, "
+                    + "removed_stock_quantity, total_stock_quantity, purchase_date, price, is_expired, expired_date) "
+                    + "SELECT ?, 'SYM' || MOD(X, ?), 0, 1, 0, 1, DATEADD('DAY', -MOD(X, 3650), CURRENT_DATE), 100.0, "
+                    + "X <= ?, CASE WHEN X <= ? THEN CURRENT_DATE END FROM SYSTEM_RANGE(?, ?)",
+                    USER_ID, SYMBOLS, ledgerRows - SYMBOLS, ledgerRows - SYMBOLS, from,
+                    Math.min(from + SEED_CHUNK - 1, ledgerRows));
+        }
+        jdbcTemplate.update("INSERT INTO stock_holding (user_id, symbol, quantity, average_cost) "
+                + "SELECT ?, 'SYM' || (X - 1), 1000000, 100.0 FROM SYSTEM_RANGE(1, ?)", USER_ID, SYMBOLS);
+    }
+
+    /**
+     * Replaces the cached quote lookup with a fixed price after the configured latency, so the
+     * benchmarks measure the services rather than the upstream or the cache.
+     */
+    private static final class StubQuotes implements BeanPostProcessor {
+
+        private final long latencyMicros;
+
+        private StubQuotes(long latencyMicros) {
+            this.latencyMicros = latencyMicros;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"cachingStockFetchingStrategy".equals(beanName)) {
+                return bean;
+            }
+            return new StockFetchingStrategy() {
+                @Override
+                public Double getStockPrice(String symbol) {
+                    if (latencyMicros > 0) {
+                        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+                    }
+                    return 100.0;
+                }
+
+                @Override
+                public Map<String, Double> getStockPrices(Collection<String> symbols) {
+                    if (latencyMicros > 0) {
+                        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+                    }
+                    Map<String, Double> prices = new LinkedHashMap<>();
+                    symbols.forEach(symbol -> prices.put(symbol, 100.0));
+                    return prices;
+                }
+            };
+        }
+    }
+}
@@ -2,9 +2,12 @@ package com.stock.management;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.web.client.RestTemplate;
 
+import com.stock.management.external.config.AlphaVantageProperties;
+
 @SpringBootApplication
 public class StockManagementApplication {
 
@@ -12,9 +15,16 @@ public class StockManagementApplication {
 		SpringApplication.run(StockManagementApplication.class, args);
 	}
 	
+	/**
+	 * Quote requests give up after the Alpha Vantage connect and response timeouts instead of
+	 * blocking for the socket defaults.
+	 */
 	@Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder, AlphaVantageProperties alphaVantageProperties) {
+        return restTemplateBuilder
+                .setConnectTimeout(alphaVantageProperties.getConnectTimeout())
+                .setReadTimeout(alphaVantageProperties.getResponseTimeout())
+                .build();
     }
 
 }
@@ -0,0 +1,136 @@
+package com.stock.management.aspect;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.stock.management.external.service.StockFetchingStrategy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records the latency of every public controller, service and quote strategy method in the
+ * {@value #METRIC_NAME} timer, tagged with the layer, class, method, outcome and exception, and
+ * published with percentile histogram buckets.
+ * <p>
+ * Nothing is logged for calls within {@code stock.metrics.methods.slow-call-threshold}; slower
+ * calls are logged at WARN, sampled with {@code stock.metrics.methods.slow-call-log-sample-rate}.
+ */
+@Aspect
+@Component
+@EnableConfigurationProperties(MethodMetricsProperties.class)
+public class MethodMetricsAspect {
+
+    public static final String METRIC_NAME = "stock.method";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodMetricsAspect.class);
+
+    private final MeterRegistry meterRegistry;
+    private final MethodMetricsProperties properties;
+    private final long slowCallThresholdNanos;
+    private final Map<TimerKey, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public MethodMetricsAspect(MeterRegistry meterRegistry, MethodMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.slowCallThresholdNanos = properties.getSlowCallThreshold().toNanos();
+    }
+
+    @Around("execution(public * *(..)) && ("
+            + "within(com.stock.management.controller..*) "
+            + "|| within(com.stock.management.service..*) "
+            + "|| within(com.stock.management.external.service.StockFetchingStrategy+))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            MethodTimers methodTimers = timers.computeIfAbsent(
+                    new TimerKey(joinPoint.getTarget().getClass(), ((MethodSignature) joinPoint.getSignature()).getMethod()),
+                    this::createTimers);
+            methodTimers.timer(failure).record(elapsed, TimeUnit.NANOSECONDS);
+
+            if (elapsed > slowCallThresholdNanos && sampled()) {
+                LOGGER.warn("Slow call: {}.{} took {} ms ({})", methodTimers.className, methodTimers.methodName,
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), failure == null ? "success" : failure.getClass().getSimpleName());
+            }
+        }
+    }
+
+    private boolean sampled() {
+        double rate = properties.getSlowCallLogSampleRate();
+        return rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private MethodTimers createTimers(TimerKey key) {
+        return new MethodTimers(key.targetClass().getSimpleName(), key.method().getName(), layerOf(key.targetClass()));
+    }
+
+    private static String layerOf(Class<?> targetClass) {
+        if (StockFetchingStrategy.class.isAssignableFrom(targetClass)) {
+            return "strategy";
+        }
+        return targetClass.getPackageName().startsWith("com.stock.management.controller") ? "controller" : "service";
+    }
+
+    private record TimerKey(Class<?> targetClass, Method method) {
+    }
+
+    /**
+     * The timers of one method: the success timer, created up front, and one timer per exception
+     * type, created on its first failure.
+     */
+    private final class MethodTimers {
+
+        private final String className;
+        private final String methodName;
+        private final String layer;
+        private final Timer success;
+        private final Map<Class<?>, Timer> failures = new ConcurrentHashMap<>();
+
+        private MethodTimers(String className, String methodName, String layer) {
+            this.className = className;
+            this.methodName = methodName;
+            this.layer = layer;
+            this.success = register("success", "none");
+        }
+
+        private Timer timer(Throwable failure) {
+            if (failure == null) {
+                return success;
+            }
+            return failures.computeIfAbsent(failure.getClass(), type -> register("error", type.getSimpleName()));
+        }
+
+        private Timer register(String outcome, String exception) {
+            return Timer.builder(METRIC_NAME)
+                    .description("Latency of controller, service and quote strategy calls")
+                    .tag("layer", layer)
+                    .tag("class", className)
+                    .tag("method", methodName)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram(properties.isPercentileHistogram())
+                    .minimumExpectedValue(properties.getMinimumExpectedValue())
+                    .maximumExpectedValue(properties.getMaximumExpectedValue())
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.stock.management.aspect;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for the controller, service and quote strategy timers recorded by
+ * {@link MethodMetricsAspect}.
+ */
+@ConfigurationProperties("stock.metrics.methods")
+@Getter
+@Setter
+public class MethodMetricsProperties {
+
+    /**
+     * Whether to publish histogram buckets from which percentiles can be aggregated across instances.
+     */
+    private boolean percentileHistogram = true;
+
+    /**
+     * Lower bound of the histogram buckets.
+     */
+    private Duration minimumExpectedValue = Duration.ofMillis(1);
+
+    /**
+     * Upper bound of the histogram buckets.
+     */
+    private Duration maximumExpectedValue = Duration.ofSeconds(30);
+
+    /**
+     * Calls taking longer than this are logged.
+     */
+    private Duration slowCallThreshold = Duration.ofSeconds(1);
+
+    /**
+     * Fraction of slow calls that are logged, between 0 (none) and 1 (all).
+     */
+    private double slowCallLogSampleRate = 1.0;
+}
@@ -1,10 +1,19 @@
 package com.stock.management.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stock.management.dto.StockHistoryDTO;
+import com.stock.management.dto.StockHistoryPageDTO;
 import com.stock.management.service.StockHistoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -13,10 +22,12 @@ import java.util.List;
 public class StockHistoryController {
 
     private final StockHistoryService stockHistoryService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public StockHistoryController(StockHistoryService stockHistoryService) {
+    public StockHistoryController(StockHistoryService stockHistoryService, ObjectMapper objectMapper) {
         this.stockHistoryService = stockHistoryService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -29,4 +40,49 @@ public class StockHistoryController {
     public List<StockHistoryDTO> getStockHistory(@PathVariable String userId) {
         return stockHistoryService.getStockHistory(userId);
     }
+
+    /**
+     * Fetches one page of the stock history for a user, oldest first.
+     *
+     * @param userId the user ID
+     * @param from   the earliest purchase date to include
+     * @param to     the latest purchase date to include
+     * @param cursor the {@code nextCursor} of the previous page; omitted for the first page
+     * @param size   the maximum number of records in the page
+     * @return the page of stock history records and the cursor of the next page
+     */
+    @GetMapping("/{userId}/page")
+    public StockHistoryPageDTO getStockHistoryPage(@PathVariable String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        return stockHistoryService.getStockHistoryPage(userId, from, to, cursor, size);
+    }
+
+    /**
+     * Streams the stock history for a user, oldest first, as newline-delimited JSON. The date
+     * range is checked before the response is committed, so an invalid range is still answered
+     * with 400.
+     *
+     * @param userId the user ID
+     * @param from   the earliest purchase date to include
+     * @param to     the latest purchase date to include
+     * @return one stock history record per line
+     */
+    @GetMapping(value = "/{userId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStockHistory(@PathVariable String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        StockHistoryService.validateDateRange(from, to);
+        StreamingResponseBody body = out -> stockHistoryService.streamStockHistory(userId, from, to, record -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(record));
+                out.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 }
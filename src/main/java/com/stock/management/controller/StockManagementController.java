@@ -1,8 +1,12 @@
 package com.stock.management.controller;
 
 import java.util.List;
+import java.util.function.Supplier;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,36 +16,77 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.stock.management.data.jpa.model.StockDetails;
 import com.stock.management.dto.StockDTO;
+import com.stock.management.dto.TradeBatchResultDTO;
+import com.stock.management.dto.TradeImportDTO;
+import com.stock.management.dto.TradeRequestDTO;
 import com.stock.management.dto.UserStockDTO;
+import com.stock.management.service.PortfolioValueStreamService;
 import com.stock.management.service.StockManagementService;
+import com.stock.management.tradelog.TradeLogService;
 
 @RestController
 @RequestMapping("/api/users/{userId}/stocks")
 @CrossOrigin("*")
 public class StockManagementController {
     private final StockManagementService stockManagementService;
+    private final PortfolioValueStreamService portfolioValueStreamService;
+    // Only present with stock.trade-log.enabled
+    private final TradeLogService tradeLogService;
 
     @Autowired
-    public StockManagementController(StockManagementService stockManagementService) {
+    public StockManagementController(StockManagementService stockManagementService,
+                                     PortfolioValueStreamService portfolioValueStreamService,
+                                     ObjectProvider<TradeLogService> tradeLogService) {
         this.stockManagementService = stockManagementService;
+        this.portfolioValueStreamService = portfolioValueStreamService;
+        this.tradeLogService = tradeLogService.getIfAvailable();
     }
 
+    /**
+     * Adds stocks at the current price. With the trade log enabled, the trade is accepted once it
+     * is durable in the log and written to the holdings shortly after, hence 202 instead of 204.
+     */
     @PostMapping
     public ResponseEntity<Void> addStock(@PathVariable String userId, @RequestBody StockDTO stockDTO) {
+        if (tradeLogService != null) {
+            tradeLogService.addOrUpdateStock(userId, stockDTO);
+            return ResponseEntity.accepted().build();
+        }
     	stockManagementService.addOrUpdateStock(userId, stockDTO);
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("/removeStock")
     public ResponseEntity<Void> removeStock(@PathVariable String userId,@RequestBody StockDTO stockDTO) {
+        if (tradeLogService != null) {
+            tradeLogService.removeStock(userId, stockDTO);
+            return ResponseEntity.accepted().build();
+        }
         stockManagementService.removeStock(userId, stockDTO);
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<TradeBatchResultDTO> applyTrades(@PathVariable String userId,
+            @RequestBody List<TradeRequestDTO> trades, @RequestParam(defaultValue = "false") boolean atomic) {
+        TradeBatchResultDTO result = writeDirectly(userId,
+                () -> stockManagementService.applyTrades(userId, trades, atomic));
+        // An atomic batch with a rejected trade wrote nothing
+        HttpStatus status = atomic && result.rejected() > 0 ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.OK;
+        return ResponseEntity.status(status).body(result);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<Integer> importTrades(@PathVariable String userId, @RequestBody List<TradeImportDTO> trades) {
+        return ResponseEntity.ok(writeDirectly(userId, () -> stockManagementService.importTrades(userId, trades)));
+    }
+
     @GetMapping
     public ResponseEntity<List<UserStockDTO>> getAllStocks(@PathVariable String userId) {
         return ResponseEntity.ok(stockManagementService.getStocksByUser(userId));
@@ -51,4 +96,17 @@ public class StockManagementController {
     public ResponseEntity<Double> getPortfolioValue(@PathVariable String userId) {
         return ResponseEntity.ok(stockManagementService.calculatePortfolioValue(userId));
     }
+
+    @GetMapping(value = "/portfolio/value/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPortfolioValue(@PathVariable String userId) {
+        return portfolioValueStreamService.subscribe(userId);
+    }
+
+    /**
+     * Writes the holdings directly, in order with the user's logged trades when the trade log is
+     * enabled, so no logged trade is checked against holdings this write changes.
+     */
+    private <T> T writeDirectly(String userId, Supplier<T> write) {
+        return tradeLogService != null ? tradeLogService.writeDirectly(userId, write) : write.get();
+    }
 }
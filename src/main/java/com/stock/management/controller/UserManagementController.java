@@ -16,7 +16,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.stock.management.data.jpa.model.UserInfo;
+import com.stock.management.dto.AccessTokenDTO;
 import com.stock.management.dto.UserDTO;
+import com.stock.management.security.AccessTokenService;
 import com.stock.management.service.UserRegistrationService;
 
 import jakarta.validation.Valid;
@@ -29,13 +31,17 @@ public class UserManagementController {
 	private final UserRegistrationService userRegistrationService;
 	
     private AuthenticationManager authenticationManager;
+
+    private final AccessTokenService accessTokenService;
 	
 	 private static final Logger LOGGER = LoggerFactory.getLogger(UserManagementController.class);
 
     @Autowired
-    public UserManagementController(UserRegistrationService userRegistrationService, AuthenticationManager authenticationManager) {
+    public UserManagementController(UserRegistrationService userRegistrationService, AuthenticationManager authenticationManager,
+                                    AccessTokenService accessTokenService) {
         this.userRegistrationService = userRegistrationService;
         this.authenticationManager = authenticationManager;
+        this.accessTokenService = accessTokenService;
     }
 
     @PostMapping(("/addUser"))
@@ -44,13 +50,17 @@ public class UserManagementController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
     }
     
+    /**
+     * Checks the user's password and issues an access token, to be sent as
+     * {@code Authorization: Bearer <token>} until it expires.
+     */
     @PostMapping(("/login"))
-    public ResponseEntity<Void> login(@Valid @RequestBody UserDTO userDTO) {
+    public ResponseEntity<AccessTokenDTO> login(@Valid @RequestBody UserDTO userDTO) {
     	LOGGER.debug("User Login for  {}", userDTO.userId());
              // Authenticate the user
              authenticationManager.authenticate(
                  new UsernamePasswordAuthenticationToken(userDTO.userId(), userDTO.password()));
-             return ResponseEntity.noContent().build();
+             return ResponseEntity.ok(accessTokenService.issue(userDTO.userId()));
          
     }
 	    
@@ -0,0 +1,8 @@
+package com.stock.management.data.jpa.model;
+
+/**
+ * The quantity of a symbol a user holds, read without loading the StockHolding entity into the
+ * persistence context.
+ */
+public record HoldingQuantity(String symbol, int quantity) {
+}
@@ -0,0 +1,8 @@
+package com.stock.management.data.jpa.model;
+
+/**
+ * The part of a ledger entry that changes a position, read without loading the StockDetails
+ * entity into the persistence context.
+ */
+public record JournalEntry(long id, String symbol, int newStockQuantity, int removedStockQuantity, double price) {
+}
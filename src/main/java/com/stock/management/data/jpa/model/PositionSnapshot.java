@@ -0,0 +1,44 @@
+package com.stock.management.data.jpa.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * The positions of a user as of one {@link StockDetails} ledger entry. The user's current
+ * positions are these positions with the ledger entries after {@code lastEntryId} applied.
+ */
+@Entity
+@Table(name = "position_snapshot")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class PositionSnapshot {
+
+	@Id
+	@Column(name = "user_id", nullable = false)
+	private String userId;
+
+	@Column(nullable = false)
+	private long lastEntryId;
+
+	@ElementCollection
+	@CollectionTable(name = "position_snapshot_holding", joinColumns = @JoinColumn(name = "user_id"))
+	private List<SnapshotPosition> positions = new ArrayList<>();
+
+	public PositionSnapshot(String userId) {
+		this.userId = userId;
+	}
+}
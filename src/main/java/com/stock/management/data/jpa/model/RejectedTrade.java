@@ -0,0 +1,51 @@
+package com.stock.management.data.jpa.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A trade of a local trade log that was acknowledged, but that the holdings no longer allowed
+ * when it was written to the {@link StockDetails} ledger. Kept for a manual correction.
+ */
+@Entity
+@Table(name = "trade_log_rejected_trade")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class RejectedTrade {
+
+	@Id
+	@Column(nullable = false)
+	private long logSequence;
+
+	@Column(nullable = false)
+	private String userId;
+
+	@Column(nullable = false)
+	private String symbol;
+
+	@Column(nullable = false)
+	private int quantity;
+
+	@Column(nullable = false)
+	private double price;
+
+	@Column(nullable = false)
+	private boolean removal;
+
+	@Column(nullable = false)
+	private LocalDate tradeDate;
+
+	private String reason;
+}
@@ -0,0 +1,30 @@
+package com.stock.management.data.jpa.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A position of a user in one symbol as recorded in a {@link PositionSnapshot}.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class SnapshotPosition {
+
+	@Column(nullable = false)
+	private String symbol;
+
+	@Column(nullable = false)
+	private int quantity;
+
+	@Column(nullable = false)
+	private double averageCost;
+}
@@ -8,8 +8,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
@@ -17,6 +20,9 @@ import lombok.AllArgsConstructor;
 import lombok.ToString;
 
 @Entity
+@Table(name = "stock_details", indexes = {
+		@Index(name = "idx_stock_details_user_id", columnList = "user_id, id"),
+		@Index(name = "idx_stock_details_user_purchase_date", columnList = "user_id, purchase_date") })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,8 +30,10 @@ import lombok.ToString;
 @ToString
 public class StockDetails {
 
+	// Sequence ids (pooled, 50 per round trip) let Hibernate batch inserts; IDENTITY cannot be batched
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_details_seq")
+	@SequenceGenerator(name = "stock_details_seq", sequenceName = "stock_details_seq", allocationSize = 50)
 	private Long id;
 
 	@Column(nullable = false)
@@ -49,6 +57,7 @@ public class StockDetails {
 	@Column(nullable = false)
 	private double price;
 
+	// Set when the entry closes the position; entries are never updated once written
 	@Column(nullable = false)
 	private boolean isExpired;
 
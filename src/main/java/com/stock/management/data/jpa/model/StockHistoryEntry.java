@@ -0,0 +1,11 @@
+package com.stock.management.data.jpa.model;
+
+import java.time.LocalDate;
+
+/**
+ * The columns of a StockDetails row that make up its history entry, read without loading the
+ * entity into the persistence context.
+ */
+public record StockHistoryEntry(Long id, String symbol, LocalDate purchaseDate, int newStockQuantity,
+		int removedStockQuantity) {
+}
@@ -0,0 +1,76 @@
+package com.stock.management.data.jpa.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Current position of a user in one symbol, kept up to date alongside every {@link StockDetails}
+ * ledger entry so current positions can be read without scanning the ledger.
+ */
+@Entity
+@Table(name = "stock_holding")
+@IdClass(StockHoldingId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class StockHolding {
+
+	@Id
+	@Column(name = "user_id", nullable = false)
+	private String userId;
+
+	@Id
+	@Column(nullable = false)
+	private String symbol;
+
+	@Column(nullable = false)
+	private int quantity;
+
+	@Column(nullable = false)
+	private double averageCost;
+
+	public StockHolding(String userId, String symbol) {
+		this.userId = userId;
+		this.symbol = symbol;
+	}
+
+	/**
+	 * Adds bought stocks to the position and folds their price into the average cost.
+	 *
+	 * @throws IllegalArgumentException if the bought quantity isn't positive
+	 */
+	public void addShares(int boughtQuantity, double price) {
+		if (boughtQuantity <= 0) {
+			throw new IllegalArgumentException("Quantity must be positive.");
+		}
+		averageCost = (averageCost * quantity + price * boughtQuantity) / (quantity + boughtQuantity);
+		quantity += boughtQuantity;
+	}
+
+	/**
+	 * Takes sold stocks off the position; the average cost of the remaining stocks is unchanged.
+	 *
+	 * @throws IllegalArgumentException if the sold quantity isn't positive
+	 */
+	public void removeShares(int soldQuantity) {
+		if (soldQuantity <= 0) {
+			throw new IllegalArgumentException("Quantity must be positive.");
+		}
+		quantity -= soldQuantity;
+	}
+
+	// Helper method for total cost of the position
+	public double getTotalCost() {
+		return quantity * averageCost;
+	}
+}
@@ -0,0 +1,25 @@
+package com.stock.management.data.jpa.model;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Primary key of {@link StockHolding}: one holding per user and symbol.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class StockHoldingId implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private String userId;
+
+	private String symbol;
+}
@@ -0,0 +1,32 @@
+package com.stock.management.data.jpa.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * How far a local trade log has been written to the {@link StockDetails} ledger: every logged
+ * trade up to {@code appliedSequence} has been applied.
+ */
+@Entity
+@Table(name = "trade_log_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class TradeLogCheckpoint {
+
+	@Id
+	@Column(nullable = false, length = 64)
+	private String name;
+
+	@Column(nullable = false)
+	private long appliedSequence;
+}
@@ -0,0 +1,16 @@
+package com.stock.management.data.jpa.repository;
+
+import java.util.List;
+
+import com.stock.management.data.jpa.model.StockDetails;
+
+public interface StockDetailsBatchRepository {
+
+	/**
+	 * Inserts new ledger rows in JDBC batches, clearing the persistence context after each batch
+	 * so large imports don't accumulate managed entities.
+	 *
+	 * @param stocks the new rows, none of which may be persisted yet
+	 */
+	void insertAll(List<StockDetails> stocks);
+}
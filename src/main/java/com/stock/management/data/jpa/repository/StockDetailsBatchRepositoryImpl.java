@@ -0,0 +1,34 @@
+package com.stock.management.data.jpa.repository;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.stock.management.data.jpa.model.StockDetails;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class StockDetailsBatchRepositoryImpl implements StockDetailsBatchRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+	private int batchSize;
+
+	@Override
+	@Transactional
+	public void insertAll(List<StockDetails> stocks) {
+		for (int i = 0; i < stocks.size(); i++) {
+			entityManager.persist(stocks.get(i));
+			if ((i + 1) % batchSize == 0) {
+				entityManager.flush();
+				entityManager.clear();
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+}
@@ -0,0 +1,28 @@
+package com.stock.management.data.jpa.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.stock.management.data.jpa.model.HoldingQuantity;
+import com.stock.management.data.jpa.model.StockHolding;
+import com.stock.management.data.jpa.model.StockHoldingId;
+
+@Repository
+public interface StockHoldingRepository extends JpaRepository<StockHolding, StockHoldingId> {
+
+	List<StockHolding> findByUserIdOrderBySymbol(String userId);
+
+	@Transactional(readOnly = true)
+	List<HoldingQuantity> findQuantitiesByUserIdOrderBySymbol(String userId);
+
+	/**
+	 * Reads the symbols held by at least one user.
+	 */
+	@Transactional(readOnly = true)
+	@Query("SELECT DISTINCT h.symbol FROM StockHolding h WHERE h.quantity > 0")
+	List<String> findHeldSymbols();
+}
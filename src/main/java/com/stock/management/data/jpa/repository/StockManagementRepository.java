@@ -3,29 +3,75 @@ package com.stock.management.data.jpa.repository;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.stock.management.data.jpa.model.JournalEntry;
 import com.stock.management.data.jpa.model.StockDetails;
-import com.stock.management.data.jpa.model.UserInfo;
+import com.stock.management.data.jpa.model.StockHistoryEntry;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface StockManagementRepository extends JpaRepository<StockDetails, Long> {
+public interface StockManagementRepository extends JpaRepository<StockDetails, Long>, StockDetailsBatchRepository {
 
 	 List<StockDetails> findByUserInfoUserId(String userId);
 
-	List<StockDetails> findByUserInfoAndSymbolAndIsExpiredFalse(UserInfo userInfo, String symbol);
-	
-	List<StockDetails> findByUserInfoUserIdAndIsExpiredFalse(String userId);
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.stock.management.data.jpa.model.StockHistoryEntry(s.id, s.symbol, s.purchaseDate, " +
+           "s.newStockQuantity, s.removedStockQuantity) FROM StockDetails s " +
+           "WHERE s.userInfo.userId = :userId ORDER BY s.purchaseDate, s.id")
+    List<StockHistoryEntry> findHistoryByUserId(@Param("userId") String userId);
+
+    /**
+     * Reads the next entries of a user's history in (purchaseDate, id) order, starting after the
+     * given entry. Served by the (user_id, purchase_date) index, so the cost of a page does not
+     * grow with its position in the history.
+     */
+    @Query("SELECT new com.stock.management.data.jpa.model.StockHistoryEntry(s.id, s.symbol, s.purchaseDate, " +
+           "s.newStockQuantity, s.removedStockQuantity) FROM StockDetails s " +
+           "WHERE s.userInfo.userId = :userId AND s.purchaseDate BETWEEN :from AND :to " +
+           "AND (s.purchaseDate > :afterDate OR (s.purchaseDate = :afterDate AND s.id > :afterId)) " +
+           "ORDER BY s.purchaseDate, s.id")
+    List<StockHistoryEntry> findHistoryPage(@Param("userId") String userId,
+                                            @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to,
+                                            @Param("afterDate") LocalDate afterDate,
+                                            @Param("afterId") long afterId,
+                                            Pageable pageable);
+
+    /**
+     * Streams a user's history in (purchaseDate, id) order. Must be consumed, and closed, inside
+     * a transaction; rows are fetched from the database in chunks of the fetch size.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.stock.management.data.jpa.model.StockHistoryEntry(s.id, s.symbol, s.purchaseDate, " +
+           "s.newStockQuantity, s.removedStockQuantity) FROM StockDetails s " +
+           "WHERE s.userInfo.userId = :userId AND s.purchaseDate BETWEEN :from AND :to " +
+           "ORDER BY s.purchaseDate, s.id")
+    Stream<StockHistoryEntry> streamHistory(@Param("userId") String userId,
+                                            @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to);
+
+    /**
+     * Reads a user's ledger entries after the given one, in the order they were written. Served
+     * by the (user_id, id) index, so the cost depends on the number of entries read, not on the
+     * length of the history.
+     */
+    @Query("SELECT new com.stock.management.data.jpa.model.JournalEntry(s.id, s.symbol, s.newStockQuantity, " +
+           "s.removedStockQuantity, s.price) FROM StockDetails s " +
+           "WHERE s.userInfo.userId = :userId AND s.id > :afterId ORDER BY s.id")
+    List<JournalEntry> findJournalTail(@Param("userId") String userId, @Param("afterId") long afterId);
 
-    @Modifying
-    @Query("UPDATE StockDetails s SET s.isExpired = true, s.expiredDate = :expiredDate " +
-           "WHERE s.userInfo.userId = :userId AND s.symbol = :symbol AND s.isExpired = false")
-    int expireActiveStocks(@Param("userId") String userId,
-                           @Param("symbol") String symbol,
-                           @Param("expiredDate") LocalDate expiredDate);	
+    @Transactional(readOnly = true)
+    @Query("SELECT COUNT(s) FROM StockDetails s WHERE s.userInfo.userId = :userId AND s.id > :afterId")
+    long countJournalTail(@Param("userId") String userId, @Param("afterId") long afterId);
 }
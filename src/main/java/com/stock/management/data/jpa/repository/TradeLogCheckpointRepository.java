@@ -0,0 +1,10 @@
+package com.stock.management.data.jpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.stock.management.data.jpa.model.TradeLogCheckpoint;
+
+@Repository
+public interface TradeLogCheckpointRepository extends JpaRepository<TradeLogCheckpoint, String> {
+}
@@ -1,12 +1,38 @@
 package com.stock.management.data.jpa.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.stock.management.data.jpa.model.UserInfo;
 
+import jakarta.persistence.LockModeType;
+
 public interface UserSecurityRepository extends JpaRepository<UserInfo, String> {
     Optional<UserInfo> findByUserId(String userId);
-}
 
+    @Query("SELECT u.userId FROM UserInfo u ORDER BY u.userId")
+    List<String> findAllUserIds();
+
+    /**
+     * Loads the user and takes a write lock on its row until the current transaction ends,
+     * so trades of the same user are applied one after another.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM UserInfo u WHERE u.userId = :userId")
+    Optional<UserInfo> findByUserIdForUpdate(@Param("userId") String userId);
+
+    /**
+     * Replaces the stored password hash of the user, without loading the user first.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserInfo u SET u.password = :password WHERE u.userId = :userId")
+    int updatePassword(@Param("userId") String userId, @Param("password") String password);
+}
@@ -0,0 +1,13 @@
+package com.stock.management.dto;
+
+/**
+ * An access token issued at login, sent back as {@code Authorization: Bearer <accessToken>}.
+ *
+ * @param accessToken the signed token
+ * @param tokenType   always {@code Bearer}
+ * @param expiresIn   seconds until the token expires
+ */
+public record AccessTokenDTO(String accessToken, String tokenType, long expiresIn) {
+
+	public static final String BEARER = "Bearer";
+}
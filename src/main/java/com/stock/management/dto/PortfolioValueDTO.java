@@ -0,0 +1,6 @@
+package com.stock.management.dto;
+
+import java.time.Instant;
+
+public record PortfolioValueDTO(String userId, double value, Instant asOf) {
+}
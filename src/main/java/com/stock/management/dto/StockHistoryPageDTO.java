@@ -0,0 +1,7 @@
+package com.stock.management.dto;
+
+import java.util.List;
+
+public record StockHistoryPageDTO(List<StockHistoryDTO> items, String nextCursor // null on the last page
+) {
+}
@@ -0,0 +1,6 @@
+package com.stock.management.dto;
+
+import java.util.List;
+
+public record TradeBatchResultDTO(boolean atomic, int applied, int rejected, List<TradeResultDTO> results) {
+}
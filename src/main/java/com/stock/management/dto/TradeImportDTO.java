@@ -0,0 +1,8 @@
+package com.stock.management.dto;
+
+import java.time.LocalDate;
+
+public record TradeImportDTO(String symbol, int quantity, double price, LocalDate tradeDate,
+		String action // "Added" or "Removed"
+) {
+}
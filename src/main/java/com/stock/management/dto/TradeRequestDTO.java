@@ -0,0 +1,5 @@
+package com.stock.management.dto;
+
+public record TradeRequestDTO(String symbol, int quantity, String action // "Added" or "Removed"
+) {
+}
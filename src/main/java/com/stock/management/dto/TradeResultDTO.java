@@ -0,0 +1,10 @@
+package com.stock.management.dto;
+
+public record TradeResultDTO(String symbol, String action, int quantity, String status, Double price,
+		Integer totalQuantity, String error) {
+
+	public static final String APPLIED = "Applied";
+	public static final String REJECTED = "Rejected";
+	// Valid, but not written because another trade of an atomic batch was rejected
+	public static final String NOT_APPLIED = "NotApplied";
+}
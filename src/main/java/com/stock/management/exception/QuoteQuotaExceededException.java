@@ -0,0 +1,11 @@
+package com.stock.management.exception;
+
+/**
+ * The upstream quote API quota doesn't allow another request in time. The provider itself is
+ * healthy, so the request is not worth retrying.
+ */
+public class QuoteQuotaExceededException extends StockPriceUnavailableException {
+    public QuoteQuotaExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.stock.management.exception;
+
+/**
+ * Thrown when a bounded resource is saturated and the request is shed instead of queued.
+ */
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.stock.management.exception;
+
+public class StockPriceUnavailableException extends RuntimeException {
+    public StockPriceUnavailableException(String message) {
+        super(message);
+    }
+
+    public StockPriceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,57 @@
+package com.stock.management.external.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Connection settings for the Alpha Vantage quote API.
+ */
+@ConfigurationProperties("stock.quote.alphavantage")
+@Getter
+@Setter
+public class AlphaVantageProperties {
+
+    /**
+     * Base URL of the Alpha Vantage API.
+     */
+    private String baseUrl = "https://www.alphavantage.co";
+
+    /**
+     * API key sent with every quote request.
+     */
+    private String apiKey = "demo";
+
+    /**
+     * Maximum time to establish a connection.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Maximum time to wait for a quote response, per call.
+     */
+    private Duration responseTimeout = Duration.ofSeconds(3);
+
+    /**
+     * Maximum number of pooled keep-alive connections used by the web-client provider.
+     */
+    private int maxConnections = 50;
+
+    /**
+     * Time after which an idle pooled connection is closed.
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /**
+     * Builds the GLOBAL_QUOTE request path and query for the given symbol.
+     *
+     * @param symbol the stock symbol
+     * @return the path and query, relative to {@link #getBaseUrl()}
+     */
+    public String globalQuotePath(String symbol) {
+        return "/query?function=GLOBAL_QUOTE&symbol=" + symbol + "&apikey=" + apiKey;
+    }
+}
@@ -0,0 +1,51 @@
+package com.stock.management.external.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.stock.management.external.marketdata.FileReplayQuoteFeed;
+import com.stock.management.external.marketdata.MarketDataStore;
+import com.stock.management.external.marketdata.QuoteFeed;
+import com.stock.management.external.marketdata.QuoteFeedRunner;
+import com.stock.management.external.service.impl.MarketDataStockFetchingStrategy;
+
+/**
+ * Serves quotes from pushed market data instead of asking the upstream API on every lookup,
+ * when {@code stock.quote.provider} is {@code market-data}.
+ * <p>
+ * Every {@link QuoteFeed} bean writes into the {@link MarketDataStore}; a recorded tick file is
+ * replayed when {@code stock.quote.market-data.replay.file} is set.
+ */
+@Configuration
+@ConditionalOnProperty(name = "stock.quote.provider", havingValue = "market-data")
+@EnableConfigurationProperties(MarketDataProperties.class)
+public class MarketDataConfig {
+
+    @Bean
+    public MarketDataStore marketDataStore(MarketDataProperties marketDataProperties) {
+        return new MarketDataStore(marketDataProperties.getMaxSymbols());
+    }
+
+    @Bean
+    @Primary
+    public MarketDataStockFetchingStrategy marketDataStockFetchingStrategy(MarketDataStore marketDataStore,
+                                                                           MarketDataProperties marketDataProperties) {
+        return new MarketDataStockFetchingStrategy(marketDataStore, marketDataProperties.getMaxAge());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty("stock.quote.market-data.replay.file")
+    public FileReplayQuoteFeed fileReplayQuoteFeed(MarketDataProperties marketDataProperties) {
+        MarketDataProperties.Replay replay = marketDataProperties.getReplay();
+        return new FileReplayQuoteFeed(replay.getFile(), replay.getSpeed(), replay.isLoop());
+    }
+
+    @Bean
+    public QuoteFeedRunner quoteFeedRunner(ObjectProvider<QuoteFeed> quoteFeeds, MarketDataStore marketDataStore) {
+        return new QuoteFeedRunner(quoteFeeds.orderedStream().toList(), marketDataStore);
+    }
+}
@@ -0,0 +1,54 @@
+package com.stock.management.external.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for the pushed market data used by the {@code market-data} quote provider.
+ */
+@ConfigurationProperties("stock.quote.market-data")
+@Getter
+@Setter
+public class MarketDataProperties {
+
+    /**
+     * Maximum number of symbols held in the market data store.
+     */
+    private int maxSymbols = 10_000;
+
+    /**
+     * Age after which a quote is no longer served. Zero serves quotes of any age.
+     */
+    private Duration maxAge = Duration.ofMinutes(5);
+
+    /**
+     * Recorded tick file replayed as a quote feed.
+     */
+    private final Replay replay = new Replay();
+
+    @Getter
+    @Setter
+    public static class Replay {
+
+        /**
+         * Tick file to replay, with one {@code timestamp,symbol,price} line per tick. No file is
+         * replayed when unset.
+         */
+        private Resource file;
+
+        /**
+         * Replay speed relative to the recorded tick spacing. Zero replays without delays.
+         */
+        private double speed = 1.0;
+
+        /**
+         * Whether to start over at the end of the file.
+         */
+        private boolean loop = false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.stock.management.external.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for the stock quote cache.
+ */
+@ConfigurationProperties("stock.quote.cache")
+@Getter
+@Setter
+public class QuoteCacheProperties {
+
+    /**
+     * Maximum number of symbols kept in the cache.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a quote stays valid when no symbol specific TTL is configured.
+     */
+    private Duration defaultTtl = Duration.ofSeconds(60);
+
+    /**
+     * Age after which a quote that is still being read is reloaded in the background.
+     */
+    private Duration refreshAfter = Duration.ofSeconds(45);
+
+    /**
+     * Symbol specific TTL overrides, keyed by symbol.
+     */
+    private Map<String, Duration> ttl = new HashMap<>();
+
+    /**
+     * Resolves the TTL for the given symbol.
+     *
+     * @param symbol the stock symbol
+     * @return the symbol specific TTL, or the default TTL when none is configured
+     */
+    public Duration ttlFor(String symbol) {
+        for (Map.Entry<String, Duration> entry : ttl.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(symbol)) {
+                return entry.getValue();
+            }
+        }
+        return defaultTtl;
+    }
+}
@@ -0,0 +1,55 @@
+package com.stock.management.external.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for hedging upstream quote lookups with a second provider.
+ */
+@ConfigurationProperties("stock.quote.hedging")
+@Getter
+@Setter
+public class QuoteHedgingProperties {
+
+    /**
+     * Local price file, with one {@code symbol,price} line per symbol, used as the hedge provider.
+     * Lookups are not hedged when unset.
+     */
+    private Resource file;
+
+    /**
+     * Latency percentile of a provider after which the lookup is also sent to the next provider.
+     */
+    private double hedgePercentile = 95;
+
+    /**
+     * Hedge delay used until enough latencies of a provider have been recorded.
+     */
+    private Duration initialHedgeDelay = Duration.ofMillis(500);
+
+    /**
+     * Shortest hedge delay, however fast a provider has been.
+     */
+    private Duration minimumHedgeDelay = Duration.ofMillis(5);
+
+    /**
+     * Number of most recent latencies per provider the percentiles are computed over.
+     */
+    private int latencyWindowSize = 256;
+
+    /**
+     * Number of latencies of a provider needed before its percentiles are used.
+     */
+    private int minimumSamples = 20;
+
+    /**
+     * Maximum number of provider lookups running at once; as many more wait for a thread, and
+     * further lookups fail.
+     */
+    private int maxConcurrentLookups = 32;
+}
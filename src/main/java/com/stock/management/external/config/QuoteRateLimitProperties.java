@@ -0,0 +1,48 @@
+package com.stock.management.external.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Client side quota for upstream quote requests.
+ */
+@ConfigurationProperties("stock.quote.rate-limit")
+@Getter
+@Setter
+public class QuoteRateLimitProperties {
+
+    /**
+     * Maximum number of upstream requests per minute. Zero or less disables the limit.
+     */
+    private int requestsPerMinute = 75;
+
+    /**
+     * Maximum number of upstream requests per day. Zero or less disables the limit.
+     */
+    private int requestsPerDay = 0;
+
+    /**
+     * Maximum number of upstream requests sent at once after an idle period. The rest of the
+     * per-minute quota is spread evenly over the minute; the daily quota can be used at any pace.
+     */
+    private int burst = 10;
+
+    /**
+     * Maximum number of distinct symbols waiting for a request.
+     */
+    private int maxQueueSize = 1_000;
+
+    /**
+     * Maximum time a lookup waits for its request before it fails.
+     */
+    private Duration maxWait = Duration.ofSeconds(5);
+
+    /**
+     * Half-life of a symbol's demand score; symbols in higher demand are requested first.
+     */
+    private Duration hotSymbolHalfLife = Duration.ofMinutes(1);
+}
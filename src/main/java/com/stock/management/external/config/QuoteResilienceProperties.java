@@ -0,0 +1,118 @@
+package com.stock.management.external.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for the circuit breaker, bulkhead, retries and stale price fallback around the
+ * upstream quote provider.
+ */
+@ConfigurationProperties("stock.quote.resilience")
+@Getter
+@Setter
+public class QuoteResilienceProperties {
+
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private final Bulkhead bulkhead = new Bulkhead();
+
+    private final Retry retry = new Retry();
+
+    private final Fallback fallback = new Fallback();
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+
+        /**
+         * Percentage of failed calls in the sliding window at which the circuit opens.
+         */
+        private double failureRateThreshold = 50;
+
+        /**
+         * Number of most recent calls the failure rate is computed over.
+         */
+        private int slidingWindowSize = 20;
+
+        /**
+         * Minimum number of calls in the window before the failure rate is evaluated.
+         */
+        private int minimumCalls = 10;
+
+        /**
+         * How long the circuit stays open before trial calls are let through.
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /**
+         * Number of trial calls that must succeed to close the circuit again.
+         */
+        private int halfOpenCalls = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class Bulkhead {
+
+        /**
+         * Maximum number of upstream calls in flight across all callers.
+         */
+        private int maxConcurrentCalls = 16;
+
+        /**
+         * Maximum time a call waits for a free slot before it is rejected.
+         */
+        private Duration maxWait = Duration.ofMillis(100);
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+
+        /**
+         * Maximum number of attempts per call, including the first one.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Upper bound of the randomized delay before the first retry; doubled for every further retry.
+         */
+        private Duration initialBackoff = Duration.ofMillis(100);
+
+        /**
+         * Upper bound of the randomized delay before any retry.
+         */
+        private Duration maxBackoff = Duration.ofSeconds(1);
+
+        /**
+         * Retries allowed per call, averaged over time, so that retries add at most this fraction
+         * of load on a failing provider.
+         */
+        private double budgetRatio = 0.2;
+
+        /**
+         * Maximum number of retries that can be saved up while the provider is healthy.
+         */
+        private int budgetCapacity = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class Fallback {
+
+        /**
+         * How long the last fetched price of a symbol may be served when the provider fails.
+         * Zero disables the fallback.
+         */
+        private Duration staleMaxAge = Duration.ofHours(1);
+
+        /**
+         * Maximum number of symbols whose last fetched price is kept.
+         */
+        private long maximumSize = 10_000;
+    }
+}
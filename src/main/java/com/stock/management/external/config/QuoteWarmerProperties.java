@@ -0,0 +1,53 @@
+package com.stock.management.external.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for refreshing the quotes of held symbols in the background.
+ */
+@ConfigurationProperties("stock.quote.warmer")
+@Getter
+@Setter
+public class QuoteWarmerProperties {
+
+    /**
+     * Whether quotes of held symbols are refreshed in the background.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How often the held symbols are checked for quotes due for a refresh.
+     */
+    private Duration checkInterval = Duration.ofSeconds(5);
+
+    /**
+     * Shortest time between two refreshes of a symbol, however often it is read.
+     */
+    private Duration minInterval = Duration.ofSeconds(10);
+
+    /**
+     * Time between two refreshes of a symbol that isn't being read. Keep it below the quote cache
+     * TTL so held symbols stay cached.
+     */
+    private Duration maxInterval = Duration.ofSeconds(55);
+
+    /**
+     * Half-life of the reads counted towards a symbol's read rate.
+     */
+    private Duration readHalfLife = Duration.ofMinutes(5);
+
+    /**
+     * Share of the upstream quota the refreshes may use, in symbols per minute.
+     */
+    private int requestsPerMinute = 30;
+
+    /**
+     * Maximum number of symbols refreshed in one bulk lookup.
+     */
+    private int batchSize = 20;
+}
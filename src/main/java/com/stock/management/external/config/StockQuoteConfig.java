@@ -0,0 +1,203 @@
+package com.stock.management.external.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.stock.management.data.jpa.repository.StockHoldingRepository;
+import com.stock.management.external.resilience.QuoteProviderHealthIndicator;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.external.service.impl.AlphaVantageWebClientStockFetchingStrategy;
+import com.stock.management.external.service.impl.CachingStockFetchingStrategy;
+import com.stock.management.external.service.impl.ConcurrentQuoteFetcher;
+import com.stock.management.external.service.impl.FileStockFetchingStrategy;
+import com.stock.management.external.service.impl.HedgingStockFetchingStrategy;
+import com.stock.management.external.service.impl.RateLimitedStockFetchingStrategy;
+import com.stock.management.external.service.impl.ResilientStockFetchingStrategy;
+import com.stock.management.external.warmup.QuoteWarmer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Assembles the {@link com.stock.management.external.service.StockFetchingStrategy} used by the
+ * services: the upstream quote provider, kept within its quota by
+ * {@link RateLimitedStockFetchingStrategy}, guarded by {@link ResilientStockFetchingStrategy} and
+ * wrapped in a quote cache. When {@code stock.quote.hedging.file} is set, lookups the guarded
+ * provider is slow to answer are hedged with that price file by
+ * {@link HedgingStockFetchingStrategy}, between the guards and the cache. Quotes of held symbols are
+ * kept in the cache by {@link QuoteWarmer}.
+ * <p>
+ * The upstream provider is chosen with {@code stock.quote.provider}: {@code rest-template}
+ * (the default) or {@code web-client}. With {@code market-data}, quotes are served from pushed
+ * market data instead (see {@link MarketDataConfig}) and no cache is created.
+ */
+@Configuration
+@EnableConfigurationProperties({ QuoteCacheProperties.class, AlphaVantageProperties.class, QuoteResilienceProperties.class,
+        QuoteRateLimitProperties.class, QuoteHedgingProperties.class, QuoteWarmerProperties.class })
+public class StockQuoteConfig {
+
+    public static final String QUOTE_PROVIDER = "quoteProvider";
+
+    @Bean
+    @Primary
+    @ConditionalOnExpression("'${stock.quote.provider:rest-template}' != 'market-data'")
+    public CachingStockFetchingStrategy cachingStockFetchingStrategy(
+            ResilientStockFetchingStrategy resilientStockFetchingStrategy,
+            ObjectProvider<HedgingStockFetchingStrategy> hedgingStockFetchingStrategy,
+            QuoteCacheProperties quoteCacheProperties,
+            MeterRegistry meterRegistry) {
+        StockFetchingStrategy upstream = hedgingStockFetchingStrategy.getIfAvailable();
+        if (upstream == null) {
+            upstream = resilientStockFetchingStrategy;
+        }
+        return new CachingStockFetchingStrategy(upstream, quoteCacheProperties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnExpression("'${stock.quote.provider:rest-template}' != 'market-data'")
+    public ResilientStockFetchingStrategy resilientStockFetchingStrategy(
+            RateLimitedStockFetchingStrategy rateLimitedStockFetchingStrategy,
+            ConcurrentQuoteFetcher concurrentQuoteFetcher,
+            QuoteResilienceProperties quoteResilienceProperties,
+            MeterRegistry meterRegistry) {
+        return new ResilientStockFetchingStrategy(rateLimitedStockFetchingStrategy, concurrentQuoteFetcher,
+                quoteResilienceProperties, meterRegistry);
+    }
+
+    /**
+     * Hedges lookups the guarded upstream provider is slow to answer with the local price file. The
+     * file is hedge-only, so its prices are served only when the provider is slower than its
+     * {@code stock.quote.hedging.hedge-percentile} latency or fails. Sitting above the guards, file
+     * prices never count as upstream successes or become last known prices. At most
+     * {@code stock.quote.hedging.max-concurrent-lookups} lookups run at once.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression("'${stock.quote.provider:rest-template}' != 'market-data'")
+    @ConditionalOnProperty("stock.quote.hedging.file")
+    public HedgingStockFetchingStrategy hedgingStockFetchingStrategy(
+            ResilientStockFetchingStrategy resilientStockFetchingStrategy,
+            QuoteHedgingProperties quoteHedgingProperties,
+            @Value("${stock.quote.fetch.deadline:5s}") Duration deadline,
+            MeterRegistry meterRegistry) {
+        List<HedgingStockFetchingStrategy.Provider> providers = List.of(
+                new HedgingStockFetchingStrategy.Provider("alpha-vantage", resilientStockFetchingStrategy, false),
+                new HedgingStockFetchingStrategy.Provider("file",
+                        new FileStockFetchingStrategy(quoteHedgingProperties.getFile()), true));
+        int maxLookups = quoteHedgingProperties.getMaxConcurrentLookups();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxLookups, maxLookups, 1, TimeUnit.MINUTES,
+                new ArrayBlockingQueue<>(maxLookups), new CustomizableThreadFactory("quote-hedge-"));
+        executor.allowCoreThreadTimeOut(true);
+        return new HedgingStockFetchingStrategy(providers, executor, quoteHedgingProperties, deadline, meterRegistry);
+    }
+
+    /**
+     * Queues upstream requests within the provider's quota. Each request is sent on the thread of
+     * a lookup waiting for it, so bulk lookups stay on the {@link ConcurrentQuoteFetcher} fan-out.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression("'${stock.quote.provider:rest-template}' != 'market-data'")
+    public RateLimitedStockFetchingStrategy rateLimitedStockFetchingStrategy(
+            @Qualifier(QUOTE_PROVIDER) StockFetchingStrategy quoteProvider,
+            QuoteRateLimitProperties quoteRateLimitProperties,
+            MeterRegistry meterRegistry) {
+        return new RateLimitedStockFetchingStrategy(quoteProvider, quoteRateLimitProperties, meterRegistry);
+    }
+
+    /**
+     * Refreshes the cached quotes of held symbols in the background, through the guards and
+     * within the quota like any other lookup, but neither hedged nor from stale prices.
+     */
+    @Bean
+    @ConditionalOnExpression("'${stock.quote.provider:rest-template}' != 'market-data'")
+    @ConditionalOnProperty(name = "stock.quote.warmer.enabled", havingValue = "true", matchIfMissing = true)
+    public QuoteWarmer quoteWarmer(
+            StockHoldingRepository stockHoldingRepository,
+            ResilientStockFetchingStrategy resilientStockFetchingStrategy,
+            CachingStockFetchingStrategy cachingStockFetchingStrategy,
+            QuoteWarmerProperties quoteWarmerProperties,
+            MeterRegistry meterRegistry) {
+        return new QuoteWarmer(stockHoldingRepository::findHeldSymbols,
+                resilientStockFetchingStrategy::getFreshStockPrices, cachingStockFetchingStrategy,
+                quoteWarmerProperties, meterRegistry);
+    }
+
+    /**
+     * Contributes the {@code quoteProvider} component of the actuator health endpoint.
+     */
+    @Bean
+    @ConditionalOnExpression("'${stock.quote.provider:rest-template}' != 'market-data'")
+    public QuoteProviderHealthIndicator quoteProviderHealthIndicator(
+            ResilientStockFetchingStrategy resilientStockFetchingStrategy) {
+        return new QuoteProviderHealthIndicator(resilientStockFetchingStrategy);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnProperty(name = "stock.quote.provider", havingValue = "web-client")
+    public ConnectionProvider alphaVantageConnectionProvider(AlphaVantageProperties alphaVantageProperties) {
+        return ConnectionProvider.builder("alpha-vantage")
+                .maxConnections(alphaVantageProperties.getMaxConnections())
+                .maxIdleTime(alphaVantageProperties.getMaxIdleTime())
+                .pendingAcquireTimeout(alphaVantageProperties.getResponseTimeout())
+                .build();
+    }
+
+    @Bean
+    @Qualifier(QUOTE_PROVIDER)
+    @ConditionalOnProperty(name = "stock.quote.provider", havingValue = "web-client")
+    public AlphaVantageWebClientStockFetchingStrategy alphaVantageWebClientStockFetchingStrategy(
+            WebClient.Builder webClientBuilder,
+            ConnectionProvider alphaVantageConnectionProvider,
+            AlphaVantageProperties alphaVantageProperties,
+            @Value("${stock.quote.fetch.max-concurrency:8}") int maxConcurrency,
+            @Value("${stock.quote.fetch.deadline:5s}") Duration deadline) {
+        return new AlphaVantageWebClientStockFetchingStrategy(webClientBuilder, alphaVantageConnectionProvider,
+                alphaVantageProperties, maxConcurrency, deadline);
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ConcurrentQuoteFetcher concurrentQuoteFetcher(
+            @Value("${stock.quote.fetch.max-concurrency:8}") int maxConcurrency,
+            @Value("${stock.quote.fetch.deadline:5s}") Duration deadline) {
+        return new ConcurrentQuoteFetcher(
+                Executors.newFixedThreadPool(maxConcurrency, new CustomizableThreadFactory("quote-fetch-")),
+                maxConcurrency, deadline);
+    }
+
+    /**
+     * Runs each quote lookup on its own virtual thread when {@code spring.threads.virtual.enabled}
+     * is set on Java 21+. The fetcher's permits still cap the number of upstream calls in flight.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ConcurrentQuoteFetcher virtualThreadConcurrentQuoteFetcher(
+            @Value("${stock.quote.fetch.max-concurrency:8}") int maxConcurrency,
+            @Value("${stock.quote.fetch.deadline:5s}") Duration deadline) {
+        // A new thread per task and none kept idle, like Executors.newThreadPerTaskExecutor, which
+        // needs Java 21 to compile: virtual threads aren't pooled
+        ExecutorService executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new VirtualThreadTaskExecutor("quote-fetch-").getVirtualThreadFactory());
+        return new ConcurrentQuoteFetcher(executor, maxConcurrency, deadline);
+    }
+}
@@ -0,0 +1,119 @@
+package com.stock.management.external.marketdata;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+/**
+ * Replays a recorded tick file as a {@link QuoteFeed}.
+ * <p>
+ * The file has one tick per line, {@code timestamp,symbol,price}, with the timestamp as an ISO-8601
+ * instant ({@code 2024-11-22T14:30:00.125Z}). Blank lines, lines starting with {@code #} and a
+ * {@code timestamp,symbol,price} header are skipped. Ticks are delivered with the spacing recorded
+ * in the file divided by the replay speed, or as fast as possible when the speed is 0, and are
+ * stamped with the time they are replayed so that they count as fresh quotes.
+ */
+public class FileReplayQuoteFeed implements QuoteFeed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileReplayQuoteFeed.class);
+
+    private final Resource ticks;
+    private final double speed;
+    private final boolean loop;
+    private volatile Thread replayThread;
+
+    /**
+     * @param ticks the tick file
+     * @param speed replay speed relative to the recorded spacing; 0 replays without delays
+     * @param loop  whether to start over at the end of the file
+     */
+    public FileReplayQuoteFeed(Resource ticks, double speed, boolean loop) {
+        this.ticks = ticks;
+        this.speed = speed;
+        this.loop = loop;
+    }
+
+    @Override
+    public synchronized void start(QuoteListener listener) {
+        if (replayThread != null) {
+            throw new IllegalStateException("Replay of " + ticks.getDescription() + " has already been started");
+        }
+        Thread thread = new Thread(() -> replay(listener), "quote-replay");
+        thread.setDaemon(true);
+        thread.start();
+        replayThread = thread;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (replayThread != null) {
+            replayThread.interrupt();
+        }
+    }
+
+    private void replay(QuoteListener listener) {
+        try {
+            do {
+                replayOnce(listener);
+            } while (loop && !Thread.currentThread().isInterrupted());
+            LOGGER.info("Finished replaying {}", ticks.getDescription());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ex) {
+            LOGGER.error("Failed to replay {}", ticks.getDescription(), ex);
+        }
+    }
+
+    private void replayOnce(QuoteListener listener) throws IOException, InterruptedException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ticks.getInputStream(), StandardCharsets.UTF_8))) {
+            long startNanos = System.nanoTime();
+            long firstTickMillis = Long.MIN_VALUE;
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#") || line.startsWith("timestamp,")) {
+                    continue;
+                }
+                int firstComma = line.indexOf(',');
+                int secondComma = line.indexOf(',', firstComma + 1);
+                if (firstComma < 0 || secondComma < 0) {
+                    LOGGER.warn("Skipping malformed tick at {}:{}", ticks.getDescription(), lineNumber);
+                    continue;
+                }
+
+                long tickMillis;
+                double price;
+                try {
+                    tickMillis = Instant.parse(line.substring(0, firstComma).trim()).toEpochMilli();
+                    price = Double.parseDouble(line.substring(secondComma + 1).trim());
+                } catch (DateTimeParseException | NumberFormatException ex) {
+                    LOGGER.warn("Skipping malformed tick at {}:{}", ticks.getDescription(), lineNumber);
+                    continue;
+                }
+
+                if (firstTickMillis == Long.MIN_VALUE) {
+                    firstTickMillis = tickMillis;
+                }
+                if (speed > 0) {
+                    long dueNanos = startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(tickMillis - firstTickMillis) / speed);
+                    long waitNanos = dueNanos - System.nanoTime();
+                    if (waitNanos > 0) {
+                        TimeUnit.NANOSECONDS.sleep(waitNanos);
+                    }
+                } else if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                listener.onQuote(line.substring(firstComma + 1, secondComma).trim(), price, System.currentTimeMillis());
+            }
+        }
+    }
+}
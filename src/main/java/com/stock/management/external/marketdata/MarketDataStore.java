@@ -0,0 +1,164 @@
+package com.stock.management.external.marketdata;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Latest quote per symbol, held in primitive arrays so that reads neither lock nor allocate.
+ * <p>
+ * Each symbol is assigned a fixed slot the first time it is quoted. A slot holds the price (as
+ * raw {@code double} bits) and the quote time, guarded by a per-slot version: writers make the
+ * version odd while they update the slot, and readers retry if the version changed while they
+ * read, so a reader always sees a price and time from the same quote. A slot whose version is
+ * still zero has been assigned but not yet written, and reads as not quoted. Ticks older than the
+ * stored quote are ignored. Every stored quote is passed on to the registered listeners.
+ */
+public class MarketDataStore implements QuoteListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MarketDataStore.class);
+
+    private final int capacity;
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final AtomicLongArray versions;
+    private final AtomicLongArray prices;
+    private final AtomicLongArray quotedAt;
+    private final AtomicBoolean fullReported = new AtomicBoolean();
+    private final List<QuoteListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param capacity the maximum number of symbols; quotes for further symbols are dropped
+     */
+    public MarketDataStore(int capacity) {
+        this.capacity = capacity;
+        this.versions = new AtomicLongArray(capacity);
+        this.prices = new AtomicLongArray(capacity);
+        this.quotedAt = new AtomicLongArray(capacity);
+    }
+
+    @Override
+    public void onQuote(String symbol, double price, long epochMillis) {
+        update(symbol, price, epochMillis);
+    }
+
+    /**
+     * Stores a quote unless a newer quote for the symbol is already stored.
+     *
+     * @param symbol      the stock symbol
+     * @param price       the quoted price
+     * @param epochMillis the quote time
+     * @return {@code true} if the quote was stored
+     */
+    public boolean update(String symbol, double price, long epochMillis) {
+        int slot = slotFor(symbol);
+        if (slot < 0) {
+            return false;
+        }
+
+        long version;
+        do {
+            version = versions.get(slot);
+        } while ((version & 1) != 0 || !versions.compareAndSet(slot, version, version + 1));
+
+        if (version != 0 && epochMillis < quotedAt.get(slot)) {
+            versions.set(slot, version + 2);
+            return false;
+        }
+        prices.set(slot, Double.doubleToRawLongBits(price));
+        quotedAt.set(slot, epochMillis);
+        versions.set(slot, version + 2);
+
+        for (QuoteListener listener : listeners) {
+            listener.onQuote(symbol, price, epochMillis);
+        }
+        return true;
+    }
+
+    /**
+     * Registers a listener that is called, on the writer's thread, for every stored quote.
+     *
+     * @param listener the listener; must not block
+     */
+    public void addListener(QuoteListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Returns the latest price of the symbol.
+     *
+     * @param symbol the stock symbol
+     * @return the price, or {@link Double#NaN} if the symbol has not been quoted
+     */
+    public double price(String symbol) {
+        return priceQuotedSince(symbol, Long.MIN_VALUE);
+    }
+
+    /**
+     * Returns the latest price of the symbol if it was quoted at or after the given time.
+     *
+     * @param symbol       the stock symbol
+     * @param sinceMillis  the oldest acceptable quote time, in milliseconds since the epoch
+     * @return the price, or {@link Double#NaN} if the symbol has not been quoted since then
+     */
+    public double priceQuotedSince(String symbol, long sinceMillis) {
+        Integer slot = slots.get(symbol);
+        if (slot == null) {
+            return Double.NaN;
+        }
+        while (true) {
+            long version = versions.get(slot);
+            if (version == 0) {
+                // Assigned to the symbol, but its first quote isn't written yet
+                return Double.NaN;
+            }
+            if ((version & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long priceBits = prices.get(slot);
+            long time = quotedAt.get(slot);
+            if (versions.get(slot) == version) {
+                return time >= sinceMillis ? Double.longBitsToDouble(priceBits) : Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * @return the number of symbols quoted so far
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    private int slotFor(String symbol) {
+        Integer slot = slots.get(symbol);
+        if (slot == null) {
+            slot = slots.computeIfAbsent(symbol, ignored -> {
+                int next;
+                do {
+                    next = nextSlot.get();
+                    if (next >= capacity) {
+                        return null;
+                    }
+                } while (!nextSlot.compareAndSet(next, next + 1));
+                return next;
+            });
+        }
+        if (slot == null) {
+            if (fullReported.compareAndSet(false, true)) {
+                LOGGER.warn("Market data store is full ({} symbols); dropping quotes for new symbols such as {}",
+                        capacity, symbol);
+            }
+            return -1;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,24 @@
+package com.stock.management.external.marketdata;
+
+/**
+ * A push source of stock quotes, such as a streaming market data connection or a recorded tick
+ * file.
+ * <p>
+ * Every {@code QuoteFeed} bean is started by {@link QuoteFeedRunner} once the application context
+ * is up and delivers its quotes to the {@link MarketDataStore}.
+ */
+public interface QuoteFeed extends AutoCloseable {
+
+    /**
+     * Starts delivering quotes to the given listener, from a thread owned by the feed.
+     *
+     * @param listener the listener to deliver quotes to
+     */
+    void start(QuoteListener listener);
+
+    /**
+     * Stops delivering quotes and releases the feed's resources. Safe to call more than once.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,38 @@
+package com.stock.management.external.marketdata;
+
+import java.util.List;
+
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Connects every {@link QuoteFeed} to the {@link MarketDataStore} when the application context
+ * starts and disconnects them when it stops.
+ */
+public class QuoteFeedRunner implements SmartLifecycle {
+
+    private final List<QuoteFeed> feeds;
+    private final MarketDataStore marketDataStore;
+    private volatile boolean running;
+
+    public QuoteFeedRunner(List<QuoteFeed> feeds, MarketDataStore marketDataStore) {
+        this.feeds = feeds;
+        this.marketDataStore = marketDataStore;
+    }
+
+    @Override
+    public void start() {
+        feeds.forEach(feed -> feed.start(marketDataStore));
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        feeds.forEach(QuoteFeed::close);
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,17 @@
+package com.stock.management.external.marketdata;
+
+/**
+ * Receives the quotes pushed by a {@link QuoteFeed}.
+ */
+@FunctionalInterface
+public interface QuoteListener {
+
+    /**
+     * Called for every quote, on the feed's thread. Implementations must not block.
+     *
+     * @param symbol      the stock symbol
+     * @param price       the quoted price
+     * @param epochMillis when the quote was received, in milliseconds since the epoch
+     */
+    void onQuote(String symbol, double price, long epochMillis);
+}
@@ -0,0 +1,163 @@
+package com.stock.management.external.resilience;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Count based circuit breaker.
+ * <p>
+ * While {@link State#CLOSED}, the outcome of the most recent calls is kept in a sliding window;
+ * once the window holds the minimum number of calls and the share of failures reaches the
+ * threshold, the circuit opens and calls are rejected without reaching the guarded resource.
+ * After the open duration a fixed number of trial calls is let through: if all of them succeed
+ * the circuit closes with an empty window, and the first failure opens it again.
+ */
+public class CircuitBreaker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int recordedCalls;
+    private int failedCalls;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    /**
+     * @param name                 the guarded resource, used in log messages
+     * @param failureRateThreshold the percentage of failed calls at which the circuit opens
+     * @param slidingWindowSize    the number of most recent calls the failure rate is computed over
+     * @param minimumCalls         the number of calls needed before the failure rate is evaluated
+     * @param openDuration         how long the circuit stays open before trial calls are let through
+     * @param halfOpenCalls        the number of trial calls that must succeed to close the circuit
+     * @param nanoClock            the time source, as for {@link System#nanoTime()}
+     */
+    public CircuitBreaker(String name, double failureRateThreshold, int slidingWindowSize, int minimumCalls,
+                          Duration openDuration, int halfOpenCalls, LongSupplier nanoClock) {
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[slidingWindowSize];
+        this.minimumCalls = Math.min(minimumCalls, slidingWindowSize);
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Asks for permission to make a call. A permitted call must be reported with
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #releasePermission()}.
+     *
+     * @return {@code false} if the call must not be made
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAtNanos >= openNanos) {
+            transitionTo(State.HALF_OPEN);
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (halfOpenPermits > 0) {
+                    halfOpenPermits--;
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                resetWindow();
+                transitionTo(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recordedCalls >= minimumCalls && failedCalls * 100.0 / recordedCalls >= failureRateThreshold) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Reports a permitted call that ended without telling anything about the guarded resource,
+     * such as a call that never reached it.
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls - halfOpenSuccesses) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return the percentage of failed calls in the current window, or {@code -1} if fewer than
+     *         the minimum number of calls have been recorded
+     */
+    public synchronized double getFailureRate() {
+        return recordedCalls < minimumCalls ? -1 : failedCalls * 100.0 / recordedCalls;
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == window.length) {
+            if (window[windowIndex]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        window[windowIndex] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        openedAtNanos = nanoClock.getAsLong();
+        transitionTo(State.OPEN);
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        recordedCalls = 0;
+        failedCalls = 0;
+    }
+
+    private void transitionTo(State newState) {
+        if (state != newState) {
+            LOGGER.warn("Circuit breaker {} changed from {} to {}", name, state, newState);
+            state = newState;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.stock.management.external.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Latency percentiles over the most recent calls to a resource.
+ * <p>
+ * The latest {@code windowSize} latencies are kept in a ring buffer. Percentiles are read from a
+ * sorted copy that is refreshed every {@code windowSize / 8} calls rather than on every call, so
+ * reading a percentile costs no more than an array lookup.
+ */
+public class LatencyTracker {
+
+    private final long[] window;
+    private final int minimumSamples;
+    private final int refreshInterval;
+    private int next;
+    private int count;
+    private int sinceRefresh;
+    private volatile long[] sorted = new long[0];
+
+    /**
+     * @param windowSize     the number of most recent latencies kept
+     * @param minimumSamples the number of latencies needed before percentiles are reported
+     */
+    public LatencyTracker(int windowSize, int minimumSamples) {
+        this.window = new long[windowSize];
+        this.minimumSamples = Math.min(minimumSamples, windowSize);
+        this.refreshInterval = Math.max(1, windowSize / 8);
+    }
+
+    public synchronized void record(long latencyNanos) {
+        window[next] = latencyNanos;
+        next = (next + 1) % window.length;
+        if (count < window.length) {
+            count++;
+        }
+        if (++sinceRefresh >= refreshInterval || count <= minimumSamples) {
+            long[] snapshot = Arrays.copyOf(window, count);
+            Arrays.sort(snapshot);
+            sorted = snapshot;
+            sinceRefresh = 0;
+        }
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency at the percentile in nanoseconds, or {@code -1} if fewer than the
+     *         minimum number of latencies have been recorded
+     */
+    public long percentile(double percentile) {
+        long[] snapshot = sorted;
+        if (snapshot.length < minimumSamples || snapshot.length == 0) {
+            return -1;
+        }
+        int index = (int) Math.ceil(percentile / 100 * snapshot.length) - 1;
+        return snapshot[Math.min(Math.max(index, 0), snapshot.length - 1)];
+    }
+}
@@ -0,0 +1,71 @@
+package com.stock.management.external.resilience;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Allowance of {@code quota} tokens per fixed window of {@code period}, renewed in full at the
+ * start of each window; the first window starts when the allowance is created.
+ * <p>
+ * Unlike a {@link TokenBucket}, the whole quota can be taken at any pace within a window, so a
+ * daily quota isn't spread out into a trickle of tokens.
+ */
+public class QuotaWindow {
+
+    private final long quota;
+    private final long periodNanos;
+    private final LongSupplier nanoClock;
+
+    private long windowStartNanos;
+    private long used;
+
+    /**
+     * @param quota     the number of tokens per window
+     * @param period    the length of a window
+     * @param nanoClock the time source, as for {@link System#nanoTime()}
+     */
+    public QuotaWindow(long quota, Duration period, LongSupplier nanoClock) {
+        this.quota = quota;
+        this.periodNanos = period.toNanos();
+        this.nanoClock = nanoClock;
+        this.windowStartNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes one token if the current window has one left.
+     *
+     * @return {@code false} if the quota of the current window is used up
+     */
+    public synchronized boolean tryConsume() {
+        roll();
+        if (used >= quota) {
+            return false;
+        }
+        used++;
+        return true;
+    }
+
+    /**
+     * @return the time until a token is available, zero if one is available now
+     */
+    public synchronized long nanosUntilAvailable() {
+        roll();
+        return used < quota ? 0 : windowStartNanos + periodNanos - nanoClock.getAsLong();
+    }
+
+    /**
+     * @return the number of tokens left in the current window
+     */
+    public synchronized long available() {
+        roll();
+        return quota - used;
+    }
+
+    private void roll() {
+        long elapsed = nanoClock.getAsLong() - windowStartNanos;
+        if (elapsed >= periodNanos) {
+            windowStartNanos += elapsed - elapsed % periodNanos;
+            used = 0;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.stock.management.external.resilience;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import com.stock.management.external.service.impl.ResilientStockFetchingStrategy;
+
+/**
+ * Reports the state of the guards around the upstream quote provider.
+ * <p>
+ * The indicator is {@code UP} while the circuit is closed and {@link #DEGRADED} while it is open
+ * or half open: the application still answers, but quotes may come from last known prices. It
+ * never reports {@code DOWN}, so an upstream outage doesn't take the application out of service.
+ */
+public class QuoteProviderHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Quote provider is failing; last known prices are served");
+
+    private final ResilientStockFetchingStrategy quoteProvider;
+
+    public QuoteProviderHealthIndicator(ResilientStockFetchingStrategy quoteProvider) {
+        this.quoteProvider = quoteProvider;
+    }
+
+    @Override
+    public Health health() {
+        CircuitBreaker.State state = quoteProvider.getCircuitState();
+        Health.Builder builder = state == CircuitBreaker.State.CLOSED ? Health.up() : Health.status(DEGRADED);
+        return builder
+                .withDetail("circuitState", state)
+                .withDetail("failureRate", quoteProvider.getFailureRate())
+                .withDetail("availableBulkheadSlots", quoteProvider.getAvailableBulkheadSlots())
+                .withDetail("availableRetries", quoteProvider.getAvailableRetries())
+                .withDetail("staleSymbols", quoteProvider.getStaleSymbols())
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.stock.management.external.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries to a fraction of the calls made.
+ * <p>
+ * Every call deposits {@code ratio} of a retry into the budget, up to {@code capacity} retries,
+ * and every retry withdraws a whole one. When the guarded resource fails persistently the
+ * budget runs dry, so retries add at most {@code ratio} extra load instead of multiplying it.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1_000;
+
+    private final long depositPerCall;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    /**
+     * @param ratio    the retries allowed per call, averaged over time
+     * @param capacity the maximum number of retries that can be saved up; the budget starts full
+     */
+    public RetryBudget(double ratio, int capacity) {
+        this.depositPerCall = Math.round(ratio * SCALE);
+        this.capacity = capacity * SCALE;
+        this.balance = new AtomicLong(this.capacity);
+    }
+
+    /**
+     * Records a call, adding to the budget.
+     */
+    public void deposit() {
+        balance.accumulateAndGet(depositPerCall, (current, deposit) -> Math.min(capacity, current + deposit));
+    }
+
+    /**
+     * Takes one retry from the budget.
+     *
+     * @return {@code false} if the budget has no retry left
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * @return the number of retries currently available, possibly fractional
+     */
+    public double available() {
+        return (double) balance.get() / SCALE;
+    }
+}
@@ -0,0 +1,81 @@
+package com.stock.management.external.resilience;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket holding up to {@code capacity} tokens, refilled continuously at
+ * {@code tokensPerPeriod} tokens per {@code period}. The bucket starts full.
+ * <p>
+ * A full bucket allows {@code capacity} tokens at once and the refill adds just under
+ * {@code tokensPerPeriod} more within any period, so at most
+ * {@code capacity + tokensPerPeriod - 1} tokens are taken in any period.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long refilledAtNanos;
+
+    /**
+     * @param capacity  the maximum number of tokens, and the number added per period
+     * @param period    the time in which an empty bucket fills up again
+     * @param nanoClock the time source, as for {@link System#nanoTime()}
+     */
+    public TokenBucket(long capacity, Duration period, LongSupplier nanoClock) {
+        this(capacity, capacity, period, nanoClock);
+    }
+
+    /**
+     * @param capacity        the maximum number of tokens
+     * @param tokensPerPeriod the number of tokens added per period
+     * @param period          the refill period
+     * @param nanoClock       the time source, as for {@link System#nanoTime()}
+     */
+    public TokenBucket(long capacity, long tokensPerPeriod, Duration period, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) tokensPerPeriod / period.toNanos();
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.refilledAtNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes one token if there is one.
+     *
+     * @return {@code false} if the bucket is empty
+     */
+    public synchronized boolean tryConsume() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    /**
+     * @return the time until a token is available, zero if one is available now
+     */
+    public synchronized long nanosUntilAvailable() {
+        refill();
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * @return the number of tokens currently available, possibly fractional
+     */
+    public synchronized double available() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAtNanos) * tokensPerNano);
+        refilledAtNanos = now;
+    }
+}
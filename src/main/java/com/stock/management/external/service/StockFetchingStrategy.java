@@ -1,7 +1,29 @@
 package com.stock.management.external.service;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
 public interface StockFetchingStrategy {
 	
 	Double getStockPrice(String symbol);
 
+	/**
+	 * Fetches the current price of each of the given symbols.
+	 * <p>
+	 * Duplicate symbols are fetched once. Implementations that can look up several symbols
+	 * concurrently should override this method; the default resolves them one by one.
+	 *
+	 * @param symbols the stock symbols
+	 * @return the current price per symbol
+	 */
+	default Map<String, Double> getStockPrices(Collection<String> symbols) {
+		Map<String, Double> prices = new LinkedHashMap<>();
+		for (String symbol : new LinkedHashSet<>(symbols)) {
+			prices.put(symbol, getStockPrice(symbol));
+		}
+		return prices;
+	}
+
 }
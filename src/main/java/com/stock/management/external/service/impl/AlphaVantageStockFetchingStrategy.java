@@ -1,17 +1,26 @@
 package com.stock.management.external.service.impl;
 
+import java.util.Collection;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.exception.StockPriceUnavailableException;
+import com.stock.management.external.config.AlphaVantageProperties;
+import com.stock.management.external.config.StockQuoteConfig;
 import com.stock.management.external.service.StockFetchingStrategy;
 
 @Service
+@Qualifier(StockQuoteConfig.QUOTE_PROVIDER)
+@ConditionalOnProperty(name = "stock.quote.provider", havingValue = "rest-template", matchIfMissing = true)
 public class AlphaVantageStockFetchingStrategy implements StockFetchingStrategy {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(AlphaVantageStockFetchingStrategy.class);
@@ -19,19 +28,54 @@ public class AlphaVantageStockFetchingStrategy implements StockFetchingStrategy
 	@Autowired
 	private RestTemplate restTemplate;
 
+	@Autowired
+	private AlphaVantageProperties alphaVantageProperties;
+
+	@Autowired
+	private ConcurrentQuoteFetcher concurrentQuoteFetcher;
+
+	/**
+	 * Fetches the price of the symbol. A response without a quote means the symbol is unknown;
+	 * a rate limit notice or a failed request means the price is temporarily unavailable.
+	 *
+	 * @throws NoDataFoundForSymbolException if Alpha Vantage has no quote for the symbol
+	 * @throws StockPriceUnavailableException if the quote could not be fetched
+	 */
 	@Override
 	public Double getStockPrice(String symbol) {
-		String url = "https://www.alphavantage.co/query?function=GLOBAL_QUOTE&symbol=" + symbol + "&apikey=" + "demo";
-		Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+		String url = alphaVantageProperties.getBaseUrl() + alphaVantageProperties.globalQuotePath(symbol);
+		Map<String, Object> response;
+		try {
+			response = restTemplate.getForObject(url, Map.class);
+		} catch (RestClientException ex) {
+			throw new StockPriceUnavailableException("Failed to fetch stock price for " + symbol, ex);
+		}
+
+		// Alpha Vantage answers rate limited requests with a notice instead of an error status
+		String notice = rateLimitNotice(response);
+		if (notice != null) {
+			throw new StockPriceUnavailableException("Alpha Vantage rejected the request for " + symbol + ": " + notice);
+		}
 
 		// Check if the response is null or doesn't contain the expected data
-		if (response == null || response.get("Global Quote") == null) {
+		if (response == null || !(response.get("Global Quote") instanceof Map<?, ?> quote) || quote.get("05. price") == null) {
 			LOGGER.error("No Data found for Symbol {}", symbol);
 			throw new NoDataFoundForSymbolException(symbol);
 		}
 
-		// Cast the response to get the quote details
-		Map<String, String> quote = (Map<String, String>) response.get("Global Quote");
-		return Double.parseDouble(quote.get("05. price"));
+		return Double.parseDouble(quote.get("05. price").toString());
+	}
+
+	@Override
+	public Map<String, Double> getStockPrices(Collection<String> symbols) {
+		return concurrentQuoteFetcher.fetchAll(symbols, this::getStockPrice);
+	}
+
+	private static String rateLimitNotice(Map<String, Object> response) {
+		if (response == null) {
+			return null;
+		}
+		Object notice = response.containsKey("Note") ? response.get("Note") : response.get("Information");
+		return notice != null ? notice.toString() : null;
 	}
 }
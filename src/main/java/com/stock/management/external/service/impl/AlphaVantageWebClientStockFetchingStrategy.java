@@ -0,0 +1,133 @@
+package com.stock.management.external.service.impl;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.exception.StockPriceUnavailableException;
+import com.stock.management.external.config.AlphaVantageProperties;
+import com.stock.management.external.service.StockFetchingStrategy;
+
+import io.netty.channel.ChannelOption;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Alpha Vantage quote lookups over a non-blocking {@link WebClient}.
+ * <p>
+ * Requests share a pool of keep-alive connections, every call is bounded by the configured
+ * connect and response timeouts, and the response body is decoded as it streams in straight
+ * into {@link GlobalQuoteResponse} instead of an untyped map. Bulk lookups are issued
+ * concurrently on the event loop, so they don't hold a thread per symbol.
+ */
+public class AlphaVantageWebClientStockFetchingStrategy implements StockFetchingStrategy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AlphaVantageWebClientStockFetchingStrategy.class);
+
+    private final WebClient webClient;
+    private final AlphaVantageProperties properties;
+    private final int maxConcurrency;
+    private final Duration deadline;
+
+    public AlphaVantageWebClientStockFetchingStrategy(WebClient.Builder webClientBuilder,
+                                                      ConnectionProvider connectionProvider,
+                                                      AlphaVantageProperties properties,
+                                                      int maxConcurrency,
+                                                      Duration deadline) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout())
+                .keepAlive(true);
+        this.webClient = webClientBuilder
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.properties = properties;
+        this.maxConcurrency = maxConcurrency;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public Double getStockPrice(String symbol) {
+        return fetchQuote(symbol).block();
+    }
+
+    /**
+     * Fetches the price of each distinct symbol concurrently, with at most {@code maxConcurrency}
+     * requests of this call in flight. The pool's connection limit bounds requests across callers.
+     *
+     * @param symbols the stock symbols
+     * @return the price per symbol, in the order the symbols were given
+     * @throws StockPriceUnavailableException if not all prices were fetched before the deadline
+     */
+    @Override
+    public Map<String, Double> getStockPrices(Collection<String> symbols) {
+        List<String> distinctSymbols = List.copyOf(new LinkedHashSet<>(symbols));
+        List<Double> prices = Flux.fromIterable(distinctSymbols)
+                .flatMapSequential(this::fetchQuote, maxConcurrency)
+                .collectList()
+                .timeout(deadline)
+                .onErrorMap(TimeoutException.class, ex -> new StockPriceUnavailableException(
+                        "Timed out after " + deadline.toMillis() + " ms fetching prices for " + distinctSymbols))
+                .block();
+
+        Map<String, Double> pricesBySymbol = new LinkedHashMap<>();
+        for (int i = 0; i < distinctSymbols.size(); i++) {
+            pricesBySymbol.put(distinctSymbols.get(i), prices.get(i));
+        }
+        return pricesBySymbol;
+    }
+
+    private Mono<Double> fetchQuote(String symbol) {
+        return webClient.get()
+                .uri(properties.globalQuotePath(symbol))
+                .retrieve()
+                .bodyToMono(GlobalQuoteResponse.class)
+                .timeout(properties.getResponseTimeout())
+                .onErrorMap(ex -> new StockPriceUnavailableException("Failed to fetch stock price for " + symbol, ex))
+                .<Double>handle((response, sink) -> {
+                    if (response.rateLimitNotice() != null) {
+                        sink.error(new StockPriceUnavailableException(
+                                "Alpha Vantage rejected the request for " + symbol + ": " + response.rateLimitNotice()));
+                    } else if (response.globalQuote() != null && response.globalQuote().price() != null) {
+                        sink.next(response.globalQuote().price());
+                    }
+                })
+                .switchIfEmpty(Mono.error(() -> {
+                    LOGGER.error("No Data found for Symbol {}", symbol);
+                    return new NoDataFoundForSymbolException(symbol);
+                }));
+    }
+
+    /**
+     * The parts of the GLOBAL_QUOTE response the strategy reads. Rate limited requests are
+     * answered with a {@code Note} or {@code Information} notice instead of a quote.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record GlobalQuoteResponse(@JsonProperty("Global Quote") GlobalQuote globalQuote,
+                               @JsonProperty("Note") String note,
+                               @JsonProperty("Information") String information) {
+
+        String rateLimitNotice() {
+            return note != null ? note : information;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record GlobalQuote(@JsonProperty("01. symbol") String symbol, @JsonProperty("05. price") Double price) {
+    }
+}
@@ -0,0 +1,132 @@
+package com.stock.management.external.service.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.stock.management.external.config.QuoteCacheProperties;
+import com.stock.management.external.service.StockFetchingStrategy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caching decorator around a {@link StockFetchingStrategy}.
+ * <p>
+ * Concurrent lookups of the same symbol share a single upstream fetch, quotes expire after a
+ * per-symbol TTL and symbols that keep being read are reloaded in the background once they
+ * reach the configured refresh age, so hot symbols never pay the upstream latency on the
+ * request path. Quotes fetched elsewhere, such as by a background warmer, can be written into the
+ * cache with {@link #putAll(Map)}.
+ */
+public class CachingStockFetchingStrategy implements StockFetchingStrategy {
+
+    public static final String CACHE_NAME = "stockQuotes";
+
+    private final LoadingCache<String, Double> quotes;
+    private final List<Consumer<String>> readListeners = new CopyOnWriteArrayList<>();
+
+    public CachingStockFetchingStrategy(StockFetchingStrategy delegate, QuoteCacheProperties properties,
+                                        MeterRegistry meterRegistry) {
+        this.quotes = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new SymbolTtlExpiry(properties))
+                .refreshAfterWrite(properties.getRefreshAfter())
+                .recordStats()
+                .build(new DelegatingQuoteLoader(delegate));
+        CaffeineCacheMetrics.monitor(meterRegistry, quotes, CACHE_NAME);
+    }
+
+    @Override
+    public Double getStockPrice(String symbol) {
+        notifyRead(symbol);
+        return quotes.get(symbol);
+    }
+
+    @Override
+    public Map<String, Double> getStockPrices(Collection<String> symbols) {
+        for (String symbol : symbols) {
+            notifyRead(symbol);
+        }
+        return quotes.getAll(symbols);
+    }
+
+    /**
+     * Stores freshly fetched quotes, restarting their TTL.
+     */
+    public void putAll(Map<String, Double> prices) {
+        quotes.putAll(prices);
+    }
+
+    /**
+     * Registers a listener that is told the symbol of every lookup, cached or not.
+     */
+    public void addReadListener(Consumer<String> listener) {
+        readListeners.add(listener);
+    }
+
+    private void notifyRead(String symbol) {
+        for (Consumer<String> listener : readListeners) {
+            listener.accept(symbol);
+        }
+    }
+
+    /**
+     * Loads missing quotes from the delegate, fetching several missing symbols in one bulk call.
+     */
+    private static final class DelegatingQuoteLoader implements CacheLoader<String, Double> {
+
+        private final StockFetchingStrategy delegate;
+
+        private DelegatingQuoteLoader(StockFetchingStrategy delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Double load(String symbol) {
+            return delegate.getStockPrice(symbol);
+        }
+
+        @Override
+        public Map<String, Double> loadAll(Set<? extends String> symbols) {
+            return delegate.getStockPrices(Set.copyOf(symbols));
+        }
+    }
+
+    /**
+     * Expires each quote after the TTL configured for its symbol, restarting the clock whenever
+     * the quote is reloaded.
+     */
+    private static final class SymbolTtlExpiry implements Expiry<String, Double> {
+
+        private final QuoteCacheProperties properties;
+
+        private SymbolTtlExpiry(QuoteCacheProperties properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public long expireAfterCreate(String symbol, Double price, long currentTime) {
+            return properties.ttlFor(symbol).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String symbol, Double price, long currentTime,
+                                      long currentDuration) {
+            return properties.ttlFor(symbol).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String symbol, Double price, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
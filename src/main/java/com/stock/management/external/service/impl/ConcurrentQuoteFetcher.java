@@ -0,0 +1,89 @@
+package com.stock.management.external.service.impl;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import com.stock.management.exception.StockPriceUnavailableException;
+
+/**
+ * Fans quote lookups for several symbols out concurrently.
+ * <p>
+ * At most {@code maxConcurrency} upstream calls are in flight at any time across all callers,
+ * and a bulk lookup fails as a whole once the overall deadline has passed, so the latency of a
+ * bulk lookup is bounded by its slowest quote rather than the sum of all quotes.
+ */
+public class ConcurrentQuoteFetcher implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Duration deadline;
+
+    public ConcurrentQuoteFetcher(ExecutorService executor, int maxConcurrency, Duration deadline) {
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrency);
+        this.deadline = deadline;
+    }
+
+    /**
+     * Fetches the price of each distinct symbol concurrently.
+     *
+     * @param symbols the stock symbols
+     * @param fetcher the single-symbol lookup to run for each symbol
+     * @return the price per symbol, in the order the symbols were given
+     * @throws StockPriceUnavailableException if not all prices were fetched before the deadline
+     */
+    public Map<String, Double> fetchAll(Collection<String> symbols, Function<String, Double> fetcher) {
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+
+        Map<String, Future<Double>> pending = new LinkedHashMap<>();
+        for (String symbol : new LinkedHashSet<>(symbols)) {
+            pending.put(symbol, executor.submit(() -> fetchWithPermit(symbol, fetcher)));
+        }
+
+        Map<String, Double> prices = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Future<Double>> entry : pending.entrySet()) {
+                long remaining = Math.max(deadlineNanos - System.nanoTime(), 0);
+                prices.put(entry.getKey(), entry.getValue().get(remaining, TimeUnit.NANOSECONDS));
+            }
+            return prices;
+        } catch (TimeoutException ex) {
+            throw new StockPriceUnavailableException(
+                    "Timed out after " + deadline.toMillis() + " ms fetching prices for " + pending.keySet());
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new StockPriceUnavailableException("Failed to fetch stock prices", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new StockPriceUnavailableException("Interrupted while fetching stock prices", ex);
+        } finally {
+            pending.values().forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Double fetchWithPermit(String symbol, Function<String, Double> fetcher) throws InterruptedException {
+        permits.acquire();
+        try {
+            return fetcher.apply(symbol);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
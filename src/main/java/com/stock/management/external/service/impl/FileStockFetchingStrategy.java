@@ -0,0 +1,70 @@
+package com.stock.management.external.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.external.service.StockFetchingStrategy;
+
+/**
+ * Serves prices from a local price file, such as an end-of-day export.
+ * <p>
+ * The file has one price per line, {@code symbol,price}. Blank lines, lines starting with
+ * {@code #} and a {@code symbol,price} header are skipped, and the last line of a symbol wins.
+ * The file is read once, when the strategy is created.
+ */
+public class FileStockFetchingStrategy implements StockFetchingStrategy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileStockFetchingStrategy.class);
+
+    private final Map<String, Double> prices;
+
+    public FileStockFetchingStrategy(Resource priceFile) {
+        this.prices = Map.copyOf(read(priceFile));
+        LOGGER.info("Loaded {} prices from {}", prices.size(), priceFile.getDescription());
+    }
+
+    @Override
+    public Double getStockPrice(String symbol) {
+        Double price = prices.get(symbol);
+        if (price == null) {
+            throw new NoDataFoundForSymbolException(symbol);
+        }
+        return price;
+    }
+
+    private static Map<String, Double> read(Resource priceFile) {
+        Map<String, Double> prices = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(priceFile.getInputStream(), StandardCharsets.UTF_8))) {
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#") || line.startsWith("symbol,")) {
+                    continue;
+                }
+                int comma = line.indexOf(',');
+                try {
+                    if (comma <= 0) {
+                        throw new NumberFormatException();
+                    }
+                    prices.put(line.substring(0, comma).trim(), Double.parseDouble(line.substring(comma + 1).trim()));
+                } catch (NumberFormatException ex) {
+                    LOGGER.warn("Skipping malformed price at {}:{}", priceFile.getDescription(), lineNumber);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read prices from " + priceFile.getDescription(), ex);
+        }
+        return prices;
+    }
+}
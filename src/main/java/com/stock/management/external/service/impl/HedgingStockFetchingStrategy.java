@@ -0,0 +1,265 @@
+package com.stock.management.external.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.exception.StockPriceUnavailableException;
+import com.stock.management.external.config.QuoteHedgingProperties;
+import com.stock.management.external.resilience.LatencyTracker;
+import com.stock.management.external.service.StockFetchingStrategy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Looks quotes up from several providers, sending a lookup to the next provider when the current
+ * one is slower than usual.
+ * <p>
+ * A lookup goes to the provider with the lowest median latency first. If that provider hasn't
+ * answered within its hedge percentile latency, or fails, the lookup is also sent to the next
+ * provider, and so on; the first price to arrive wins. Providers registered as hedge-only, such
+ * as a local price file, are never asked first and only answer lookups that the other providers
+ * are too slow for or fail. Lookups still running once the race is decided are cancelled; the
+ * time they ran is recorded as a lower bound of their provider's latency, so a provider that
+ * keeps losing still has its latency tracked. A provider that has no data for the symbol is an
+ * answer rather than a failure and isn't hedged: the lookup fails with
+ * {@link NoDataFoundForSymbolException} as soon as a provider that isn't hedge-only has no data,
+ * and with {@link StockPriceUnavailableException} if every provider failed.
+ * <p>
+ * Sits above the guards of the upstream provider, so that only the provider's own answers count
+ * as its successes and failures and prices from a hedge-only provider are never remembered as
+ * upstream prices.
+ */
+public class HedgingStockFetchingStrategy implements StockFetchingStrategy, AutoCloseable {
+
+    /**
+     * A quote provider to hedge across.
+     *
+     * @param name      the name the provider's metrics are tagged with
+     * @param strategy  the provider
+     * @param hedgeOnly whether the provider is only asked once another one is too slow
+     */
+    public record Provider(String name, StockFetchingStrategy strategy, boolean hedgeOnly) {
+    }
+
+    private static final double ROUTING_PERCENTILE = 50;
+
+    private final List<Route> routes;
+    private final ExecutorService executor;
+    private final double hedgePercentile;
+    private final long initialHedgeDelayNanos;
+    private final long minimumHedgeDelayNanos;
+    private final long deadlineNanos;
+    private final Counter hedgedLookups;
+
+    /**
+     * @param providers     the providers, in the order they are asked until their latencies are known
+     * @param executor      runs the lookups; should be bounded, since every lookup may use a thread
+     *                      per provider
+     * @param properties    the hedging settings
+     * @param deadline      the longest a lookup waits for any provider
+     * @param meterRegistry receives the per-provider latency and win metrics
+     */
+    public HedgingStockFetchingStrategy(List<Provider> providers, ExecutorService executor,
+                                        QuoteHedgingProperties properties, Duration deadline,
+                                        MeterRegistry meterRegistry) {
+        this.routes = providers.stream()
+                .map(provider -> new Route(provider, properties, meterRegistry))
+                .toList();
+        this.executor = executor;
+        this.hedgePercentile = properties.getHedgePercentile();
+        this.initialHedgeDelayNanos = properties.getInitialHedgeDelay().toNanos();
+        this.minimumHedgeDelayNanos = properties.getMinimumHedgeDelay().toNanos();
+        this.deadlineNanos = deadline.toNanos();
+        this.hedgedLookups = Counter.builder("stock.quote.hedged")
+                .description("Quote lookups also sent to another provider")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Double getStockPrice(String symbol) {
+        return hedge(route -> route.provider.strategy().getStockPrice(symbol), false, "quote for " + symbol);
+    }
+
+    /**
+     * Hedges the whole batch: the first provider to price every symbol wins.
+     */
+    @Override
+    public Map<String, Double> getStockPrices(Collection<String> symbols) {
+        return hedge(route -> route.provider.strategy().getStockPrices(symbols), true, "quotes for " + symbols);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T hedge(Function<Route, T> lookup, boolean bulk, String description) {
+        List<Route> order = routingOrder(bulk);
+        BlockingQueue<Outcome<T>> outcomes = new LinkedBlockingQueue<>();
+        long deadline = System.nanoTime() + deadlineNanos;
+        List<RuntimeException> failures = new ArrayList<>();
+        List<Launch> launches = new ArrayList<>();
+        launches.add(launch(order.get(0), lookup, bulk, outcomes));
+        int launched = 1;
+        int pending = 1;
+        try {
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new StockPriceUnavailableException("No provider answered the " + description + " in time");
+                }
+                boolean canHedge = launched < order.size();
+                long wait = canHedge ? Math.min(remaining, hedgeDelay(order.get(launched - 1), bulk)) : remaining;
+                Outcome<T> outcome = outcomes.poll(wait, TimeUnit.NANOSECONDS);
+                if (outcome == null) {
+                    if (canHedge) {
+                        hedgedLookups.increment();
+                        launches.add(launch(order.get(launched++), lookup, bulk, outcomes));
+                        pending++;
+                    }
+                    continue;
+                }
+                pending--;
+                launches.removeIf(running -> running.route() == outcome.route);
+                if (outcome.failure == null) {
+                    outcome.route.wins.increment();
+                    return outcome.result;
+                }
+                boolean noData = outcome.failure instanceof NoDataFoundForSymbolException;
+                if (noData && !outcome.route.provider.hedgeOnly()) {
+                    throw outcome.failure;
+                }
+                failures.add(outcome.failure);
+                if (canHedge && !noData) {
+                    hedgedLookups.increment();
+                    launches.add(launch(order.get(launched++), lookup, bulk, outcomes));
+                    pending++;
+                } else if (pending == 0) {
+                    throw failure(failures, description);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new StockPriceUnavailableException("Interrupted while waiting for the " + description, ex);
+        } finally {
+            launches.forEach(running -> running.cancel(bulk));
+        }
+    }
+
+    private <T> Launch launch(Route route, Function<Route, T> lookup, boolean bulk, BlockingQueue<Outcome<T>> outcomes) {
+        long start = System.nanoTime();
+        try {
+            Future<?> future = executor.submit(() -> {
+                try {
+                    T result = lookup.apply(route);
+                    route.record(System.nanoTime() - start, bulk);
+                    outcomes.add(new Outcome<>(route, result, null));
+                } catch (RuntimeException ex) {
+                    outcomes.add(new Outcome<>(route, null, ex));
+                }
+            });
+            return new Launch(route, future, start);
+        } catch (RejectedExecutionException ex) {
+            outcomes.add(new Outcome<>(route, null, new StockPriceUnavailableException("Too many quote lookups", ex)));
+            return new Launch(route, null, start);
+        }
+    }
+
+    /**
+     * Providers that are asked first, fastest median first with providers of unknown latency
+     * ahead so they get measured, followed by the hedge-only providers in registration order.
+     */
+    private List<Route> routingOrder(boolean bulk) {
+        List<Route> primary = new ArrayList<>();
+        List<Route> hedgeOnly = new ArrayList<>();
+        for (Route route : routes) {
+            (route.provider.hedgeOnly() ? hedgeOnly : primary).add(route);
+        }
+        if (primary.size() > 1) {
+            primary.sort(Comparator.comparingLong(route -> route.tracker(bulk).percentile(ROUTING_PERCENTILE)));
+        }
+        primary.addAll(hedgeOnly);
+        return primary;
+    }
+
+    private long hedgeDelay(Route route, boolean bulk) {
+        long latency = route.tracker(bulk).percentile(hedgePercentile);
+        return latency < 0 ? initialHedgeDelayNanos : Math.max(latency, minimumHedgeDelayNanos);
+    }
+
+    private static RuntimeException failure(List<RuntimeException> failures, String description) {
+        for (RuntimeException failure : failures) {
+            if (!(failure instanceof NoDataFoundForSymbolException)) {
+                return failure instanceof StockPriceUnavailableException
+                        ? failure
+                        : new StockPriceUnavailableException("Failed to fetch the " + description, failure);
+            }
+        }
+        return failures.get(0);
+    }
+
+    private record Outcome<T>(Route route, T result, RuntimeException failure) {
+    }
+
+    /**
+     * A lookup sent to a provider.
+     */
+    private record Launch(Route route, Future<?> future, long startNanos) {
+
+        /**
+         * Cancels the lookup if it is still running, recording how long it ran so far.
+         */
+        private void cancel(boolean bulk) {
+            if (future != null && future.cancel(true)) {
+                route.tracker(bulk).record(System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    private static final class Route {
+
+        private final Provider provider;
+        private final LatencyTracker singleLatencies;
+        private final LatencyTracker bulkLatencies;
+        private final Timer latencyTimer;
+        private final Counter wins;
+
+        private Route(Provider provider, QuoteHedgingProperties properties, MeterRegistry meterRegistry) {
+            this.provider = provider;
+            this.singleLatencies = new LatencyTracker(properties.getLatencyWindowSize(), properties.getMinimumSamples());
+            this.bulkLatencies = new LatencyTracker(properties.getLatencyWindowSize(), properties.getMinimumSamples());
+            this.latencyTimer = Timer.builder("stock.quote.provider.latency")
+                    .description("Latency of successful quote lookups per provider")
+                    .tag("provider", provider.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.wins = Counter.builder("stock.quote.provider.wins")
+                    .description("Quote lookups answered first by the provider")
+                    .tag("provider", provider.name())
+                    .register(meterRegistry);
+        }
+
+        private LatencyTracker tracker(boolean bulk) {
+            return bulk ? bulkLatencies : singleLatencies;
+        }
+
+        private void record(long latencyNanos, boolean bulk) {
+            tracker(bulk).record(latencyNanos);
+            latencyTimer.record(latencyNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.stock.management.external.service.impl;
+
+import java.time.Duration;
+
+import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.exception.StockPriceUnavailableException;
+import com.stock.management.external.marketdata.MarketDataStore;
+import com.stock.management.external.service.StockFetchingStrategy;
+
+/**
+ * Serves the latest pushed quote from the {@link MarketDataStore}. Lookups are memory reads and
+ * never wait for a quote to arrive.
+ */
+public class MarketDataStockFetchingStrategy implements StockFetchingStrategy {
+
+    private final MarketDataStore marketDataStore;
+    private final long maxAgeMillis;
+
+    /**
+     * @param marketDataStore the store the quote feeds write to
+     * @param maxAge          age after which a quote is no longer served; zero serves quotes of any age
+     */
+    public MarketDataStockFetchingStrategy(MarketDataStore marketDataStore, Duration maxAge) {
+        this.marketDataStore = marketDataStore;
+        this.maxAgeMillis = maxAge.toMillis();
+    }
+
+    /**
+     * @throws NoDataFoundForSymbolException  if no quote has been received for the symbol
+     * @throws StockPriceUnavailableException if the latest quote is older than the maximum age
+     */
+    @Override
+    public Double getStockPrice(String symbol) {
+        long since = maxAgeMillis > 0 ? System.currentTimeMillis() - maxAgeMillis : Long.MIN_VALUE;
+        double price = marketDataStore.priceQuotedSince(symbol, since);
+        if (!Double.isNaN(price)) {
+            return price;
+        }
+        if (Double.isNaN(marketDataStore.price(symbol))) {
+            throw new NoDataFoundForSymbolException(symbol);
+        }
+        throw new StockPriceUnavailableException("Latest quote for " + symbol + " is older than " + maxAgeMillis + " ms");
+    }
+}
@@ -0,0 +1,376 @@
+package com.stock.management.external.service.impl;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stock.management.exception.QuoteQuotaExceededException;
+import com.stock.management.exception.StockPriceUnavailableException;
+import com.stock.management.external.config.QuoteRateLimitProperties;
+import com.stock.management.external.resilience.QuotaWindow;
+import com.stock.management.external.resilience.TokenBucket;
+import com.stock.management.external.service.StockFetchingStrategy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Keeps upstream quote requests within the provider's per-minute and per-day quota.
+ * <p>
+ * Lookups don't call the provider right away but queue a request for their symbol, and a lookup
+ * of a symbol that is already queued or being requested joins that request instead of adding
+ * another one. A single dispatcher takes a token from each quota bucket per request and lets the
+ * request go ahead; one of the lookups waiting for it then calls the provider on its own thread,
+ * so bulk lookups keep their fan-out and its deadline. Of the queued symbols, the one in highest
+ * demand goes first, where demand is the number of recent lookups of the symbol with a
+ * configurable half-life. Each quota is an allowance per fixed minute or day, renewed in full at
+ * the start of the next one. Within a minute, a token bucket lets {@code burst} requests go at
+ * once and spreads the rest of the minute's quota evenly. A lookup fails with
+ * {@link QuoteQuotaExceededException} when the queue is full, when the day's quota is used up,
+ * or when its request isn't answered within the maximum wait, so load beyond the quota degrades
+ * into fast failures, with the time until quota frees up, instead of every lookup timing out.
+ */
+public class RateLimitedStockFetchingStrategy implements StockFetchingStrategy, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimitedStockFetchingStrategy.class);
+
+    private final StockFetchingStrategy delegate;
+    private final TokenBucket minuteRate;
+    private final QuotaWindow minuteQuota;
+    private final QuotaWindow dayQuota;
+    private final int maxQueueSize;
+    private final long maxWaitNanos;
+    private final double halfLifeNanos;
+    private final LongSupplier nanoClock;
+
+    private final Object lock = new Object();
+    private final Map<String, QueuedRequest> queue = new LinkedHashMap<>();
+    private final Map<String, QueuedRequest> inFlight = new HashMap<>();
+    private final Cache<String, Demand> demand;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    private final Timer waitTimer;
+    private final Counter coalescedLookups;
+    private final Counter queueFullRejections;
+    private final Counter dailyQuotaRejections;
+    private final Counter timeoutRejections;
+
+    public RateLimitedStockFetchingStrategy(StockFetchingStrategy delegate, QuoteRateLimitProperties properties,
+                                            MeterRegistry meterRegistry) {
+        this(delegate, properties, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * @param delegate      the upstream provider
+     * @param properties    the quota settings
+     * @param meterRegistry receives the queue and quota metrics
+     * @param nanoClock     the time source, as for {@link System#nanoTime()}
+     */
+    public RateLimitedStockFetchingStrategy(StockFetchingStrategy delegate, QuoteRateLimitProperties properties,
+                                            MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.delegate = delegate;
+        int perMinute = properties.getRequestsPerMinute();
+        this.minuteRate = perMinute > 0 ? new TokenBucket(Math.max(1, Math.min(properties.getBurst(), perMinute)),
+                perMinute, Duration.ofMinutes(1), nanoClock) : null;
+        this.minuteQuota = perMinute > 0 ? new QuotaWindow(perMinute, Duration.ofMinutes(1), nanoClock) : null;
+        this.dayQuota = properties.getRequestsPerDay() > 0
+                ? new QuotaWindow(properties.getRequestsPerDay(), Duration.ofDays(1), nanoClock) : null;
+        this.maxQueueSize = properties.getMaxQueueSize();
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.halfLifeNanos = properties.getHotSymbolHalfLife().toNanos();
+        this.nanoClock = nanoClock;
+        this.demand = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(properties.getHotSymbolHalfLife().multipliedBy(10))
+                .build();
+
+        this.waitTimer = Timer.builder("stock.quote.limiter.wait")
+                .description("Time upstream quote requests spend queued for quota")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.coalescedLookups = Counter.builder("stock.quote.limiter.coalesced")
+                .description("Lookups that joined a queued or in-flight request for the same symbol")
+                .register(meterRegistry);
+        this.queueFullRejections = rejectionCounter(meterRegistry, "queue_full");
+        this.dailyQuotaRejections = rejectionCounter(meterRegistry, "daily_quota");
+        this.timeoutRejections = rejectionCounter(meterRegistry, "timeout");
+        Gauge.builder("stock.quote.limiter.queue.depth", queueDepth, AtomicInteger::get)
+                .description("Symbols waiting for an upstream quote request")
+                .register(meterRegistry);
+        registerQuotaGauge(meterRegistry, "minute", minuteQuota);
+        registerQuotaGauge(meterRegistry, "day", dayQuota);
+
+        this.dispatcher = new Thread(this::dispatch, "quote-rate-limiter");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    @Override
+    public Double getStockPrice(String symbol) {
+        long deadline = nanoClock.getAsLong() + maxWaitNanos;
+        return await(enqueue(symbol), deadline);
+    }
+
+    /**
+     * @return the number of symbols waiting for an upstream request
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        synchronized (lock) {
+            queue.values().forEach(request -> request.result.completeExceptionally(
+                    new StockPriceUnavailableException("Quote rate limiter is shut down")));
+            queue.clear();
+            queueDepth.set(0);
+        }
+    }
+
+    private QueuedRequest enqueue(String symbol) {
+        long now = nanoClock.getAsLong();
+        double score = demand.get(symbol, ignored -> new Demand()).record(now, halfLifeNanos);
+        synchronized (lock) {
+            QueuedRequest queued = queue.get(symbol);
+            if (queued != null) {
+                queued.waiters++;
+                queued.priority = score;
+                coalescedLookups.increment();
+                lock.notifyAll();
+                return queued;
+            }
+            QueuedRequest requested = inFlight.get(symbol);
+            if (requested != null) {
+                requested.waiters++;
+                coalescedLookups.increment();
+                return requested;
+            }
+            if (dayQuota != null && dayQuota.nanosUntilAvailable() > maxWaitNanos) {
+                dailyQuotaRejections.increment();
+                throw new QuoteQuotaExceededException("Daily quote quota is used up; no request for " + symbol
+                        + ", retry in " + secondsUntil(dayQuota.nanosUntilAvailable()) + " s");
+            }
+            if (queue.size() >= maxQueueSize) {
+                queueFullRejections.increment();
+                throw new QuoteQuotaExceededException("Quote request queue is full; no request for " + symbol);
+            }
+            QueuedRequest request = new QueuedRequest(symbol, now, score);
+            queue.put(symbol, request);
+            queueDepth.set(queue.size());
+            lock.notifyAll();
+            return request;
+        }
+    }
+
+    /**
+     * Waits until the request may go ahead or is answered. The first lookup to see it go ahead
+     * calls the provider and answers every lookup of the request.
+     */
+    private Double await(QueuedRequest request, long deadline) {
+        try {
+            CompletableFuture.anyOf(request.granted, request.result)
+                    .get(Math.max(0, deadline - nanoClock.getAsLong()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            timeoutRejections.increment();
+            abandon(request);
+            throw new QuoteQuotaExceededException("Quote requests are rate limited; no request for " + request.symbol
+                    + " within " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms, retry in "
+                    + secondsUntil(nanosUntilQuota()) + " s");
+        } catch (ExecutionException ex) {
+            // The request was answered with a failure, passed on below
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            abandon(request);
+            throw new StockPriceUnavailableException("Interrupted while waiting for quote quota", ex);
+        }
+        if (!request.result.isDone() && request.caller.compareAndSet(false, true)) {
+            fetch(request);
+        }
+
+        try {
+            return request.result.get(Math.max(0, deadline - nanoClock.getAsLong()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            abandon(request);
+            throw new StockPriceUnavailableException("Quote request for " + request.symbol + " wasn't answered within "
+                    + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new StockPriceUnavailableException("Failed to fetch stock price for " + request.symbol, ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            abandon(request);
+            throw new StockPriceUnavailableException("Interrupted while waiting for quote quota", ex);
+        }
+    }
+
+    /**
+     * Drops a lookup from its request, and the request from the queue once no lookup waits for it,
+     * so that no quota is spent on answers nobody reads.
+     */
+    private void abandon(QueuedRequest request) {
+        synchronized (lock) {
+            if (--request.waiters == 0) {
+                if (queue.remove(request.symbol, request)) {
+                    queueDepth.set(queue.size());
+                }
+                inFlight.remove(request.symbol, request);
+            }
+        }
+    }
+
+    private void dispatch() {
+        while (running) {
+            try {
+                QueuedRequest next = takeNext();
+                waitTimer.record(nanoClock.getAsLong() - next.queuedAtNanos, TimeUnit.NANOSECONDS);
+                next.granted.complete(null);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                LOGGER.error("Quote rate limiter failed to dispatch a request", ex);
+            }
+        }
+    }
+
+    /**
+     * Waits until a request is queued and every quota has a token, then takes the queued request
+     * in highest demand, the oldest one among equals.
+     */
+    private QueuedRequest takeNext() throws InterruptedException {
+        synchronized (lock) {
+            while (true) {
+                if (queue.isEmpty()) {
+                    lock.wait();
+                    continue;
+                }
+                long wait = nanosUntilQuota();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(lock, wait);
+                    continue;
+                }
+                QueuedRequest next = null;
+                for (QueuedRequest request : queue.values()) {
+                    if (next == null || request.priority > next.priority) {
+                        next = request;
+                    }
+                }
+                if (minuteRate != null) {
+                    minuteRate.tryConsume();
+                    minuteQuota.tryConsume();
+                }
+                if (dayQuota != null) {
+                    dayQuota.tryConsume();
+                }
+                queue.remove(next.symbol);
+                queueDepth.set(queue.size());
+                inFlight.put(next.symbol, next);
+                return next;
+            }
+        }
+    }
+
+    private void fetch(QueuedRequest request) {
+        try {
+            request.result.complete(delegate.getStockPrice(request.symbol));
+        } catch (RuntimeException ex) {
+            request.result.completeExceptionally(ex);
+        } finally {
+            synchronized (lock) {
+                inFlight.remove(request.symbol, request);
+            }
+        }
+    }
+
+    /**
+     * @return the time until every quota has a token, zero if they have one now
+     */
+    private long nanosUntilQuota() {
+        long wait = 0;
+        if (minuteRate != null) {
+            wait = Math.max(minuteRate.nanosUntilAvailable(), minuteQuota.nanosUntilAvailable());
+        }
+        if (dayQuota != null) {
+            wait = Math.max(wait, dayQuota.nanosUntilAvailable());
+        }
+        return wait;
+    }
+
+    private static long secondsUntil(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("stock.quote.limiter.rejected")
+                .description("Lookups failed because the upstream quote quota didn't allow a request")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static void registerQuotaGauge(MeterRegistry meterRegistry, String window, QuotaWindow quota) {
+        if (quota != null) {
+            Gauge.builder("stock.quote.limiter.tokens", quota, QuotaWindow::available)
+                    .description("Upstream quote requests left in the current quota window")
+                    .tag("window", window)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * A queued or in-flight upstream request for one symbol, shared by every lookup of the symbol.
+     * Mutable fields are guarded by the limiter's lock.
+     */
+    private static final class QueuedRequest {
+
+        private final String symbol;
+        private final long queuedAtNanos;
+        private final CompletableFuture<Void> granted = new CompletableFuture<>();
+        private final CompletableFuture<Double> result = new CompletableFuture<>();
+        private final AtomicBoolean caller = new AtomicBoolean();
+        private double priority;
+        private int waiters = 1;
+
+        private QueuedRequest(String symbol, long queuedAtNanos, double priority) {
+            this.symbol = symbol;
+            this.queuedAtNanos = queuedAtNanos;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Exponentially decaying count of a symbol's lookups.
+     */
+    private static final class Demand {
+
+        private double score;
+        private long updatedAtNanos;
+
+        private synchronized double record(long now, double halfLifeNanos) {
+            score = score * Math.pow(0.5, (now - updatedAtNanos) / halfLifeNanos) + 1;
+            updatedAtNanos = now;
+            return score;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.stock.management.external.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.exception.QuoteQuotaExceededException;
+import com.stock.management.exception.StockPriceUnavailableException;
+import com.stock.management.external.config.QuoteResilienceProperties;
+import com.stock.management.external.resilience.CircuitBreaker;
+import com.stock.management.external.resilience.RetryBudget;
+import com.stock.management.external.service.StockFetchingStrategy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Guards an upstream {@link StockFetchingStrategy} against slow and failing providers.
+ * <p>
+ * Every upstream call needs a bulkhead slot, so callers wait at most the configured time for
+ * one instead of piling up behind a slow provider, and must pass a circuit breaker that stops
+ * calling the provider while most calls fail. A failed call is retried after a randomized,
+ * exponentially growing delay as long as the shared retry budget allows it. If the call still
+ * fails, the last price fetched for the symbol within the stale max age is served instead and
+ * the symbol is flagged as stale until it is fetched again. Bulk lookups are fanned out into
+ * single-symbol lookups, each guarded, retried and remembered on its own, so a symbol that fails
+ * costs one upstream request per retry rather than a request for every symbol of the batch.
+ * <p>
+ * Only {@link StockPriceUnavailableException} and unexpected errors count as failures; a
+ * {@link NoDataFoundForSymbolException} is an answer from a healthy provider and is passed on.
+ * A {@link QuoteQuotaExceededException} neither counts nor is retried, since another request
+ * wouldn't be allowed either; the lookup falls back to the last known price right away.
+ */
+public class ResilientStockFetchingStrategy implements StockFetchingStrategy {
+
+    public static final String PROVIDER_NAME = "quoteProvider";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResilientStockFetchingStrategy.class);
+
+    private final StockFetchingStrategy delegate;
+    private final ConcurrentQuoteFetcher fetcher;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final long bulkheadMaxWaitNanos;
+    private final RetryBudget retryBudget;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final Cache<String, LastKnownPrice> lastKnownPrices;
+    private final Map<String, Instant> staleSymbols = new ConcurrentHashMap<>();
+
+    private final Counter successfulCalls;
+    private final Counter noDataCalls;
+    private final Counter failedCalls;
+    private final Counter quotaExceededCalls;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadFullRejections;
+    private final Counter retries;
+    private final Counter retryBudgetExhausted;
+    private final Counter stalePricesServed;
+    private final Counter fallbackMisses;
+
+    /**
+     * @param delegate      the upstream provider, asked for one symbol at a time
+     * @param fetcher       fans bulk lookups out into single-symbol lookups
+     * @param properties    the guard settings
+     * @param meterRegistry receives the call, retry and fallback metrics
+     */
+    public ResilientStockFetchingStrategy(StockFetchingStrategy delegate, ConcurrentQuoteFetcher fetcher,
+                                          QuoteResilienceProperties properties, MeterRegistry meterRegistry) {
+        QuoteResilienceProperties.CircuitBreaker circuitBreakerProperties = properties.getCircuitBreaker();
+        QuoteResilienceProperties.Retry retryProperties = properties.getRetry();
+        this.delegate = delegate;
+        this.fetcher = fetcher;
+        this.circuitBreaker = new CircuitBreaker(PROVIDER_NAME,
+                circuitBreakerProperties.getFailureRateThreshold(),
+                circuitBreakerProperties.getSlidingWindowSize(),
+                circuitBreakerProperties.getMinimumCalls(),
+                circuitBreakerProperties.getOpenDuration(),
+                circuitBreakerProperties.getHalfOpenCalls(),
+                System::nanoTime);
+        this.bulkhead = new Semaphore(properties.getBulkhead().getMaxConcurrentCalls());
+        this.bulkheadMaxWaitNanos = properties.getBulkhead().getMaxWait().toNanos();
+        this.retryBudget = new RetryBudget(retryProperties.getBudgetRatio(), retryProperties.getBudgetCapacity());
+        this.maxAttempts = Math.max(1, retryProperties.getMaxAttempts());
+        this.initialBackoffNanos = retryProperties.getInitialBackoff().toNanos();
+        this.maxBackoffNanos = retryProperties.getMaxBackoff().toNanos();
+        this.lastKnownPrices = Caffeine.newBuilder()
+                .maximumSize(properties.getFallback().getMaximumSize())
+                .expireAfterWrite(properties.getFallback().getStaleMaxAge())
+                .build();
+
+        this.successfulCalls = callCounter(meterRegistry, "success");
+        this.noDataCalls = callCounter(meterRegistry, "no_data");
+        this.failedCalls = callCounter(meterRegistry, "failure");
+        this.quotaExceededCalls = callCounter(meterRegistry, "quota_exceeded");
+        this.circuitOpenRejections = rejectionCounter(meterRegistry, "circuit_open");
+        this.bulkheadFullRejections = rejectionCounter(meterRegistry, "bulkhead_full");
+        this.retries = retryCounter(meterRegistry, "retried");
+        this.retryBudgetExhausted = retryCounter(meterRegistry, "budget_exhausted");
+        this.stalePricesServed = fallbackCounter(meterRegistry, "stale");
+        this.fallbackMisses = fallbackCounter(meterRegistry, "unavailable");
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("stock.quote.circuit.state", circuitBreaker, breaker -> breaker.getState() == state ? 1 : 0)
+                    .description("1 for the current state of the quote provider circuit breaker, 0 otherwise")
+                    .tag("state", state.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("stock.quote.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Free slots for upstream quote calls")
+                .register(meterRegistry);
+        Gauge.builder("stock.quote.retry.budget", retryBudget, RetryBudget::available)
+                .description("Retries of upstream quote calls currently allowed")
+                .register(meterRegistry);
+        Gauge.builder("stock.quote.stale.symbols", staleSymbols, Map::size)
+                .description("Symbols currently served from their last known price")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Double getStockPrice(String symbol) {
+        try {
+            Double price = call(() -> delegate.getStockPrice(symbol));
+            remember(symbol, price);
+            return price;
+        } catch (StockPriceUnavailableException ex) {
+            return fallback(symbol, ex);
+        }
+    }
+
+    /**
+     * Looks each symbol up concurrently as by {@link #getStockPrice(String)}. A symbol whose
+     * lookup fails is served from its last known price; the call fails if any symbol has none.
+     */
+    @Override
+    public Map<String, Double> getStockPrices(Collection<String> symbols) {
+        return fetcher.fetchAll(symbols, this::getStockPrice);
+    }
+
+    /**
+     * Looks each symbol up like {@link #getStockPrices(Collection)}, but never serves a last known
+     * price: symbols whose lookup fails are left out, so every returned price was fetched now.
+     *
+     * @param symbols the stock symbols
+     * @return the prices fetched from the provider, in the order the symbols were given
+     */
+    public Map<String, Double> getFreshStockPrices(Collection<String> symbols) {
+        Map<String, Double> prices = fetcher.fetchAll(symbols, symbol -> {
+            try {
+                Double price = call(() -> delegate.getStockPrice(symbol));
+                remember(symbol, price);
+                return price;
+            } catch (StockPriceUnavailableException | NoDataFoundForSymbolException ex) {
+                return null;
+            }
+        });
+        prices.values().removeIf(Objects::isNull);
+        return prices;
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    public double getFailureRate() {
+        return circuitBreaker.getFailureRate();
+    }
+
+    public int getAvailableBulkheadSlots() {
+        return bulkhead.availablePermits();
+    }
+
+    public double getAvailableRetries() {
+        return retryBudget.available();
+    }
+
+    /**
+     * @return the symbols currently served from their last known price, with the time that price
+     *         was fetched
+     */
+    public Map<String, Instant> getStaleSymbols() {
+        return Map.copyOf(staleSymbols);
+    }
+
+    private <T> T call(Supplier<T> upstreamCall) {
+        retryBudget.deposit();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attempt(upstreamCall);
+            } catch (CallNotPermittedException | QuoteQuotaExceededException ex) {
+                throw ex;
+            } catch (StockPriceUnavailableException ex) {
+                if (attempt >= maxAttempts) {
+                    throw ex;
+                }
+                if (!retryBudget.tryWithdraw()) {
+                    retryBudgetExhausted.increment();
+                    throw ex;
+                }
+                retries.increment();
+                backOff(attempt);
+            }
+        }
+    }
+
+    private <T> T attempt(Supplier<T> upstreamCall) {
+        acquireBulkheadSlot();
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                circuitOpenRejections.increment();
+                throw new CallNotPermittedException("Quote provider circuit breaker is open");
+            }
+            try {
+                T result = upstreamCall.get();
+                circuitBreaker.onSuccess();
+                successfulCalls.increment();
+                return result;
+            } catch (NoDataFoundForSymbolException ex) {
+                circuitBreaker.onSuccess();
+                noDataCalls.increment();
+                throw ex;
+            } catch (QuoteQuotaExceededException ex) {
+                circuitBreaker.releasePermission();
+                quotaExceededCalls.increment();
+                throw ex;
+            } catch (StockPriceUnavailableException ex) {
+                circuitBreaker.onFailure();
+                failedCalls.increment();
+                throw ex;
+            } catch (RuntimeException ex) {
+                circuitBreaker.onFailure();
+                failedCalls.increment();
+                throw new StockPriceUnavailableException("Failed to fetch stock price: " + ex.getMessage(), ex);
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private void acquireBulkheadSlot() {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadMaxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CallNotPermittedException("Interrupted while waiting for a quote provider slot");
+        }
+        if (!acquired) {
+            bulkheadFullRejections.increment();
+            throw new CallNotPermittedException("Too many concurrent quote provider calls");
+        }
+    }
+
+    /**
+     * Sleeps for a random time between zero and the exponential backoff of the attempt ("full
+     * jitter"), so that callers that failed together don't retry together.
+     */
+    private void backOff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CallNotPermittedException("Interrupted while backing off");
+        }
+    }
+
+    private void remember(String symbol, Double price) {
+        lastKnownPrices.put(symbol, new LastKnownPrice(price, Instant.now()));
+        staleSymbols.remove(symbol);
+    }
+
+    private Double fallback(String symbol, StockPriceUnavailableException failure) {
+        LastKnownPrice lastKnown = lastKnownPrices.getIfPresent(symbol);
+        if (lastKnown == null) {
+            fallbackMisses.increment();
+            throw failure;
+        }
+        stalePricesServed.increment();
+        if (staleSymbols.put(symbol, lastKnown.fetchedAt()) == null) {
+            LOGGER.warn("Serving stale price of {} fetched at {}: {}", symbol, lastKnown.fetchedAt(), failure.getMessage());
+        }
+        return lastKnown.price();
+    }
+
+    private static Counter callCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("stock.quote.upstream.calls")
+                .description("Upstream quote calls by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("stock.quote.upstream.rejected")
+                .description("Upstream quote calls rejected without reaching the provider")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static Counter retryCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("stock.quote.upstream.retries")
+                .description("Retries of failed upstream quote calls, and retries denied by the retry budget")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter fallbackCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("stock.quote.fallback")
+                .description("Failed quote lookups served from the last known price, or failed for lack of one")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record LastKnownPrice(Double price, Instant fetchedAt) {
+    }
+
+    /**
+     * A call rejected by the bulkhead or circuit breaker; never retried.
+     */
+    private static final class CallNotPermittedException extends StockPriceUnavailableException {
+
+        private CallNotPermittedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.stock.management.external.warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stock.management.external.config.QuoteWarmerProperties;
+import com.stock.management.external.resilience.TokenBucket;
+import com.stock.management.external.service.impl.CachingStockFetchingStrategy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Refreshes the quotes of held symbols in the background, so the first lookup of a held symbol
+ * is served from the quote cache instead of paying the upstream latency.
+ * <p>
+ * Every check interval, the symbols held by any user are checked for quotes due for a refresh.
+ * A symbol that isn't being read is due every {@code max-interval}; a symbol read {@code n}
+ * times a minute every {@code max-interval / (1 + n)}, but never more often than
+ * {@code min-interval}. Read rates count the lookups seen by the quote cache, with a
+ * configurable half-life. Lookups are only counted on the reading thread, without locking, and
+ * folded into the read rates at each check. Due symbols are fetched in bulk lookups of up to
+ * {@code batch-size} symbols, most read first, and written into the quote cache; symbols that
+ * could only be served from a stale price are left out. The refreshes use at most
+ * {@code requests-per-minute} of the upstream quota; symbols beyond it wait for the next check.
+ */
+public class QuoteWarmer implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuoteWarmer.class);
+
+    private final Supplier<Collection<String>> heldSymbols;
+    private final Function<Collection<String>, Map<String, Double>> freshPrices;
+    private final CachingStockFetchingStrategy quoteCache;
+    private final TokenBucket budget;
+    private final long checkIntervalNanos;
+    private final long minIntervalNanos;
+    private final long maxIntervalNanos;
+    private final double halfLifeNanos;
+    private final int batchSize;
+    private final LongSupplier nanoClock;
+    private final Cache<String, SymbolActivity> activity;
+    private final ConcurrentMap<String, LongAdder> uncountedReads = new ConcurrentHashMap<>();
+    private final AtomicInteger heldSymbolCount = new AtomicInteger();
+
+    private final Counter refreshedSymbols;
+    private final Counter deferredSymbols;
+    private final Counter failedSymbols;
+
+    private volatile ScheduledExecutorService scheduler;
+
+    public QuoteWarmer(Supplier<Collection<String>> heldSymbols,
+                       Function<Collection<String>, Map<String, Double>> freshPrices,
+                       CachingStockFetchingStrategy quoteCache, QuoteWarmerProperties properties,
+                       MeterRegistry meterRegistry) {
+        this(heldSymbols, freshPrices, quoteCache, properties, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * @param heldSymbols   reads the symbols held by any user
+     * @param freshPrices   fetches the quotes, bypassing the quote cache, and leaves out symbols
+     *                      it couldn't fetch rather than serving a stale price for them
+     * @param quoteCache    receives the fetched quotes and reports the lookups
+     * @param properties    the refresh settings
+     * @param meterRegistry receives the refresh metrics
+     * @param nanoClock     the time source, as for {@link System#nanoTime()}
+     */
+    public QuoteWarmer(Supplier<Collection<String>> heldSymbols,
+                       Function<Collection<String>, Map<String, Double>> freshPrices,
+                       CachingStockFetchingStrategy quoteCache, QuoteWarmerProperties properties,
+                       MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.heldSymbols = heldSymbols;
+        this.freshPrices = freshPrices;
+        this.quoteCache = quoteCache;
+        this.budget = new TokenBucket(properties.getRequestsPerMinute(), Duration.ofMinutes(1), nanoClock);
+        this.checkIntervalNanos = properties.getCheckInterval().toNanos();
+        this.minIntervalNanos = properties.getMinInterval().toNanos();
+        this.maxIntervalNanos = properties.getMaxInterval().toNanos();
+        this.halfLifeNanos = properties.getReadHalfLife().toNanos();
+        this.batchSize = properties.getBatchSize();
+        this.nanoClock = nanoClock;
+        this.activity = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(properties.getReadHalfLife().multipliedBy(10))
+                .build();
+
+        this.refreshedSymbols = Counter.builder("stock.quote.warmer.refreshed")
+                .description("Quotes of held symbols refreshed in the background")
+                .register(meterRegistry);
+        this.deferredSymbols = Counter.builder("stock.quote.warmer.deferred")
+                .description("Due refreshes put off to the next check because the refresh budget was used up")
+                .register(meterRegistry);
+        this.failedSymbols = Counter.builder("stock.quote.warmer.failed")
+                .description("Background refreshes that failed")
+                .register(meterRegistry);
+        Gauge.builder("stock.quote.warmer.held.symbols", heldSymbolCount, AtomicInteger::get)
+                .description("Symbols held by any user at the last check")
+                .register(meterRegistry);
+
+        quoteCache.addReadListener(this::recordRead);
+    }
+
+    /**
+     * Counts a lookup of the symbol towards its read rate. Called on every quote cache lookup, so
+     * it only bumps a counter; the counts are folded into the read rates at the next check.
+     */
+    public void recordRead(String symbol) {
+        LongAdder reads = uncountedReads.get(symbol);
+        if (reads == null) {
+            reads = uncountedReads.computeIfAbsent(symbol, ignored -> new LongAdder());
+        }
+        reads.increment();
+    }
+
+    /**
+     * Refreshes the quotes of the held symbols that are due, within the refresh budget.
+     *
+     * @return the number of quotes refreshed
+     */
+    public int refreshDueQuotes() {
+        long now = nanoClock.getAsLong();
+        countReads(now);
+        Collection<String> held = heldSymbols.get();
+        heldSymbolCount.set(held.size());
+
+        List<DueSymbol> due = new ArrayList<>();
+        for (String symbol : held) {
+            SymbolActivity symbolActivity = activity.get(symbol, ignored -> new SymbolActivity());
+            double readsPerMinute = symbolActivity.readsPerMinute(now, halfLifeNanos);
+            if (symbolActivity.isDue(now, refreshInterval(readsPerMinute))) {
+                due.add(new DueSymbol(symbol, symbolActivity, readsPerMinute));
+            }
+        }
+        due.sort(Comparator.comparingDouble(DueSymbol::readsPerMinute).reversed());
+
+        List<DueSymbol> selected = new ArrayList<>();
+        for (DueSymbol dueSymbol : due) {
+            if (!budget.tryConsume()) {
+                deferredSymbols.increment(due.size() - selected.size());
+                break;
+            }
+            selected.add(dueSymbol);
+        }
+
+        int refreshed = 0;
+        for (int from = 0; from < selected.size(); from += batchSize) {
+            refreshed += refresh(selected.subList(from, Math.min(from + batchSize, selected.size())), now);
+        }
+        return refreshed;
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "quote-warmer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::refreshSafely, checkIntervalNanos, checkIntervalNanos, TimeUnit.NANOSECONDS);
+        scheduler = executor;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor != null) {
+            executor.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Folds the lookups counted since the last check into the read rates.
+     */
+    private void countReads(long now) {
+        for (Map.Entry<String, LongAdder> entry : uncountedReads.entrySet()) {
+            // Removed first, so that at most the lookups racing with the removal go uncounted
+            uncountedReads.remove(entry.getKey(), entry.getValue());
+            long reads = entry.getValue().sumThenReset();
+            activity.get(entry.getKey(), ignored -> new SymbolActivity()).recordReads(reads, now, halfLifeNanos);
+        }
+    }
+
+    private int refresh(List<DueSymbol> batch, long now) {
+        List<String> symbols = batch.stream().map(DueSymbol::symbol).toList();
+        try {
+            Map<String, Double> prices = freshPrices.apply(symbols);
+            quoteCache.putAll(prices);
+            batch.forEach(dueSymbol -> dueSymbol.activity().markRefreshed(now));
+            refreshedSymbols.increment(prices.size());
+            failedSymbols.increment(symbols.size() - prices.size());
+            return prices.size();
+        } catch (RuntimeException ex) {
+            // Marked as refreshed anyway, so a failing batch isn't retried on every check
+            batch.forEach(dueSymbol -> dueSymbol.activity().markRefreshed(now));
+            failedSymbols.increment(symbols.size());
+            LOGGER.warn("Failed to refresh quotes of {}: {}", symbols, ex.getMessage());
+            return 0;
+        }
+    }
+
+    private void refreshSafely() {
+        try {
+            refreshDueQuotes();
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Quote refresh failed", ex);
+        }
+    }
+
+    private long refreshInterval(double readsPerMinute) {
+        return Math.max(minIntervalNanos, (long) (maxIntervalNanos / (1 + readsPerMinute)));
+    }
+
+    private record DueSymbol(String symbol, SymbolActivity activity, double readsPerMinute) {
+    }
+
+    /**
+     * Read rate and refresh time of a symbol. Only used by the thread running the checks.
+     */
+    private static final class SymbolActivity {
+
+        private static final double NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+        private double reads;
+        private long readAtNanos;
+        private boolean refreshed;
+        private long refreshedAtNanos;
+
+        private void recordReads(long count, long now, double halfLifeNanos) {
+            reads = decayedReads(now, halfLifeNanos) + count;
+            readAtNanos = now;
+        }
+
+        /**
+         * The decayed read count settles at {@code rate * halfLife / ln 2} for a steady read rate.
+         */
+        private double readsPerMinute(long now, double halfLifeNanos) {
+            return decayedReads(now, halfLifeNanos) * Math.log(2) * NANOS_PER_MINUTE / halfLifeNanos;
+        }
+
+        private boolean isDue(long now, long intervalNanos) {
+            return !refreshed || now - refreshedAtNanos >= intervalNanos;
+        }
+
+        private void markRefreshed(long now) {
+            refreshed = true;
+            refreshedAtNanos = now;
+        }
+
+        private double decayedReads(long now, double halfLifeNanos) {
+            return reads == 0 ? 0 : reads * Math.pow(0.5, (now - readAtNanos) / halfLifeNanos);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.stock.management.security;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the BCrypt work factor for the machine the application runs on.
+ */
+public final class BCryptCalibration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BCryptCalibration.class);
+    private static final String PROBE = "calibration-probe";
+    private static final int SAMPLES = 3;
+
+    private BCryptCalibration() {
+    }
+
+    /**
+     * Times a few hashes at the minimum work factor and returns the highest work factor whose
+     * hash is expected to take no longer than the target. Each step of the work factor doubles
+     * the time a hash takes.
+     *
+     * @param targetLatency the time one hash should take
+     * @param minStrength   the lowest work factor returned
+     * @param maxStrength   the highest work factor returned
+     * @return the work factor
+     */
+    public static int workFactorFor(Duration targetLatency, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        String hash = probe.encode(PROBE);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            probe.matches(PROBE, hash);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        double estimatedNanos = fastest;
+        while (strength < maxStrength && estimatedNanos * 2 <= targetLatency.toNanos()) {
+            strength++;
+            estimatedNanos *= 2;
+        }
+        LOGGER.info("BCrypt work factor {}: about {} ms per hash for a target of {} ms", strength,
+                Math.round(estimatedNanos / 1_000_000), targetLatency.toMillis());
+        return strength;
+    }
+}
@@ -5,43 +5,58 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import com.stock.management.data.jpa.model.UserInfo;
 import com.stock.management.data.jpa.repository.UserSecurityRepository;
+import com.stock.management.security.UserLookupCache.UserCredentials;
 import com.stock.management.dto.UserDTO;
 import com.stock.management.exception.BadRequestException;
 
 import jakarta.validation.Valid;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(CustomUserDetailsService.class);
+    private final UserLookupCache userLookupCache;
     private final UserSecurityRepository userRepository;
     
 
-    public CustomUserDetailsService(UserSecurityRepository userRepository) {
+    public CustomUserDetailsService(UserLookupCache userLookupCache, UserSecurityRepository userRepository) {
+        this.userLookupCache = userLookupCache;
         this.userRepository = userRepository;
     }
 
     @Override
     public UserDetails loadUserByUsername(String userId) throws UsernameNotFoundException {
-    	LOGGER.info("Attempting to load user: {}", userId);
+    	LOGGER.debug("Loading user: {}", userId);
 
-    	UserInfo user = userRepository.findByUserId(userId)
+    	UserCredentials user = userLookupCache.findByUserId(userId)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with ID: " + userId));
-    	LOGGER.info("User found: {}", user.getUserId());
-    	LOGGER.info("User found password: {}", user.getPassword());
+    	// A new UserDetails per authentication, as its credentials are erased once authenticated
     	return new org.springframework.security.core.userdetails.User(
-    	        user.getUserId(), 
-    	        user.getPassword(), // The encoded password should be returned here
+    	        user.userId(), 
+    	        user.passwordHash(), // The encoded password should be returned here
     	        AuthorityUtils.createAuthorityList("ROLE_USER") // You can modify roles/authorities based on your application
     	    );
     }
+
+    /**
+     * Stores the new hash of a user who logged in with an outdated one, such as a hash of a lower
+     * work factor than the current one.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+    	userRepository.updatePassword(user.getUsername(), newPassword);
+    	userLookupCache.invalidate(user.getUsername());
+    	LOGGER.debug("Rehashed password of user: {}", user.getUsername());
+    	return new org.springframework.security.core.userdetails.User(
+    	        user.getUsername(), newPassword, user.getAuthorities());
+    }
     
     
 }
@@ -0,0 +1,47 @@
+package com.stock.management.security;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for hashing and checking passwords.
+ */
+@ConfigurationProperties("stock.security.password")
+@Getter
+@Setter
+public class PasswordHashingProperties {
+
+    /**
+     * Time one BCrypt hash should take. The work factor is calibrated to it at startup.
+     */
+    private Duration targetLatency = Duration.ofMillis(250);
+
+    /**
+     * Lowest BCrypt work factor, however slow the machine.
+     */
+    private int minStrength = 10;
+
+    /**
+     * Highest BCrypt work factor, however fast the machine.
+     */
+    private int maxStrength = 16;
+
+    /**
+     * Threads hashing passwords. 0 uses half of the available processors.
+     */
+    private int threads = 0;
+
+    /**
+     * Hashes waiting for a thread before further logins and registrations are rejected with 503.
+     */
+    private int maxQueueSize = 64;
+
+    /**
+     * Longest a login or registration waits for its hash before it is rejected with 503.
+     */
+    private Duration maxWait = Duration.ofSeconds(5);
+}
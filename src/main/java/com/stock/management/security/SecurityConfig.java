@@ -1,23 +1,40 @@
 package com.stock.management.security;
 
+import java.util.Map;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
+@EnableConfigurationProperties({ UserCacheProperties.class, TokenProperties.class, PasswordHashingProperties.class })
 public class SecurityConfig {
 
+    private static final String BCRYPT = "bcrypt";
+
     private final CustomUserDetailsService userDetailsService;
+    private final AccessTokenService accessTokenService;
 
-    public SecurityConfig(CustomUserDetailsService userDetailsService) {
+    public SecurityConfig(CustomUserDetailsService userDetailsService, AccessTokenService accessTokenService) {
         this.userDetailsService = userDetailsService;
+        this.accessTokenService = accessTokenService;
     }
 
+    /**
+     * Requests are authenticated by the access token issued at login, checked with an HMAC in
+     * {@link TokenAuthenticationFilter}; no session is created, so BCrypt only runs at login.
+     */
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
     	http
@@ -28,21 +45,42 @@ public class SecurityConfig {
             		"/api/users/addUser","/v3/api-docs/**").permitAll() // Allow H2 and Swagger access
             .anyRequest().permitAll() // Secure other endpoints
         )
+        .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+        .addFilterBefore(new TokenAuthenticationFilter(accessTokenService), UsernamePasswordAuthenticationFilter.class)
         .headers(headers -> headers.frameOptions().disable()); // Allow H2 console to render frames
 
     return http.build();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    /**
+     * Hashes passwords with BCrypt at the work factor calibrated to
+     * {@code stock.security.password.target-latency}, on a bounded pool off the request threads.
+     * Hashes are stored with a {@code {bcrypt}} prefix. Hashes stored without one, or with a
+     * lower work factor, still match and are replaced at the user's next login.
+     */
+    @Bean(destroyMethod = "close")
+    public OffloadingPasswordEncoder passwordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        int strength = BCryptCalibration.workFactorFor(properties.getTargetLatency(), properties.getMinStrength(),
+                properties.getMaxStrength());
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT,
+                Map.of(BCRYPT, new BCryptPasswordEncoder(strength)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        int threads = properties.getThreads() > 0
+                ? properties.getThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new OffloadingPasswordEncoder(encoder, threads, properties.getMaxQueueSize(), properties.getMaxWait(),
+                meterRegistry);
     }
 
+    /**
+     * Rehashes a user's password through {@link CustomUserDetailsService} when it logs in with
+     * a hash that {@link PasswordEncoder#upgradeEncoding(String)} reports as outdated.
+     */
     @Bean
-    public AuthenticationManager authenticationManager(HttpSecurity http) throws Exception {
+    public AuthenticationManager authenticationManager(HttpSecurity http, PasswordEncoder passwordEncoder) throws Exception {
         return http.getSharedObject(AuthenticationManagerBuilder.class)
                 .userDetailsService(userDetailsService)
-                .passwordEncoder(passwordEncoder())
+                .passwordEncoder(passwordEncoder)
                 .and()
                 .build();
     }
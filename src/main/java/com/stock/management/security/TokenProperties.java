@@ -0,0 +1,29 @@
+package com.stock.management.security;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for the access tokens issued at login.
+ */
+@ConfigurationProperties("stock.security.token")
+@Getter
+@Setter
+public class TokenProperties {
+
+    /**
+     * Key the tokens are signed with, at least 32 characters. Every instance serving the same
+     * clients needs the same key. When unset, a random key is generated at startup, so tokens
+     * stop being valid when the application restarts.
+     */
+    private String secret;
+
+    /**
+     * How long a token is valid after it is issued.
+     */
+    private Duration ttl = Duration.ofMinutes(15);
+}
@@ -0,0 +1,27 @@
+package com.stock.management.security;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for the cache of user credentials read during authentication.
+ */
+@ConfigurationProperties("stock.security.user-cache")
+@Getter
+@Setter
+public class UserCacheProperties {
+
+    /**
+     * Maximum number of users kept in the cache.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a user's credentials are served from the cache before they are read again.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,65 @@
+package com.stock.management.security;
+
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.stock.management.data.jpa.repository.UserSecurityRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of the credentials of recently authenticated users, so repeated logins of a user
+ * don't read the user table every time.
+ * <p>
+ * Concurrent lookups of the same user share a single read. Entries expire after a TTL and are
+ * dropped by {@link #invalidate(String)} whenever the user is written. Unknown users are not
+ * cached, so a registration is visible to the next login.
+ */
+@Component
+public class UserLookupCache {
+
+    public static final String CACHE_NAME = "userLookups";
+
+    private final LoadingCache<String, UserCredentials> users;
+
+    public UserLookupCache(UserSecurityRepository userRepository, UserCacheProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build(userId -> userRepository.findByUserId(userId)
+                        .map(user -> new UserCredentials(user.getUserId(), user.getPassword()))
+                        .orElse(null));
+        CaffeineCacheMetrics.monitor(meterRegistry, users, CACHE_NAME);
+    }
+
+    /**
+     * @param userId the user ID
+     * @return the user's credentials, or empty if there is no such user
+     */
+    public Optional<UserCredentials> findByUserId(String userId) {
+        return Optional.ofNullable(users.get(userId));
+    }
+
+    /**
+     * Drops the cached credentials of a user, so the next lookup reads them again.
+     */
+    public void invalidate(String userId) {
+        users.invalidate(userId);
+    }
+
+    /**
+     * The credentials of a user. Immutable, so Spring Security erasing the credentials of an
+     * authenticated principal never reaches the cache.
+     *
+     * @param userId       the user ID
+     * @param passwordHash the encoded password
+     */
+    public record UserCredentials(String userId, String passwordHash) {
+    }
+}
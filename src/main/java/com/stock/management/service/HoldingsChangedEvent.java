@@ -0,0 +1,11 @@
+package com.stock.management.service;
+
+/**
+ * Published when a trade changes a user's holdings. Listeners that read the holdings should use
+ * {@link org.springframework.transaction.event.TransactionalEventListener} so that they see the
+ * committed state.
+ *
+ * @param userId the user whose holdings changed
+ */
+public record HoldingsChangedEvent(String userId) {
+}
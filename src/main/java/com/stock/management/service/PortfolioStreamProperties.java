@@ -0,0 +1,44 @@
+package com.stock.management.service;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for the pushed portfolio value updates of {@link PortfolioValueStreamService}.
+ * Validated when bound, so an invalid value fails the startup.
+ */
+@ConfigurationProperties("stock.portfolio.stream")
+@Getter
+@Setter
+public class PortfolioStreamProperties implements Validator {
+
+    /**
+     * Maximum number of updates sent to one client per second; changes in between are coalesced
+     * into the next update.
+     */
+    private double maxUpdatesPerSecond = 4;
+
+    /**
+     * Time after which a subscription is closed; clients reconnect to continue. Zero keeps it open.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    @Override
+    public boolean supports(Class<?> type) {
+        return PortfolioStreamProperties.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        PortfolioStreamProperties properties = (PortfolioStreamProperties) target;
+        if (!(properties.getMaxUpdatesPerSecond() > 0)) {
+            errors.rejectValue("maxUpdatesPerSecond", "positive", "must be positive");
+        }
+    }
+}
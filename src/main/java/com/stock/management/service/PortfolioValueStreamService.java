@@ -0,0 +1,328 @@
+package com.stock.management.service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.stock.management.data.jpa.model.HoldingQuantity;
+import com.stock.management.data.jpa.repository.StockHoldingRepository;
+import com.stock.management.dto.PortfolioValueDTO;
+import com.stock.management.exception.ResourceNotFoundException;
+import com.stock.management.external.marketdata.MarketDataStore;
+import com.stock.management.external.service.StockFetchingStrategy;
+
+/**
+ * Pushes portfolio value updates to subscribed clients as server-sent events.
+ * <p>
+ * The holdings of every subscribed user are kept in memory, together with a reverse index from
+ * symbol to the portfolios holding it. When a {@link MarketDataStore} is configured, each tick
+ * only revalues the term of the ticked symbol in the affected portfolios; when a trade changes a
+ * user's holdings, that portfolio is reloaded after the trade commits. Changes are coalesced per
+ * client, so a client gets at most {@code stock.portfolio.stream.max-updates-per-second} updates,
+ * each carrying the latest value.
+ */
+@Service
+@EnableConfigurationProperties(PortfolioStreamProperties.class)
+public class PortfolioValueStreamService implements DisposableBean {
+
+    public static final String EVENT_NAME = "portfolio-value";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PortfolioValueStreamService.class);
+
+    // Incremental updates accumulate rounding errors; the value is summed afresh this often
+    private static final int TICKS_PER_RESUM = 1024;
+
+    private final StockHoldingRepository stockHoldingRepository;
+    private final StockFetchingStrategy stockFetchingStrategy;
+    private final long timeoutMillis;
+    private final long minIntervalNanos;
+    private final ScheduledExecutorService pushExecutor =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("portfolio-push-"));
+    private final Map<String, LivePortfolio> portfolios = new ConcurrentHashMap<>();
+    private final Map<String, Set<LivePortfolio>> portfoliosBySymbol = new ConcurrentHashMap<>();
+
+    public PortfolioValueStreamService(StockHoldingRepository stockHoldingRepository,
+                                       StockFetchingStrategy stockFetchingStrategy,
+                                       PortfolioStreamProperties properties,
+                                       ObjectProvider<MarketDataStore> marketDataStore) {
+        this.stockHoldingRepository = stockHoldingRepository;
+        this.stockFetchingStrategy = stockFetchingStrategy;
+        this.timeoutMillis = properties.getTimeout().toMillis();
+        this.minIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / properties.getMaxUpdatesPerSecond());
+        marketDataStore.ifAvailable(store -> store.addListener(this::onQuote));
+    }
+
+    /**
+     * Subscribes to the value of a user's portfolio. The current value is sent right away, then
+     * again whenever it changes.
+     *
+     * @param userId the user ID
+     * @return the event stream
+     * @throws ResourceNotFoundException if the user holds no stocks
+     */
+    public SseEmitter subscribe(String userId) {
+        List<HoldingQuantity> holdings = stockHoldingRepository.findQuantitiesByUserIdOrderBySymbol(userId);
+        if (holdings.isEmpty()) {
+            throw new ResourceNotFoundException("No active stocks found for user with ID: " + userId);
+        }
+        Map<String, Double> prices = stockFetchingStrategy.getStockPrices(
+                holdings.stream().map(HoldingQuantity::symbol).toList());
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        portfolios.compute(userId, (id, portfolio) -> {
+            if (portfolio == null) {
+                portfolio = new LivePortfolio(id);
+                index(portfolio, portfolio.reset(holdings, prices));
+            }
+            portfolio.subscribers.add(subscriber);
+            subscriber.portfolio = portfolio;
+            return portfolio;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(ex -> unsubscribe(subscriber));
+
+        subscriber.valueChanged();
+        LOGGER.debug("Subscribed to portfolio value of user {}", userId);
+        return emitter;
+    }
+
+    /**
+     * Reloads the holdings of a subscribed user after a trade has committed.
+     *
+     * @param event the changed holdings
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldingsChanged(HoldingsChangedEvent event) {
+        if (portfolios.containsKey(event.userId())) {
+            pushExecutor.execute(() -> reload(event.userId()));
+        }
+    }
+
+    /**
+     * @return the number of users with at least one subscriber
+     */
+    public int subscribedPortfolios() {
+        return portfolios.size();
+    }
+
+    @Override
+    public void destroy() {
+        pushExecutor.shutdownNow();
+        portfolios.values().forEach(portfolio -> portfolio.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void onQuote(String symbol, double price, long epochMillis) {
+        Set<LivePortfolio> holders = portfoliosBySymbol.get(symbol);
+        if (holders == null) {
+            return;
+        }
+        for (LivePortfolio portfolio : holders) {
+            if (portfolio.applyPrice(symbol, price)) {
+                portfolio.subscribers.forEach(Subscriber::valueChanged);
+            }
+        }
+    }
+
+    private void reload(String userId) {
+        LivePortfolio current = portfolios.get(userId);
+        if (current == null) {
+            return;
+        }
+        try {
+            List<HoldingQuantity> holdings = stockHoldingRepository.findQuantitiesByUserIdOrderBySymbol(userId);
+            List<String> unpriced = holdings.stream().map(HoldingQuantity::symbol).filter(symbol -> !current.isPriced(symbol)).toList();
+            Map<String, Double> prices = unpriced.isEmpty() ? Map.of() : stockFetchingStrategy.getStockPrices(unpriced);
+
+            portfolios.computeIfPresent(userId, (id, portfolio) -> {
+                Set<String> previous = portfolio.symbols();
+                Set<String> symbols = portfolio.reset(holdings, prices);
+                previous.removeAll(symbols);
+                unindex(portfolio, previous);
+                index(portfolio, symbols);
+                return portfolio;
+            });
+            current.subscribers.forEach(Subscriber::valueChanged);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to reload portfolio of user {}", userId, ex);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        LivePortfolio subscribed = subscriber.portfolio;
+        portfolios.computeIfPresent(subscribed.userId, (id, portfolio) -> {
+            portfolio.subscribers.remove(subscriber);
+            if (!portfolio.subscribers.isEmpty()) {
+                return portfolio;
+            }
+            unindex(portfolio, portfolio.symbols());
+            return null;
+        });
+    }
+
+    private void index(LivePortfolio portfolio, Set<String> symbols) {
+        for (String symbol : symbols) {
+            portfoliosBySymbol.compute(symbol, (key, holders) -> {
+                Set<LivePortfolio> updated = holders != null ? holders : ConcurrentHashMap.newKeySet();
+                updated.add(portfolio);
+                return updated;
+            });
+        }
+    }
+
+    private void unindex(LivePortfolio portfolio, Set<String> symbols) {
+        for (String symbol : symbols) {
+            portfoliosBySymbol.computeIfPresent(symbol, (key, holders) -> {
+                holders.remove(portfolio);
+                return holders.isEmpty() ? null : holders;
+            });
+        }
+    }
+
+    /**
+     * A subscribed user's holdings and their current value.
+     */
+    private static final class LivePortfolio {
+
+        private final String userId;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private Map<String, Position> positions = Map.of();
+        private double value;
+        private int ticksSinceResum;
+
+        private LivePortfolio(String userId) {
+            this.userId = userId;
+        }
+
+        /**
+         * Replaces the holdings, keeping the known price of symbols that are still held.
+         *
+         * @return the symbols now held
+         */
+        private synchronized Set<String> reset(List<HoldingQuantity> holdings, Map<String, Double> prices) {
+            Map<String, Position> updated = new HashMap<>();
+            for (HoldingQuantity holding : holdings) {
+                Position known = positions.get(holding.symbol());
+                double price = known != null ? known.price : prices.get(holding.symbol());
+                updated.put(holding.symbol(), new Position(holding.quantity(), price));
+            }
+            positions = updated;
+            resum();
+            return new HashSet<>(updated.keySet());
+        }
+
+        /**
+         * Revalues the term of one symbol.
+         *
+         * @return whether the value changed
+         */
+        private synchronized boolean applyPrice(String symbol, double price) {
+            Position position = positions.get(symbol);
+            if (position == null || position.price == price) {
+                return false;
+            }
+            value += position.quantity * (price - position.price);
+            position.price = price;
+            if (++ticksSinceResum == TICKS_PER_RESUM) {
+                resum();
+            }
+            return true;
+        }
+
+        private synchronized boolean isPriced(String symbol) {
+            return positions.containsKey(symbol);
+        }
+
+        private synchronized Set<String> symbols() {
+            return new HashSet<>(positions.keySet());
+        }
+
+        private synchronized double value() {
+            return value;
+        }
+
+        private void resum() {
+            double sum = 0;
+            for (Position position : positions.values()) {
+                sum += position.quantity * position.price;
+            }
+            value = sum;
+            ticksSinceResum = 0;
+        }
+    }
+
+    private static final class Position {
+
+        private final int quantity;
+        private double price;
+
+        private Position(int quantity, double price) {
+            this.quantity = quantity;
+            this.price = price;
+        }
+    }
+
+    /**
+     * One client's event stream. A change schedules one send, no earlier than the minimum interval
+     * after the previous send; further changes until then are picked up by that send.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile LivePortfolio portfolio;
+        private volatile long lastSentNanos = System.nanoTime() - minIntervalNanos;
+        private double lastSentValue = Double.NaN;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void valueChanged() {
+            if (scheduled.compareAndSet(false, true)) {
+                long delay = Math.max(0, lastSentNanos + minIntervalNanos - System.nanoTime());
+                pushExecutor.schedule(this::send, delay, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void send() {
+            scheduled.set(false);
+            double value = portfolio.value();
+            if (value == lastSentValue) {
+                return;
+            }
+            lastSentNanos = System.nanoTime();
+            lastSentValue = value;
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .data(new PortfolioValueDTO(portfolio.userId, value, Instant.now()), MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException ex) {
+                LOGGER.debug("Dropping portfolio value subscriber of user {}: {}", portfolio.userId, ex.getMessage());
+                unsubscribe(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.stock.management.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.stock.management.data.jpa.repository.UserSecurityRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Takes the position snapshots of {@link TradeJournalService} in the background.
+ * <p>
+ * Users are remembered when a trade of theirs commits. Every {@code stock.journal.check-interval},
+ * each of them whose ledger has grown by {@code stock.journal.snapshot-entries} entries since
+ * the latest snapshot gets a new one; the others are checked again after their next trade. With
+ * {@code stock.journal.rebuild-on-startup}, the holdings of every user are rebuilt from the
+ * ledger at startup, before the web server accepts requests.
+ */
+@Component
+@EnableConfigurationProperties(TradeJournalProperties.class)
+public class PositionSnapshotter implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PositionSnapshotter.class);
+
+    private final TradeJournalService tradeJournalService;
+    private final UserSecurityRepository userRepository;
+    private final TradeJournalProperties properties;
+    private final Set<String> tradedUsers = ConcurrentHashMap.newKeySet();
+    private final Counter snapshots;
+
+    private volatile ScheduledExecutorService scheduler;
+
+    public PositionSnapshotter(TradeJournalService tradeJournalService, UserSecurityRepository userRepository,
+                               TradeJournalProperties properties, MeterRegistry meterRegistry) {
+        this.tradeJournalService = tradeJournalService;
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.snapshots = Counter.builder("stock.journal.snapshots")
+                .description("Position snapshots taken of the trade ledger")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Remembers the user for the next check once the trade has committed.
+     *
+     * @param event the changed holdings
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldingsChanged(HoldingsChangedEvent event) {
+        tradedUsers.add(event.userId());
+    }
+
+    /**
+     * Snapshots the users who traded since the last check and are due for a snapshot.
+     *
+     * @return the number of snapshots taken
+     */
+    public int snapshotDueUsers() {
+        int taken = 0;
+        for (String userId : List.copyOf(tradedUsers)) {
+            tradedUsers.remove(userId);
+            if (tradeJournalService.tailLength(userId) >= properties.getSnapshotEntries()) {
+                tradeJournalService.snapshot(userId);
+                snapshots.increment();
+                taken++;
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Rebuilds the holdings of every user from the ledger.
+     *
+     * @return the number of holdings written or deleted
+     */
+    public int rebuildAllHoldings() {
+        List<String> userIds = userRepository.findAllUserIds();
+        int corrected = 0;
+        for (String userId : userIds) {
+            corrected += tradeJournalService.rebuildHoldings(userId);
+        }
+        LOGGER.info("Rebuilt the holdings of {} users from the ledger, {} corrected", userIds.size(), corrected);
+        return corrected;
+    }
+
+    @Override
+    public void start() {
+        if (properties.isRebuildOnStartup()) {
+            rebuildAllHoldings();
+        }
+        long intervalNanos = properties.getCheckInterval().toNanos();
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("journal-snapshot-"));
+        executor.scheduleWithFixedDelay(this::snapshotSafely, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        scheduler = executor;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor != null) {
+            executor.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Starts ahead of the web server, so a rebuild at startup completes before requests are served.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private void snapshotSafely() {
+        try {
+            snapshotDueUsers();
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Position snapshot failed", ex);
+        }
+    }
+}
@@ -1,19 +1,35 @@
 package com.stock.management.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.stock.management.data.jpa.model.StockDetails;
+import com.stock.management.data.jpa.model.StockHistoryEntry;
 import com.stock.management.data.jpa.repository.StockManagementRepository;
 import com.stock.management.dto.StockHistoryDTO;
+import com.stock.management.dto.StockHistoryPageDTO;
+import com.stock.management.exception.BadRequestException;
 import com.stock.management.exception.ResourceNotFoundException;
 
 @Service
 public class StockHistoryService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // Bounds used when a date filter is not given
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
     private final StockManagementRepository stockManagementRepository;
 
     @Autowired
@@ -22,30 +38,131 @@ public class StockHistoryService {
     }
 
     /**
-     * Fetches the complete stock history for a user.
+     * Fetches the complete stock history for a user, oldest first.
      *
      * @param userId the user ID
      * @return a list of stock history records
      */
+    @Transactional(readOnly = true)
     public List<StockHistoryDTO> getStockHistory(String userId) {
-        // Fetch all stock details (both active and expired) for the given user
-        List<StockDetails> stockDetailsList = stockManagementRepository.findByUserInfoUserId(userId);
+        // Fetch all history entries (both active and expired) for the given user, without loading the entities
+        List<StockHistoryEntry> entries = stockManagementRepository.findHistoryByUserId(userId);
 
-        if (stockDetailsList.isEmpty()) {
+        if (entries.isEmpty()) {
             throw new ResourceNotFoundException("No stock history found for user with ID: " + userId);
         }
 
         // Create a list of StockHistoryDTO objects to represent each stock change
-        return stockDetailsList.stream()
-                .map(stock -> {
-                    // Determine the action (Added or Removed) based on the quantity fields
-                    String action = stock.getNewStockQuantity() > 0 ? "Added" : "Removed";
-                    int quantityChanged = (stock.getNewStockQuantity() > 0) ? stock.getNewStockQuantity() :
-                            stock.getRemovedStockQuantity();
-
-                    // Return a StockHistoryDTO object with the required details
-                    return new StockHistoryDTO(stock.getSymbol(), stock.getPurchaseDate(), quantityChanged, action);
-                })
+        return entries.stream()
+                .map(this::toHistoryDTO)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Fetches one page of a user's stock history in (purchaseDate, id) order.
+     * <p>
+     * Pages are addressed by a cursor naming the last entry of the previous page rather than by
+     * an offset, so every page costs the same however deep into the history it is.
+     *
+     * @param userId the user ID
+     * @param from   the earliest purchase date to include, or {@code null}
+     * @param to     the latest purchase date to include, or {@code null}
+     * @param cursor the {@code nextCursor} of the previous page, or {@code null} for the first page
+     * @param size   the maximum number of entries, at most {@link #MAX_PAGE_SIZE}
+     * @return the page and the cursor of the next one
+     * @throws BadRequestException if the size, date range or cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public StockHistoryPageDTO getStockHistoryPage(String userId, LocalDate from, LocalDate to, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        LocalDate fromDate = from != null ? from : EARLIEST;
+        LocalDate toDate = to != null ? to : LATEST;
+        validateDateRange(fromDate, toDate);
+
+        // Ids start at 1, so the first page starts after (EARLIEST, 0)
+        LocalDate afterDate = EARLIEST;
+        long afterId = 0;
+        if (cursor != null) {
+            StockHistoryEntry last = decodeCursor(cursor);
+            afterDate = last.purchaseDate();
+            afterId = last.id();
+        }
+
+        // One extra entry tells whether there is a next page
+        List<StockHistoryEntry> entries = stockManagementRepository.findHistoryPage(
+                userId, fromDate, toDate, afterDate, afterId, PageRequest.ofSize(size + 1));
+        String nextCursor = null;
+        if (entries.size() > size) {
+            entries = entries.subList(0, size);
+            nextCursor = encodeCursor(entries.get(size - 1));
+        }
+        return new StockHistoryPageDTO(entries.stream().map(this::toHistoryDTO).collect(Collectors.toList()), nextCursor);
+    }
+
+    /**
+     * Passes a user's stock history, in (purchaseDate, id) order, to the given consumer one entry
+     * at a time, without holding the history in memory.
+     *
+     * @param userId   the user ID
+     * @param from     the earliest purchase date to include, or {@code null}
+     * @param to       the latest purchase date to include, or {@code null}
+     * @param consumer receives each history entry
+     * @return the number of entries streamed
+     * @throws BadRequestException if the date range is invalid
+     */
+    @Transactional(readOnly = true)
+    public long streamStockHistory(String userId, LocalDate from, LocalDate to, Consumer<StockHistoryDTO> consumer) {
+        LocalDate fromDate = from != null ? from : EARLIEST;
+        LocalDate toDate = to != null ? to : LATEST;
+        validateDateRange(fromDate, toDate);
+
+        long count = 0;
+        try (Stream<StockHistoryEntry> entries = stockManagementRepository.streamHistory(userId, fromDate, toDate)) {
+            for (StockHistoryEntry entry : (Iterable<StockHistoryEntry>) entries::iterator) {
+                consumer.accept(toHistoryDTO(entry));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks that a date range of the stock history isn't empty by construction. Either end may be
+     * {@code null}, meaning the range is open on that side.
+     *
+     * @param from the earliest purchase date to include, or {@code null}
+     * @param to   the latest purchase date to include, or {@code null}
+     * @throws BadRequestException if {@code from} is after {@code to}
+     */
+    public static void validateDateRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'.");
+        }
+    }
+
+    private StockHistoryDTO toHistoryDTO(StockHistoryEntry entry) {
+        // Determine the action (Added or Removed) based on the quantity fields
+        boolean added = entry.newStockQuantity() > 0;
+        return new StockHistoryDTO(entry.symbol(), entry.purchaseDate(),
+                added ? entry.newStockQuantity() : entry.removedStockQuantity(), added ? "Added" : "Removed");
+    }
+
+    private static String encodeCursor(StockHistoryEntry last) {
+        String position = last.purchaseDate() + ":" + last.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static StockHistoryEntry decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (position.length != 2) {
+                throw new BadRequestException("Invalid cursor.");
+            }
+            return new StockHistoryEntry(Long.parseLong(position[1]), null, LocalDate.parse(position[0]), 0, 0);
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
 }
@@ -1,21 +1,38 @@
 package com.stock.management.service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.stock.management.data.jpa.model.HoldingQuantity;
 import com.stock.management.data.jpa.model.StockDetails;
+import com.stock.management.data.jpa.model.StockHolding;
+import com.stock.management.data.jpa.model.StockHoldingId;
 import com.stock.management.data.jpa.model.UserInfo;
+import com.stock.management.data.jpa.repository.StockHoldingRepository;
 import com.stock.management.data.jpa.repository.StockManagementRepository;
 import com.stock.management.data.jpa.repository.UserSecurityRepository;
 import com.stock.management.dto.StockDTO;
+import com.stock.management.dto.TradeBatchResultDTO;
+import com.stock.management.dto.TradeImportDTO;
+import com.stock.management.dto.TradeRequestDTO;
+import com.stock.management.dto.TradeResultDTO;
 import com.stock.management.dto.UserStockDTO;
+import com.stock.management.exception.BadRequestException;
+import com.stock.management.exception.NoDataFoundForSymbolException;
 import com.stock.management.exception.ResourceNotFoundException;
 import com.stock.management.external.service.StockFetchingStrategy;
 
@@ -23,33 +40,57 @@ import com.stock.management.external.service.StockFetchingStrategy;
 public class StockManagementService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(StockManagementService.class);
+    private static final String ADDED = "Added";
+    private static final String REMOVED = "Removed";
 
     private final StockFetchingStrategy stockFetchingStrategy;
     private final StockManagementRepository stockManagementRepository;
     private final UserSecurityRepository userRepository;
+    private final StockHoldingRepository stockHoldingRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public StockManagementService(StockManagementRepository stockManagementRepository,
                                    StockFetchingStrategy stockFetchingStrategy,
-                                   UserSecurityRepository userRepository) {
+                                   UserSecurityRepository userRepository,
+                                   StockHoldingRepository stockHoldingRepository,
+                                   ApplicationEventPublisher eventPublisher) {
         this.stockFetchingStrategy = stockFetchingStrategy;
         this.stockManagementRepository = stockManagementRepository;
         this.userRepository = userRepository;
+        this.stockHoldingRepository = stockHoldingRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Adds or updates stock details for a user.
+     * <p>
+     * Runs as one transaction: the new ledger entry is appended and the user's holding is
+     * updated. Earlier ledger entries are never rewritten; positions can be rebuilt from the
+     * ledger by {@link TradeJournalService}. A {@link HoldingsChangedEvent} is published for the
+     * user.
      *
      * @param userId   the user ID
      * @param stockDTO the stock details to add or update
      * @return the updated stock details
+     * @throws BadRequestException if the symbol is missing or the quantity isn't positive
      */
+    @Transactional
     public StockDetails addOrUpdateStock(String userId, StockDTO stockDTO) {
+        String rejection = validateTrade(stockDTO.symbol(), stockDTO.quantity(), ADDED);
+        if (rejection != null) {
+            throw new BadRequestException(rejection);
+        }
+        double currentPrice = getCurrentStockPrice(stockDTO.symbol());
         UserInfo user = fetchUserById(userId);
-        int existingQuantity = expireExistingStocks(user, stockDTO.symbol());
+        StockHolding holding = fetchHolding(userId, stockDTO.symbol());
+        int existingQuantity = holding.getQuantity();
 
-        StockDetails newStock = createNewStock(user, stockDTO, existingQuantity + stockDTO.quantity());
+        StockDetails newStock = createNewStock(user, stockDTO, existingQuantity + stockDTO.quantity(), currentPrice);
         newStock.setNewStockQuantity(stockDTO.quantity());
+        holding.addShares(stockDTO.quantity(), currentPrice);
+        stockHoldingRepository.save(holding);
+        eventPublisher.publishEvent(new HoldingsChangedEvent(userId));
         LOGGER.info("Stock added/updated for user {}: Symbol={}, Quantity={}",
                 userId, stockDTO.symbol(), stockDTO.quantity());
         return stockManagementRepository.save(newStock);
@@ -57,19 +98,31 @@ public class StockManagementService {
 
     /**
      * Removes stocks from a user's portfolio.
+     * <p>
+     * Runs as one transaction, like {@link #addOrUpdateStock(String, StockDTO)}; nothing is
+     * written when the user holds fewer stocks than requested. The entry that closes a position
+     * is written as expired.
      *
      * @param userId   the user ID
      * @param stockDTO the stock details to remove
+     * @throws BadRequestException if the symbol is missing or the quantity isn't positive
      */
+    @Transactional
     public void removeStock(String userId, StockDTO stockDTO) {
+        String rejection = validateTrade(stockDTO.symbol(), stockDTO.quantity(), REMOVED);
+        if (rejection != null) {
+            throw new BadRequestException(rejection);
+        }
+        double currentPrice = getCurrentStockPrice(stockDTO.symbol());
         UserInfo user = fetchUserById(userId);
-        int existingQuantity = expireExistingStocks(user, stockDTO.symbol());
+        StockHolding holding = fetchHolding(userId, stockDTO.symbol());
+        int existingQuantity = holding.getQuantity();
 
         if (existingQuantity < stockDTO.quantity()) {
             throw new IllegalArgumentException("Cannot remove more stocks than currently held.");
         }
 
-        StockDetails updatedStock = createNewStock(user, stockDTO, existingQuantity - stockDTO.quantity());
+        StockDetails updatedStock = createNewStock(user, stockDTO, existingQuantity - stockDTO.quantity(), currentPrice);
         updatedStock.setRemovedStockQuantity(stockDTO.quantity());
         //If All stocks are deleted and expire all the rows
         if (updatedStock.getTotalStockQuantity() == 0) {
@@ -77,11 +130,137 @@ public class StockManagementService {
             updatedStock.setExpiredDate(LocalDate.now());
         }
 
+        holding.removeShares(stockDTO.quantity());
+        if (holding.getQuantity() == 0) {
+            stockHoldingRepository.delete(holding);
+        } else {
+            stockHoldingRepository.save(holding);
+        }
+
         stockManagementRepository.save(updatedStock);
+        eventPublisher.publishEvent(new HoldingsChangedEvent(userId));
         LOGGER.info("Stock removed for user {}: Symbol={}, Quantity={}",
                 userId, stockDTO.symbol(), stockDTO.quantity());
     }
 
+    /**
+     * Imports a user's trades at the given prices, in order, as one transaction.
+     * <p>
+     * All trades are validated and applied to the holdings in memory first, so an invalid trade
+     * rejects the whole import without writing anything. The new rows are appended in JDBC
+     * batches and each traded symbol's holding is written once.
+     *
+     * @param userId the user ID
+     * @param trades the trades to import, oldest first
+     * @return the number of imported trades
+     * @throws BadRequestException if a trade is invalid or removes more stocks than held at that point
+     */
+    @Transactional
+    public int importTrades(String userId, List<TradeImportDTO> trades) {
+        UserInfo user = fetchUserById(userId);
+        PendingTrades pending = new PendingTrades(userId, stockHoldingRepository.findByUserIdOrderBySymbol(userId));
+
+        for (int i = 0; i < trades.size(); i++) {
+            TradeImportDTO trade = trades.get(i);
+            String rejection = validateTrade(trade.symbol(), trade.quantity(), trade.action());
+            if (rejection == null && trade.price() <= 0) {
+                rejection = "price must be positive.";
+            }
+            StockHolding holding = rejection == null ? pending.holding(trade.symbol()) : null;
+            if (rejection == null && isRemoval(trade.action()) && holding.getQuantity() < trade.quantity()) {
+                rejection = "cannot remove more stocks than currently held.";
+            }
+            if (rejection != null) {
+                throw new BadRequestException("Trade " + i + ": " + rejection);
+            }
+
+            StockDetails stock = applyTrade(user, holding, trade.symbol(), trade.quantity(), trade.price(),
+                    isRemoval(trade.action()));
+            if (trade.tradeDate() != null) {
+                stock.setPurchaseDate(trade.tradeDate());
+            }
+            pending.add(stock);
+        }
+        writeTrades(userId, pending);
+
+        LOGGER.info("Imported {} trades in {} symbols for user {}", trades.size(), pending.latestBySymbol.size(), userId);
+        return trades.size();
+    }
+
+    /**
+     * Adds and removes stocks of several symbols for a user at their current prices, in order, as
+     * one transaction.
+     * <p>
+     * The user is looked up once and the prices of all symbols are fetched in one bulk call. A
+     * trade that is invalid, has no price or removes more stocks than held at that point is
+     * rejected. Otherwise the other trades are applied, unless {@code atomic} is set, in which
+     * case nothing is written when any trade is rejected.
+     *
+     * @param userId the user ID
+     * @param trades the trades to apply, in order
+     * @param atomic whether a rejected trade rejects the whole batch
+     * @return the result of each trade, in request order
+     */
+    @Transactional
+    public TradeBatchResultDTO applyTrades(String userId, List<TradeRequestDTO> trades, boolean atomic) {
+        String[] rejections = new String[trades.size()];
+        Set<String> symbols = new LinkedHashSet<>();
+        for (int i = 0; i < trades.size(); i++) {
+            TradeRequestDTO trade = trades.get(i);
+            rejections[i] = validateTrade(trade.symbol(), trade.quantity(), trade.action());
+            if (rejections[i] == null) {
+                symbols.add(trade.symbol());
+            }
+        }
+        Map<String, String> unpriced = new HashMap<>();
+        Map<String, Double> prices = symbols.isEmpty() ? Map.of() : getBatchStockPrices(symbols, unpriced);
+
+        UserInfo user = fetchUserById(userId);
+        PendingTrades pending = new PendingTrades(userId, stockHoldingRepository.findByUserIdOrderBySymbol(userId));
+        List<StockDetails> applied = new ArrayList<>(trades.size());
+        int rejected = 0;
+        for (int i = 0; i < trades.size(); i++) {
+            TradeRequestDTO trade = trades.get(i);
+            String rejection = rejections[i] != null ? rejections[i] : unpriced.get(trade.symbol());
+            StockHolding holding = rejection == null ? pending.holding(trade.symbol()) : null;
+            if (rejection == null && isRemoval(trade.action()) && holding.getQuantity() < trade.quantity()) {
+                rejection = "Cannot remove more stocks than currently held.";
+            }
+            if (rejection != null) {
+                rejections[i] = rejection;
+                applied.add(null);
+                rejected++;
+                continue;
+            }
+            StockDetails stock = applyTrade(user, holding, trade.symbol(), trade.quantity(), prices.get(trade.symbol()),
+                    isRemoval(trade.action()));
+            pending.add(stock);
+            applied.add(stock);
+        }
+
+        boolean written = !(atomic && rejected > 0);
+        if (written) {
+            writeTrades(userId, pending);
+        }
+
+        List<TradeResultDTO> results = new ArrayList<>(trades.size());
+        for (int i = 0; i < trades.size(); i++) {
+            TradeRequestDTO trade = trades.get(i);
+            StockDetails stock = applied.get(i);
+            if (stock == null) {
+                results.add(new TradeResultDTO(trade.symbol(), trade.action(), trade.quantity(),
+                        TradeResultDTO.REJECTED, null, null, rejections[i]));
+            } else {
+                results.add(new TradeResultDTO(trade.symbol(), trade.action(), trade.quantity(),
+                        written ? TradeResultDTO.APPLIED : TradeResultDTO.NOT_APPLIED,
+                        stock.getPrice(), stock.getTotalStockQuantity(), null));
+            }
+        }
+        LOGGER.info("Applied batch of {} trades for user {}: rejected={}, atomic={}, written={}",
+                trades.size(), userId, rejected, atomic, written);
+        return new TradeBatchResultDTO(atomic, written ? trades.size() - rejected : 0, rejected, results);
+    }
+
     /**
      * Retrieves active stocks for a user.
      *
@@ -91,20 +270,18 @@ public class StockManagementService {
     public List<UserStockDTO> getStocksByUser(String userId) {
         LOGGER.debug("Fetching active stocks for user {}", userId);
 
-        List<UserStockDTO> userStocks = stockManagementRepository
-                .findByUserInfoUserIdAndIsExpiredFalse(userId).stream()
-                .map(stock -> {
-                    double currentPrice = getCurrentStockPrice(stock.getSymbol());
-                    return new UserStockDTO(userId, stock.getSymbol(), stock.getTotalStockQuantity(),
-                            currentPrice, currentPrice * stock.getTotalStockQuantity());
+        List<HoldingQuantity> holdings = fetchHoldings(userId);
+
+        Map<String, Double> symbolPriceMap = getCurrentStockPrices(holdings);
+
+        List<UserStockDTO> userStocks = holdings.stream()
+                .map(holding -> {
+                    double currentPrice = symbolPriceMap.get(holding.symbol());
+                    return new UserStockDTO(userId, holding.symbol(), holding.quantity(),
+                            currentPrice, currentPrice * holding.quantity());
                 })
                 .collect(Collectors.toList());
 
-        if (userStocks.isEmpty()) {
-            LOGGER.warn("No active stocks found for user {}", userId);
-            throw new ResourceNotFoundException("No active stocks found for user with ID: " + userId);
-        }
-
         return userStocks;
     }
 
@@ -117,28 +294,17 @@ public class StockManagementService {
     public double calculatePortfolioValue(String userId) {
         LOGGER.debug("Calculating portfolio value for user {}", userId);
 
-        // Fetch all active stocks for the user
-        List<StockDetails> activeStocks = stockManagementRepository.findByUserInfoUserIdAndIsExpiredFalse(userId);
+        // Fetch the current holdings of the user
+        List<HoldingQuantity> holdings = fetchHoldings(userId);
 
-        if (activeStocks.isEmpty()) {
-            LOGGER.warn("No active stocks found for user {}", userId);
-            throw new ResourceNotFoundException("No active stocks found for user with ID: " + userId);
-        }
-
-        // Map to store unique symbols and their fetched prices
-        Map<String, Double> symbolPriceMap = activeStocks.stream()
-                .map(StockDetails::getSymbol)
-                .distinct()
-                .collect(Collectors.toMap(
-                        symbol -> symbol,
-                        this::getCurrentStockPrice
-                ));
+        // Fetch the prices of all symbols in one bulk lookup
+        Map<String, Double> symbolPriceMap = getCurrentStockPrices(holdings);
 
         // Calculate portfolio value using the fetched prices
-        double totalPortfolioValue = activeStocks.stream()
-                .mapToDouble(stock -> {
-                    double currentPrice = symbolPriceMap.get(stock.getSymbol());
-                    return stock.getTotalStockQuantity() * currentPrice;
+        double totalPortfolioValue = holdings.stream()
+                .mapToDouble(holding -> {
+                    double currentPrice = symbolPriceMap.get(holding.symbol());
+                    return holding.quantity() * currentPrice;
                 })
                 .sum();
 
@@ -148,60 +314,142 @@ public class StockManagementService {
 
 
     /**
-     * Helper method to fetch user by ID or throw an exception if not found.
+     * Helper method to fetch user by ID or throw an exception if not found. The user row stays
+     * locked until the surrounding transaction ends, so concurrent trades of the same user are
+     * applied one after another. For that reason the user is always read from the database rather
+     * than from the {@link com.stock.management.security.UserLookupCache}.
      *
      * @param userId the user ID
      * @return the user information
      */
     private UserInfo fetchUserById(String userId) {
-        return userRepository.findByUserId(userId)
+        return userRepository.findByUserIdForUpdate(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
     }
 
     /**
-     * Marks existing stocks for a user as expired and calculates the current total quantity.
+     * Fetches the quantity of each symbol a user holds, as a read-only projection, or throws an
+     * exception if there are none.
      *
-     * @param user   the user information
+     * @param userId the user ID
+     * @return the holdings, ordered by symbol
+     */
+    private List<HoldingQuantity> fetchHoldings(String userId) {
+        List<HoldingQuantity> holdings = stockHoldingRepository.findQuantitiesByUserIdOrderBySymbol(userId);
+        if (holdings.isEmpty()) {
+            LOGGER.warn("No active stocks found for user {}", userId);
+            throw new ResourceNotFoundException("No active stocks found for user with ID: " + userId);
+        }
+        return holdings;
+    }
+
+    /**
+     * Fetches the user's holding of a symbol, or an empty holding if the user holds none.
+     *
+     * @param userId the user ID
      * @param symbol the stock symbol
-     * @return the total quantity of the stock before expiry
+     * @return the holding
      */
-    private int expireExistingStocks(UserInfo user, String symbol) {
-        List<StockDetails> activeStocks = stockManagementRepository.findByUserInfoAndSymbolAndIsExpiredFalse(user, symbol);
+    private StockHolding fetchHolding(String userId, String symbol) {
+        return stockHoldingRepository.findById(new StockHoldingId(userId, symbol))
+                .orElseGet(() -> new StockHolding(userId, symbol));
+    }
 
-        int existingQuantity = activeStocks.stream()
-                .mapToInt(StockDetails::getTotalStockQuantity)
-                .sum();
+    /**
+     * Checks the parts of a trade that don't depend on the user's holdings.
+     *
+     * @param symbol   the stock symbol
+     * @param quantity the number of stocks traded
+     * @param action   "Added" or "Removed"
+     * @return why the trade is rejected, or {@code null} if it is valid
+     */
+    private String validateTrade(String symbol, int quantity, String action) {
+        if (symbol == null || symbol.isBlank()) {
+            return "symbol is required.";
+        }
+        if (quantity <= 0) {
+            return "quantity must be positive.";
+        }
+        if (!ADDED.equals(action) && !REMOVED.equals(action)) {
+            return "action must be Added or Removed.";
+        }
+        return null;
+    }
 
-        activeStocks.forEach(stock -> {
-            stock.setExpired(true);
-            stock.setExpiredDate(LocalDate.now());
-            stockManagementRepository.save(stock);
-        });
+    private static boolean isRemoval(String action) {
+        return REMOVED.equals(action);
+    }
 
-        return existingQuantity;
+    /**
+     * Applies a trade to the user's holding and creates its ledger entry. The caller has checked
+     * that a removal doesn't exceed the holding.
+     *
+     * @param user     the user information
+     * @param holding  the user's holding of the traded symbol
+     * @param symbol   the stock symbol
+     * @param quantity the number of stocks traded
+     * @param price    the price per stock
+     * @param removal  whether stocks are removed rather than added
+     * @return the new, still active, ledger entry
+     */
+    private StockDetails applyTrade(UserInfo user, StockHolding holding, String symbol, int quantity, double price,
+                                    boolean removal) {
+        StockDTO stockDTO = new StockDTO(symbol, quantity);
+        int existingQuantity = holding.getQuantity();
+        StockDetails stock;
+        if (removal) {
+            holding.removeShares(quantity);
+            stock = createNewStock(user, stockDTO, existingQuantity - quantity, price);
+            stock.setRemovedStockQuantity(quantity);
+        } else {
+            holding.addShares(quantity, price);
+            stock = createNewStock(user, stockDTO, existingQuantity + quantity, price);
+            stock.setNewStockQuantity(quantity);
+        }
+        return stock;
+    }
+
+    /**
+     * Writes a batch of trades: each traded symbol's holding is saved, or deleted once empty, and
+     * the new ledger rows are appended in JDBC batches. A {@link HoldingsChangedEvent} is
+     * published for the user.
+     *
+     * @param userId  the user ID
+     * @param pending the trades to write
+     */
+    private void writeTrades(String userId, PendingTrades pending) {
+        for (String symbol : pending.latestBySymbol.keySet()) {
+            StockHolding holding = pending.holdings.get(symbol);
+            if (holding.getQuantity() == 0) {
+                stockHoldingRepository.delete(holding);
+            } else {
+                stockHoldingRepository.save(holding);
+            }
+        }
+        stockManagementRepository.insertAll(pending.ledger);
+        eventPublisher.publishEvent(new HoldingsChangedEvent(userId));
     }
 
     /**
      * Creates a new stock entry.
      *
-     * @param user      the user information
-     * @param stockDTO  the stock details
+     * @param user          the user information
+     * @param stockDTO      the stock details
      * @param totalQuantity the total quantity of the stock
+     * @param currentPrice  the current price of the stock
      * @return a new stock details object
      */
-    private StockDetails createNewStock(UserInfo user, StockDTO stockDTO, int totalQuantity) {
+    private StockDetails createNewStock(UserInfo user, StockDTO stockDTO, int totalQuantity, double currentPrice) {
         StockDetails stock = new StockDetails();
         stock.setSymbol(stockDTO.symbol());
         stock.setExistingStockQuantity(totalQuantity - stockDTO.quantity());
         stock.setTotalStockQuantity(totalQuantity);
-        stock.setPrice(getCurrentStockPrice(stockDTO.symbol()));
+        stock.setPrice(currentPrice);
         stock.setPurchaseDate(LocalDate.now());
         stock.setUserInfo(user);
         stock.setExpired(false);
         return stock;
     }
-    
-   
 
     /**
      * Fetches the current stock price using the strategy pattern.
@@ -212,4 +460,77 @@ public class StockManagementService {
     private double getCurrentStockPrice(String symbol) {
         return stockFetchingStrategy.getStockPrice(symbol);
     }
+
+    /**
+     * Fetches the current prices of the given symbols in one bulk lookup. An unknown symbol fails
+     * the bulk lookup, so the symbols are then priced one by one and the unknown ones are
+     * reported instead of failing the whole batch.
+     *
+     * @param symbols  the stock symbols
+     * @param unpriced receives why a symbol has no price
+     * @return the current price per symbol that has one
+     */
+    private Map<String, Double> getBatchStockPrices(Set<String> symbols, Map<String, String> unpriced) {
+        try {
+            return stockFetchingStrategy.getStockPrices(symbols);
+        } catch (NoDataFoundForSymbolException ex) {
+            Map<String, Double> prices = new HashMap<>();
+            for (String symbol : symbols) {
+                try {
+                    prices.put(symbol, stockFetchingStrategy.getStockPrice(symbol));
+                } catch (NoDataFoundForSymbolException symbolEx) {
+                    unpriced.put(symbol, symbolEx.getMessage());
+                }
+            }
+            return prices;
+        }
+    }
+
+    /**
+     * Fetches the current prices of the symbols of the given holdings in one bulk lookup.
+     *
+     * @param holdings the holdings
+     * @return the current price per symbol
+     */
+    private Map<String, Double> getCurrentStockPrices(List<HoldingQuantity> holdings) {
+        List<String> symbols = holdings.stream()
+                .map(HoldingQuantity::symbol)
+                .collect(Collectors.toList());
+        return stockFetchingStrategy.getStockPrices(symbols);
+    }
+
+    /**
+     * Holdings and new ledger rows of a batch of trades, kept in memory until the batch is written
+     * by {@link #writeTrades(String, PendingTrades)}.
+     */
+    private static final class PendingTrades {
+
+        private final String userId;
+        private final Map<String, StockHolding> holdings = new HashMap<>();
+        private final List<StockDetails> ledger = new ArrayList<>();
+        private final Map<String, StockDetails> latestBySymbol = new LinkedHashMap<>();
+
+        private PendingTrades(String userId, List<StockHolding> currentHoldings) {
+            this.userId = userId;
+            // Trades are applied to copies, so the managed holdings only change once they are written
+            currentHoldings.forEach(holding -> holdings.put(holding.getSymbol(), new StockHolding(holding.getUserId(),
+                    holding.getSymbol(), holding.getQuantity(), holding.getAverageCost())));
+        }
+
+        private StockHolding holding(String symbol) {
+            return holdings.computeIfAbsent(symbol, key -> new StockHolding(userId, key));
+        }
+
+        /**
+         * Appends a ledger row; a row that closes its position is written as expired.
+         */
+        private void add(StockDetails stock) {
+            if (stock.getTotalStockQuantity() == 0) {
+                stock.setExpired(true);
+                stock.setExpiredDate(stock.getPurchaseDate());
+            }
+            latestBySymbol.put(stock.getSymbol(), stock);
+            ledger.add(stock);
+        }
+    }
 }
@@ -0,0 +1,34 @@
+package com.stock.management.service;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for the position snapshots of the trade ledger, see {@link TradeJournalService}.
+ */
+@ConfigurationProperties("stock.journal")
+@Getter
+@Setter
+public class TradeJournalProperties {
+
+    /**
+     * Ledger entries a user may have after the latest snapshot of the user's positions before a
+     * new one is taken. Bounds the entries read to rebuild the positions of a user.
+     */
+    private int snapshotEntries = 100;
+
+    /**
+     * How often the users who traded since the last check are checked for a snapshot.
+     */
+    private Duration checkInterval = Duration.ofSeconds(30);
+
+    /**
+     * Whether the holdings of every user are rebuilt from the snapshots and the ledger at
+     * startup, before requests are served. Useful after restoring the ledger from a backup.
+     */
+    private boolean rebuildOnStartup = false;
+}
@@ -0,0 +1,176 @@
+package com.stock.management.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.stock.management.data.jpa.model.JournalEntry;
+import com.stock.management.data.jpa.model.PositionSnapshot;
+import com.stock.management.data.jpa.model.SnapshotPosition;
+import com.stock.management.data.jpa.model.StockHolding;
+import com.stock.management.data.jpa.repository.PositionSnapshotRepository;
+import com.stock.management.data.jpa.repository.StockHoldingRepository;
+import com.stock.management.data.jpa.repository.StockManagementRepository;
+import com.stock.management.data.jpa.repository.UserSecurityRepository;
+import com.stock.management.exception.ResourceNotFoundException;
+
+/**
+ * Rebuilds positions from the trade ledger.
+ * <p>
+ * Every trade appends a {@link com.stock.management.data.jpa.model.StockDetails} entry, and
+ * entries are never rewritten afterwards. The positions of a user are snapshotted from time to
+ * time, recording the last entry each snapshot covers, so rebuilding a user's positions reads the
+ * snapshot and the entries written after it, however long the history is. Entries are applied in
+ * id order: the trades of a user are written one at a time under the user's row lock, so their
+ * ids follow the order of the trades. That only holds while a single instance writes the ledger:
+ * ids come from a pooled sequence, so each instance hands out ids from its own block of 50, and a
+ * user's trades on two instances can get ids out of order.
+ */
+@Service
+public class TradeJournalService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TradeJournalService.class);
+
+    private final StockManagementRepository stockManagementRepository;
+    private final PositionSnapshotRepository positionSnapshotRepository;
+    private final StockHoldingRepository stockHoldingRepository;
+    private final UserSecurityRepository userRepository;
+
+    public TradeJournalService(StockManagementRepository stockManagementRepository,
+                               PositionSnapshotRepository positionSnapshotRepository,
+                               StockHoldingRepository stockHoldingRepository,
+                               UserSecurityRepository userRepository) {
+        this.stockManagementRepository = stockManagementRepository;
+        this.positionSnapshotRepository = positionSnapshotRepository;
+        this.stockHoldingRepository = stockHoldingRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Counts the ledger entries of a user written after the user's latest snapshot.
+     *
+     * @param userId the user ID
+     * @return the number of entries a rebuild of the user's positions reads
+     */
+    @Transactional(readOnly = true)
+    public long tailLength(String userId) {
+        long lastEntryId = positionSnapshotRepository.findById(userId)
+                .map(PositionSnapshot::getLastEntryId)
+                .orElse(0L);
+        return stockManagementRepository.countJournalTail(userId, lastEntryId);
+    }
+
+    /**
+     * Snapshots the positions of a user as of the user's latest ledger entry. The user's row is
+     * locked meanwhile, so no trade of the user lands while the entries are read.
+     *
+     * @param userId the user ID
+     * @return the number of entries added to the snapshot
+     */
+    @Transactional
+    public int snapshot(String userId) {
+        lockUser(userId);
+        PositionSnapshot snapshot = positionSnapshotRepository.findById(userId)
+                .orElseGet(() -> new PositionSnapshot(userId));
+        List<JournalEntry> tail = stockManagementRepository.findJournalTail(userId, snapshot.getLastEntryId());
+        if (tail.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, StockHolding> positions = replay(userId, snapshot, tail);
+        snapshot.setLastEntryId(tail.get(tail.size() - 1).id());
+        snapshot.getPositions().clear();
+        positions.values().forEach(position -> snapshot.getPositions().add(
+                new SnapshotPosition(position.getSymbol(), position.getQuantity(), position.getAverageCost())));
+        positionSnapshotRepository.save(snapshot);
+        LOGGER.debug("Snapshotted {} positions of user {} up to ledger entry {}", positions.size(), userId,
+                snapshot.getLastEntryId());
+        return tail.size();
+    }
+
+    /**
+     * Rebuilds the current positions of a user from the latest snapshot and the ledger entries
+     * after it.
+     *
+     * @param userId the user ID
+     * @return the positions, ordered by symbol; closed positions are left out
+     */
+    @Transactional(readOnly = true)
+    public List<StockHolding> rebuildPositions(String userId) {
+        return List.copyOf(currentPositions(userId).values());
+    }
+
+    /**
+     * Replaces the holdings of a user that differ from the positions rebuilt from the ledger, for
+     * instance after the ledger has been restored from a backup.
+     *
+     * @param userId the user ID
+     * @return the number of holdings written or deleted
+     */
+    @Transactional
+    public int rebuildHoldings(String userId) {
+        lockUser(userId);
+        Map<String, StockHolding> rebuilt = currentPositions(userId);
+        int corrected = 0;
+        for (StockHolding holding : stockHoldingRepository.findByUserIdOrderBySymbol(userId)) {
+            StockHolding position = rebuilt.remove(holding.getSymbol());
+            if (position == null) {
+                stockHoldingRepository.delete(holding);
+                corrected++;
+            } else if (holding.getQuantity() != position.getQuantity()
+                    || Double.compare(holding.getAverageCost(), position.getAverageCost()) != 0) {
+                holding.setQuantity(position.getQuantity());
+                holding.setAverageCost(position.getAverageCost());
+                corrected++;
+            }
+        }
+        stockHoldingRepository.saveAll(rebuilt.values());
+        corrected += rebuilt.size();
+        if (corrected > 0) {
+            LOGGER.warn("Corrected {} holdings of user {} from the ledger", corrected, userId);
+        }
+        return corrected;
+    }
+
+    private Map<String, StockHolding> currentPositions(String userId) {
+        PositionSnapshot snapshot = positionSnapshotRepository.findById(userId)
+                .orElseGet(() -> new PositionSnapshot(userId));
+        return replay(userId, snapshot,
+                stockManagementRepository.findJournalTail(userId, snapshot.getLastEntryId()));
+    }
+
+    private void lockUser(String userId) {
+        userRepository.findByUserIdForUpdate(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+    }
+
+    /**
+     * Applies ledger entries to the positions of a snapshot, the way the trades applied them to
+     * the holdings.
+     */
+    private static Map<String, StockHolding> replay(String userId, PositionSnapshot snapshot, List<JournalEntry> tail) {
+        Map<String, StockHolding> positions = new TreeMap<>();
+        for (SnapshotPosition position : snapshot.getPositions()) {
+            positions.put(position.getSymbol(), new StockHolding(userId, position.getSymbol(),
+                    position.getQuantity(), position.getAverageCost()));
+        }
+        for (JournalEntry entry : tail) {
+            StockHolding position = positions.computeIfAbsent(entry.symbol(), symbol -> new StockHolding(userId, symbol));
+            if (entry.newStockQuantity() > 0) {
+                position.addShares(entry.newStockQuantity(), entry.price());
+            }
+            if (entry.removedStockQuantity() > 0) {
+                position.removeShares(entry.removedStockQuantity());
+            }
+            if (position.getQuantity() == 0) {
+                positions.remove(entry.symbol());
+            }
+        }
+        return positions;
+    }
+}
@@ -10,6 +10,7 @@ import com.stock.management.data.jpa.model.UserInfo;
 import com.stock.management.data.jpa.repository.UserSecurityRepository;
 import com.stock.management.dto.UserDTO;
 import com.stock.management.exception.BadRequestException;
+import com.stock.management.security.UserLookupCache;
 
 import jakarta.validation.Valid;
 
@@ -20,15 +21,19 @@ public class UserRegistrationService {
 
     private final UserSecurityRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserLookupCache userLookupCache;
 
     @Autowired
-    public UserRegistrationService(UserSecurityRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserRegistrationService(UserSecurityRepository userRepository, PasswordEncoder passwordEncoder,
+                                   UserLookupCache userLookupCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userLookupCache = userLookupCache;
     }
 
     /**
-     * Registers a new user with the provided details.
+     * Registers a new user with the provided details. Any cached credentials of the user ID are
+     * dropped.
      * 
      * @param userDTO the data transfer object containing user details
      * @return the persisted UserInfo object
@@ -40,7 +45,9 @@ public class UserRegistrationService {
         validatePassword(userDTO.password());
 
         UserInfo newUser = createUserEntity(userDTO);
-        return userRepository.save(newUser);
+        UserInfo savedUser = userRepository.save(newUser);
+        userLookupCache.invalidate(newUser.getUserId());
+        return savedUser;
     }
 
     /**
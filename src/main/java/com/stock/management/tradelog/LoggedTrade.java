@@ -0,0 +1,37 @@
+package com.stock.management.tradelog;
+
+import java.time.LocalDate;
+
+import com.stock.management.data.jpa.model.RejectedTrade;
+import com.stock.management.dto.TradeImportDTO;
+
+/**
+ * A trade acknowledged through the {@link TradeLog}, at the price it was accepted at.
+ *
+ * @param sequence  the position of the trade in the log, starting at 1
+ * @param userId    the user ID
+ * @param symbol    the stock symbol
+ * @param quantity  the number of stocks traded
+ * @param price     the price per stock when the trade was accepted
+ * @param removal   whether stocks are removed rather than added
+ * @param tradeDate the day the trade was accepted
+ */
+public record LoggedTrade(long sequence, String userId, String symbol, int quantity, double price, boolean removal,
+                          LocalDate tradeDate) {
+
+    /**
+     * The trade as written to the ledger by {@link com.stock.management.service.StockManagementService#importTrades}.
+     */
+    public TradeImportDTO toImport() {
+        return new TradeImportDTO(symbol, quantity, price, tradeDate, removal ? "Removed" : "Added");
+    }
+
+    /**
+     * The trade as recorded when the holdings no longer allowed it.
+     *
+     * @param reason why the trade was rejected
+     */
+    public RejectedTrade toRejected(String reason) {
+        return new RejectedTrade(sequence, userId, symbol, quantity, price, removal, tradeDate, reason);
+    }
+}
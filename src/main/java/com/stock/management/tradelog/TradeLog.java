@@ -0,0 +1,533 @@
+package com.stock.management.tradelog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * An append-only log of trades in memory-mapped segment files.
+ * <p>
+ * Each segment is a file of {@code segmentSize} bytes named after the sequence number of its
+ * first trade; a trade that doesn't fit the current segment starts the next one. A trade is
+ * written as its payload length, the CRC32 of its payload and the payload; a zero length ends the
+ * written part of a segment. Appending only copies the trade into the mapped segment, under one
+ * short lock.
+ * <p>
+ * {@link #awaitDurable(long)} returns once the trade is on disk. The first waiter forces the
+ * written part of the segment on behalf of every trade appended so far, while the trades
+ * appended during that force wait for the next one (group commit), so a busy log pays far fewer
+ * forces than it has trades. Without {@code sync}, trades are durable once appended: they survive
+ * a crash of the process, as the mapped pages belong to the operating system, but not of the
+ * machine.
+ * <p>
+ * On opening, the segments are scanned up to the first trade that is torn or fails its checksum,
+ * which is where appending resumes. Only durable trades are read by a {@link Reader}.
+ */
+public class TradeLog implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TradeLog.class);
+
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_PAYLOAD_BYTES = 33;
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean sync;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition forced = lock.newCondition();
+    private final List<Segment> segments = new ArrayList<>();
+    private final DistributionSummary groupCommitSize;
+    private final Timer forceTimer;
+
+    private Segment current;
+    private int writePosition;
+    private int forcedPosition;
+    private long lastSequence;
+    private long durableSequence;
+    private boolean forcing;
+    private boolean closed;
+
+    /**
+     * Opens the log in the directory, creating the directory and the first segment if needed.
+     *
+     * @param directory       holds the segment files
+     * @param segmentSize     the size of new segment files, in bytes
+     * @param sync            whether {@link #awaitDurable(long)} forces the trades to disk
+     * @param appliedSequence the last sequence number written elsewhere; numbering continues after
+     *                        it when the log holds no later trade
+     * @param meterRegistry   receives the group commit metrics
+     */
+    public TradeLog(Path directory, long segmentSize, boolean sync, long appliedSequence, MeterRegistry meterRegistry) {
+        if (segmentSize < 4096 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The segment size must be between 4KB and 2GB: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize;
+        this.sync = sync;
+        this.groupCommitSize = DistributionSummary.builder("stock.trade-log.group-commit")
+                .description("Trades made durable by one force of the trade log")
+                .register(meterRegistry);
+        this.forceTimer = Timer.builder("stock.trade-log.force")
+                .description("Time taken to force appended trades to disk")
+                .register(meterRegistry);
+        try {
+            Files.createDirectories(directory);
+            recover(appliedSequence);
+        } catch (IOException ex) {
+            close();
+            throw new UncheckedIOException("Failed to open the trade log in " + directory, ex);
+        }
+    }
+
+    /**
+     * Appends a trade, numbered after the last one. The trade is read back once durable.
+     *
+     * @return the appended trade
+     * @throws IllegalArgumentException if the trade doesn't fit in a segment
+     */
+    public LoggedTrade append(String userId, String symbol, int quantity, double price, boolean removal,
+                              LocalDate tradeDate) {
+        byte[] payload = encode(userId, symbol, quantity, price, removal, tradeDate);
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentSize) {
+            throw new IllegalArgumentException("Trade of " + recordBytes + " bytes doesn't fit in a trade log segment");
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The trade log is closed");
+            }
+            if (writePosition + recordBytes > current.capacity()) {
+                rotate();
+            }
+            long sequence = lastSequence + 1;
+            ByteBuffer.wrap(payload).putLong(0, sequence);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+
+            MappedByteBuffer buffer = current.buffer;
+            buffer.put(writePosition + HEADER_BYTES, payload);
+            buffer.putInt(writePosition + 4, (int) crc.getValue());
+            if (writePosition + recordBytes + 4 <= current.capacity()) {
+                // Ends the written part, in case the bytes after it hold an earlier torn trade
+                buffer.putInt(writePosition + recordBytes, 0);
+            }
+            buffer.putInt(writePosition, payload.length);
+            writePosition += recordBytes;
+            lastSequence = sequence;
+            if (!sync) {
+                current.readLimit = writePosition;
+                durableSequence = sequence;
+            }
+            return new LoggedTrade(sequence, userId, symbol, quantity, price, removal, tradeDate);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the trade with the sequence number, and every trade before it, is durable.
+     *
+     * @throws UncheckedIOException if the trades couldn't be forced to disk
+     */
+    public void awaitDurable(long sequence) {
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (forcing) {
+                    forced.awaitUninterruptibly();
+                    continue;
+                }
+                Segment segment = current;
+                int from = forcedPosition;
+                int to = writePosition;
+                long target = lastSequence;
+                forcing = true;
+                lock.unlock();
+                long start = System.nanoTime();
+                try {
+                    segment.buffer.force(from, to - from);
+                } finally {
+                    lock.lock();
+                    forcing = false;
+                    forced.signalAll();
+                }
+                forceTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (target > durableSequence) {
+                    groupCommitSize.record(target - durableSequence);
+                    durableSequence = target;
+                }
+                segment.readLimit = Math.max(segment.readLimit, to);
+                if (segment == current) {
+                    forcedPosition = Math.max(forcedPosition, to);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The sequence number of the last appended trade.
+     */
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads the durable trades after the sequence number, oldest first.
+     */
+    public Reader reader(long afterSequence) {
+        lock.lock();
+        try {
+            Segment start = segments.get(0);
+            for (Segment segment : segments) {
+                if (segment.baseSequence <= afterSequence + 1) {
+                    start = segment;
+                }
+            }
+            return new Reader(start, afterSequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments holding only trades up to the sequence number. The current segment is
+     * always kept.
+     *
+     * @return the number of deleted segments
+     */
+    public int deleteSegmentsUpTo(long sequence) {
+        lock.lock();
+        try {
+            int deleted = 0;
+            while (segments.size() > 1 && segments.get(1).baseSequence <= sequence + 1) {
+                Segment segment = segments.remove(0);
+                segment.close();
+                Files.deleteIfExists(segment.path);
+                deleted++;
+            }
+            return deleted;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to delete an applied trade log segment", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces the appended trades to disk, when {@code sync} is set, and closes the segment files.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (sync && current != null) {
+                current.buffer.force(forcedPosition, writePosition - forcedPosition);
+                current.readLimit = writePosition;
+                durableSequence = lastSequence;
+            }
+            for (Segment segment : segments) {
+                segment.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads the durable trades of the log in order. A reader is meant for one thread.
+     */
+    public final class Reader {
+
+        private final long afterSequence;
+        private Segment segment;
+        private int position;
+
+        private Reader(Segment segment, long afterSequence) {
+            this.segment = segment;
+            this.afterSequence = afterSequence;
+        }
+
+        /**
+         * Reads the next durable trades.
+         *
+         * @param maxTrades the most trades to read
+         * @return the trades, oldest first; empty when no durable trade is left to read
+         */
+        public List<LoggedTrade> next(int maxTrades) {
+            List<LoggedTrade> trades = new ArrayList<>();
+            while (trades.size() < maxTrades) {
+                int limit;
+                Segment following;
+                lock.lock();
+                try {
+                    limit = segment.readLimit;
+                    following = segment.sealed ? segmentAfter(segment) : null;
+                } finally {
+                    lock.unlock();
+                }
+                if (position >= limit) {
+                    if (following == null) {
+                        break;
+                    }
+                    segment = following;
+                    position = 0;
+                    continue;
+                }
+                while (position < limit && trades.size() < maxTrades) {
+                    LoggedTrade trade = decode(segment.buffer, position);
+                    position += HEADER_BYTES + segment.buffer.getInt(position);
+                    if (trade.sequence() > afterSequence) {
+                        trades.add(trade);
+                    }
+                }
+            }
+            return trades;
+        }
+    }
+
+    private void recover(long appliedSequence) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparingLong(TradeLog::baseSequence))
+                    .toList();
+        }
+        long last = 0;
+        for (int i = 0; i < files.size(); i++) {
+            Path path = files.get(i);
+            boolean newest = i == files.size() - 1;
+            long size = Files.size(path);
+            Segment segment = Segment.map(path, baseSequence(path), newest ? Math.max(size, segmentSize) : size);
+            segments.add(segment);
+            last = scan(segment, last, newest);
+            segment.sealed = !newest;
+        }
+        lastSequence = Math.max(last, appliedSequence);
+        durableSequence = lastSequence;
+        if (segments.isEmpty()) {
+            segments.add(createSegment(lastSequence + 1));
+        }
+        current = segments.get(segments.size() - 1);
+        writePosition = current.readLimit;
+        forcedPosition = writePosition;
+        if (!files.isEmpty()) {
+            LOGGER.info("Opened the trade log in {}: {} segments, last sequence {}", directory, segments.size(), last);
+        }
+    }
+
+    /**
+     * Finds the end of the valid trades of a segment.
+     *
+     * @return the sequence number of the segment's last valid trade, or {@code previous} if it has none
+     */
+    private static long scan(Segment segment, long previous, boolean newest) {
+        int position = 0;
+        long last = previous;
+        while (true) {
+            int length = position + HEADER_BYTES <= segment.capacity() ? segment.buffer.getInt(position) : 0;
+            if (length == 0) {
+                break;
+            }
+            LoggedTrade trade = isValid(segment.buffer, position, length) ? decode(segment.buffer, position) : null;
+            if (trade == null || trade.sequence() <= last) {
+                if (newest) {
+                    LOGGER.warn("Discarded a torn trade at the end of {}", segment.path);
+                } else {
+                    LOGGER.warn("Trade log segment {} is corrupt after sequence {}; its later trades are skipped",
+                            segment.path, last);
+                }
+                break;
+            }
+            last = trade.sequence();
+            position += HEADER_BYTES + length;
+        }
+        segment.readLimit = position;
+        return last;
+    }
+
+    private static boolean isValid(MappedByteBuffer buffer, int position, int length) {
+        if (length < FIXED_PAYLOAD_BYTES || length > buffer.capacity() - position - HEADER_BYTES) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(position + HEADER_BYTES, length));
+        return (int) crc.getValue() == buffer.getInt(position + 4);
+    }
+
+    /**
+     * Seals the current segment, forcing what's left of it, and starts a new one after the last
+     * trade. Called with the lock held.
+     */
+    private void rotate() {
+        if (sync) {
+            current.buffer.force(forcedPosition, writePosition - forcedPosition);
+        }
+        current.readLimit = writePosition;
+        current.sealed = true;
+        durableSequence = lastSequence;
+        try {
+            current = createSegment(lastSequence + 1);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to start a new trade log segment", ex);
+        }
+        segments.add(current);
+        writePosition = 0;
+        forcedPosition = 0;
+    }
+
+    private Segment createSegment(long baseSequence) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", baseSequence, SUFFIX));
+        Segment segment = Segment.map(path, baseSequence, segmentSize);
+        if (sync) {
+            forceDirectory();
+        }
+        return segment;
+    }
+
+    /**
+     * Makes the new segment file itself durable, where the platform allows forcing a directory.
+     */
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ex) {
+            LOGGER.debug("Could not force the trade log directory {}: {}", directory, ex.getMessage());
+        }
+    }
+
+    private Segment segmentAfter(Segment segment) {
+        for (Segment candidate : segments) {
+            if (candidate.baseSequence > segment.baseSequence) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static long baseSequence(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Payload layout: sequence, trade day, quantity, price, removal flag, then the user ID and the
+     * symbol as length-prefixed UTF-8. The sequence is filled in when the trade is appended.
+     */
+    private static byte[] encode(String userId, String symbol, int quantity, double price, boolean removal,
+                                 LocalDate tradeDate) {
+        byte[] user = userId.getBytes(StandardCharsets.UTF_8);
+        byte[] stock = symbol.getBytes(StandardCharsets.UTF_8);
+        if (user.length > 0xFFFF || stock.length > 0xFFFF) {
+            throw new IllegalArgumentException("User ID or symbol too long for the trade log");
+        }
+        ByteBuffer payload = ByteBuffer.allocate(FIXED_PAYLOAD_BYTES + 4 + user.length + stock.length);
+        payload.putLong(0)
+                .putLong(tradeDate.toEpochDay())
+                .putInt(quantity)
+                .putDouble(price)
+                .put((byte) (removal ? 1 : 0))
+                .putShort((short) user.length)
+                .put(user)
+                .putShort((short) stock.length)
+                .put(stock);
+        return payload.array();
+    }
+
+    private static LoggedTrade decode(MappedByteBuffer buffer, int position) {
+        ByteBuffer payload = buffer.slice(position + HEADER_BYTES, buffer.getInt(position));
+        long sequence = payload.getLong();
+        LocalDate tradeDate = LocalDate.ofEpochDay(payload.getLong());
+        int quantity = payload.getInt();
+        double price = payload.getDouble();
+        boolean removal = payload.get() == 1;
+        String userId = readString(payload);
+        String symbol = readString(payload);
+        return new LoggedTrade(sequence, userId, symbol, quantity, price, removal, tradeDate);
+    }
+
+    private static String readString(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getShort() & 0xFFFF];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final long baseSequence;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        /** End of the durable trades; guarded by the log's lock. */
+        private int readLimit;
+        /** Whether no more trades are appended; guarded by the log's lock. */
+        private boolean sealed;
+
+        private Segment(Path path, long baseSequence, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.baseSequence = baseSequence;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private static Segment map(Path path, long baseSequence, long size) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                return new Segment(path, baseSequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            } catch (IOException ex) {
+                channel.close();
+                throw ex;
+            }
+        }
+
+        private int capacity() {
+            return buffer.capacity();
+        }
+
+        /**
+         * Closes the file; the mapping itself is released once the buffer is garbage collected.
+         */
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                LOGGER.warn("Failed to close trade log segment {}", path, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.stock.management.tradelog;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.stock.management.data.jpa.model.RejectedTrade;
+import com.stock.management.data.jpa.model.TradeLogCheckpoint;
+import com.stock.management.data.jpa.repository.RejectedTradeRepository;
+import com.stock.management.data.jpa.repository.TradeLogCheckpointRepository;
+import com.stock.management.dto.TradeImportDTO;
+import com.stock.management.exception.BadRequestException;
+import com.stock.management.exception.ResourceNotFoundException;
+import com.stock.management.service.StockManagementService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Writes the durable trades of the {@link TradeLog} to the ledger in the background.
+ * <p>
+ * Every {@code stock.trade-log.apply-interval}, the trades logged since the last check are
+ * written in batches of up to {@code batch-size}, oldest first. Each batch is one transaction:
+ * the trades of each user in it go through
+ * {@link StockManagementService#importTrades(String, List)}, and the checkpoint moves to the last
+ * trade of the batch. A batch that fails on a database error is retried on the next check.
+ * {@link TradeLogService} checks every trade against the holdings it is applied to, so the
+ * holdings should always allow a logged trade. Should they not, the batch is written trade by
+ * trade instead, and each trade that is still rejected is recorded as a {@link RejectedTrade} in
+ * the transaction that moves the checkpoint past it, since it was already acknowledged.
+ * <p>
+ * At startup, the trades logged after the checkpoint are written before the web server accepts
+ * requests; on shutdown, after it has stopped, the remaining trades are written.
+ */
+public class TradeLogApplier implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TradeLogApplier.class);
+
+    /** Name of the checkpoint row of the trade log. */
+    public static final String CHECKPOINT = "trade-log";
+
+    private final TradeLog tradeLog;
+    private final StockManagementService stockManagementService;
+    private final TradeLogCheckpointRepository checkpointRepository;
+    private final RejectedTradeRepository rejectedTradeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TradeLogProperties properties;
+    private final List<LongConsumer> appliedListeners = new CopyOnWriteArrayList<>();
+    private final Counter appliedTrades;
+    private final Counter skippedTrades;
+
+    private volatile long appliedSequence;
+    private TradeLog.Reader reader;
+    private List<LoggedTrade> unapplied = List.of();
+    private volatile ScheduledExecutorService scheduler;
+
+    public TradeLogApplier(TradeLog tradeLog, StockManagementService stockManagementService,
+                           TradeLogCheckpointRepository checkpointRepository,
+                           RejectedTradeRepository rejectedTradeRepository,
+                           PlatformTransactionManager transactionManager, TradeLogProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.tradeLog = tradeLog;
+        this.stockManagementService = stockManagementService;
+        this.checkpointRepository = checkpointRepository;
+        this.rejectedTradeRepository = rejectedTradeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.appliedTrades = Counter.builder("stock.trade-log.applied")
+                .description("Logged trades written to the ledger")
+                .register(meterRegistry);
+        this.skippedTrades = Counter.builder("stock.trade-log.skipped")
+                .description("Logged trades recorded as rejected because the holdings no longer allowed them")
+                .register(meterRegistry);
+        Gauge.builder("stock.trade-log.pending", this, applier -> tradeLog.lastSequence() - applier.appliedSequence)
+                .description("Logged trades not yet written to the ledger")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The sequence number up to which every logged trade has been written to the ledger.
+     */
+    public long appliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * Registers a listener told the applied sequence after every check.
+     */
+    public void addAppliedListener(LongConsumer listener) {
+        appliedListeners.add(listener);
+    }
+
+    /**
+     * Writes every durable trade not yet written to the ledger, and deletes the log segments
+     * written in full.
+     *
+     * @return the number of trades written or recorded as rejected
+     */
+    public synchronized int applyDurableTrades() {
+        if (reader == null) {
+            appliedSequence = checkpointRepository.findById(CHECKPOINT)
+                    .map(TradeLogCheckpoint::getAppliedSequence)
+                    .orElse(0L);
+            reader = tradeLog.reader(appliedSequence);
+        }
+        int applied = 0;
+        while (true) {
+            List<LoggedTrade> batch = unapplied.isEmpty() ? reader.next(properties.getBatchSize()) : unapplied;
+            if (batch.isEmpty()) {
+                break;
+            }
+            // Kept until written, so a batch failing on a database error is retried
+            unapplied = batch;
+            apply(batch);
+            unapplied = List.of();
+            applied += batch.size();
+        }
+        tradeLog.deleteSegmentsUpTo(appliedSequence);
+        for (LongConsumer listener : appliedListeners) {
+            listener.accept(appliedSequence);
+        }
+        return applied;
+    }
+
+    @Override
+    public void start() {
+        int replayed = applyDurableTrades();
+        if (replayed > 0) {
+            LOGGER.info("Wrote {} logged trades to the ledger, up to sequence {}", replayed, appliedSequence);
+        }
+        long intervalNanos = properties.getApplyInterval().toNanos();
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("trade-log-apply-"));
+        executor.scheduleWithFixedDelay(this::applySafely, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        scheduler = executor;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+            applySafely();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Starts before the web server and stops after it, so no trade is acknowledged while the
+     * logged trades are being caught up with, and none is left unwritten on shutdown.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void apply(List<LoggedTrade> batch) {
+        List<LoggedTrade> remaining = batch.stream()
+                .filter(trade -> trade.sequence() > appliedSequence)
+                .toList();
+        if (remaining.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(remaining));
+            appliedSequence = remaining.get(remaining.size() - 1).sequence();
+            appliedTrades.increment(remaining.size());
+        } catch (BadRequestException | ResourceNotFoundException ex) {
+            LOGGER.warn("A batch of {} logged trades was rejected, writing them one by one: {}",
+                    remaining.size(), ex.getMessage());
+            for (LoggedTrade trade : remaining) {
+                applyAlone(trade);
+            }
+        }
+    }
+
+    private void applyAlone(LoggedTrade trade) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(List.of(trade)));
+            appliedTrades.increment();
+        } catch (BadRequestException | ResourceNotFoundException ex) {
+            LOGGER.error("Recording logged trade {} as rejected: {}", trade, ex.getMessage());
+            transactionTemplate.executeWithoutResult(status -> {
+                rejectedTradeRepository.save(trade.toRejected(ex.getMessage()));
+                saveCheckpoint(trade.sequence());
+            });
+            skippedTrades.increment();
+        }
+        appliedSequence = trade.sequence();
+    }
+
+    private void write(List<LoggedTrade> trades) {
+        Map<String, List<TradeImportDTO>> tradesByUser = new LinkedHashMap<>();
+        for (LoggedTrade trade : trades) {
+            tradesByUser.computeIfAbsent(trade.userId(), userId -> new ArrayList<>()).add(trade.toImport());
+        }
+        tradesByUser.forEach(stockManagementService::importTrades);
+        saveCheckpoint(trades.get(trades.size() - 1).sequence());
+    }
+
+    private void saveCheckpoint(long sequence) {
+        checkpointRepository.save(new TradeLogCheckpoint(CHECKPOINT, sequence));
+    }
+
+    private void applySafely() {
+        try {
+            applyDurableTrades();
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Writing logged trades to the ledger failed, retrying on the next check", ex);
+        }
+    }
+}
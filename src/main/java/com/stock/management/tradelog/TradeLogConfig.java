@@ -0,0 +1,66 @@
+package com.stock.management.tradelog;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.stock.management.data.jpa.model.TradeLogCheckpoint;
+import com.stock.management.data.jpa.repository.RejectedTradeRepository;
+import com.stock.management.data.jpa.repository.StockHoldingRepository;
+import com.stock.management.data.jpa.repository.TradeLogCheckpointRepository;
+import com.stock.management.data.jpa.repository.UserSecurityRepository;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.service.StockManagementService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Acknowledges single trades from the local {@link TradeLog} when {@code stock.trade-log.enabled}
+ * is set. Without it, no trade log is opened and trades are written to the database before they
+ * are acknowledged.
+ */
+@Configuration
+@ConditionalOnProperty(name = "stock.trade-log.enabled", havingValue = "true")
+@EnableConfigurationProperties(TradeLogProperties.class)
+public class TradeLogConfig {
+
+    /**
+     * Opens the log, numbering new trades after the checkpoint when the log holds no later trade.
+     */
+    @Bean(destroyMethod = "close")
+    public TradeLog tradeLog(TradeLogProperties tradeLogProperties,
+                             TradeLogCheckpointRepository checkpointRepository,
+                             MeterRegistry meterRegistry) {
+        long appliedSequence = checkpointRepository.findById(TradeLogApplier.CHECKPOINT)
+                .map(TradeLogCheckpoint::getAppliedSequence)
+                .orElse(0L);
+        return new TradeLog(tradeLogProperties.getDirectory(), tradeLogProperties.getSegmentSize().toBytes(),
+                tradeLogProperties.isSync(), appliedSequence, meterRegistry);
+    }
+
+    @Bean
+    public TradeLogApplier tradeLogApplier(TradeLog tradeLog,
+                                           StockManagementService stockManagementService,
+                                           TradeLogCheckpointRepository checkpointRepository,
+                                           RejectedTradeRepository rejectedTradeRepository,
+                                           PlatformTransactionManager transactionManager,
+                                           TradeLogProperties tradeLogProperties,
+                                           MeterRegistry meterRegistry) {
+        return new TradeLogApplier(tradeLog, stockManagementService, checkpointRepository, rejectedTradeRepository,
+                transactionManager, tradeLogProperties, meterRegistry);
+    }
+
+    @Bean
+    public TradeLogService tradeLogService(TradeLog tradeLog,
+                                           TradeLogApplier tradeLogApplier,
+                                           StockFetchingStrategy stockFetchingStrategy,
+                                           UserSecurityRepository userRepository,
+                                           StockHoldingRepository stockHoldingRepository,
+                                           TradeLogProperties tradeLogProperties,
+                                           MeterRegistry meterRegistry) {
+        return new TradeLogService(tradeLog, tradeLogApplier, stockFetchingStrategy, userRepository,
+                stockHoldingRepository, tradeLogProperties, meterRegistry);
+    }
+}
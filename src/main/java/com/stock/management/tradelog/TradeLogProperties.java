@@ -0,0 +1,58 @@
+package com.stock.management.tradelog;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for acknowledging trades from a local log and writing them to the ledger in the
+ * background, see {@link TradeLogService}.
+ */
+@ConfigurationProperties("stock.trade-log")
+@Getter
+@Setter
+public class TradeLogProperties {
+
+    /**
+     * Whether single trades are acknowledged once appended to the local trade log, instead of
+     * once written to the database.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory of the trade log segment files. Must be on local storage that survives a restart.
+     */
+    private Path directory = Path.of("trade-log");
+
+    /**
+     * Size of each segment file. Segments whose trades have all been written to the ledger are
+     * deleted.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Whether a trade is forced to disk before it is acknowledged. Without it, acknowledged
+     * trades survive a crash of the service but not of the machine.
+     */
+    private boolean sync = true;
+
+    /**
+     * How often the logged trades are checked for ones not yet written to the ledger.
+     */
+    private Duration applyInterval = Duration.ofMillis(50);
+
+    /**
+     * Most logged trades written to the ledger in one transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Logged trades that may wait to be written to the ledger before new trades are turned away.
+     */
+    private int maxPendingTrades = 100_000;
+}
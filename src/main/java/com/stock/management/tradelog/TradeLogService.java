@@ -0,0 +1,221 @@
+package com.stock.management.tradelog;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import com.stock.management.data.jpa.model.HoldingQuantity;
+import com.stock.management.data.jpa.repository.StockHoldingRepository;
+import com.stock.management.data.jpa.repository.UserSecurityRepository;
+import com.stock.management.dto.StockDTO;
+import com.stock.management.exception.BadRequestException;
+import com.stock.management.exception.ResourceNotFoundException;
+import com.stock.management.exception.ServiceBusyException;
+import com.stock.management.external.service.StockFetchingStrategy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Acknowledges single trades once they are durable in the {@link TradeLog}; the
+ * {@link TradeLogApplier} writes them to the ledger in the background.
+ * <p>
+ * A trade is checked against the quantities the user holds with every acknowledged trade
+ * applied, loaded from the holdings and kept in memory while the user has trades waiting to be
+ * written. The check and the append are done under the user's lock, so the trades of a user are
+ * logged in the order they were checked; waiting for the trade to be forced to disk is not.
+ * Direct writes of the holdings, such as a batch or an import, must go through
+ * {@link #writeDirectly(String, Supplier)}, which takes the same lock and writes the user's logged
+ * trades first. Every trade is therefore checked against the holdings it is later applied to.
+ * <p>
+ * Reads of the holdings, the history and the portfolio value see a trade once it has been
+ * written to the ledger, normally within {@code stock.trade-log.apply-interval}. When more than
+ * {@code max-pending-trades} trades wait to be written, new trades are turned away with
+ * {@link ServiceBusyException}.
+ */
+public class TradeLogService {
+
+    private final TradeLog tradeLog;
+    private final TradeLogApplier applier;
+    private final StockFetchingStrategy stockFetchingStrategy;
+    private final UserSecurityRepository userRepository;
+    private final StockHoldingRepository stockHoldingRepository;
+    private final int maxPendingTrades;
+    private final ConcurrentMap<String, Positions> positions = new ConcurrentHashMap<>();
+    private final Timer acknowledgements;
+    private final Counter rejectedTrades;
+
+    public TradeLogService(TradeLog tradeLog, TradeLogApplier applier, StockFetchingStrategy stockFetchingStrategy,
+                           UserSecurityRepository userRepository, StockHoldingRepository stockHoldingRepository,
+                           TradeLogProperties properties, MeterRegistry meterRegistry) {
+        this.tradeLog = tradeLog;
+        this.applier = applier;
+        this.stockFetchingStrategy = stockFetchingStrategy;
+        this.userRepository = userRepository;
+        this.stockHoldingRepository = stockHoldingRepository;
+        this.maxPendingTrades = properties.getMaxPendingTrades();
+        this.acknowledgements = Timer.builder("stock.trade-log.ack")
+                .description("Time from accepting a trade to it being durable in the trade log")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedTrades = Counter.builder("stock.trade-log.rejected")
+                .description("Trades turned away because too many logged trades waited to be written")
+                .register(meterRegistry);
+        applier.addAppliedListener(this::forgetWrittenTrades);
+    }
+
+    /**
+     * Adds stocks to a user's portfolio at the current price.
+     *
+     * @param userId   the user ID
+     * @param stockDTO the stocks to add
+     * @return the logged trade
+     */
+    public LoggedTrade addOrUpdateStock(String userId, StockDTO stockDTO) {
+        return submit(userId, stockDTO, false);
+    }
+
+    /**
+     * Removes stocks from a user's portfolio at the current price.
+     *
+     * @param userId   the user ID
+     * @param stockDTO the stocks to remove
+     * @return the logged trade
+     * @throws IllegalArgumentException if the user holds fewer stocks than requested
+     */
+    public LoggedTrade removeStock(String userId, StockDTO stockDTO) {
+        return submit(userId, stockDTO, true);
+    }
+
+    /**
+     * Writes a user's holdings directly, in order with the user's logged trades: the trades the
+     * user has logged are written to the ledger first, and no trade of the user is logged until
+     * the write is done.
+     *
+     * @param userId the user ID
+     * @param write  the direct write
+     * @return the result of the write
+     */
+    public <T> T writeDirectly(String userId, Supplier<T> write) {
+        Positions userPositions = lockPositions(userId);
+        try {
+            if (userPositions.lastSequence > applier.appliedSequence()) {
+                tradeLog.awaitDurable(userPositions.lastSequence);
+                applier.applyDurableTrades();
+            }
+            return write.get();
+        } finally {
+            // Loaded again from the holdings on the next trade
+            positions.remove(userId, userPositions);
+            userPositions.lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets the quantities of the users whose logged trades have all been written; they are
+     * loaded again on their next trade. Users whose lock is taken are checked again next time.
+     *
+     * @param appliedSequence the sequence number up to which the logged trades have been written
+     */
+    public void forgetWrittenTrades(long appliedSequence) {
+        for (Map.Entry<String, Positions> entry : positions.entrySet()) {
+            Positions userPositions = entry.getValue();
+            // Never waits, as writeDirectly may hold the lock while waiting for the applier
+            if (userPositions.lock.tryLock()) {
+                try {
+                    if (userPositions.lastSequence <= appliedSequence) {
+                        positions.remove(entry.getKey(), userPositions);
+                    }
+                } finally {
+                    userPositions.lock.unlock();
+                }
+            }
+        }
+    }
+
+    private LoggedTrade submit(String userId, StockDTO stockDTO, boolean removal) {
+        if (stockDTO.symbol() == null || stockDTO.symbol().isBlank()) {
+            throw new BadRequestException("symbol is required.");
+        }
+        if (stockDTO.quantity() <= 0) {
+            throw new BadRequestException("quantity must be positive.");
+        }
+        double price = stockFetchingStrategy.getStockPrice(stockDTO.symbol());
+        if (tradeLog.lastSequence() - applier.appliedSequence() >= maxPendingTrades) {
+            rejectedTrades.increment();
+            throw new ServiceBusyException("Too many trades are waiting to be written, try again shortly");
+        }
+
+        long start = System.nanoTime();
+        LoggedTrade trade;
+        Positions userPositions = lockPositions(userId);
+        try {
+            if (!userPositions.loaded) {
+                load(userId, userPositions);
+            }
+            if (removal && userPositions.quantity(stockDTO.symbol()) < stockDTO.quantity()) {
+                throw new IllegalArgumentException("Cannot remove more stocks than currently held.");
+            }
+            trade = tradeLog.append(userId, stockDTO.symbol(), stockDTO.quantity(), price, removal, LocalDate.now());
+            userPositions.apply(trade);
+        } finally {
+            userPositions.lock.unlock();
+        }
+        tradeLog.awaitDurable(trade.sequence());
+        acknowledgements.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return trade;
+    }
+
+    /**
+     * Takes the lock of the user's quantities, which are not loaded yet when new.
+     */
+    private Positions lockPositions(String userId) {
+        while (true) {
+            Positions userPositions = positions.computeIfAbsent(userId, ignored -> new Positions());
+            userPositions.lock.lock();
+            if (positions.get(userId) == userPositions) {
+                return userPositions;
+            }
+            // Forgotten while waiting for the lock
+            userPositions.lock.unlock();
+        }
+    }
+
+    private void load(String userId, Positions userPositions) {
+        if (!userRepository.existsById(userId)) {
+            positions.remove(userId, userPositions);
+            throw new ResourceNotFoundException("User not found with ID: " + userId);
+        }
+        for (HoldingQuantity holding : stockHoldingRepository.findQuantitiesByUserIdOrderBySymbol(userId)) {
+            userPositions.quantities.put(holding.symbol(), holding.quantity());
+        }
+        userPositions.loaded = true;
+    }
+
+    /**
+     * The quantities a user holds with every acknowledged trade applied. Guarded by its lock.
+     */
+    private static final class Positions {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Integer> quantities = new HashMap<>();
+        private boolean loaded;
+        private long lastSequence;
+
+        private int quantity(String symbol) {
+            return quantities.getOrDefault(symbol, 0);
+        }
+
+        private void apply(LoggedTrade trade) {
+            int change = trade.removal() ? -trade.quantity() : trade.quantity();
+            quantities.merge(trade.symbol(), change, (held, delta) -> held + delta == 0 ? null : held + delta);
+            lastSequence = trade.sequence();
+        }
+    }
+}
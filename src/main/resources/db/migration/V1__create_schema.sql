@@ -0,0 +1,41 @@
+-- Baseline schema for users, the stock ledger and current holdings.
+
+CREATE TABLE user_details (
+    user_id  VARCHAR(255) NOT NULL,
+    username VARCHAR(255),
+    password VARCHAR(255),
+    email    VARCHAR(255),
+    CONSTRAINT pk_user_details PRIMARY KEY (user_id)
+);
+
+CREATE TABLE stock_details (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id                 VARCHAR(255),
+    symbol                  VARCHAR(255)     NOT NULL,
+    existing_stock_quantity INTEGER          NOT NULL,
+    new_stock_quantity      INTEGER          NOT NULL,
+    removed_stock_quantity  INTEGER          NOT NULL,
+    total_stock_quantity    INTEGER          NOT NULL,
+    purchase_date           DATE             NOT NULL,
+    price                   DOUBLE PRECISION NOT NULL,
+    is_expired              BOOLEAN          NOT NULL,
+    expired_date            DATE,
+    CONSTRAINT pk_stock_details PRIMARY KEY (id),
+    CONSTRAINT fk_stock_details_user FOREIGN KEY (user_id) REFERENCES user_details (user_id)
+);
+
+-- Active positions of a user in a symbol (write path) and of a user overall
+CREATE INDEX idx_stock_details_user_symbol_expired ON stock_details (user_id, symbol, is_expired);
+
+-- A user's history in date order
+CREATE INDEX idx_stock_details_user_purchase_date ON stock_details (user_id, purchase_date);
+
+-- Keyed by user first so a user's holdings are one range of the primary key
+CREATE TABLE stock_holding (
+    user_id      VARCHAR(255)     NOT NULL,
+    symbol       VARCHAR(255)     NOT NULL,
+    quantity     INTEGER          NOT NULL,
+    average_cost DOUBLE PRECISION NOT NULL,
+    CONSTRAINT pk_stock_holding PRIMARY KEY (user_id, symbol),
+    CONSTRAINT fk_stock_holding_user FOREIGN KEY (user_id) REFERENCES user_details (user_id)
+);
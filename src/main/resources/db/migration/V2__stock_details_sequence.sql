@@ -0,0 +1,8 @@
+-- StockDetails ids come from a sequence so Hibernate can batch inserts. The increment matches the
+-- entity's allocationSize (pooled optimizer) and the sequence starts past any existing id.
+CREATE SEQUENCE stock_details_seq START WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM stock_details) INCREMENT BY 50;
+
+ALTER TABLE stock_details ALTER COLUMN id DROP IDENTITY;
+
+-- Rows inserted with plain SQL still get an id, from a block Hibernate never hands out
+ALTER TABLE stock_details ALTER COLUMN id SET DEFAULT NEXT VALUE FOR stock_details_seq;
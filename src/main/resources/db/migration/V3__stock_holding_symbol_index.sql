@@ -0,0 +1,3 @@
+-- The distinct held symbols, read periodically by the quote warmer, come from this index
+-- instead of a scan of every holding.
+CREATE INDEX idx_stock_holding_symbol ON stock_holding (symbol);
@@ -0,0 +1,23 @@
+-- The ledger is append-only: earlier rows of a symbol are no longer expired when a trade lands,
+-- so the (user_id, symbol, is_expired) index is replaced by one that reads a user's entries in
+-- the order they were written, from a snapshot onwards.
+DROP INDEX idx_stock_details_user_symbol_expired;
+CREATE INDEX idx_stock_details_user_id ON stock_details (user_id, id);
+
+-- Positions of a user as of one ledger entry; current positions are this snapshot plus the
+-- entries after it
+CREATE TABLE position_snapshot (
+    user_id       VARCHAR(255) NOT NULL,
+    last_entry_id BIGINT       NOT NULL,
+    CONSTRAINT pk_position_snapshot PRIMARY KEY (user_id),
+    CONSTRAINT fk_position_snapshot_user FOREIGN KEY (user_id) REFERENCES user_details (user_id)
+);
+
+CREATE TABLE position_snapshot_holding (
+    user_id      VARCHAR(255)     NOT NULL,
+    symbol       VARCHAR(255)     NOT NULL,
+    quantity     INTEGER          NOT NULL,
+    average_cost DOUBLE PRECISION NOT NULL,
+    CONSTRAINT pk_position_snapshot_holding PRIMARY KEY (user_id, symbol),
+    CONSTRAINT fk_position_snapshot_holding FOREIGN KEY (user_id) REFERENCES position_snapshot (user_id)
+);
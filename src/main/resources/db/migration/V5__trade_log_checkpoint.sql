@@ -0,0 +1,7 @@
+-- Sequence number of the last trade of the local trade log (stock.trade-log) written to the ledger.
+-- Updated in the same transaction as the trades, so a restart resumes right after it.
+CREATE TABLE trade_log_checkpoint (
+    name             VARCHAR(64) NOT NULL,
+    applied_sequence BIGINT      NOT NULL,
+    CONSTRAINT pk_trade_log_checkpoint PRIMARY KEY (name)
+);
@@ -0,0 +1,14 @@
+-- Logged trades the holdings no longer allowed when they were written to the ledger. They were
+-- acknowledged to the client, so they are recorded here, in the same transaction as the
+-- checkpoint that moves past them, instead of being dropped.
+CREATE TABLE trade_log_rejected_trade (
+    log_sequence BIGINT           NOT NULL,
+    user_id      VARCHAR(255)     NOT NULL,
+    symbol       VARCHAR(255)     NOT NULL,
+    quantity     INTEGER          NOT NULL,
+    price        DOUBLE PRECISION NOT NULL,
+    removal      BOOLEAN          NOT NULL,
+    trade_date   DATE             NOT NULL,
+    reason       VARCHAR(255),
+    CONSTRAINT pk_trade_log_rejected_trade PRIMARY KEY (log_sequence)
+);
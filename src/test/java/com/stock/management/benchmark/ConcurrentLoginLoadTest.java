@@ -0,0 +1,177 @@
+package com.stock.management.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.dto.StockDTO;
+import com.stock.management.dto.UserDTO;
+import com.stock.management.service.StockManagementService;
+import com.stock.management.service.UserRegistrationService;
+import com.stock.management.support.StubQuoteServer;
+
+/**
+ * Measures how a login storm ({@code POST /api/users/login}) affects concurrent portfolio reads
+ * ({@code GET /api/users/{userId}/stocks}), with password hashing on an effectively unbounded pool
+ * against the default bounded pool that rejects excess logins with 503. Run with:
+ * <pre>
+ * mvn test -Dtest=ConcurrentLoginLoadTest -Dbenchmark=true \
+ *     -Dloadtest.logins=64 -Dloadtest.readers=8 -Dloadtest.duration=20s
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ConcurrentLoginLoadTest {
+
+    private static final String SYMBOL = "AAPL";
+    private static final String PASSWORD = "password";
+
+    private final int logins = Integer.getInteger("loadtest.logins", 64);
+    private final int readers = Integer.getInteger("loadtest.readers", 8);
+    private final Duration duration = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "20s"));
+
+    @Test
+    void compareUnboundedAndBoundedHashing() throws Exception {
+        List<LoadResult> results = new ArrayList<>();
+        try (StubQuoteServer server = StubQuoteServer.start(Duration.ZERO)) {
+            results.add(run("unbounded", server, "--stock.security.password.threads=200",
+                    "--stock.security.password.max-queue-size=10000", "--stock.security.password.max-wait=60s"));
+            results.add(run("bounded", server));
+        }
+
+        System.out.printf("%n%-10s %10s %10s %10s %12s %12s %8s%n", "hashing", "logins", "login rps", "rejected",
+                "read p50 ms", "read p99 ms", "errors");
+        for (LoadResult result : results) {
+            System.out.printf("%-10s %10d %10.1f %10d %12.2f %12.2f %8d%n", result.mode(), result.logins(),
+                    result.loginRps(), result.rejected(), result.readP50Millis(), result.readP99Millis(), result.errors());
+        }
+        results.forEach(result -> assertEquals(0, result.errors(), result.mode()));
+    }
+
+    private LoadResult run(String mode, StubQuoteServer server, String... hashingArgs) throws Exception {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:logintest-" + mode + ";DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+                "--stock.quote.alphavantage.base-url=" + server.baseUrl(),
+                "--stock.quote.rate-limit.requests-per-minute=0",
+                "--stock.quote.warmer.enabled=false",
+                "--logging.level.org.springframework.security=INFO"));
+        args.addAll(List.of(hashingArgs));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StockManagementApplication.class)
+                .run(args.toArray(String[]::new))) {
+            seedUsers(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(mode, "http://localhost:" + port + "/api/users/");
+        }
+    }
+
+    private void seedUsers(ConfigurableApplicationContext context) {
+        UserRegistrationService userRegistrationService = context.getBean(UserRegistrationService.class);
+        StockManagementService stockManagementService = context.getBean(StockManagementService.class);
+        for (int i = 0; i < Math.max(logins, readers); i++) {
+            String userId = "logintest" + i;
+            userRegistrationService.registerUser(new UserDTO(userId, userId, userId + "@example.com", PASSWORD));
+            if (i < readers) {
+                stockManagementService.addOrUpdateStock(userId, new StockDTO(SYMBOL, 10));
+            }
+        }
+    }
+
+    /**
+     * Login workers log in as their own user in a loop, while reader workers read their own
+     * user's portfolio. Only the readers' latencies are recorded.
+     */
+    private LoadResult drive(String mode, String usersUrl) throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(8)).build();
+        AtomicLong completedLogins = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long endAt = System.nanoTime() + duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(logins + readers);
+        List<Future<?>> loginWorkers = new ArrayList<>();
+        for (int i = 0; i < logins; i++) {
+            String userId = "logintest" + i;
+            HttpRequest login = HttpRequest.newBuilder(URI.create(usersUrl + "login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"userId\":\"" + userId + "\",\"password\":\"" + PASSWORD + "\"}"))
+                    .build();
+            loginWorkers.add(workers.submit(() -> {
+                while (System.nanoTime() < endAt) {
+                    int status = client.send(login, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status == 200) {
+                        completedLogins.incrementAndGet();
+                    } else if (status == 503) {
+                        rejected.incrementAndGet();
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        List<Future<long[]>> readerSamples = new ArrayList<>();
+        for (int i = 0; i < readers; i++) {
+            HttpRequest read = HttpRequest.newBuilder(URI.create(usersUrl + "logintest" + i + "/stocks")).GET().build();
+            readerSamples.add(workers.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < endAt) {
+                    long start = System.nanoTime();
+                    int status = client.send(read, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    long elapsed = System.nanoTime() - start;
+                    if (status != 200) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = elapsed;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        for (Future<?> loginWorker : loginWorkers) {
+            loginWorker.get();
+        }
+        long[] reads = new long[0];
+        for (Future<long[]> sample : readerSamples) {
+            long[] latencies = sample.get();
+            long[] merged = Arrays.copyOf(reads, reads.length + latencies.length);
+            System.arraycopy(latencies, 0, merged, reads.length, latencies.length);
+            reads = merged;
+        }
+        workers.shutdown();
+
+        Arrays.sort(reads);
+        double p50Millis = reads.length == 0 ? 0 : reads[reads.length / 2] / 1_000_000.0;
+        double p99Millis = reads.length == 0 ? 0 : reads[(int) Math.ceil(reads.length * 0.99) - 1] / 1_000_000.0;
+        return new LoadResult(mode, completedLogins.get(), completedLogins.get() / (double) duration.toSeconds(),
+                rejected.get(), p50Millis, p99Millis, errors.get());
+    }
+
+    private record LoadResult(String mode, long logins, double loginRps, long rejected, double readP50Millis,
+                              double readP99Millis, long errors) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.stock.management.benchmark;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.data.jpa.repository.StockManagementRepository;
+
+/**
+ * Seeds a large StockDetails ledger and reports the H2 query plan and latency of the ledger
+ * queries with the {@code user_id} composite indexes in place and after dropping them. H2 backs
+ * every foreign key with an index of its own, so the foreign key is dropped as well for the
+ * unindexed run, as on databases that don't index foreign keys (PostgreSQL).
+ * <p>
+ * The database is file based under {@code target/} so the ledger does not have to fit in the
+ * heap. Run with:
+ * <pre>
+ * mvn test -Dtest=LedgerIndexBenchmark -Dbenchmark=true -DargLine=-Xmx2g \
+ *     -Dledgerbench.rows=10000000 -Dledgerbench.users=10000 -Dledgerbench.symbols=20
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(classes = StockManagementApplication.class, properties = {
+        "logging.level.root=warn",
+        "logging.level.org.springframework.security=warn",
+        "logging.level.com.stock.management=warn"
+})
+class LedgerIndexBenchmark {
+
+    private static final int SEED_CHUNK = 250_000;
+
+    private static final List<String> CREATE_INDEXES = List.of(
+            "ALTER TABLE stock_details ADD CONSTRAINT fk_stock_details_user FOREIGN KEY (user_id) REFERENCES user_details (user_id)",
+            "CREATE INDEX idx_stock_details_user_id ON stock_details (user_id, id)",
+            "CREATE INDEX idx_stock_details_user_purchase_date ON stock_details (user_id, purchase_date)");
+
+    private static final List<String> DROP_INDEXES = List.of(
+            "ALTER TABLE stock_details DROP CONSTRAINT fk_stock_details_user",
+            "DROP INDEX idx_stock_details_user_id",
+            "DROP INDEX idx_stock_details_user_purchase_date");
+
+    private final int rows = Integer.getInteger("ledgerbench.rows", 10_000_000);
+    private final int users = Integer.getInteger("ledgerbench.users", 10_000);
+    private final int symbols = Integer.getInteger("ledgerbench.symbols", 20);
+
+    @Autowired
+    private StockManagementRepository stockManagementRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        Path database = Path.of("target", "ledgerbench-" + System.currentTimeMillis()).toAbsolutePath();
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + database + ";DATABASE_TO_UPPER=false");
+    }
+
+    @Test
+    void compareIndexedAndUnindexedLedgerQueries() {
+        DROP_INDEXES.forEach(jdbcTemplate::execute);
+        long start = System.nanoTime();
+        seed();
+        System.out.printf("%nSeeded %,d ledger rows for %,d users in %d s%n", rows, users, (System.nanoTime() - start) / 1_000_000_000);
+
+        start = System.nanoTime();
+        CREATE_INDEXES.forEach(jdbcTemplate::execute);
+        jdbcTemplate.execute("ANALYZE");
+        System.out.printf("Built indexes in %d s%n", (System.nanoTime() - start) / 1_000_000_000);
+        measure("with user_id composite indexes", 200);
+
+        DROP_INDEXES.forEach(jdbcTemplate::execute);
+        jdbcTemplate.execute("ANALYZE");
+        measure("without user_id indexes", 5);
+
+        CREATE_INDEXES.forEach(jdbcTemplate::execute);
+    }
+
+    private void seed() {
+        jdbcTemplate.update("INSERT INTO user_details (user_id, username, password, email) "
+                + "SELECT 'user-' || X, 'user-' || X, 'not-used', 'user-' || X || '@example.com' FROM SYSTEM_RANGE(1, ?)", users);
+
+        // The last users * symbols rows are the journal tail after a snapshot; everything before them is history
+        int active = users * symbols;
+        for (int from = 1; from <= rows; from += SEED_CHUNK) {
+            jdbcTemplate.update("INSERT INTO stock_details (user_id, symbol, existing_stock_quantity, new_stock_quantity, "
+                    + "removed_stock_quantity, total_stock_quantity, purchase_date, price, is_expired, expired_date) "
+                    + "SELECT 'user-' || (MOD(X, ?) + 1), 'SYM' || MOD(X / ?, ?), 0, 1, 0, 1, "
+                    + "DATEADD('DAY', -MOD(X, 3650), CURRENT_DATE), 100.0, X <= ?, "
+                    + "CASE WHEN X <= ? THEN CURRENT_DATE END FROM SYSTEM_RANGE(?, ?)",
+                    users, users, symbols, rows - active, rows - active, from, Math.min(from + SEED_CHUNK - 1, rows));
+        }
+    }
+
+    private void measure(String label, int iterations) {
+        System.out.printf("%n== %s ==%n", label);
+        long snapshotEntryId = rows - (long) users * symbols;
+        report("findJournalTail", iterations,
+                "SELECT * FROM stock_details WHERE user_id = 'user-1' AND id > " + snapshotEntryId + " ORDER BY id",
+                user -> stockManagementRepository.findJournalTail(user, snapshotEntryId).size());
+        report("findByUserInfoUserId", iterations,
+                "SELECT * FROM stock_details WHERE user_id = 'user-1'",
+                user -> stockManagementRepository.findByUserInfoUserId(user).size());
+    }
+
+    private void report(String query, int iterations, String explainSql, Function<String, Integer> lookup) {
+        Map<String, Object> plan = jdbcTemplate.queryForMap("EXPLAIN " + explainSql);
+        System.out.printf("%n%s%n  plan: %s%n", query, plan.values().iterator().next().toString().replaceAll("\\s+", " "));
+
+        for (int i = 0; i < Math.max(1, iterations / 10); i++) {
+            lookup.apply("user-" + ThreadLocalRandom.current().nextInt(1, users + 1));
+        }
+
+        long[] latencies = new long[iterations];
+        int rowsRead = 0;
+        for (int i = 0; i < iterations; i++) {
+            String user = "user-" + ThreadLocalRandom.current().nextInt(1, users + 1);
+            long start = System.nanoTime();
+            rowsRead += lookup.apply(user);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("  rows/call %d, mean %.2f ms, p99 %.2f ms%n", rowsRead / iterations,
+                Arrays.stream(latencies).average().orElse(0) / 1_000_000.0,
+                latencies[(int) Math.ceil(iterations * 0.99) - 1] / 1_000_000.0);
+    }
+}
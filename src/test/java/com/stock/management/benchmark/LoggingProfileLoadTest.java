@@ -0,0 +1,172 @@
+package com.stock.management.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.dto.StockDTO;
+import com.stock.management.dto.UserDTO;
+import com.stock.management.service.StockManagementService;
+import com.stock.management.service.UserRegistrationService;
+import com.stock.management.support.StubQuoteServer;
+
+/**
+ * Compares throughput and latency of the trade endpoints ({@code POST /api/users/{userId}/stocks}
+ * and {@code PUT /api/users/{userId}/stocks/removeStock}) with the default logging configuration,
+ * synchronous text appenders with application and security DEBUG output, against the {@code prod}
+ * profile's asynchronous JSON appenders. Log files are written under {@code target/}. Run with:
+ * <pre>
+ * mvn test -Dtest=LoggingProfileLoadTest -Dbenchmark=true \
+ *     -Dloadtest.concurrency=16 -Dloadtest.duration=20s
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoggingProfileLoadTest {
+
+    private static final String SYMBOL = "AAPL";
+    private static final int SEED_QUANTITY = 1_000_000;
+
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+    private final Duration duration = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "20s"));
+
+    @Test
+    void compareDefaultAndProductionLogging() throws Exception {
+        List<LoadResult> results = new ArrayList<>();
+        try (StubQuoteServer server = StubQuoteServer.start(Duration.ZERO)) {
+            results.addAll(run("default", server));
+            results.addAll(run("prod", server));
+        }
+
+        System.out.printf("%n%-8s %-8s %10s %10s %10s %10s %8s%n", "logging", "trade", "requests", "rps", "p50 (ms)", "p99 (ms)", "errors");
+        for (LoadResult result : results) {
+            System.out.printf("%-8s %-8s %10d %10.1f %10.2f %10.2f %8d%n", result.mode(), result.trade(),
+                    result.requests(), result.rps(), result.p50Millis(), result.p99Millis(), result.errors());
+        }
+        results.forEach(result -> assertEquals(0, result.errors(), result.mode() + " " + result.trade()));
+    }
+
+    private List<LoadResult> run(String mode, StubQuoteServer server) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(StockManagementApplication.class);
+        if (!"default".equals(mode)) {
+            builder.profiles(mode);
+        }
+        String[] args = {
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:logtest-" + mode + ";DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+                "--stock.quote.alphavantage.base-url=" + server.baseUrl(),
+                "--stock.quote.rate-limit.requests-per-minute=0",
+                "--logging.file.path=" + Path.of("target", "logtest-" + mode).toAbsolutePath()
+        };
+
+        try (ConfigurableApplicationContext context = builder.run(args)) {
+            seedUsers(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(mode, "http://localhost:" + port + "/api/users/");
+        }
+    }
+
+    private void seedUsers(ConfigurableApplicationContext context) {
+        UserRegistrationService userRegistrationService = context.getBean(UserRegistrationService.class);
+        StockManagementService stockManagementService = context.getBean(StockManagementService.class);
+        for (int i = 0; i < concurrency; i++) {
+            String userId = "logtest" + i;
+            userRegistrationService.registerUser(new UserDTO(userId, userId, userId + "@example.com", "password"));
+            stockManagementService.addOrUpdateStock(userId, new StockDTO(SYMBOL, SEED_QUANTITY));
+        }
+    }
+
+    /**
+     * Each worker trades for its own user, alternating a buy and a sale of one share so that the
+     * position never runs out.
+     */
+    private List<LoadResult> drive(String mode, String usersUrl) throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(4)).build();
+        String body = "{\"symbol\":\"" + SYMBOL + "\",\"quantity\":1}";
+        AtomicLong addErrors = new AtomicLong();
+        AtomicLong removeErrors = new AtomicLong();
+        long endAt = System.nanoTime() + duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[][]>> samples = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            String userId = "logtest" + i;
+            HttpRequest add = HttpRequest.newBuilder(URI.create(usersUrl + userId + "/stocks"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+            HttpRequest remove = HttpRequest.newBuilder(URI.create(usersUrl + userId + "/stocks/removeStock"))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body)).build();
+            samples.add(workers.submit(() -> {
+                long[][] latencies = { new long[1024], new long[1024] };
+                int[] counts = new int[2];
+                while (System.nanoTime() < endAt) {
+                    record(client, add, latencies, counts, 0, addErrors);
+                    record(client, remove, latencies, counts, 1, removeErrors);
+                }
+                return new long[][] { Arrays.copyOf(latencies[0], counts[0]), Arrays.copyOf(latencies[1], counts[1]) };
+            }));
+        }
+
+        long[] added = new long[0];
+        long[] removed = new long[0];
+        for (Future<long[][]> sample : samples) {
+            long[][] latencies = sample.get();
+            added = concat(added, latencies[0]);
+            removed = concat(removed, latencies[1]);
+        }
+        workers.shutdown();
+        return List.of(result(mode, "add", added, addErrors.get()), result(mode, "remove", removed, removeErrors.get()));
+    }
+
+    private static void record(HttpClient client, HttpRequest request, long[][] latencies, int[] counts, int index,
+                               AtomicLong errors) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        long elapsed = System.nanoTime() - start;
+        if (response.statusCode() != 204) {
+            errors.incrementAndGet();
+        }
+        if (counts[index] == latencies[index].length) {
+            latencies[index] = Arrays.copyOf(latencies[index], counts[index] * 2);
+        }
+        latencies[index][counts[index]++] = elapsed;
+    }
+
+    private static long[] concat(long[] all, long[] latencies) {
+        long[] merged = Arrays.copyOf(all, all.length + latencies.length);
+        System.arraycopy(latencies, 0, merged, all.length, latencies.length);
+        return merged;
+    }
+
+    private LoadResult result(String mode, String trade, long[] latencies, long errors) {
+        Arrays.sort(latencies);
+        double p50Millis = latencies.length == 0 ? 0 : latencies[latencies.length / 2] / 1_000_000.0;
+        double p99Millis = latencies.length == 0 ? 0 : latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1_000_000.0;
+        return new LoadResult(mode, trade, latencies.length, latencies.length / (double) duration.toSeconds(),
+                p50Millis, p99Millis, errors);
+    }
+
+    private record LoadResult(String mode, String trade, long requests, double rps, double p50Millis, double p99Millis,
+                              long errors) {
+    }
+}
@@ -0,0 +1,182 @@
+package com.stock.management.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.client.RestTemplate;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.dto.StockDTO;
+import com.stock.management.dto.UserDTO;
+import com.stock.management.service.StockManagementService;
+import com.stock.management.service.UserRegistrationService;
+
+/**
+ * Compares sustained throughput and p99 latency of {@code GET /api/users/{userId}/stocks/portfolio/value}
+ * with Tomcat on platform threads against the {@code virtual-threads} profile.
+ * <p>
+ * The Alpha Vantage upstream is replaced by a stub with a fixed latency and quote caching is effectively
+ * disabled, so every request blocks on upstream I/O. Run with:
+ * <pre>
+ * mvn test -Pjava21 -Dtest=PortfolioValueLoadTest -Dbenchmark=true \
+ *     -Dloadtest.concurrency=400 -Dloadtest.duration=20s -Dloadtest.upstream-latency=100ms
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class PortfolioValueLoadTest {
+
+    private static final String USER_ID = "loadtest";
+    private static final List<String> SYMBOLS = List.of("AAPL", "GOOGL", "MSFT", "TSLA");
+
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 400);
+    private final Duration duration = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "20s"));
+    private final Duration upstreamLatency =
+            DurationStyle.detectAndParse(System.getProperty("loadtest.upstream-latency", "100ms"));
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        LoadResult platform = run("platform");
+        LoadResult virtual = run("virtual-threads");
+
+        System.out.printf("%n%-16s %10s %10s %10s %8s%n", "mode", "requests", "rps", "p99 (ms)", "errors");
+        for (LoadResult result : List.of(platform, virtual)) {
+            System.out.printf("%-16s %10d %10.1f %10.1f %8d%n",
+                    result.mode(), result.requests(), result.rps(), result.p99Millis(), result.errors());
+        }
+
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+        assertTrue(virtual.requests() > 0);
+    }
+
+    private LoadResult run(String mode) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(StockManagementApplication.class)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new StubUpstream(upstreamLatency)));
+        if (!"platform".equals(mode)) {
+            builder.profiles(mode);
+        }
+        String[] args = {
+                "--server.port=0",
+                "--server.tomcat.threads.max=50",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + mode + ";DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+                "--stock.quote.cache.default-ttl=1ms",
+                "--stock.quote.fetch.max-concurrency=1000",
+                "--stock.quote.fetch.deadline=30s",
+                "--logging.level.root=warn",
+                "--logging.level.org.springframework.security=warn",
+                "--logging.level.com.stock.management=warn"
+        };
+
+        try (ConfigurableApplicationContext context = builder.run(args)) {
+            seedPortfolio(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(mode, URI.create("http://localhost:" + port + "/api/users/" + USER_ID + "/stocks/portfolio/value"));
+        }
+    }
+
+    private void seedPortfolio(ConfigurableApplicationContext context) {
+        context.getBean(UserRegistrationService.class)
+                .registerUser(new UserDTO(USER_ID, "Load Test", "loadtest@example.com", "password"));
+        StockManagementService stockManagementService = context.getBean(StockManagementService.class);
+        SYMBOLS.forEach(symbol -> stockManagementService.addOrUpdateStock(USER_ID, new StockDTO(symbol, 10)));
+    }
+
+    private LoadResult drive(String mode, URI uri) throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(16)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        AtomicLong errors = new AtomicLong();
+        long endAt = System.nanoTime() + duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> samples = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            samples.add(workers.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < endAt) {
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> sample : samples) {
+            long[] latencies = sample.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        workers.shutdown();
+        Arrays.sort(all);
+
+        double p99Millis = all.length == 0 ? 0 : all[(int) Math.ceil(all.length * 0.99) - 1] / 1_000_000.0;
+        return new LoadResult(mode, all.length, all.length / (double) duration.toSeconds(), p99Millis, errors.get());
+    }
+
+    private record LoadResult(String mode, long requests, double rps, double p99Millis, long errors) {
+    }
+
+    /**
+     * Replaces the outbound {@link RestTemplate} with one that answers every quote request after a fixed delay.
+     */
+    private static final class StubUpstream implements BeanPostProcessor {
+
+        private final Duration latency;
+
+        private StubUpstream(Duration latency) {
+            this.latency = latency;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof RestTemplate)) {
+                return bean;
+            }
+            return new RestTemplate() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <T> T getForObject(String url, Class<T> responseType, Object... uriVariables) {
+                    try {
+                        Thread.sleep(latency.toMillis());
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return (T) Map.of("Global Quote", Map.of("05. price", "100.0"));
+                }
+            };
+        }
+    }
+}
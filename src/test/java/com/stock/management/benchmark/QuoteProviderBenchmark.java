@@ -0,0 +1,96 @@
+package com.stock.management.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.stock.management.external.config.AlphaVantageProperties;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.external.service.impl.AlphaVantageStockFetchingStrategy;
+import com.stock.management.external.service.impl.AlphaVantageWebClientStockFetchingStrategy;
+import com.stock.management.external.service.impl.ConcurrentQuoteFetcher;
+import com.stock.management.support.StubQuoteServer;
+
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * A/B comparison of the {@code rest-template} and {@code web-client} quote providers against a
+ * local stub upstream: mean and p99 latency of single and bulk lookups, and bytes allocated per
+ * lookup across all JVM threads. Run with:
+ * <pre>
+ * mvn test -Dtest=QuoteProviderBenchmark -Dbenchmark=true -Dquotebench.iterations=2000
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class QuoteProviderBenchmark {
+
+    private static final List<String> PORTFOLIO = List.of("AAPL", "GOOGL", "MSFT", "TSLA", "AMZN", "NVDA", "META", "NFLX");
+
+    private final int iterations = Integer.getInteger("quotebench.iterations", 2000);
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void compareProviders() throws Exception {
+        try (StubQuoteServer server = StubQuoteServer.start(Duration.ZERO)) {
+            AlphaVantageProperties properties = new AlphaVantageProperties();
+            properties.setBaseUrl(server.baseUrl());
+
+            ConcurrentQuoteFetcher fetcher = new ConcurrentQuoteFetcher(Executors.newFixedThreadPool(8), 8, Duration.ofSeconds(5));
+            AlphaVantageStockFetchingStrategy restTemplate = new AlphaVantageStockFetchingStrategy();
+            ReflectionTestUtils.setField(restTemplate, "restTemplate", new RestTemplate());
+            ReflectionTestUtils.setField(restTemplate, "alphaVantageProperties", properties);
+            ReflectionTestUtils.setField(restTemplate, "concurrentQuoteFetcher", fetcher);
+
+            ConnectionProvider connectionProvider = ConnectionProvider.create("benchmark", properties.getMaxConnections());
+            AlphaVantageWebClientStockFetchingStrategy webClient = new AlphaVantageWebClientStockFetchingStrategy(
+                    WebClient.builder(), connectionProvider, properties, 8, Duration.ofSeconds(5));
+
+            try {
+                System.out.printf("%n%-14s %-7s %10s %10s %14s%n", "provider", "call", "mean (us)", "p99 (us)", "bytes/lookup");
+                for (String call : List.of("single", "bulk")) {
+                    report("rest-template", call, restTemplate);
+                    report("web-client", call, webClient);
+                }
+            } finally {
+                fetcher.close();
+                connectionProvider.dispose();
+            }
+        }
+    }
+
+    private void report(String provider, String call, StockFetchingStrategy strategy) {
+        boolean bulk = "bulk".equals(call);
+        Runnable lookup = bulk ? () -> strategy.getStockPrices(PORTFOLIO) : () -> strategy.getStockPrice("AAPL");
+        for (int i = 0; i < iterations / 4; i++) {
+            lookup.run();
+        }
+
+        long[] latencies = new long[iterations];
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            lookup.run();
+            latencies[i] = System.nanoTime() - start;
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        Arrays.sort(latencies);
+        double meanMicros = Arrays.stream(latencies).average().orElse(0) / 1_000.0;
+        double p99Micros = latencies[(int) Math.ceil(iterations * 0.99) - 1] / 1_000.0;
+        long lookups = (long) iterations * (bulk ? PORTFOLIO.size() : 1);
+        System.out.printf("%-14s %-7s %10.1f %10.1f %14d%n", provider, call, meanMicros, p99Micros, allocated / lookups);
+    }
+
+    private long allocatedBytes() {
+        return Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds())).filter(bytes -> bytes > 0).sum();
+    }
+}
@@ -0,0 +1,163 @@
+package com.stock.management.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.data.jpa.model.StockHolding;
+import com.stock.management.data.jpa.repository.StockHoldingRepository;
+import com.stock.management.data.jpa.repository.StockManagementRepository;
+import com.stock.management.dto.StockHistoryDTO;
+import com.stock.management.dto.UserStockDTO;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.service.StockHistoryService;
+import com.stock.management.service.StockManagementService;
+import com.stock.management.support.StubQuoteServer;
+
+/**
+ * Compares bytes allocated per request and throughput of the read paths when they load managed
+ * entities and copy them into DTOs, as they did before, and when they read projections in
+ * read-only transactions. Quotes are served from the cache after the first call. Run with:
+ * <pre>
+ * mvn test -Dtest=ReadPathAllocationBenchmark -Dbenchmark=true \
+ *     -Dreadbench.history=100000 -Dreadbench.symbols=200
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(classes = StockManagementApplication.class, properties = {
+        "logging.level.root=warn",
+        "logging.level.org.springframework.security=warn",
+        "logging.level.com.stock.management=warn",
+        "stock.quote.rate-limit.requests-per-minute=0"
+})
+class ReadPathAllocationBenchmark {
+
+    private static final String USER_ID = "readbench";
+    private static final StubQuoteServer SERVER = startServer();
+
+    private final int history = Integer.getInteger("readbench.history", 100_000);
+    private final int symbols = Integer.getInteger("readbench.symbols", 200);
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private StockManagementService stockManagementService;
+
+    @Autowired
+    private StockHistoryService stockHistoryService;
+
+    @Autowired
+    private StockManagementRepository stockManagementRepository;
+
+    @Autowired
+    private StockHoldingRepository stockHoldingRepository;
+
+    @Autowired
+    private StockFetchingStrategy stockFetchingStrategy;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void alphaVantageProperties(DynamicPropertyRegistry registry) {
+        registry.add("stock.quote.alphavantage.base-url", SERVER::baseUrl);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.close();
+    }
+
+    @Test
+    void compareEntityAndProjectionReads() {
+        seed();
+
+        int historyIterations = Math.max(10, 2_000_000 / history);
+        System.out.printf("%n%-16s %-20s %10s %10s %14s%n", "read", "path", "calls/s", "mean (ms)", "bytes/call");
+        report("getStockHistory", "entities (before)", historyIterations, () -> legacyGetStockHistory(USER_ID));
+        report("getStockHistory", "projection", historyIterations, () -> stockHistoryService.getStockHistory(USER_ID));
+        report("getStocksByUser", "entities (before)", 2_000, () -> legacyGetStocksByUser(USER_ID));
+        report("getStocksByUser", "projection", 2_000, () -> stockManagementService.getStocksByUser(USER_ID));
+    }
+
+    private void report(String read, String path, int iterations, Supplier<List<?>> call) {
+        int size = call.get().size();
+        for (int i = 0; i < iterations / 4; i++) {
+            call.get();
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            call.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-16s %-20s %10.1f %10.2f %14d   (%d rows)%n", read, path,
+                iterations * 1_000_000_000.0 / elapsed, elapsed / 1_000_000.0 / iterations, allocated / iterations, size);
+    }
+
+    /** The history read before it used a projection: every ledger row is loaded as a managed entity. */
+    private List<StockHistoryDTO> legacyGetStockHistory(String userId) {
+        return stockManagementRepository.findByUserInfoUserId(userId).stream()
+                .map(stock -> {
+                    String action = stock.getNewStockQuantity() > 0 ? "Added" : "Removed";
+                    int quantityChanged = stock.getNewStockQuantity() > 0 ? stock.getNewStockQuantity()
+                            : stock.getRemovedStockQuantity();
+                    return new StockHistoryDTO(stock.getSymbol(), stock.getPurchaseDate(), quantityChanged, action);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /** The holdings read before it used a projection: every holding is loaded as a managed entity. */
+    private List<UserStockDTO> legacyGetStocksByUser(String userId) {
+        List<StockHolding> holdings = stockHoldingRepository.findByUserIdOrderBySymbol(userId);
+        Map<String, Double> prices = stockFetchingStrategy.getStockPrices(
+                holdings.stream().map(StockHolding::getSymbol).collect(Collectors.toList()));
+        return holdings.stream()
+                .map(holding -> {
+                    double price = prices.get(holding.getSymbol());
+                    return new UserStockDTO(userId, holding.getSymbol(), holding.getQuantity(), price,
+                            price * holding.getQuantity());
+                })
+                .collect(Collectors.toList());
+    }
+
+    private void seed() {
+        jdbcTemplate.update("INSERT INTO user_details (user_id, username, password, email) VALUES (?, ?, 'not-used', ?)",
+                USER_ID, USER_ID, USER_ID + "@example.com");
+        jdbcTemplate.update("INSERT INTO stock_details (user_id, symbol, existing_stock_quantity, new_stock_quantity, "
+                + "removed_stock_quantity, total_stock_quantity, purchase_date, price, is_expired) "
+                + "SELECT ?, 'SYM' || MOD(X, ?), 0, 1, 0, 1, DATEADD('DAY', -MOD(X, 3650), CURRENT_DATE), 100.0, TRUE "
+                + "FROM SYSTEM_RANGE(1, ?)", USER_ID, symbols, history);
+        jdbcTemplate.update("INSERT INTO stock_holding (user_id, symbol, quantity, average_cost) "
+                + "SELECT ?, 'SYM' || (X - 1), 10, 100.0 FROM SYSTEM_RANGE(1, ?)", USER_ID, symbols);
+    }
+
+    private long allocatedBytes() {
+        return Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds())).filter(bytes -> bytes > 0).sum();
+    }
+
+    private static StubQuoteServer startServer() {
+        try {
+            return StubQuoteServer.start(Duration.ZERO);
+        } catch (java.io.IOException ex) {
+            throw new java.io.UncheckedIOException(ex);
+        }
+    }
+}
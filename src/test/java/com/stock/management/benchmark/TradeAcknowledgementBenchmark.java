@@ -0,0 +1,163 @@
+package com.stock.management.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.data.jpa.model.UserInfo;
+import com.stock.management.data.jpa.repository.UserSecurityRepository;
+import com.stock.management.dto.StockDTO;
+import com.stock.management.service.StockManagementService;
+import com.stock.management.support.StubQuoteServer;
+import com.stock.management.tradelog.TradeLogApplier;
+import com.stock.management.tradelog.TradeLogService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Compares the latency until a single buy is acknowledged when it is written to the database
+ * first and when it is appended to the trade log, forced to disk, and written to the ledger in
+ * the background. Each client thread trades for its own user. Run with:
+ * <pre>
+ * mvn test -Dtest=TradeAcknowledgementBenchmark -Dbenchmark=true \
+ *     -Dackbench.threads=1,8,32 -Dackbench.trades=500
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(classes = StockManagementApplication.class, properties = {
+        "stock.trade-log.enabled=true",
+        "logging.level.root=warn",
+        "logging.level.org.springframework.security=warn",
+        "logging.level.com.stock.management=warn",
+        "stock.quote.rate-limit.requests-per-minute=0"
+})
+class TradeAcknowledgementBenchmark {
+
+    private static final StubQuoteServer SERVER = startServer();
+
+    private final int[] threadCounts = Arrays.stream(System.getProperty("ackbench.threads", "1,8,32").split(","))
+            .mapToInt(Integer::parseInt).toArray();
+    private final int trades = Integer.getInteger("ackbench.trades", 500);
+
+    @Autowired
+    private StockManagementService stockManagementService;
+
+    @Autowired
+    private TradeLogService tradeLogService;
+
+    @Autowired
+    private TradeLogApplier tradeLogApplier;
+
+    @Autowired
+    private UserSecurityRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("trade-log-bench");
+        registry.add("stock.trade-log.directory", directory::toString);
+        registry.add("stock.quote.alphavantage.base-url", SERVER::baseUrl);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.close();
+    }
+
+    @Test
+    void compareAcknowledgementPaths() throws Exception {
+        System.out.printf("%n%8s %-10s %12s %10s %10s %10s %14s%n",
+                "threads", "path", "trades/s", "p50 (us)", "p99 (us)", "max (us)", "trades/force");
+        for (int threads : threadCounts) {
+            report(threads, "database", (userId, buy) -> stockManagementService.addOrUpdateStock(userId, buy));
+            report(threads, "trade-log", tradeLogService::addOrUpdateStock);
+            // Lets the background writes catch up, so the next run starts from an idle database
+            tradeLogApplier.applyDurableTrades();
+        }
+    }
+
+    private void report(int threads, String path, BiConsumer<String, StockDTO> trade) throws Exception {
+        List<String> userIds = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            userIds.add(createUser("ack-" + path + "-" + threads + "-" + i));
+        }
+        StockDTO buy = new StockDTO("AAPL", 1);
+        userIds.forEach(userId -> trade.accept(userId, buy));
+        DistributionSummary groupCommit = meterRegistry.get("stock.trade-log.group-commit").summary();
+        long forcesBefore = groupCommit.count();
+        double forcedBefore = groupCommit.totalAmount();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long[] latencies = new long[threads * trades];
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> clients = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int client = t;
+                clients.add(executor.submit(() -> {
+                    for (int i = 0; i < trades; i++) {
+                        long tradeStart = System.nanoTime();
+                        trade.accept(userIds.get(client), buy);
+                        latencies[client * trades + i] = System.nanoTime() - tradeStart;
+                    }
+                }));
+            }
+            for (Future<?> client : clients) {
+                client.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long forces = groupCommit.count() - forcesBefore;
+        String perForce = forces == 0 ? "-" : String.format("%.1f", (groupCommit.totalAmount() - forcedBefore) / forces);
+        Arrays.sort(latencies);
+        System.out.printf("%8d %-10s %12.0f %10.1f %10.1f %10.1f %14s%n", threads, path, latencies.length / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1_000.0,
+                perForce);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(sorted.length * percentile) - 1] / 1_000.0;
+    }
+
+    private String createUser(String userId) {
+        UserInfo user = new UserInfo();
+        user.setUserId(userId);
+        user.setUsername(userId);
+        user.setEmail(userId + "@example.com");
+        user.setPassword("not-used");
+        userRepository.save(user);
+        return userId;
+    }
+
+    private static StubQuoteServer startServer() {
+        try {
+            return StubQuoteServer.start(Duration.ZERO);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
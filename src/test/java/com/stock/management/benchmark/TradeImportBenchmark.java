@@ -0,0 +1,107 @@
+package com.stock.management.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.data.jpa.model.UserInfo;
+import com.stock.management.data.jpa.repository.UserSecurityRepository;
+import com.stock.management.dto.TradeImportDTO;
+import com.stock.management.service.StockManagementService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Imports the same trades through {@link StockManagementService#importTrades} with the previous
+ * IDENTITY id generation (restored through {@code benchmark/identity-orm.xml}, which disables JDBC
+ * batching) and with the pooled sequence and JDBC batching, and reports elapsed time and the
+ * number of JDBC statements prepared. Run with:
+ * <pre>
+ * mvn test -Dtest=TradeImportBenchmark -Dbenchmark=true -Dimportbench.trades=100000
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TradeImportBenchmark {
+
+    private static final String USER_ID = "importbench";
+    private static final List<String> SYMBOLS = List.of("AAPL", "GOOGL", "MSFT", "TSLA", "AMZN", "NVDA", "META", "NFLX",
+            "ORCL", "IBM", "INTC", "AMD", "CSCO", "ADBE", "CRM", "PYPL", "QCOM", "TXN", "AVGO", "SHOP");
+
+    private final int trades = Integer.getInteger("importbench.trades", 100_000);
+
+    @Test
+    void compareIdentityAndBatchedImports() {
+        List<TradeImportDTO> importedTrades = trades(trades);
+        List<TradeImportDTO> warmUp = trades(5_000);
+
+        System.out.printf("%n%-22s %10s %10s %12s %12s%n", "id generation", "trades", "ms", "trades/s", "statements");
+        run("identity (before)", importedTrades, warmUp, "--spring.jpa.mapping-resources=benchmark/identity-orm.xml");
+        run("pooled sequence", importedTrades, warmUp);
+    }
+
+    private void run(String label, List<TradeImportDTO> importedTrades, List<TradeImportDTO> warmUp, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:importbench-" + System.nanoTime() + ";DATABASE_TO_UPPER=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--logging.level.root=warn",
+                "--logging.level.org.springframework.security=warn",
+                "--logging.level.com.stock.management=warn"));
+        args.addAll(List.of(extraArgs));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StockManagementApplication.class)
+                .run(args.toArray(String[]::new))) {
+            StockManagementService service = context.getBean(StockManagementService.class);
+            UserSecurityRepository userRepository = context.getBean(UserSecurityRepository.class);
+            Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            createUser(userRepository, USER_ID + "-warmup");
+            createUser(userRepository, USER_ID);
+
+            service.importTrades(USER_ID + "-warmup", warmUp);
+
+            statistics.clear();
+            long start = System.nanoTime();
+            service.importTrades(USER_ID, importedTrades);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            Integer rows = context.getBean(JdbcTemplate.class)
+                    .queryForObject("SELECT COUNT(*) FROM stock_details WHERE user_id = ?", Integer.class, USER_ID);
+            assertEquals(importedTrades.size(), rows);
+            System.out.printf("%-22s %10d %10d %12.0f %12d%n", label, importedTrades.size(), elapsedMillis,
+                    importedTrades.size() * 1000.0 / Math.max(1, elapsedMillis), statistics.getPrepareStatementCount());
+        }
+    }
+
+    /** Buys in round-robin over the symbols, with every fifth trade selling part of the position. */
+    private static List<TradeImportDTO> trades(int count) {
+        List<TradeImportDTO> trades = new ArrayList<>(count);
+        LocalDate date = LocalDate.now().minusDays(count / SYMBOLS.size() + 1);
+        for (int i = 0; i < count; i++) {
+            String symbol = SYMBOLS.get(i % SYMBOLS.size());
+            boolean sell = i / SYMBOLS.size() % 5 == 4;
+            trades.add(new TradeImportDTO(symbol, sell ? 2 : 5, 100.0 + i % 50, date.plusDays(i / SYMBOLS.size()),
+                    sell ? "Removed" : "Added"));
+        }
+        return trades;
+    }
+
+    private static void createUser(UserSecurityRepository userRepository, String userId) {
+        UserInfo user = new UserInfo();
+        user.setUserId(userId);
+        user.setUsername(userId);
+        user.setEmail(userId + "@example.com");
+        user.setPassword("not-used");
+        userRepository.save(user);
+    }
+}
@@ -0,0 +1,204 @@
+package com.stock.management.benchmark;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.data.jpa.model.StockDetails;
+import com.stock.management.data.jpa.model.StockHolding;
+import com.stock.management.data.jpa.model.StockHoldingId;
+import com.stock.management.data.jpa.model.UserInfo;
+import com.stock.management.data.jpa.repository.StockHoldingRepository;
+import com.stock.management.data.jpa.repository.StockManagementRepository;
+import com.stock.management.data.jpa.repository.UserSecurityRepository;
+import com.stock.management.dto.StockDTO;
+import com.stock.management.service.StockManagementService;
+import com.stock.management.support.StubQuoteServer;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Shows how the number of JDBC statements and the latency of a single buy scale with the length
+ * of a symbol's history, for the append-only write path and for the two previous ones: expiring
+ * the active rows with one bulk update before the append, and loading and saving each of them.
+ * Run with:
+ * <pre>
+ * mvn test -Dtest=TradeWritePathBenchmark -Dbenchmark=true \
+ *     -Dtradebench.history=100,1000,10000 -Dtradebench.trades=200
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(classes = StockManagementApplication.class, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.root=warn",
+        "logging.level.org.springframework.security=warn",
+        "logging.level.com.stock.management=warn",
+        "stock.quote.rate-limit.requests-per-minute=0"
+})
+class TradeWritePathBenchmark {
+
+    private static final StubQuoteServer SERVER = startServer();
+
+    private final int[] historyLengths = Arrays.stream(System.getProperty("tradebench.history", "100,1000,10000").split(","))
+            .mapToInt(Integer::parseInt).toArray();
+    private final int trades = Integer.getInteger("tradebench.trades", 200);
+
+    @Autowired
+    private StockManagementService stockManagementService;
+
+    @Autowired
+    private StockManagementRepository stockManagementRepository;
+
+    @Autowired
+    private StockHoldingRepository stockHoldingRepository;
+
+    @Autowired
+    private UserSecurityRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void alphaVantageProperties(DynamicPropertyRegistry registry) {
+        registry.add("stock.quote.alphavantage.base-url", SERVER::baseUrl);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.close();
+    }
+
+    @Test
+    void compareWritePaths() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        System.out.printf("%n%10s %-14s %14s %10s %10s%n", "history", "write path", "statements", "mean (us)", "p99 (us)");
+        for (int historyLength : historyLengths) {
+            String userId = "bench-" + historyLength;
+            createUser(userId);
+            seedHistory(userId, "AAPL", historyLength);
+            seedHistory(userId, "MSFT", historyLength);
+            seedHistory(userId, "IBM", historyLength);
+
+            report(historyLength, "expire-each", statistics, dto -> legacyAddOrUpdateStock(userId, dto), "AAPL");
+            report(historyLength, "bulk-expire", statistics, dto -> bulkExpireAddOrUpdateStock(userId, dto), "MSFT");
+            report(historyLength, "append-only", statistics, dto -> stockManagementService.addOrUpdateStock(userId, dto), "IBM");
+        }
+    }
+
+    private void report(int historyLength, String path, Statistics statistics, Consumer<StockDTO> trade, String symbol) {
+        StockDTO buy = new StockDTO(symbol, 1);
+        trade.accept(buy);
+
+        long[] latencies = new long[trades];
+        statistics.clear();
+        for (int i = 0; i < trades; i++) {
+            long start = System.nanoTime();
+            trade.accept(buy);
+            latencies[i] = System.nanoTime() - start;
+        }
+        double statementsPerTrade = statistics.getPrepareStatementCount() / (double) trades;
+
+        Arrays.sort(latencies);
+        double meanMicros = Arrays.stream(latencies).average().orElse(0) / 1_000.0;
+        double p99Micros = latencies[(int) Math.ceil(trades * 0.99) - 1] / 1_000.0;
+        System.out.printf("%10d %-14s %14.1f %10.1f %10.1f%n", historyLength, path, statementsPerTrade, meanMicros, p99Micros);
+    }
+
+    /**
+     * The write path before it became a single transaction: every active row is loaded, expired
+     * and saved on its own, each repository call in its own transaction. The existing quantity is
+     * read from the holding, since the ledger no longer marks its latest rows; the ids of the rows
+     * this path flagged active are read through JDBC, so the statement count misses that by one.
+     */
+    private void legacyAddOrUpdateStock(String userId, StockDTO stockDTO) {
+        UserInfo user = userRepository.findByUserId(userId).orElseThrow();
+        StockHolding holding = stockHoldingRepository.findById(new StockHoldingId(userId, stockDTO.symbol())).orElseThrow();
+        int existingQuantity = holding.getQuantity();
+        List<Long> activeIds = jdbcTemplate.queryForList("SELECT id FROM stock_details "
+                + "WHERE user_id = ? AND symbol = ? AND is_expired = FALSE", Long.class, userId, stockDTO.symbol());
+        activeIds.forEach(id -> stockManagementRepository.findById(id).ifPresent(stock -> {
+            stock.setExpired(true);
+            stock.setExpiredDate(LocalDate.now());
+            stockManagementRepository.save(stock);
+        }));
+
+        StockDetails stock = new StockDetails();
+        stock.setSymbol(stockDTO.symbol());
+        stock.setExistingStockQuantity(existingQuantity);
+        stock.setNewStockQuantity(stockDTO.quantity());
+        stock.setTotalStockQuantity(existingQuantity + stockDTO.quantity());
+        stock.setPrice(StubQuoteServer.DEFAULT_PRICE);
+        stock.setPurchaseDate(LocalDate.now());
+        stock.setUserInfo(user);
+        stockManagementRepository.save(stock);
+        holding.addShares(stockDTO.quantity(), StubQuoteServer.DEFAULT_PRICE);
+        stockHoldingRepository.save(holding);
+    }
+
+    /**
+     * The write path before the ledger became append-only: the active rows are expired with one
+     * bulk update before the new row is appended. The update runs through JDBC, so the
+     * statement count misses it by one.
+     */
+    private void bulkExpireAddOrUpdateStock(String userId, StockDTO stockDTO) {
+        jdbcTemplate.update("UPDATE stock_details SET is_expired = TRUE, expired_date = ? "
+                + "WHERE user_id = ? AND symbol = ? AND is_expired = FALSE",
+                Date.valueOf(LocalDate.now()), userId, stockDTO.symbol());
+        stockManagementService.addOrUpdateStock(userId, stockDTO);
+    }
+
+    private void createUser(String userId) {
+        UserInfo user = new UserInfo();
+        user.setUserId(userId);
+        user.setUsername(userId);
+        user.setEmail(userId + "@example.com");
+        user.setPassword("not-used");
+        userRepository.save(user);
+    }
+
+    private void seedHistory(String userId, String symbol, int historyLength) {
+        Date date = Date.valueOf(LocalDate.now().minusDays(1));
+        String sql = "INSERT INTO stock_details (symbol, existing_stock_quantity, new_stock_quantity, removed_stock_quantity, "
+                + "total_stock_quantity, purchase_date, price, is_expired, expired_date, user_id) VALUES (?, ?, 1, 0, ?, ?, 100.0, ?, ?, ?)";
+        jdbcTemplate.batchUpdate(sql, Collections.nCopies(historyLength, symbol), 1_000, (statement, ignored) -> {
+            statement.setString(1, symbol);
+            statement.setInt(2, 0);
+            statement.setInt(3, 1);
+            statement.setDate(4, date);
+            statement.setBoolean(5, true);
+            statement.setDate(6, date);
+            statement.setString(7, userId);
+        });
+        jdbcTemplate.update(sql, symbol, historyLength, historyLength + 1, date, false, null, userId);
+        jdbcTemplate.update("INSERT INTO stock_holding (user_id, symbol, quantity, average_cost) VALUES (?, ?, ?, 100.0)",
+                userId, symbol, historyLength + 1);
+    }
+
+    private static StubQuoteServer startServer() {
+        try {
+            return StubQuoteServer.start(Duration.ZERO);
+        } catch (java.io.IOException ex) {
+            throw new java.io.UncheckedIOException(ex);
+        }
+    }
+}
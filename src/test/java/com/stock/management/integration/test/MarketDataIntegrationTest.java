@@ -0,0 +1,40 @@
+package com.stock.management.integration.test;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.external.marketdata.MarketDataStore;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.external.service.impl.MarketDataStockFetchingStrategy;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = StockManagementApplication.class, properties = {
+        "stock.quote.provider=market-data",
+        "stock.quote.market-data.replay.file=classpath:marketdata/ticks.csv",
+        "stock.quote.market-data.replay.speed=0"
+})
+public class MarketDataIntegrationTest {
+
+    @Autowired
+    private StockFetchingStrategy stockFetchingStrategy;
+
+    @Autowired
+    private MarketDataStore marketDataStore;
+
+    @Test
+    public void testQuotesAreServedFromReplayedTicks() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (marketDataStore.price("AAPL") != 187.25 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(MarketDataStockFetchingStrategy.class, AopUtils.getTargetClass(stockFetchingStrategy));
+        assertEquals(187.25, stockFetchingStrategy.getStockPrice("AAPL"));
+        assertEquals(415.30, stockFetchingStrategy.getStockPrice("MSFT"));
+        assertTrue(marketDataStore.size() >= 3);
+    }
+}
@@ -0,0 +1,51 @@
+package com.stock.management.integration.test;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.data.jpa.model.UserInfo;
+import com.stock.management.data.jpa.repository.UserSecurityRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = StockManagementApplication.class)
+@AutoConfigureMockMvc
+public class PasswordRehashIntegrationTest {
+
+    private static final String USER = "{\"userId\":\"legacyuser\",\"username\":\"Legacy User\",\"email\":\"legacy@example.com\",\"password\":\"secret123\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserSecurityRepository userRepository;
+
+    @Test
+    public void testLoginRehashesLegacyPassword() throws Exception {
+        // A hash stored before hashes carried an encoder prefix
+        UserInfo user = new UserInfo();
+        user.setUserId("legacyuser");
+        user.setUsername("Legacy User");
+        user.setEmail("legacy@example.com");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secret123"));
+        userRepository.save(user);
+
+        mockMvc.perform(post("/api/users/login").contentType(MediaType.APPLICATION_JSON).content(USER))
+                .andExpect(status().isOk());
+
+        String rehashed = userRepository.findByUserId("legacyuser").orElseThrow().getPassword();
+        assertTrue(rehashed.startsWith("{bcrypt}$2a$"), rehashed);
+
+        mockMvc.perform(post("/api/users/login").contentType(MediaType.APPLICATION_JSON).content(USER))
+                .andExpect(status().isOk());
+        assertEquals(rehashed, userRepository.findByUserId("legacyuser").orElseThrow().getPassword());
+    }
+}
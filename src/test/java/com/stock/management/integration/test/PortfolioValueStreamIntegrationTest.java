@@ -0,0 +1,136 @@
+package com.stock.management.integration.test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stock.management.StockManagementApplication;
+import com.stock.management.dto.PortfolioValueDTO;
+import com.stock.management.dto.StockDTO;
+import com.stock.management.dto.UserDTO;
+import com.stock.management.external.marketdata.MarketDataStore;
+import com.stock.management.service.StockManagementService;
+import com.stock.management.service.UserRegistrationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = StockManagementApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "stock.quote.provider=market-data",
+        "stock.quote.market-data.max-age=0",
+        "stock.portfolio.stream.max-updates-per-second=5"
+})
+public class PortfolioValueStreamIntegrationTest {
+
+    private static final String USER_ID = "streamuser1";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MarketDataStore marketDataStore;
+
+    @Autowired
+    private StockManagementService stockManagementService;
+
+    @Autowired
+    private UserRegistrationService userRegistrationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final BlockingQueue<Double> values = new LinkedBlockingQueue<>();
+    private CompletableFuture<HttpResponse<Void>> stream;
+
+    @AfterEach
+    public void closeStream() {
+        if (stream != null) {
+            stream.cancel(true);
+        }
+    }
+
+    @Test
+    public void testPortfolioValueIsPushedOnTicksAndTrades() throws Exception {
+        long now = System.currentTimeMillis();
+        marketDataStore.update("AAPL", 100.0, now);
+        marketDataStore.update("MSFT", 200.0, now);
+        userRegistrationService.registerUser(new UserDTO(USER_ID, USER_ID, USER_ID + "@example.com", "password"));
+        stockManagementService.addOrUpdateStock(USER_ID, new StockDTO("AAPL", 10));
+        stockManagementService.addOrUpdateStock(USER_ID, new StockDTO("MSFT", 5));
+
+        subscribe();
+        assertEquals(2000.0, nextValue());
+
+        // A tick revalues the affected term only
+        marketDataStore.update("AAPL", 110.0, now + 1);
+        assertEquals(2100.0, nextValue());
+
+        // A burst of ticks is coalesced into at most two updates, the last carrying the latest value
+        for (int i = 1; i <= 50; i++) {
+            marketDataStore.update("MSFT", 200.0 + i, now + 1 + i);
+        }
+        List<Double> burst = new ArrayList<>();
+        Double value;
+        while ((value = values.poll(1, TimeUnit.SECONDS)) != null) {
+            burst.add(value);
+        }
+        assertTrue(!burst.isEmpty() && burst.size() <= 2, "Updates after burst: " + burst);
+        assertEquals(2350.0, burst.get(burst.size() - 1));
+
+        // A committed trade reloads the holdings
+        stockManagementService.addOrUpdateStock(USER_ID, new StockDTO("MSFT", 5));
+        assertEquals(3600.0, nextValue());
+    }
+
+    private void subscribe() {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/users/" + USER_ID + "/stocks/portfolio/value/stream")).GET().build();
+        stream = HttpClient.newHttpClient().sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(
+                new Flow.Subscriber<String>() {
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        subscription.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(String line) {
+                        if (line.startsWith("data:")) {
+                            try {
+                                values.add(objectMapper.readValue(line.substring(5), PortfolioValueDTO.class).value());
+                            } catch (Exception ex) {
+                                throw new IllegalStateException(ex);
+                            }
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                    }
+
+                    @Override
+                    public void onComplete() {
+                    }
+                }));
+    }
+
+    private double nextValue() throws InterruptedException {
+        Double value = values.poll(5, TimeUnit.SECONDS);
+        assertNotNull(value, "No portfolio value pushed");
+        return value;
+    }
+}
@@ -0,0 +1,69 @@
+package com.stock.management.integration.test;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.support.StubQuoteServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = StockManagementApplication.class, properties = {
+        "stock.quote.provider=rest-template",
+        "stock.quote.cache.default-ttl=1ms",
+        "stock.quote.warmer.enabled=false",
+        "stock.quote.hedging.file=classpath:marketdata/prices.csv",
+        "stock.quote.hedging.initial-hedge-delay=1s"
+})
+public class QuoteHedgingIntegrationTest {
+
+    private static final StubQuoteServer SERVER = startServer();
+
+    @Autowired
+    private StockFetchingStrategy stockFetchingStrategy;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void alphaVantageProperties(DynamicPropertyRegistry registry) {
+        registry.add("stock.quote.alphavantage.base-url", SERVER::baseUrl);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.close();
+    }
+
+    @Test
+    public void testSlowProviderIsHedgedWithPriceFile() throws Exception {
+        SERVER.price("AAPL", 190.0);
+        assertEquals(190.0, stockFetchingStrategy.getStockPrice("AAPL"));
+
+        SERVER.setLatency(Duration.ofSeconds(3));
+        Thread.sleep(5);
+        assertEquals(188.0, stockFetchingStrategy.getStockPrice("AAPL"));
+
+        assertEquals(1.0, meterRegistry.get("stock.quote.provider.wins").tag("provider", "alpha-vantage").counter().count());
+        assertEquals(1.0, meterRegistry.get("stock.quote.provider.wins").tag("provider", "file").counter().count());
+        // The file price didn't pass through the guards as an upstream success
+        assertEquals(1.0, meterRegistry.get("stock.quote.upstream.calls").tag("outcome", "success").counter().count());
+    }
+
+    private static StubQuoteServer startServer() {
+        try {
+            return StubQuoteServer.start(Duration.ZERO);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
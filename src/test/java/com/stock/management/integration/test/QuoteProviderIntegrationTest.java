@@ -0,0 +1,65 @@
+package com.stock.management.integration.test;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.external.config.StockQuoteConfig;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.external.service.impl.AlphaVantageWebClientStockFetchingStrategy;
+import com.stock.management.support.StubQuoteServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = StockManagementApplication.class, properties = {
+        "stock.quote.provider=web-client",
+        "stock.quote.warmer.enabled=false"
+})
+public class QuoteProviderIntegrationTest {
+
+    private static final StubQuoteServer SERVER = startServer();
+
+    @Autowired
+    private StockFetchingStrategy stockFetchingStrategy;
+
+    @Autowired
+    @Qualifier(StockQuoteConfig.QUOTE_PROVIDER)
+    private StockFetchingStrategy quoteProvider;
+
+    @DynamicPropertySource
+    static void alphaVantageProperties(DynamicPropertyRegistry registry) {
+        registry.add("stock.quote.alphavantage.base-url", SERVER::baseUrl);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.close();
+    }
+
+    @Test
+    public void testWebClientProviderServesQuotesThroughCache() {
+        SERVER.price("AAPL", 187.25);
+
+        assertEquals(AlphaVantageWebClientStockFetchingStrategy.class, AopUtils.getTargetClass(quoteProvider));
+        assertEquals(187.25, stockFetchingStrategy.getStockPrice("AAPL"));
+        assertEquals(187.25, stockFetchingStrategy.getStockPrice("AAPL"));
+        assertEquals(1, SERVER.requestCount());
+    }
+
+    private static StubQuoteServer startServer() {
+        try {
+            return StubQuoteServer.start(Duration.ZERO);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.stock.management.integration.test;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.support.StubQuoteServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = StockManagementApplication.class, properties = {
+        "stock.quote.provider=rest-template",
+        "stock.quote.cache.default-ttl=1ms",
+        "stock.quote.warmer.enabled=false",
+        "stock.quote.resilience.circuit-breaker.minimum-calls=2",
+        "stock.quote.resilience.retry.max-attempts=1"
+})
+@AutoConfigureMockMvc
+public class QuoteResilienceIntegrationTest {
+
+    private static final StubQuoteServer SERVER = startServer();
+
+    @Autowired
+    private StockFetchingStrategy stockFetchingStrategy;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void alphaVantageProperties(DynamicPropertyRegistry registry) {
+        registry.add("stock.quote.alphavantage.base-url", SERVER::baseUrl);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.close();
+    }
+
+    @Test
+    public void testRateLimitedProviderServesStalePriceAndDegradesHealth() throws Exception {
+        SERVER.price("AAPL", 187.25);
+        assertEquals(187.25, stockFetchingStrategy.getStockPrice("AAPL"));
+
+        SERVER.rateLimit("Our standard API call frequency is 25 requests per day.");
+        for (int i = 0; i < 5; i++) {
+            Thread.sleep(5);
+            assertEquals(187.25, stockFetchingStrategy.getStockPrice("AAPL"));
+        }
+        int requestsWhileRateLimited = SERVER.requestCount() - 1;
+
+        // The first success and the first failure make 50% failures, so the circuit opens after one call
+        assertEquals(1, requestsWhileRateLimited);
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("DEGRADED"))
+                .andExpect(jsonPath("$.components.quoteProvider.details.circuitState").value("OPEN"))
+                .andExpect(jsonPath("$.components.quoteProvider.details.staleSymbols.AAPL").exists());
+    }
+
+    private static StubQuoteServer startServer() {
+        try {
+            return StubQuoteServer.start(Duration.ZERO);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
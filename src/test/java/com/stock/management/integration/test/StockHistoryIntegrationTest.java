@@ -3,6 +3,7 @@ package com.stock.management.integration.test;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stock.management.StockManagementApplication;
 import com.stock.management.dto.StockHistoryDTO;
+import com.stock.management.dto.StockHistoryPageDTO;
 import com.stock.management.service.StockHistoryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,14 +15,23 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(classes = StockManagementApplication.class)
@@ -59,4 +69,44 @@ public class StockHistoryIntegrationTest {
 
         resultActions.andReturn();
     }
+
+    @Test
+    public void testGetStockHistoryPage() throws Exception {
+        StockHistoryPageDTO page = new StockHistoryPageDTO(
+                List.of(new StockHistoryDTO("AAPL", LocalDate.of(2023, 1, 15), 10, "Added")), "MjAyMy0wMS0xNTo3");
+        when(stockHistoryService.getStockHistoryPage("user1", LocalDate.of(2023, 1, 1), null, null, 1)).thenReturn(page);
+
+        mockMvc.perform(get("/api/stock-history/user1/page?from=2023-01-01&size=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].symbol").value("AAPL"))
+                .andExpect(jsonPath("$.nextCursor").value("MjAyMy0wMS0xNTo3"));
+    }
+
+    @Test
+    public void testStreamStockHistory() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<StockHistoryDTO> consumer = invocation.getArgument(3);
+            consumer.accept(new StockHistoryDTO("AAPL", LocalDate.of(2023, 1, 15), 10, "Added"));
+            consumer.accept(new StockHistoryDTO("GOOGL", LocalDate.of(2023, 2, 20), 5, "Removed"));
+            return 2L;
+        }).when(stockHistoryService).streamStockHistory(eq("user1"), any(), any(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/stock-history/user1/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"symbol\":\"AAPL\",\"purchaseDate\":\"2023-01-15\",\"quantityChanged\":10,\"action\":\"Added\"}\n"
+                        + "{\"symbol\":\"GOOGL\",\"purchaseDate\":\"2023-02-20\",\"quantityChanged\":5,\"action\":\"Removed\"}\n"));
+    }
+
+    @Test
+    public void testStreamStockHistory_InvalidRangeIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/stock-history/user1/stream?from=2023-02-01&to=2023-01-01"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,81 @@
+package com.stock.management.integration.test;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.dto.StockHistoryDTO;
+import com.stock.management.dto.StockHistoryPageDTO;
+import com.stock.management.service.StockHistoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(classes = StockManagementApplication.class)
+public class StockHistoryPaginationIntegrationTest {
+
+    private static final String USER_ID = "historypages";
+
+    @Autowired
+    private StockHistoryService stockHistoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("DELETE FROM stock_details WHERE user_id = ?", USER_ID);
+        jdbcTemplate.update("MERGE INTO user_details (user_id, username, password, email) KEY (user_id) VALUES (?, ?, 'not-used', ?)",
+                USER_ID, USER_ID, USER_ID + "@example.com");
+        // Three entries share 2024-01-02, so pages have to break ties on the id
+        insert("AAPL", LocalDate.of(2024, 1, 1), 10, 0);
+        insert("AAPL", LocalDate.of(2024, 1, 2), 5, 0);
+        insert("MSFT", LocalDate.of(2024, 1, 2), 7, 0);
+        insert("AAPL", LocalDate.of(2024, 1, 2), 0, 3);
+        insert("MSFT", LocalDate.of(2024, 1, 3), 0, 7);
+    }
+
+    @Test
+    public void testPagesCoverHistoryInOrderWithoutGapsOrDuplicates() {
+        List<StockHistoryDTO> entries = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            StockHistoryPageDTO page = stockHistoryService.getStockHistoryPage(USER_ID, null, null, cursor, 2);
+            entries.addAll(page.items());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(5, entries.size());
+        assertEquals(List.of(10, 5, 7, 3, 7), entries.stream().map(StockHistoryDTO::quantityChanged).toList());
+        assertEquals("Removed", entries.get(3).action());
+    }
+
+    @Test
+    public void testDateRangeFilterAppliesToPagesAndStream() {
+        LocalDate day = LocalDate.of(2024, 1, 2);
+
+        StockHistoryPageDTO page = stockHistoryService.getStockHistoryPage(USER_ID, day, day, null, 10);
+        List<StockHistoryDTO> streamed = new ArrayList<>();
+        long count = stockHistoryService.streamStockHistory(USER_ID, day, day, streamed::add);
+
+        assertEquals(3, page.items().size());
+        assertNull(page.nextCursor());
+        assertEquals(3, count);
+        assertEquals(page.items(), streamed);
+    }
+
+    private void insert(String symbol, LocalDate date, int added, int removed) {
+        jdbcTemplate.update("INSERT INTO stock_details (user_id, symbol, existing_stock_quantity, new_stock_quantity, "
+                + "removed_stock_quantity, total_stock_quantity, purchase_date, price, is_expired) VALUES (?, ?, 0, ?, ?, 0, ?, 100.0, TRUE)",
+                USER_ID, symbol, added, removed, date);
+    }
+}
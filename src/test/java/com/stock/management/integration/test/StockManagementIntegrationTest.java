@@ -3,12 +3,17 @@ package com.stock.management.integration.test;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stock.management.StockManagementApplication;
 import com.stock.management.dto.StockDTO;
+import com.stock.management.dto.TradeBatchResultDTO;
+import com.stock.management.dto.TradeImportDTO;
+import com.stock.management.dto.TradeRequestDTO;
+import com.stock.management.dto.TradeResultDTO;
 import com.stock.management.dto.UserStockDTO;
 import com.stock.management.service.StockManagementService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -16,8 +21,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.util.Collections;
+import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -25,6 +36,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest(classes = StockManagementApplication.class)
 @ExtendWith(SpringExtension.class)
 @AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
 public class StockManagementIntegrationTest {
 
     @Autowired
@@ -65,6 +77,49 @@ public class StockManagementIntegrationTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    public void testApplyTrades() throws Exception {
+        List<TradeRequestDTO> trades = List.of(new TradeRequestDTO("AAPL", 10, "Added"));
+        TradeBatchResultDTO result = new TradeBatchResultDTO(false, 1, 0, List.of(
+                new TradeResultDTO("AAPL", "Added", 10, TradeResultDTO.APPLIED, 150.0, 10, null)));
+        when(stockManagementService.applyTrades(eq("1"), anyList(), anyBoolean())).thenReturn(result);
+
+        mockMvc.perform(post("/api/users/1/stocks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(trades)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("Applied"));
+    }
+
+    @Test
+    public void testApplyTrades_AtomicWithRejectedTrade() throws Exception {
+        List<TradeRequestDTO> trades = List.of(new TradeRequestDTO("AAPL", 10, "Removed"));
+        TradeBatchResultDTO result = new TradeBatchResultDTO(true, 0, 1, List.of(new TradeResultDTO("AAPL", "Removed", 10,
+                TradeResultDTO.REJECTED, null, null, "Cannot remove more stocks than currently held.")));
+        when(stockManagementService.applyTrades(eq("1"), anyList(), eq(true))).thenReturn(result);
+
+        mockMvc.perform(post("/api/users/1/stocks/batch?atomic=true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(trades)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.results[0].error").value("Cannot remove more stocks than currently held."));
+    }
+
+    @Test
+    public void testImportTrades() throws Exception {
+        List<TradeImportDTO> trades = List.of(
+                new TradeImportDTO("AAPL", 10, 150.0, LocalDate.of(2024, 1, 2), "Added"),
+                new TradeImportDTO("AAPL", 4, 160.0, LocalDate.of(2024, 2, 1), "Removed"));
+        when(stockManagementService.importTrades(eq("1"), anyList())).thenReturn(2);
+
+        mockMvc.perform(post("/api/users/1/stocks/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(trades)))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+    }
+
     @Test
     public void testGetAllStocks() throws Exception {
         mockMvc.perform(get("/api/users/1/stocks")
@@ -81,4 +136,15 @@ public class StockManagementIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(1000.0)));
     }
+
+    @Test
+    public void testControllerCallsArePublishedAsPrometheusHistograms() throws Exception {
+        mockMvc.perform(get("/api/users/1/stocks"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("stock_method_seconds_bucket{class=\"StockManagementController\","
+                        + "exception=\"none\",layer=\"controller\",method=\"getAllStocks\",outcome=\"success\"")));
+    }
 }
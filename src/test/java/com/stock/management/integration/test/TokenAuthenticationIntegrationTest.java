@@ -0,0 +1,52 @@
+package com.stock.management.integration.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stock.management.StockManagementApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = StockManagementApplication.class)
+@AutoConfigureMockMvc
+public class TokenAuthenticationIntegrationTest {
+
+    private static final String USER = "{\"userId\":\"tokenuser\",\"username\":\"Token User\",\"email\":\"token@example.com\",\"password\":\"secret123\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testLoginIssuesTokenThatAuthenticatesRequests() throws Exception {
+        mockMvc.perform(post("/api/users/addUser").contentType(MediaType.APPLICATION_JSON).content(USER))
+                .andExpect(status().isCreated());
+
+        String body = mockMvc.perform(post("/api/users/login").contentType(MediaType.APPLICATION_JSON).content(USER))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode token = objectMapper.readTree(body);
+        assertEquals("Bearer", token.get("tokenType").asText());
+
+        mockMvc.perform(get("/actuator/health")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token.get("accessToken").asText()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token.get("accessToken").asText() + "x"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\""));
+    }
+}
@@ -0,0 +1,65 @@
+package com.stock.management.integration.test;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.dto.TradeBatchResultDTO;
+import com.stock.management.dto.TradeImportDTO;
+import com.stock.management.dto.TradeRequestDTO;
+import com.stock.management.dto.UserDTO;
+import com.stock.management.external.marketdata.MarketDataStore;
+import com.stock.management.service.StockManagementService;
+import com.stock.management.service.UserRegistrationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = StockManagementApplication.class, properties = {
+        "stock.quote.provider=market-data",
+        "stock.quote.market-data.replay.file=classpath:marketdata/ticks.csv",
+        "stock.quote.market-data.replay.speed=0"
+})
+public class TradeBatchIntegrationTest {
+
+    private static final String USER_ID = "batchuser";
+
+    @Autowired
+    private UserRegistrationService userRegistrationService;
+
+    @Autowired
+    private StockManagementService stockManagementService;
+
+    @Autowired
+    private MarketDataStore marketDataStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testRejectedAtomicBatchLeavesHoldingsUnchanged() throws InterruptedException {
+        userRegistrationService.registerUser(new UserDTO(USER_ID, "Batch User", "batch@example.com", "secret123"));
+        stockManagementService.importTrades(USER_ID, List.of(
+                new TradeImportDTO("AAPL", 10, 100.0, LocalDate.of(2024, 1, 2), "Added")));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (marketDataStore.price("AAPL") != 187.25 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // The buy is valid on its own, but the sale that follows exceeds the holding
+        TradeBatchResultDTO result = stockManagementService.applyTrades(USER_ID, List.of(
+                new TradeRequestDTO("AAPL", 5, "Added"),
+                new TradeRequestDTO("AAPL", 100, "Removed")), true);
+
+        assertEquals(0, result.applied());
+        assertEquals(1, result.rejected());
+        assertEquals(List.of("AAPL:10:100.0"), jdbcTemplate.queryForList(
+                "SELECT symbol || ':' || quantity || ':' || average_cost FROM stock_holding WHERE user_id = ?",
+                String.class, USER_ID));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_details WHERE user_id = ?", Integer.class, USER_ID));
+    }
+}
@@ -0,0 +1,78 @@
+package com.stock.management.integration.test;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.data.jpa.model.StockHolding;
+import com.stock.management.dto.TradeImportDTO;
+import com.stock.management.dto.UserDTO;
+import com.stock.management.service.PositionSnapshotter;
+import com.stock.management.service.StockManagementService;
+import com.stock.management.service.TradeJournalService;
+import com.stock.management.service.UserRegistrationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = StockManagementApplication.class, properties = {
+        "stock.journal.snapshot-entries=3",
+        "stock.quote.warmer.enabled=false"
+})
+public class TradeJournalIntegrationTest {
+
+    private static final String USER_ID = "journaluser";
+
+    @Autowired
+    private UserRegistrationService userRegistrationService;
+
+    @Autowired
+    private StockManagementService stockManagementService;
+
+    @Autowired
+    private TradeJournalService tradeJournalService;
+
+    @Autowired
+    private PositionSnapshotter positionSnapshotter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testLedgerIsAppendOnlyAndHoldingsRebuildFromSnapshot() {
+        userRegistrationService.registerUser(new UserDTO(USER_ID, "Journal User", "journal@example.com", "secret123"));
+        stockManagementService.importTrades(USER_ID, List.of(
+                new TradeImportDTO("AAPL", 10, 100.0, LocalDate.of(2024, 1, 2), "Added"),
+                new TradeImportDTO("MSFT", 4, 300.0, LocalDate.of(2024, 1, 3), "Added"),
+                new TradeImportDTO("AAPL", 10, 130.0, LocalDate.of(2024, 1, 4), "Added"),
+                new TradeImportDTO("MSFT", 4, 320.0, LocalDate.of(2024, 1, 5), "Removed")));
+        stockManagementService.importTrades(USER_ID, List.of(
+                new TradeImportDTO("AAPL", 5, 140.0, LocalDate.of(2024, 1, 6), "Removed")));
+
+        // Only the entry that closed the MSFT position is expired; earlier entries were not rewritten
+        assertEquals(List.of(false, false, false, true, false), jdbcTemplate.queryForList(
+                "SELECT is_expired FROM stock_details WHERE user_id = ? ORDER BY id", Boolean.class, USER_ID));
+
+        positionSnapshotter.snapshotDueUsers();
+        Long lastEntryId = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM stock_details WHERE user_id = ?", Long.class, USER_ID);
+        assertEquals(lastEntryId, jdbcTemplate.queryForObject(
+                "SELECT last_entry_id FROM position_snapshot WHERE user_id = ?", Long.class, USER_ID));
+        assertEquals(0, tradeJournalService.tailLength(USER_ID));
+
+        stockManagementService.importTrades(USER_ID, List.of(
+                new TradeImportDTO("GOOGL", 2, 2500.0, LocalDate.of(2024, 1, 7), "Added")));
+        jdbcTemplate.update("DELETE FROM stock_holding WHERE user_id = ?", USER_ID);
+
+        assertEquals(2, tradeJournalService.rebuildHoldings(USER_ID));
+        List<StockHolding> holdings = tradeJournalService.rebuildPositions(USER_ID);
+        assertEquals(2, holdings.size());
+        assertEquals(15, holdings.get(0).getQuantity());
+        assertEquals(115.0, holdings.get(0).getAverageCost());
+        assertEquals(List.of("AAPL:15", "GOOGL:2"), jdbcTemplate.queryForList(
+                "SELECT symbol || ':' || quantity FROM stock_holding WHERE user_id = ? ORDER BY symbol", String.class, USER_ID));
+    }
+}
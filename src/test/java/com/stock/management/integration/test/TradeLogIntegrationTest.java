@@ -0,0 +1,109 @@
+package com.stock.management.integration.test;
+
+import com.stock.management.StockManagementApplication;
+import com.stock.management.controller.StockManagementController;
+import com.stock.management.dto.StockDTO;
+import com.stock.management.dto.TradeImportDTO;
+import com.stock.management.dto.UserDTO;
+import com.stock.management.external.marketdata.MarketDataStore;
+import com.stock.management.service.UserRegistrationService;
+import com.stock.management.tradelog.LoggedTrade;
+import com.stock.management.tradelog.TradeLogApplier;
+import com.stock.management.tradelog.TradeLogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(classes = StockManagementApplication.class, properties = {
+        "stock.trade-log.enabled=true",
+        "stock.trade-log.apply-interval=20ms",
+        "stock.quote.provider=market-data",
+        "stock.quote.market-data.replay.file=classpath:marketdata/ticks.csv",
+        "stock.quote.market-data.replay.speed=0"
+})
+public class TradeLogIntegrationTest {
+
+    private static final String USER_ID = "tradeloguser";
+
+    @Autowired
+    private UserRegistrationService userRegistrationService;
+
+    @Autowired
+    private StockManagementController stockManagementController;
+
+    @Autowired
+    private TradeLogService tradeLogService;
+
+    @Autowired
+    private TradeLogApplier tradeLogApplier;
+
+    @Autowired
+    private MarketDataStore marketDataStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void tradeLogDirectory(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("trade-log");
+        registry.add("stock.trade-log.directory", directory::toString);
+    }
+
+    @Test
+    public void testAcknowledgedTradesAreWrittenToTheLedger() throws InterruptedException {
+        userRegistrationService.registerUser(new UserDTO(USER_ID, "Trade Log User", "tradelog@example.com", "secret123"));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (marketDataStore.price("AAPL") != 187.25 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(HttpStatus.ACCEPTED,
+                stockManagementController.addStock(USER_ID, new StockDTO("AAPL", 10)).getStatusCode());
+        LoggedTrade removal = tradeLogService.removeStock(USER_ID, new StockDTO("AAPL", 4));
+
+        while (tradeLogApplier.appliedSequence() < removal.sequence() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(removal.sequence(), tradeLogApplier.appliedSequence());
+        assertEquals(removal.sequence(), jdbcTemplate.queryForObject(
+                "SELECT applied_sequence FROM trade_log_checkpoint WHERE name = ?", Long.class, TradeLogApplier.CHECKPOINT));
+        assertEquals(List.of("AAPL:6:187.25"), jdbcTemplate.queryForList(
+                "SELECT symbol || ':' || quantity || ':' || average_cost FROM stock_holding WHERE user_id = ?",
+                String.class, USER_ID));
+        assertEquals(List.of(10, 6), jdbcTemplate.queryForList(
+                "SELECT total_stock_quantity FROM stock_details WHERE user_id = ? ORDER BY id", Integer.class, USER_ID));
+    }
+
+    @Test
+    public void testImportIsWrittenInOrderWithLoggedTrades() throws InterruptedException {
+        String userId = "tradelogimportuser";
+        userRegistrationService.registerUser(new UserDTO(userId, "Trade Log Import User", "tradelogimport@example.com", "secret123"));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (marketDataStore.price("AAPL") != 187.25 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        tradeLogService.addOrUpdateStock(userId, new StockDTO("AAPL", 10));
+        assertEquals(1, stockManagementController.importTrades(userId,
+                List.of(new TradeImportDTO("AAPL", 10, 190.0, LocalDate.now(), "Removed"))).getBody());
+
+        assertThrows(IllegalArgumentException.class, () -> tradeLogService.removeStock(userId, new StockDTO("AAPL", 1)));
+        assertEquals(List.of(10, 0), jdbcTemplate.queryForList(
+                "SELECT total_stock_quantity FROM stock_details WHERE user_id = ? ORDER BY id", Integer.class, userId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM trade_log_rejected_trade", Integer.class));
+    }
+}
@@ -0,0 +1,75 @@
+package com.stock.management.junit.aspect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import com.stock.management.aspect.MethodMetricsAspect;
+import com.stock.management.aspect.MethodMetricsProperties;
+import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.external.config.QuoteCacheProperties;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.external.service.impl.CachingStockFetchingStrategy;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+class MethodMetricsAspectTest {
+
+    @Mock
+    private StockFetchingStrategy delegate;
+
+    private PrometheusMeterRegistry meterRegistry;
+    private StockFetchingStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(
+                new CachingStockFetchingStrategy(delegate, new QuoteCacheProperties(), new SimpleMeterRegistry()));
+        proxyFactory.addAspect(new MethodMetricsAspect(meterRegistry, new MethodMetricsProperties()));
+        strategy = proxyFactory.getProxy();
+    }
+
+    @Test
+    void testSuccessfulCallsAreTimedWithHistogram() {
+        // Arrange
+        when(delegate.getStockPrice("AAPL")).thenReturn(150.0);
+
+        // Act
+        strategy.getStockPrice("AAPL");
+        strategy.getStockPrice("AAPL");
+
+        // Assert
+        Timer timer = meterRegistry.find(MethodMetricsAspect.METRIC_NAME)
+                .tags("layer", "strategy", "class", "CachingStockFetchingStrategy", "method", "getStockPrice",
+                        "outcome", "success", "exception", "none")
+                .timer();
+        assertEquals(2, timer.count());
+        assertTrue(meterRegistry.scrape().contains("stock_method_seconds_bucket{"));
+    }
+
+    @Test
+    void testFailedCallsAreTimedByExceptionAndRethrown() {
+        // Arrange
+        when(delegate.getStockPrice("XXXX")).thenThrow(new NoDataFoundForSymbolException("XXXX"));
+
+        // Act & Assert
+        assertThrows(NoDataFoundForSymbolException.class, () -> strategy.getStockPrice("XXXX"));
+        Timer timer = meterRegistry.find(MethodMetricsAspect.METRIC_NAME)
+                .tags("method", "getStockPrice", "outcome", "error", "exception", "NoDataFoundForSymbolException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+}
@@ -1,6 +1,10 @@
 package com.stock.management.junit.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
@@ -15,6 +19,7 @@ import org.mockito.MockitoAnnotations;
 
 import com.stock.management.controller.StockHistoryController;
 import com.stock.management.dto.StockHistoryDTO;
+import com.stock.management.exception.BadRequestException;
 import com.stock.management.service.StockHistoryService;
 
 public class StockHistoryControllerTest {
@@ -51,4 +56,13 @@ public class StockHistoryControllerTest {
         assertEquals(5, result.get(1).quantityChanged());
         assertEquals("Removed", result.get(1).action());
     }
+
+    @Test
+    public void testStreamStockHistory_InvalidRangeIsRejectedBeforeStreaming() {
+        LocalDate from = LocalDate.of(2023, 2, 1);
+        LocalDate to = LocalDate.of(2023, 1, 1);
+
+        assertThrows(BadRequestException.class, () -> stockHistoryController.streamStockHistory("user1", from, to));
+        verify(stockHistoryService, never()).streamStockHistory(any(), any(), any(), any());
+    }
 }
@@ -1,33 +1,52 @@
 package com.stock.management.junit.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.stock.management.controller.StockManagementController;
 import com.stock.management.data.jpa.model.StockDetails;
 import com.stock.management.dto.StockDTO;
+import com.stock.management.dto.TradeImportDTO;
 import com.stock.management.dto.UserStockDTO;
+import com.stock.management.service.PortfolioValueStreamService;
 import com.stock.management.service.StockManagementService;
+import com.stock.management.tradelog.TradeLogService;
 
 class StockManagementControllerTest {
 
     @Mock
     private StockManagementService stockManagementService;
 
+    @Mock
+    private PortfolioValueStreamService portfolioValueStreamService;
+
+    @Mock
+    private ObjectProvider<TradeLogService> tradeLogServiceProvider;
+
+    @Mock
+    private TradeLogService tradeLogService;
+
     @InjectMocks
     private StockManagementController stockManagementController;
 
@@ -67,6 +86,47 @@ class StockManagementControllerTest {
         verify(stockManagementService, times(1)).removeStock(USER_ID, stockDTO);
     }
 
+    @Test
+    void testAddAndRemoveStock_AcceptedThroughTradeLog() {
+        // Arrange
+        when(tradeLogServiceProvider.getIfAvailable()).thenReturn(tradeLogService);
+        StockManagementController controller = new StockManagementController(stockManagementService,
+                portfolioValueStreamService, tradeLogServiceProvider);
+        StockDTO stockDTO = new StockDTO("AAPL", 5);
+
+        // Act
+        ResponseEntity<Void> added = controller.addStock(USER_ID, stockDTO);
+        ResponseEntity<Void> removed = controller.removeStock(USER_ID, stockDTO);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, added.getStatusCode());
+        assertEquals(HttpStatus.ACCEPTED, removed.getStatusCode());
+        verify(tradeLogService).addOrUpdateStock(USER_ID, stockDTO);
+        verify(tradeLogService).removeStock(USER_ID, stockDTO);
+        verify(stockManagementService, never()).addOrUpdateStock(USER_ID, stockDTO);
+        verify(stockManagementService, never()).removeStock(USER_ID, stockDTO);
+    }
+
+    @Test
+    void testImportTrades_WrittenInOrderWithLoggedTrades() {
+        // Arrange
+        when(tradeLogServiceProvider.getIfAvailable()).thenReturn(tradeLogService);
+        when(tradeLogService.writeDirectly(eq(USER_ID), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        StockManagementController controller = new StockManagementController(stockManagementService,
+                portfolioValueStreamService, tradeLogServiceProvider);
+        List<TradeImportDTO> trades = List.of(new TradeImportDTO("AAPL", 5, 150.0, null, "Added"));
+        when(stockManagementService.importTrades(USER_ID, trades)).thenReturn(1);
+
+        // Act
+        ResponseEntity<Integer> response = controller.importTrades(USER_ID, trades);
+
+        // Assert
+        assertEquals(1, response.getBody());
+        verify(tradeLogService).writeDirectly(eq(USER_ID), any());
+        verify(stockManagementService).importTrades(USER_ID, trades);
+    }
+
     @Test
     void testGetAllStocks() {
         List<UserStockDTO> stocks = Arrays.asList(
@@ -93,4 +153,15 @@ class StockManagementControllerTest {
         assertEquals(portfolioValue, response.getBody());
         verify(stockManagementService, times(1)).calculatePortfolioValue(USER_ID);
     }
+
+    @Test
+    void testStreamPortfolioValue() {
+        SseEmitter emitter = new SseEmitter();
+        when(portfolioValueStreamService.subscribe(USER_ID)).thenReturn(emitter);
+
+        SseEmitter response = stockManagementController.streamPortfolioValue(USER_ID);
+
+        assertSame(emitter, response);
+        verify(portfolioValueStreamService, times(1)).subscribe(USER_ID);
+    }
 }
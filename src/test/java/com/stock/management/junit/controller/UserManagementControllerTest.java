@@ -22,7 +22,9 @@ import org.springframework.security.core.Authentication;
 
 import com.stock.management.controller.UserManagementController;
 import com.stock.management.data.jpa.model.UserInfo;
+import com.stock.management.dto.AccessTokenDTO;
 import com.stock.management.dto.UserDTO;
+import com.stock.management.security.AccessTokenService;
 import com.stock.management.service.UserRegistrationService;
 
 class UserManagementControllerTest {
@@ -33,6 +35,9 @@ class UserManagementControllerTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private AccessTokenService accessTokenService;
+
     @InjectMocks
     private UserManagementController userManagementController;
 
@@ -69,12 +74,15 @@ class UserManagementControllerTest {
         when(authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(userDTO.userId(), userDTO.password())))
                 .thenReturn(authentication); // Simulate successful authentication
+        AccessTokenDTO token = new AccessTokenDTO("token", AccessTokenDTO.BEARER, 900);
+        when(accessTokenService.issue(userDTO.userId())).thenReturn(token);
 
         // Act
-        ResponseEntity<Void> response = userManagementController.login(userDTO);
+        ResponseEntity<AccessTokenDTO> response = userManagementController.login(userDTO);
 
         // Assert
-        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(token, response.getBody());
         verify(authenticationManager, times(1)).authenticate(
                 new UsernamePasswordAuthenticationToken(userDTO.userId(), userDTO.password()));
     }
@@ -0,0 +1,49 @@
+package com.stock.management.junit.data.jpa.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.stock.management.data.jpa.model.StockHolding;
+
+class StockHoldingTest {
+
+    @Test
+    void testAddShares_FoldsPriceIntoAverageCost() {
+        // Arrange
+        StockHolding holding = new StockHolding("alice", "AAPL");
+
+        // Act
+        holding.addShares(10, 100.0);
+        holding.addShares(30, 200.0);
+
+        // Assert
+        assertEquals(40, holding.getQuantity());
+        assertEquals(175.0, holding.getAverageCost());
+    }
+
+    @Test
+    void testAddShares_NonPositiveQuantityIsRejected() {
+        // Arrange
+        StockHolding holding = new StockHolding("alice", "AAPL");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> holding.addShares(0, 100.0));
+        assertThrows(IllegalArgumentException.class, () -> holding.addShares(-5, 100.0));
+        assertEquals(0, holding.getQuantity());
+        assertEquals(0.0, holding.getAverageCost());
+    }
+
+    @Test
+    void testRemoveShares_NonPositiveQuantityIsRejected() {
+        // Arrange
+        StockHolding holding = new StockHolding("alice", "AAPL", 10, 100.0);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> holding.removeShares(0));
+        assertThrows(IllegalArgumentException.class, () -> holding.removeShares(-5));
+        assertEquals(10, holding.getQuantity());
+        assertEquals(100.0, holding.getAverageCost());
+    }
+}
@@ -0,0 +1,67 @@
+package com.stock.management.junit.external.marketdata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import com.stock.management.external.marketdata.FileReplayQuoteFeed;
+
+class FileReplayQuoteFeedTest {
+
+    private static final ClassPathResource TICKS = new ClassPathResource("marketdata/ticks.csv");
+
+    @Test
+    void testReplay_DeliversTicksInOrderAndSkipsMalformedLines() throws Exception {
+        // Arrange
+        List<String> received = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(5);
+
+        // Act
+        try (FileReplayQuoteFeed feed = new FileReplayQuoteFeed(TICKS, 0, false)) {
+            feed.start((symbol, price, epochMillis) -> {
+                received.add(symbol + "=" + price);
+                done.countDown();
+            });
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+
+        // Assert
+        assertEquals(List.of("AAPL=187.1", "MSFT=415.3", "AAPL=187.12", "GOOGL=169.8", "AAPL=187.25"), received);
+    }
+
+    @Test
+    void testReplay_KeepsRecordedSpacingScaledBySpeed() throws Exception {
+        // Arrange: the file spans 95 ms, replayed at half speed
+        CountDownLatch done = new CountDownLatch(5);
+
+        // Act
+        long start = System.nanoTime();
+        try (FileReplayQuoteFeed feed = new FileReplayQuoteFeed(TICKS, 0.5, false)) {
+            feed.start((symbol, price, epochMillis) -> done.countDown());
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertTrue(elapsedMillis >= 190, "Replay took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void testReplay_LoopsUntilClosed() throws Exception {
+        // Arrange
+        CountDownLatch threeRounds = new CountDownLatch(15);
+
+        // Act & Assert
+        try (FileReplayQuoteFeed feed = new FileReplayQuoteFeed(TICKS, 0, true)) {
+            feed.start((symbol, price, epochMillis) -> threeRounds.countDown());
+            assertTrue(threeRounds.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
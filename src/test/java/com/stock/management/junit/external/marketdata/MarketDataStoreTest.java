@@ -0,0 +1,139 @@
+package com.stock.management.junit.external.marketdata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import com.stock.management.external.marketdata.MarketDataStore;
+
+class MarketDataStoreTest {
+
+    @Test
+    void testUpdate_LatestQuoteIsServed() {
+        // Arrange
+        MarketDataStore store = new MarketDataStore(10);
+
+        // Act
+        store.update("AAPL", 187.10, 1_000);
+        store.update("AAPL", 187.25, 2_000);
+
+        // Assert
+        assertEquals(187.25, store.price("AAPL"));
+        assertTrue(Double.isNaN(store.price("MSFT")));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testUpdate_OlderTickIsIgnored() {
+        // Arrange
+        MarketDataStore store = new MarketDataStore(10);
+        store.update("AAPL", 187.25, 2_000);
+
+        // Act
+        boolean stored = store.update("AAPL", 187.10, 1_000);
+
+        // Assert
+        assertFalse(stored);
+        assertEquals(187.25, store.price("AAPL"));
+    }
+
+    @Test
+    void testPriceQuotedSince_StaleQuoteIsNotServed() {
+        // Arrange
+        MarketDataStore store = new MarketDataStore(10);
+        store.update("AAPL", 187.25, 2_000);
+
+        // Act & Assert
+        assertEquals(187.25, store.priceQuotedSince("AAPL", 2_000));
+        assertTrue(Double.isNaN(store.priceQuotedSince("AAPL", 2_001)));
+    }
+
+    @Test
+    void testUpdate_QuotesForNewSymbolsAreDroppedWhenFull() {
+        // Arrange
+        MarketDataStore store = new MarketDataStore(2);
+        store.update("AAPL", 187.25, 1_000);
+        store.update("MSFT", 415.30, 1_000);
+
+        // Act
+        boolean stored = store.update("GOOGL", 169.80, 1_000);
+
+        // Assert
+        assertFalse(stored);
+        assertTrue(Double.isNaN(store.price("GOOGL")));
+        assertTrue(store.update("AAPL", 188.00, 2_000));
+    }
+
+    @Test
+    void testConcurrentReadersNeverSeeANewSymbolBeforeItsFirstQuote() throws Exception {
+        // Arrange: every symbol is first quoted at a positive price
+        int symbols = 50_000;
+        MarketDataStore store = new MarketDataStore(symbols);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        AtomicBoolean unwritten = new AtomicBoolean();
+
+        // Act
+        Future<?> writer = executor.submit(() -> {
+            for (int i = 0; i < symbols; i++) {
+                store.update("S" + i, i + 1, 1_000);
+            }
+        });
+        for (int i = 0; i < 2; i++) {
+            executor.submit(() -> {
+                while (!writer.isDone()) {
+                    // The newest symbol is the one most likely to be assigned but not yet written
+                    double price = store.price("S" + (store.size() - 1));
+                    if (price == 0.0) {
+                        unwritten.set(true);
+                    }
+                }
+            });
+        }
+        writer.get();
+        executor.shutdown();
+
+        // Assert
+        assertFalse(unwritten.get());
+        assertEquals(symbols, store.price("S" + (symbols - 1)));
+    }
+
+    @Test
+    void testConcurrentReadersSeePriceAndTimeOfTheSameQuote() throws Exception {
+        // Arrange: every quote's price equals its time, so a price older than the requested time is torn
+        MarketDataStore store = new MarketDataStore(10);
+        store.update("AAPL", 0, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        AtomicBoolean torn = new AtomicBoolean();
+
+        // Act
+        Future<?> writer = executor.submit(() -> {
+            for (int tick = 1; tick <= 200_000; tick++) {
+                store.update("AAPL", tick, tick);
+            }
+        });
+        for (int i = 0; i < 2; i++) {
+            executor.submit(() -> {
+                while (!writer.isDone()) {
+                    double latest = store.price("AAPL");
+                    double since = store.priceQuotedSince("AAPL", (long) latest);
+                    if (!Double.isNaN(since) && since < latest) {
+                        torn.set(true);
+                    }
+                }
+            });
+        }
+        writer.get();
+        executor.shutdown();
+
+        // Assert
+        assertFalse(torn.get());
+        assertEquals(200_000, store.price("AAPL"));
+    }
+}
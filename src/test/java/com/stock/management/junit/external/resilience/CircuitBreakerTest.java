@@ -0,0 +1,114 @@
+package com.stock.management.junit.external.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.stock.management.external.resilience.CircuitBreaker;
+import com.stock.management.external.resilience.CircuitBreaker.State;
+
+class CircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private long now;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        // 50% of the last 4 calls, evaluated from 4 calls on, 2 trial calls
+        circuitBreaker = new CircuitBreaker("test", 50, 4, 4, OPEN_DURATION, 2, () -> now);
+    }
+
+    @Test
+    void testStaysClosedBelowMinimumCalls() {
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onFailure();
+        }
+
+        // Assert
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        assertEquals(-1, circuitBreaker.getFailureRate());
+    }
+
+    @Test
+    void testOpensAtFailureRateThresholdAndRejectsCalls() {
+        // Arrange
+        record(false, false, true);
+
+        // Act
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure();
+
+        // Assert
+        assertEquals(State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void testOldOutcomesLeaveTheSlidingWindow() {
+        // Arrange
+        record(true, false, false, false);
+
+        // Act
+        record(false);
+
+        // Assert
+        assertEquals(0.0, circuitBreaker.getFailureRate());
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void testClosesAfterSuccessfulTrialCalls() {
+        // Arrange
+        record(true, true, true, true);
+        now += OPEN_DURATION.toNanos();
+
+        // Act
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        boolean thirdTrialPermitted = circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+
+        // Assert
+        assertFalse(thirdTrialPermitted);
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        assertEquals(-1, circuitBreaker.getFailureRate());
+    }
+
+    @Test
+    void testFailedTrialCallReopensCircuit() {
+        // Arrange
+        record(true, true, true, true);
+        now += OPEN_DURATION.toNanos();
+
+        // Act
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.onFailure();
+
+        // Assert
+        assertEquals(State.OPEN, circuitBreaker.getState());
+        now += OPEN_DURATION.toNanos() - 1;
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    private void record(boolean... failures) {
+        for (boolean failed : failures) {
+            circuitBreaker.tryAcquirePermission();
+            if (failed) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+        }
+    }
+}
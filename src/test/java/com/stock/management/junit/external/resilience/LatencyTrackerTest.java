@@ -0,0 +1,42 @@
+package com.stock.management.junit.external.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.stock.management.external.resilience.LatencyTracker;
+
+class LatencyTrackerTest {
+
+    @Test
+    void testPercentile_UnknownUntilMinimumSamples() {
+        // Arrange
+        LatencyTracker tracker = new LatencyTracker(16, 3);
+        tracker.record(10);
+        tracker.record(20);
+
+        // Act & Assert
+        assertEquals(-1, tracker.percentile(50));
+        tracker.record(30);
+        assertEquals(20, tracker.percentile(50));
+        assertEquals(30, tracker.percentile(95));
+    }
+
+    @Test
+    void testPercentile_CoversOnlyMostRecentWindow() {
+        // Arrange
+        LatencyTracker tracker = new LatencyTracker(8, 1);
+        for (int i = 0; i < 8; i++) {
+            tracker.record(1_000);
+        }
+
+        // Act
+        for (int i = 1; i <= 8; i++) {
+            tracker.record(i);
+        }
+
+        // Assert
+        assertEquals(4, tracker.percentile(50));
+        assertEquals(8, tracker.percentile(100));
+    }
+}
@@ -0,0 +1,48 @@
+package com.stock.management.junit.external.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.stock.management.external.resilience.QuotaWindow;
+
+class QuotaWindowTest {
+
+    private long now;
+
+    @Test
+    void testAllowsTheWholeQuotaAtOnce() {
+        // Arrange
+        QuotaWindow window = new QuotaWindow(3, Duration.ofDays(1), () -> now);
+
+        // Act & Assert
+        assertTrue(window.tryConsume());
+        assertTrue(window.tryConsume());
+        assertTrue(window.tryConsume());
+        assertFalse(window.tryConsume());
+        now += TimeUnit.HOURS.toNanos(6);
+        assertEquals(TimeUnit.HOURS.toNanos(18), window.nanosUntilAvailable());
+    }
+
+    @Test
+    void testRenewsTheQuotaAtTheStartOfEachWindow() {
+        // Arrange
+        QuotaWindow window = new QuotaWindow(2, Duration.ofMinutes(1), () -> now);
+        window.tryConsume();
+        window.tryConsume();
+
+        // Act
+        now += TimeUnit.SECONDS.toNanos(150);
+
+        // Assert: the window started at 120s, with a full quota
+        assertEquals(2, window.available());
+        assertTrue(window.tryConsume());
+        assertTrue(window.tryConsume());
+        assertEquals(TimeUnit.SECONDS.toNanos(30), window.nanosUntilAvailable());
+    }
+}
@@ -0,0 +1,48 @@
+package com.stock.management.junit.external.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.stock.management.external.resilience.TokenBucket;
+
+class TokenBucketTest {
+
+    private long now;
+
+    @Test
+    void testAllowsBurstUpToCapacity() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(3, Duration.ofMinutes(1), () -> now);
+
+        // Act & Assert
+        assertTrue(bucket.tryConsume());
+        assertTrue(bucket.tryConsume());
+        assertTrue(bucket.tryConsume());
+        assertFalse(bucket.tryConsume());
+        assertEquals(TimeUnit.SECONDS.toNanos(20), bucket.nanosUntilAvailable());
+    }
+
+    @Test
+    void testRefillsContinuouslyUpToCapacity() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(60, Duration.ofMinutes(1), () -> now);
+        for (int i = 0; i < 60; i++) {
+            bucket.tryConsume();
+        }
+
+        // Act
+        now += TimeUnit.SECONDS.toNanos(2);
+
+        // Assert
+        assertEquals(2.0, bucket.available(), 1e-9);
+        now += TimeUnit.HOURS.toNanos(1);
+        assertEquals(60.0, bucket.available(), 1e-9);
+    }
+
+}
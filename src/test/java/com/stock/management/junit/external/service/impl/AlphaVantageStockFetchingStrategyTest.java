@@ -3,6 +3,7 @@ package com.stock.management.junit.external.service.impl;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -14,9 +15,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.exception.StockPriceUnavailableException;
+import com.stock.management.external.config.AlphaVantageProperties;
 import com.stock.management.external.service.impl.AlphaVantageStockFetchingStrategy;
 
 class AlphaVantageStockFetchingStrategyTest {
@@ -24,6 +29,9 @@ class AlphaVantageStockFetchingStrategyTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Spy
+    private AlphaVantageProperties alphaVantageProperties = new AlphaVantageProperties();
+
     @InjectMocks
     private AlphaVantageStockFetchingStrategy stockFetchingStrategy;
 
@@ -88,4 +96,54 @@ class AlphaVantageStockFetchingStrategyTest {
         assertEquals("No data found for symbol: AAPL", exception.getMessage());
         verify(restTemplate, times(1)).getForObject(url, Map.class);
     }
+
+    @Test
+    void testGetStockPrice_RateLimitedIsUnavailable() {
+        // Arrange
+        String symbol = "AAPL";
+        String url = "https://www.alphavantage.co/query?function=GLOBAL_QUOTE&symbol=" + symbol + "&apikey=demo";
+
+        Map<String, Object> mockResponse = new HashMap<>();
+        mockResponse.put("Note", "Thank you for using Alpha Vantage! Our standard API call frequency is 5 calls per minute.");
+
+        when(restTemplate.getForObject(url, Map.class)).thenReturn(mockResponse);
+
+        // Act & Assert
+        StockPriceUnavailableException exception = assertThrows(StockPriceUnavailableException.class, () -> {
+            stockFetchingStrategy.getStockPrice(symbol);
+        });
+
+        assertTrue(exception.getMessage().contains("call frequency"));
+    }
+
+    @Test
+    void testGetStockPrice_RequestFailureIsUnavailable() {
+        // Arrange
+        String symbol = "AAPL";
+        String url = "https://www.alphavantage.co/query?function=GLOBAL_QUOTE&symbol=" + symbol + "&apikey=demo";
+
+        when(restTemplate.getForObject(url, Map.class)).thenThrow(new ResourceAccessException("Read timed out"));
+
+        // Act & Assert
+        assertThrows(StockPriceUnavailableException.class, () -> {
+            stockFetchingStrategy.getStockPrice(symbol);
+        });
+    }
+
+    @Test
+    void testGetStockPrice_EmptyQuoteIsNoData() {
+        // Arrange
+        String symbol = "INVALID";
+        String url = "https://www.alphavantage.co/query?function=GLOBAL_QUOTE&symbol=" + symbol + "&apikey=demo";
+
+        Map<String, Object> mockResponse = new HashMap<>();
+        mockResponse.put("Global Quote", new HashMap<>());
+
+        when(restTemplate.getForObject(url, Map.class)).thenReturn(mockResponse);
+
+        // Act & Assert
+        assertThrows(NoDataFoundForSymbolException.class, () -> {
+            stockFetchingStrategy.getStockPrice(symbol);
+        });
+    }
 }
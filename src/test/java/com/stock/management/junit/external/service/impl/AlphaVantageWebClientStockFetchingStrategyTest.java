@@ -0,0 +1,99 @@
+package com.stock.management.junit.external.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.exception.StockPriceUnavailableException;
+import com.stock.management.external.config.AlphaVantageProperties;
+import com.stock.management.external.service.impl.AlphaVantageWebClientStockFetchingStrategy;
+import com.stock.management.support.StubQuoteServer;
+
+import reactor.netty.resources.ConnectionProvider;
+
+class AlphaVantageWebClientStockFetchingStrategyTest {
+
+    private StubQuoteServer server;
+    private ConnectionProvider connectionProvider;
+    private AlphaVantageWebClientStockFetchingStrategy strategy;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = StubQuoteServer.start(Duration.ZERO);
+        connectionProvider = ConnectionProvider.create("test", 8);
+
+        AlphaVantageProperties properties = new AlphaVantageProperties();
+        properties.setBaseUrl(server.baseUrl());
+        properties.setResponseTimeout(Duration.ofSeconds(2));
+        strategy = new AlphaVantageWebClientStockFetchingStrategy(WebClient.builder(), connectionProvider,
+                properties, 8, Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.dispose();
+        server.close();
+    }
+
+    @Test
+    void testGetStockPrice_Success() {
+        // Arrange
+        server.price("AAPL", 150.50);
+
+        // Act
+        Double price = strategy.getStockPrice("AAPL");
+
+        // Assert
+        assertEquals(150.50, price);
+        assertEquals(1, server.requestCount());
+    }
+
+    @Test
+    void testGetStockPrice_NoDataFound() {
+        // Arrange
+        server.noData("INVALID");
+
+        // Act & Assert
+        NoDataFoundForSymbolException exception = assertThrows(NoDataFoundForSymbolException.class,
+                () -> strategy.getStockPrice("INVALID"));
+        assertEquals("No data found for symbol: INVALID", exception.getMessage());
+    }
+
+    @Test
+    void testGetStockPrice_ResponseTimeout() {
+        // Arrange
+        server.setLatency(Duration.ofSeconds(4));
+
+        // Act & Assert
+        assertThrows(StockPriceUnavailableException.class, () -> strategy.getStockPrice("AAPL"));
+    }
+
+    @Test
+    void testGetStockPrices_FetchesDistinctSymbolsConcurrently() {
+        // Arrange
+        server.setLatency(Duration.ofMillis(200));
+        server.price("AAPL", 150.0).price("GOOGL", 2800.0).price("MSFT", 300.0).price("TSLA", 250.0);
+        strategy.getStockPrice("AAPL");
+
+        // Act
+        long start = System.nanoTime();
+        Map<String, Double> prices = strategy.getStockPrices(List.of("AAPL", "GOOGL", "MSFT", "TSLA", "AAPL"));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertEquals(List.of("AAPL", "GOOGL", "MSFT", "TSLA"), List.copyOf(prices.keySet()));
+        assertEquals(2800.0, prices.get("GOOGL"));
+        assertEquals(5, server.requestCount());
+        assertTrue(elapsedMillis < 700, "Expected concurrent fetches but took " + elapsedMillis + " ms");
+    }
+}
@@ -0,0 +1,148 @@
+package com.stock.management.junit.external.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.external.config.QuoteCacheProperties;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.external.service.impl.CachingStockFetchingStrategy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CachingStockFetchingStrategyTest {
+
+    private static final String SYMBOL_AAPL = "AAPL";
+
+    @Mock
+    private StockFetchingStrategy delegate;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testGetStockPrice_ServesRepeatedLookupsFromCache() {
+        // Arrange
+        when(delegate.getStockPrice(SYMBOL_AAPL)).thenReturn(150.0);
+        CachingStockFetchingStrategy strategy = newStrategy(Duration.ofMinutes(1), Map.of());
+
+        // Act
+        strategy.getStockPrice(SYMBOL_AAPL);
+        strategy.getStockPrice(SYMBOL_AAPL);
+        Double price = strategy.getStockPrice(SYMBOL_AAPL);
+
+        // Assert
+        assertEquals(150.0, price);
+        verify(delegate, times(1)).getStockPrice(SYMBOL_AAPL);
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testGetStockPrice_ConcurrentMissesTriggerSingleUpstreamFetch() throws Exception {
+        // Arrange
+        when(delegate.getStockPrice(SYMBOL_AAPL)).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return 150.0;
+        });
+        CachingStockFetchingStrategy strategy = newStrategy(Duration.ofMinutes(1), Map.of());
+        int callers = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Act
+        List<Future<Double>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return strategy.getStockPrice(SYMBOL_AAPL);
+            }));
+        }
+        start.countDown();
+        for (Future<Double> result : results) {
+            assertEquals(150.0, result.get());
+        }
+        executor.shutdown();
+
+        // Assert
+        verify(delegate, times(1)).getStockPrice(SYMBOL_AAPL);
+    }
+
+    @Test
+    void testGetStockPrice_SymbolSpecificTtlExpiresQuote() throws Exception {
+        // Arrange
+        when(delegate.getStockPrice(SYMBOL_AAPL)).thenReturn(150.0, 151.0);
+        CachingStockFetchingStrategy strategy = newStrategy(Duration.ofMinutes(1),
+                Map.of("aapl", Duration.ofMillis(50)));
+
+        // Act
+        Double first = strategy.getStockPrice(SYMBOL_AAPL);
+        Thread.sleep(100);
+        Double second = strategy.getStockPrice(SYMBOL_AAPL);
+
+        // Assert
+        assertEquals(150.0, first);
+        assertEquals(151.0, second);
+        verify(delegate, times(2)).getStockPrice(SYMBOL_AAPL);
+    }
+
+    @Test
+    void testGetStockPrices_LoadsOnlyMissingSymbolsInOneBulkCall() {
+        // Arrange
+        when(delegate.getStockPrice(SYMBOL_AAPL)).thenReturn(150.0);
+        when(delegate.getStockPrices(Set.of("GOOGL", "MSFT"))).thenReturn(Map.of("GOOGL", 2800.0, "MSFT", 300.0));
+        CachingStockFetchingStrategy strategy = newStrategy(Duration.ofMinutes(1), Map.of());
+        strategy.getStockPrice(SYMBOL_AAPL);
+
+        // Act
+        Map<String, Double> prices = strategy.getStockPrices(List.of(SYMBOL_AAPL, "GOOGL", "MSFT"));
+
+        // Assert
+        assertEquals(Map.of(SYMBOL_AAPL, 150.0, "GOOGL", 2800.0, "MSFT", 300.0), prices);
+        verify(delegate, times(1)).getStockPrices(Set.of("GOOGL", "MSFT"));
+    }
+
+    @Test
+    void testGetStockPrice_FailedLookupIsNotCached() {
+        // Arrange
+        when(delegate.getStockPrice("INVALID")).thenThrow(new NoDataFoundForSymbolException("INVALID"));
+        CachingStockFetchingStrategy strategy = newStrategy(Duration.ofMinutes(1), Map.of());
+
+        // Act & Assert
+        assertThrows(NoDataFoundForSymbolException.class, () -> strategy.getStockPrice("INVALID"));
+        assertThrows(NoDataFoundForSymbolException.class, () -> strategy.getStockPrice("INVALID"));
+        verify(delegate, times(2)).getStockPrice("INVALID");
+    }
+
+    private CachingStockFetchingStrategy newStrategy(Duration defaultTtl, Map<String, Duration> ttl) {
+        QuoteCacheProperties properties = new QuoteCacheProperties();
+        properties.setDefaultTtl(defaultTtl);
+        properties.setRefreshAfter(Duration.ofMinutes(10));
+        properties.setTtl(ttl);
+        return new CachingStockFetchingStrategy(delegate, properties, meterRegistry);
+    }
+}
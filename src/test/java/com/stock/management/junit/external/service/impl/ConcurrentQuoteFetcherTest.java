@@ -0,0 +1,104 @@
+package com.stock.management.junit.external.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.exception.StockPriceUnavailableException;
+import com.stock.management.external.service.impl.ConcurrentQuoteFetcher;
+
+class ConcurrentQuoteFetcherTest {
+
+    private ConcurrentQuoteFetcher fetcher;
+
+    @AfterEach
+    void tearDown() {
+        fetcher.close();
+    }
+
+    @Test
+    void testFetchAll_LatencyBoundedBySlowestQuote() {
+        // Arrange
+        fetcher = new ConcurrentQuoteFetcher(Executors.newCachedThreadPool(), 8, Duration.ofSeconds(5));
+        List<String> symbols = List.of("AAPL", "GOOGL", "MSFT", "TSLA", "AMZN", "AAPL");
+
+        // Act
+        long start = System.nanoTime();
+        Map<String, Double> prices = fetcher.fetchAll(symbols, symbol -> {
+            sleep(200);
+            return (double) symbol.length();
+        });
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertEquals(5, prices.size());
+        assertEquals(4.0, prices.get("AAPL"));
+        assertEquals(List.of("AAPL", "GOOGL", "MSFT", "TSLA", "AMZN"), List.copyOf(prices.keySet()));
+        assertTrue(elapsedMillis < 800, "Expected concurrent fetches but took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void testFetchAll_LimitsConcurrentUpstreamCalls() {
+        // Arrange
+        fetcher = new ConcurrentQuoteFetcher(Executors.newCachedThreadPool(), 2, Duration.ofSeconds(5));
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        // Act
+        fetcher.fetchAll(List.of("A", "B", "C", "D", "E", "F"), symbol -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sleep(50);
+            inFlight.decrementAndGet();
+            return 1.0;
+        });
+
+        // Assert
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    void testFetchAll_DeadlineExceeded() {
+        // Arrange
+        fetcher = new ConcurrentQuoteFetcher(Executors.newCachedThreadPool(), 8, Duration.ofMillis(100));
+
+        // Act & Assert
+        assertThrows(StockPriceUnavailableException.class, () -> fetcher.fetchAll(List.of("AAPL", "GOOGL"), symbol -> {
+            sleep("GOOGL".equals(symbol) ? 2_000 : 0);
+            return 1.0;
+        }));
+    }
+
+    @Test
+    void testFetchAll_PropagatesLookupFailure() {
+        // Arrange
+        fetcher = new ConcurrentQuoteFetcher(Executors.newCachedThreadPool(), 8, Duration.ofSeconds(5));
+
+        // Act & Assert
+        NoDataFoundForSymbolException exception = assertThrows(NoDataFoundForSymbolException.class,
+                () -> fetcher.fetchAll(List.of("AAPL", "INVALID"), symbol -> {
+                    if ("INVALID".equals(symbol)) {
+                        throw new NoDataFoundForSymbolException(symbol);
+                    }
+                    return 1.0;
+                }));
+        assertEquals("No data found for symbol: INVALID", exception.getMessage());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
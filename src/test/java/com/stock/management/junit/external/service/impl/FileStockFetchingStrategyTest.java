@@ -0,0 +1,35 @@
+package com.stock.management.junit.external.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.external.service.impl.FileStockFetchingStrategy;
+
+class FileStockFetchingStrategyTest {
+
+    private final FileStockFetchingStrategy strategy =
+            new FileStockFetchingStrategy(new ClassPathResource("marketdata/prices.csv"));
+
+    @Test
+    void testGetStockPrices_ServesLastPriceOfEachSymbol() {
+        // Act
+        Map<String, Double> prices = strategy.getStockPrices(List.of("AAPL", "MSFT"));
+
+        // Assert
+        assertEquals(Map.of("AAPL", 188.0, "MSFT", 415.3), prices);
+    }
+
+    @Test
+    void testGetStockPrice_SkipsMalformedLines() {
+        // Act & Assert
+        assertThrows(NoDataFoundForSymbolException.class, () -> strategy.getStockPrice("GOOGL"));
+        assertThrows(NoDataFoundForSymbolException.class, () -> strategy.getStockPrice("IBM"));
+    }
+}
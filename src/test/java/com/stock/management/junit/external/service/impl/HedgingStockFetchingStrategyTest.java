@@ -0,0 +1,221 @@
+package com.stock.management.junit.external.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.exception.StockPriceUnavailableException;
+import com.stock.management.external.config.QuoteHedgingProperties;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.external.service.impl.HedgingStockFetchingStrategy;
+import com.stock.management.external.service.impl.HedgingStockFetchingStrategy.Provider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HedgingStockFetchingStrategyTest {
+
+    private static final String SYMBOL_AAPL = "AAPL";
+
+    @Mock
+    private StockFetchingStrategy upstream;
+
+    @Mock
+    private StockFetchingStrategy mirror;
+
+    @Mock
+    private StockFetchingStrategy file;
+
+    private MeterRegistry meterRegistry;
+    private QuoteHedgingProperties properties;
+    private HedgingStockFetchingStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new QuoteHedgingProperties();
+        properties.setInitialHedgeDelay(Duration.ofMillis(20));
+        properties.setMinimumSamples(1);
+        when(file.getStockPrice(SYMBOL_AAPL)).thenReturn(187.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (strategy != null) {
+            strategy.close();
+        }
+    }
+
+    @Test
+    void testGetStockPrice_FastProviderIsNotHedged() throws Exception {
+        // Arrange
+        when(upstream.getStockPrice(SYMBOL_AAPL)).thenReturn(188.0);
+        strategy = newStrategy(new Provider("upstream", upstream, false), new Provider("file", file, true));
+
+        // Act
+        Double price = strategy.getStockPrice(SYMBOL_AAPL);
+
+        // Assert
+        Thread.sleep(50);
+        assertEquals(188.0, price);
+        verifyNoInteractions(file);
+        assertEquals(0.0, meterRegistry.get("stock.quote.hedged").counter().count());
+    }
+
+    @Test
+    void testGetStockPrice_SlowProviderIsHedgedAndFastestAnswerWins() {
+        // Arrange
+        when(upstream.getStockPrice(SYMBOL_AAPL)).thenAnswer(invocation -> {
+            Thread.sleep(1_000);
+            return 188.0;
+        });
+        strategy = newStrategy(new Provider("upstream", upstream, false), new Provider("file", file, true));
+
+        // Act
+        long start = System.nanoTime();
+        Double price = strategy.getStockPrice(SYMBOL_AAPL);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Assert
+        assertEquals(187.0, price);
+        assertTrue(elapsedMillis < 500, "Lookup took " + elapsedMillis + " ms");
+        assertEquals(1.0, meterRegistry.get("stock.quote.hedged").counter().count());
+        assertEquals(1.0, meterRegistry.get("stock.quote.provider.wins").tag("provider", "file").counter().count());
+    }
+
+    @Test
+    void testGetStockPrice_FailedProviderIsHedgedWithoutDelay() {
+        // Arrange
+        properties.setInitialHedgeDelay(Duration.ofSeconds(5));
+        when(upstream.getStockPrice(SYMBOL_AAPL)).thenThrow(new StockPriceUnavailableException("rate limited"));
+        strategy = newStrategy(new Provider("upstream", upstream, false), new Provider("file", file, true));
+
+        // Act
+        long start = System.nanoTime();
+        Double price = strategy.getStockPrice(SYMBOL_AAPL);
+
+        // Assert
+        assertEquals(187.0, price);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1_000);
+    }
+
+    @Test
+    void testGetStockPrice_RoutesToProviderWithLowestMedianLatency() {
+        // Arrange: the first lookup measures the slow provider, the second the fast one
+        properties.setInitialHedgeDelay(Duration.ofSeconds(5));
+        when(upstream.getStockPrice(SYMBOL_AAPL)).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return 188.0;
+        });
+        when(mirror.getStockPrice(SYMBOL_AAPL)).thenReturn(188.5);
+        strategy = newStrategy(new Provider("upstream", upstream, false), new Provider("mirror", mirror, false));
+        assertEquals(188.0, strategy.getStockPrice(SYMBOL_AAPL));
+        assertEquals(188.5, strategy.getStockPrice(SYMBOL_AAPL));
+
+        // Act
+        Double price = strategy.getStockPrice(SYMBOL_AAPL);
+
+        // Assert
+        assertEquals(188.5, price);
+        verify(upstream, times(1)).getStockPrice(SYMBOL_AAPL);
+        assertEquals(2.0, meterRegistry.get("stock.quote.provider.wins").tag("provider", "mirror").counter().count());
+    }
+
+    @Test
+    void testGetStockPrice_UnknownSymbolIsNotHedged() {
+        // Arrange
+        when(upstream.getStockPrice("INVALID")).thenThrow(new NoDataFoundForSymbolException("INVALID"));
+        strategy = newStrategy(new Provider("upstream", upstream, false), new Provider("file", file, true));
+
+        // Act & Assert
+        assertThrows(NoDataFoundForSymbolException.class, () -> strategy.getStockPrice("INVALID"));
+        verifyNoInteractions(file);
+        assertEquals(0.0, meterRegistry.get("stock.quote.hedged").counter().count());
+    }
+
+    @Test
+    void testGetStockPrice_LosingLookupIsCancelled() throws Exception {
+        // Arrange
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(upstream.getStockPrice(SYMBOL_AAPL)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(1_000);
+            } catch (InterruptedException ex) {
+                cancelled.countDown();
+                throw ex;
+            }
+            return 188.0;
+        });
+        strategy = newStrategy(new Provider("upstream", upstream, false), new Provider("file", file, true));
+
+        // Act
+        Double price = strategy.getStockPrice(SYMBOL_AAPL);
+
+        // Assert
+        assertEquals(187.0, price);
+        assertTrue(cancelled.await(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testGetStockPrice_UnavailableWhenAnyProviderFailed() {
+        // Arrange
+        when(upstream.getStockPrice("IBM")).thenThrow(new IllegalStateException("connection reset"));
+        when(file.getStockPrice("IBM")).thenThrow(new NoDataFoundForSymbolException("IBM"));
+        strategy = newStrategy(new Provider("upstream", upstream, false), new Provider("file", file, true));
+
+        // Act & Assert
+        assertThrows(StockPriceUnavailableException.class, () -> strategy.getStockPrice("IBM"));
+    }
+
+    @Test
+    void testGetStockPrice_FailsOnceDeadlinePasses() {
+        // Arrange
+        when(upstream.getStockPrice(SYMBOL_AAPL)).thenAnswer(invocation -> {
+            Thread.sleep(1_000);
+            return 188.0;
+        });
+        strategy = newStrategy(new Provider("upstream", upstream, false));
+
+        // Act & Assert
+        assertThrows(StockPriceUnavailableException.class, () -> strategy.getStockPrice(SYMBOL_AAPL));
+    }
+
+    @Test
+    void testGetStockPrices_HedgesWholeBatch() {
+        // Arrange
+        List<String> symbols = List.of(SYMBOL_AAPL, "MSFT");
+        when(upstream.getStockPrices(symbols)).thenThrow(new StockPriceUnavailableException("down"));
+        when(file.getStockPrices(symbols)).thenReturn(Map.of(SYMBOL_AAPL, 187.0, "MSFT", 415.0));
+        strategy = newStrategy(new Provider("upstream", upstream, false), new Provider("file", file, true));
+
+        // Act
+        Map<String, Double> prices = strategy.getStockPrices(symbols);
+
+        // Assert
+        assertEquals(Map.of(SYMBOL_AAPL, 187.0, "MSFT", 415.0), prices);
+    }
+
+    private HedgingStockFetchingStrategy newStrategy(Provider... providers) {
+        return new HedgingStockFetchingStrategy(List.of(providers), Executors.newCachedThreadPool(), properties,
+                Duration.ofMillis(200), meterRegistry);
+    }
+}
@@ -0,0 +1,67 @@
+package com.stock.management.junit.external.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.exception.StockPriceUnavailableException;
+import com.stock.management.external.marketdata.MarketDataStore;
+import com.stock.management.external.service.impl.MarketDataStockFetchingStrategy;
+
+class MarketDataStockFetchingStrategyTest {
+
+    private MarketDataStore store;
+    private MarketDataStockFetchingStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        store = new MarketDataStore(10);
+        strategy = new MarketDataStockFetchingStrategy(store, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testGetStockPrices_ServesLatestPushedQuotes() {
+        // Arrange
+        long now = System.currentTimeMillis();
+        store.update("AAPL", 187.25, now);
+        store.update("MSFT", 415.30, now);
+
+        // Act
+        Map<String, Double> prices = strategy.getStockPrices(List.of("AAPL", "MSFT"));
+
+        // Assert
+        assertEquals(Map.of("AAPL", 187.25, "MSFT", 415.30), prices);
+    }
+
+    @Test
+    void testGetStockPrice_SymbolNeverQuoted() {
+        // Act & Assert
+        assertThrows(NoDataFoundForSymbolException.class, () -> strategy.getStockPrice("XXXX"));
+    }
+
+    @Test
+    void testGetStockPrice_QuoteOlderThanMaxAge() {
+        // Arrange
+        store.update("AAPL", 187.25, System.currentTimeMillis() - Duration.ofMinutes(2).toMillis());
+
+        // Act & Assert
+        assertThrows(StockPriceUnavailableException.class, () -> strategy.getStockPrice("AAPL"));
+    }
+
+    @Test
+    void testGetStockPrice_ZeroMaxAgeServesQuotesOfAnyAge() {
+        // Arrange
+        strategy = new MarketDataStockFetchingStrategy(store, Duration.ZERO);
+        store.update("AAPL", 187.25, 0);
+
+        // Act & Assert
+        assertEquals(187.25, strategy.getStockPrice("AAPL"));
+    }
+}
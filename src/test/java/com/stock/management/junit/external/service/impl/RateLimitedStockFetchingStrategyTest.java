@@ -0,0 +1,254 @@
+package com.stock.management.junit.external.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.exception.QuoteQuotaExceededException;
+import com.stock.management.external.config.QuoteRateLimitProperties;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.external.service.impl.RateLimitedStockFetchingStrategy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimitedStockFetchingStrategyTest {
+
+    private static final String SYMBOL_AAPL = "AAPL";
+    private static final String SYMBOL_MSFT = "MSFT";
+
+    @Mock
+    private StockFetchingStrategy delegate;
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<String> fetched = Collections.synchronizedList(new ArrayList<>());
+    private MeterRegistry meterRegistry;
+    private QuoteRateLimitProperties properties;
+    private ExecutorService callers;
+    private RateLimitedStockFetchingStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new QuoteRateLimitProperties();
+        properties.setRequestsPerMinute(1);
+        properties.setMaxWait(Duration.ofSeconds(5));
+        callers = Executors.newCachedThreadPool();
+        when(delegate.getStockPrice(anyString())).thenAnswer(invocation -> {
+            fetched.add(invocation.getArgument(0));
+            return 100.0;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (strategy != null) {
+            strategy.close();
+        }
+    }
+
+    @Test
+    void testGetStockPrice_FetchesWithinQuota() {
+        // Arrange
+        strategy = newStrategy();
+
+        // Act
+        Double price = strategy.getStockPrice(SYMBOL_AAPL);
+
+        // Assert
+        assertEquals(100.0, price);
+        assertEquals(List.of(SYMBOL_AAPL), fetched);
+    }
+
+    @Test
+    void testGetStockPrice_CoalescesQueuedLookupsOfSameSymbol() throws Exception {
+        // Arrange: the only token goes to the first lookup
+        strategy = newStrategy();
+        strategy.getStockPrice("SPY");
+        List<Future<Double>> lookups = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            lookups.add(callers.submit(() -> strategy.getStockPrice(SYMBOL_AAPL)));
+        }
+        awaitCoalesced(2);
+
+        // Act
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        lookups.add(callers.submit(() -> strategy.getStockPrice(SYMBOL_AAPL)));
+
+        // Assert
+        for (Future<Double> lookup : lookups) {
+            assertEquals(100.0, lookup.get(5, TimeUnit.SECONDS));
+        }
+        verify(delegate, times(1)).getStockPrice(SYMBOL_AAPL);
+        assertEquals(3.0, meterRegistry.get("stock.quote.limiter.coalesced").counter().count());
+    }
+
+    @Test
+    void testGetStockPrice_CoalescesLookupsWithInFlightRequest() throws Exception {
+        // Arrange: the only token goes to the first lookup, whose request is held in flight
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getStockPrice(SYMBOL_AAPL)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 150.0;
+        });
+        strategy = newStrategy();
+        Future<Double> first = callers.submit(() -> strategy.getStockPrice(SYMBOL_AAPL));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        Future<Double> second = callers.submit(() -> strategy.getStockPrice(SYMBOL_AAPL));
+        awaitCoalesced(1);
+        release.countDown();
+
+        // Assert
+        assertEquals(150.0, first.get(5, TimeUnit.SECONDS));
+        assertEquals(150.0, second.get(5, TimeUnit.SECONDS));
+        verify(delegate, times(1)).getStockPrice(SYMBOL_AAPL);
+        assertEquals(1.0, meterRegistry.get("stock.quote.limiter.coalesced").counter().count());
+    }
+
+    @Test
+    void testGetStockPrice_RequestsSymbolInHighestDemandFirst() throws Exception {
+        // Arrange
+        strategy = newStrategy();
+        strategy.getStockPrice("SPY");
+        callers.submit(() -> strategy.getStockPrice(SYMBOL_AAPL));
+        awaitQueueDepth(1);
+        for (int i = 0; i < 3; i++) {
+            callers.submit(() -> strategy.getStockPrice(SYMBOL_MSFT));
+        }
+        awaitCoalesced(2);
+        awaitQueueDepth(2);
+
+        // Act: a new lookup wakes the dispatcher once a token is available
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        callers.submit(() -> strategy.getStockPrice("IBM"));
+
+        // Assert
+        awaitFetched(2);
+        assertEquals(List.of("SPY", SYMBOL_MSFT), fetched.subList(0, 2));
+    }
+
+    @Test
+    void testGetStockPrice_FailsWhenQuotaDoesNotAllowRequestInTime() {
+        // Arrange
+        properties.setMaxWait(Duration.ofMillis(50));
+        strategy = newStrategy();
+        strategy.getStockPrice("SPY");
+
+        // Act & Assert
+        assertThrows(QuoteQuotaExceededException.class, () -> strategy.getStockPrice(SYMBOL_AAPL));
+        assertEquals(0, strategy.getQueueDepth());
+        assertEquals(1.0, meterRegistry.get("stock.quote.limiter.rejected").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    void testGetStockPrice_RejectsWhenQueueIsFull() throws Exception {
+        // Arrange
+        properties.setMaxQueueSize(1);
+        strategy = newStrategy();
+        strategy.getStockPrice("SPY");
+        callers.submit(() -> strategy.getStockPrice(SYMBOL_AAPL));
+        awaitQueueDepth(1);
+
+        // Act & Assert
+        assertThrows(QuoteQuotaExceededException.class, () -> strategy.getStockPrice(SYMBOL_MSFT));
+        assertEquals(1.0, meterRegistry.get("stock.quote.limiter.rejected").tag("reason", "queue_full").counter().count());
+    }
+
+    @Test
+    void testGetStockPrice_RejectsOnceDailyQuotaIsUsedUp() {
+        // Arrange
+        properties.setRequestsPerMinute(0);
+        properties.setRequestsPerDay(1);
+        strategy = newStrategy();
+        strategy.getStockPrice("SPY");
+
+        // Act & Assert
+        assertThrows(QuoteQuotaExceededException.class, () -> strategy.getStockPrice(SYMBOL_AAPL));
+        assertEquals(1.0, meterRegistry.get("stock.quote.limiter.rejected").tag("reason", "daily_quota").counter().count());
+    }
+
+    @Test
+    void testGetStockPrice_UsesTheWholeDailyQuotaSpreadOverTheDay() {
+        // Arrange
+        properties.setRequestsPerMinute(0);
+        properties.setRequestsPerDay(500);
+        strategy = newStrategy();
+
+        // Act: a lookup every two minutes, 1000 minutes in all
+        for (int i = 0; i < 500; i++) {
+            assertEquals(100.0, strategy.getStockPrice("SYM" + i));
+            now.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        }
+
+        // Assert
+        assertEquals(500, fetched.size());
+        QuoteQuotaExceededException exception = assertThrows(QuoteQuotaExceededException.class,
+                () -> strategy.getStockPrice(SYMBOL_AAPL));
+        assertEquals("Daily quote quota is used up; no request for AAPL, retry in 26400 s", exception.getMessage());
+    }
+
+    @Test
+    void testGetStockPrice_PassesOnProviderErrors() {
+        // Arrange
+        when(delegate.getStockPrice("INVALID")).thenThrow(new NoDataFoundForSymbolException("INVALID"));
+        strategy = newStrategy();
+
+        // Act & Assert
+        assertThrows(NoDataFoundForSymbolException.class, () -> strategy.getStockPrice("INVALID"));
+    }
+
+    private RateLimitedStockFetchingStrategy newStrategy() {
+        return new RateLimitedStockFetchingStrategy(delegate, properties, meterRegistry, now::get);
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (strategy.getQueueDepth() != depth && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(depth, strategy.getQueueDepth());
+    }
+
+    private void awaitCoalesced(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.get("stock.quote.limiter.coalesced").counter().count() < count
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitFetched(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (fetched.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.stock.management.junit.external.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.stock.management.exception.NoDataFoundForSymbolException;
+import com.stock.management.exception.QuoteQuotaExceededException;
+import com.stock.management.exception.StockPriceUnavailableException;
+import com.stock.management.external.config.QuoteResilienceProperties;
+import com.stock.management.external.resilience.CircuitBreaker;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.external.service.impl.ConcurrentQuoteFetcher;
+import com.stock.management.external.service.impl.ResilientStockFetchingStrategy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ResilientStockFetchingStrategyTest {
+
+    private static final String SYMBOL_AAPL = "AAPL";
+    private static final String SYMBOL_MSFT = "MSFT";
+
+    @Mock
+    private StockFetchingStrategy delegate;
+
+    private MeterRegistry meterRegistry;
+    private QuoteResilienceProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new QuoteResilienceProperties();
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(1));
+    }
+
+    @Test
+    void testGetStockPrice_RetriesTransientFailure() {
+        // Arrange
+        when(delegate.getStockPrice(SYMBOL_AAPL))
+                .thenThrow(new StockPriceUnavailableException("rate limited"))
+                .thenReturn(150.0);
+        ResilientStockFetchingStrategy strategy = newStrategy();
+
+        // Act
+        Double price = strategy.getStockPrice(SYMBOL_AAPL);
+
+        // Assert
+        assertEquals(150.0, price);
+        verify(delegate, times(2)).getStockPrice(SYMBOL_AAPL);
+        assertEquals(1.0, meterRegistry.get("stock.quote.upstream.retries").tag("outcome", "retried").counter().count());
+    }
+
+    @Test
+    void testGetStockPrice_DoesNotRetryUnknownSymbol() {
+        // Arrange
+        when(delegate.getStockPrice("INVALID")).thenThrow(new NoDataFoundForSymbolException("INVALID"));
+        ResilientStockFetchingStrategy strategy = newStrategy();
+
+        // Act & Assert
+        assertThrows(NoDataFoundForSymbolException.class, () -> strategy.getStockPrice("INVALID"));
+        verify(delegate, times(1)).getStockPrice("INVALID");
+        assertEquals(-1, strategy.getFailureRate());
+    }
+
+    @Test
+    void testGetStockPrice_RetryBudgetLimitsRetries() {
+        // Arrange
+        properties.getRetry().setBudgetRatio(0);
+        properties.getRetry().setBudgetCapacity(1);
+        when(delegate.getStockPrice(SYMBOL_AAPL)).thenThrow(new StockPriceUnavailableException("down"));
+        ResilientStockFetchingStrategy strategy = newStrategy();
+
+        // Act
+        assertThrows(StockPriceUnavailableException.class, () -> strategy.getStockPrice(SYMBOL_AAPL));
+        assertThrows(StockPriceUnavailableException.class, () -> strategy.getStockPrice(SYMBOL_AAPL));
+
+        // Assert: one retry in the budget, so three calls instead of six
+        verify(delegate, times(3)).getStockPrice(SYMBOL_AAPL);
+        assertEquals(2.0, meterRegistry.get("stock.quote.upstream.retries").tag("outcome", "budget_exhausted").counter().count());
+    }
+
+    @Test
+    void testGetStockPrice_ServesLastKnownPriceWhenProviderFails() {
+        // Arrange
+        when(delegate.getStockPrice(SYMBOL_AAPL))
+                .thenReturn(150.0)
+                .thenThrow(new StockPriceUnavailableException("down"));
+        ResilientStockFetchingStrategy strategy = newStrategy();
+        strategy.getStockPrice(SYMBOL_AAPL);
+
+        // Act
+        Double price = strategy.getStockPrice(SYMBOL_AAPL);
+
+        // Assert
+        assertEquals(150.0, price);
+        assertTrue(strategy.getStaleSymbols().containsKey(SYMBOL_AAPL));
+        assertEquals(1.0, meterRegistry.get("stock.quote.fallback").tag("outcome", "stale").counter().count());
+    }
+
+    @Test
+    void testGetStockPrice_QuotaExceededFallsBackWithoutRetryOrFailure() {
+        // Arrange
+        when(delegate.getStockPrice(SYMBOL_AAPL))
+                .thenReturn(150.0)
+                .thenThrow(new QuoteQuotaExceededException("queue full"));
+        ResilientStockFetchingStrategy strategy = newStrategy();
+        strategy.getStockPrice(SYMBOL_AAPL);
+
+        // Act
+        Double price = strategy.getStockPrice(SYMBOL_AAPL);
+
+        // Assert
+        assertEquals(150.0, price);
+        verify(delegate, times(2)).getStockPrice(SYMBOL_AAPL);
+        assertEquals(0.0, meterRegistry.get("stock.quote.upstream.calls").tag("outcome", "failure").counter().count());
+    }
+
+    @Test
+    void testGetStockPrice_FailsWithoutLastKnownPrice() {
+        // Arrange
+        when(delegate.getStockPrice(SYMBOL_AAPL)).thenThrow(new IllegalStateException("connection reset"));
+        ResilientStockFetchingStrategy strategy = newStrategy();
+
+        // Act & Assert
+        assertThrows(StockPriceUnavailableException.class, () -> strategy.getStockPrice(SYMBOL_AAPL));
+        assertEquals(1.0, meterRegistry.get("stock.quote.fallback").tag("outcome", "unavailable").counter().count());
+    }
+
+    @Test
+    void testGetStockPrice_OpenCircuitStopsCallingProvider() {
+        // Arrange
+        properties.getCircuitBreaker().setMinimumCalls(2);
+        properties.getRetry().setMaxAttempts(1);
+        when(delegate.getStockPrice(SYMBOL_AAPL)).thenThrow(new StockPriceUnavailableException("down"));
+        ResilientStockFetchingStrategy strategy = newStrategy();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertThrows(StockPriceUnavailableException.class, () -> strategy.getStockPrice(SYMBOL_AAPL));
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, strategy.getCircuitState());
+        verify(delegate, times(2)).getStockPrice(SYMBOL_AAPL);
+        assertEquals(3.0, meterRegistry.get("stock.quote.upstream.rejected").tag("reason", "circuit_open").counter().count());
+        assertEquals(1.0, meterRegistry.get("stock.quote.circuit.state").tag("state", "open").gauge().value());
+    }
+
+    @Test
+    void testGetStockPrice_FullBulkheadRejectsCall() throws Exception {
+        // Arrange
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        properties.getBulkhead().setMaxWait(Duration.ofMillis(10));
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getStockPrice(SYMBOL_AAPL)).thenAnswer(invocation -> {
+            inFlight.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 150.0;
+        });
+        ResilientStockFetchingStrategy strategy = newStrategy();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            executor.submit(() -> strategy.getStockPrice(SYMBOL_AAPL));
+            inFlight.await(5, TimeUnit.SECONDS);
+
+            // Act & Assert
+            assertThrows(StockPriceUnavailableException.class, () -> strategy.getStockPrice(SYMBOL_MSFT));
+            assertEquals(1.0, meterRegistry.get("stock.quote.upstream.rejected").tag("reason", "bulkhead_full").counter().count());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testGetStockPrices_FallsBackPerSymbol() {
+        // Arrange
+        List<String> symbols = List.of(SYMBOL_AAPL, SYMBOL_MSFT);
+        when(delegate.getStockPrice(SYMBOL_AAPL)).thenReturn(150.0);
+        when(delegate.getStockPrice(SYMBOL_MSFT))
+                .thenReturn(300.0)
+                .thenThrow(new StockPriceUnavailableException("down"));
+        ResilientStockFetchingStrategy strategy = newStrategy();
+        strategy.getStockPrices(symbols);
+
+        // Act
+        Map<String, Double> prices = strategy.getStockPrices(symbols);
+
+        // Assert
+        assertEquals(Map.of(SYMBOL_AAPL, 150.0, SYMBOL_MSFT, 300.0), prices);
+        assertEquals(Set.of(SYMBOL_MSFT), strategy.getStaleSymbols().keySet());
+    }
+
+    @Test
+    void testGetFreshStockPrices_LeavesOutSymbolsWithoutAFreshPrice() {
+        // Arrange
+        List<String> symbols = List.of(SYMBOL_AAPL, SYMBOL_MSFT);
+        when(delegate.getStockPrice(SYMBOL_AAPL)).thenReturn(150.0);
+        when(delegate.getStockPrice(SYMBOL_MSFT))
+                .thenReturn(300.0)
+                .thenThrow(new StockPriceUnavailableException("down"));
+        ResilientStockFetchingStrategy strategy = newStrategy();
+        strategy.getStockPrices(symbols);
+
+        // Act
+        Map<String, Double> prices = strategy.getFreshStockPrices(symbols);
+
+        // Assert
+        assertEquals(Map.of(SYMBOL_AAPL, 150.0), prices);
+        assertEquals(Set.of(), strategy.getStaleSymbols().keySet());
+    }
+
+    @Test
+    void testGetStockPrices_RetriesOnlyTheFailedSymbol() {
+        // Arrange
+        when(delegate.getStockPrice(SYMBOL_AAPL))
+                .thenThrow(new StockPriceUnavailableException("rate limited"))
+                .thenReturn(150.0);
+        when(delegate.getStockPrice(SYMBOL_MSFT)).thenReturn(300.0);
+        ResilientStockFetchingStrategy strategy = newStrategy();
+
+        // Act
+        Map<String, Double> prices = strategy.getStockPrices(List.of(SYMBOL_AAPL, SYMBOL_MSFT));
+
+        // Assert
+        assertEquals(Map.of(SYMBOL_AAPL, 150.0, SYMBOL_MSFT, 300.0), prices);
+        verify(delegate, times(2)).getStockPrice(SYMBOL_AAPL);
+        verify(delegate, times(1)).getStockPrice(SYMBOL_MSFT);
+        verify(delegate, never()).getStockPrices(anyCollection());
+        assertEquals(2.0, meterRegistry.get("stock.quote.upstream.calls").tag("outcome", "success").counter().count());
+    }
+
+    private ResilientStockFetchingStrategy newStrategy() {
+        ConcurrentQuoteFetcher fetcher = new ConcurrentQuoteFetcher(Executors.newCachedThreadPool(), 4, Duration.ofSeconds(5));
+        return new ResilientStockFetchingStrategy(delegate, fetcher, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,182 @@
+package com.stock.management.junit.external.warmup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.stock.management.exception.StockPriceUnavailableException;
+import com.stock.management.external.config.QuoteCacheProperties;
+import com.stock.management.external.config.QuoteWarmerProperties;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.external.service.impl.CachingStockFetchingStrategy;
+import com.stock.management.external.warmup.QuoteWarmer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class QuoteWarmerTest {
+
+    private static final String SYMBOL_AAPL = "AAPL";
+    private static final String SYMBOL_MSFT = "MSFT";
+
+    @Mock
+    private StockFetchingStrategy cacheLoader;
+
+    @Mock
+    private StockFetchingStrategy upstream;
+
+    private final AtomicLong now = new AtomicLong();
+    private List<String> heldSymbols = List.of(SYMBOL_AAPL, SYMBOL_MSFT);
+    private MeterRegistry meterRegistry;
+    private QuoteWarmerProperties properties;
+    private CachingStockFetchingStrategy quoteCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new QuoteWarmerProperties();
+        quoteCache = new CachingStockFetchingStrategy(cacheLoader, new QuoteCacheProperties(), meterRegistry);
+        when(upstream.getStockPrices(anyCollection())).thenAnswer(invocation -> {
+            Map<String, Double> prices = new LinkedHashMap<>();
+            for (String symbol : invocation.<Collection<String>>getArgument(0)) {
+                prices.put(symbol, 100.0);
+            }
+            return prices;
+        });
+    }
+
+    @Test
+    void testRefreshDueQuotes_WritesHeldSymbolsIntoQuoteCache() {
+        // Arrange
+        QuoteWarmer warmer = newWarmer();
+
+        // Act
+        int refreshed = warmer.refreshDueQuotes();
+
+        // Assert
+        assertEquals(2, refreshed);
+        assertEquals(100.0, quoteCache.getStockPrice(SYMBOL_AAPL));
+        assertEquals(100.0, quoteCache.getStockPrice(SYMBOL_MSFT));
+        verifyNoInteractions(cacheLoader);
+    }
+
+    @Test
+    void testRefreshDueQuotes_RefreshesUnreadSymbolsEveryMaxInterval() {
+        // Arrange
+        QuoteWarmer warmer = newWarmer();
+        warmer.refreshDueQuotes();
+
+        // Act & Assert
+        advance(Duration.ofSeconds(30));
+        assertEquals(0, warmer.refreshDueQuotes());
+        advance(Duration.ofSeconds(25));
+        assertEquals(2, warmer.refreshDueQuotes());
+    }
+
+    @Test
+    void testRefreshDueQuotes_RefreshesFrequentlyReadSymbolsMoreOften() {
+        // Arrange
+        QuoteWarmer warmer = newWarmer();
+        warmer.refreshDueQuotes();
+        for (int i = 0; i < 100; i++) {
+            warmer.recordRead(SYMBOL_AAPL);
+        }
+
+        // Act
+        advance(Duration.ofSeconds(10));
+        warmer.refreshDueQuotes();
+
+        // Assert
+        verify(upstream).getStockPrices(List.of(SYMBOL_AAPL));
+    }
+
+    @Test
+    void testRefreshDueQuotes_SpendsBudgetOnMostReadSymbolsFirst() {
+        // Arrange
+        properties.setRequestsPerMinute(1);
+        QuoteWarmer warmer = newWarmer();
+        when(cacheLoader.getStockPrice(SYMBOL_MSFT)).thenReturn(99.0);
+        quoteCache.getStockPrice(SYMBOL_MSFT);
+
+        // Act
+        warmer.refreshDueQuotes();
+
+        // Assert
+        verify(upstream).getStockPrices(List.of(SYMBOL_MSFT));
+        assertEquals(1.0, meterRegistry.get("stock.quote.warmer.deferred").counter().count());
+    }
+
+    @Test
+    void testRefreshDueQuotes_FetchesInBatches() {
+        // Arrange
+        properties.setBatchSize(2);
+        heldSymbols = List.of(SYMBOL_AAPL, SYMBOL_MSFT, "IBM");
+        QuoteWarmer warmer = newWarmer();
+
+        // Act
+        warmer.refreshDueQuotes();
+
+        // Assert
+        verify(upstream).getStockPrices(List.of(SYMBOL_AAPL, SYMBOL_MSFT));
+        verify(upstream).getStockPrices(List.of("IBM"));
+    }
+
+    @Test
+    void testRefreshDueQuotes_FailedBatchWaitsForNextInterval() {
+        // Arrange
+        when(upstream.getStockPrices(anyCollection())).thenThrow(new StockPriceUnavailableException("down"));
+        QuoteWarmer warmer = newWarmer();
+
+        // Act
+        int refreshed = warmer.refreshDueQuotes();
+        advance(Duration.ofSeconds(5));
+        warmer.refreshDueQuotes();
+
+        // Assert
+        assertEquals(0, refreshed);
+        assertEquals(2.0, meterRegistry.get("stock.quote.warmer.failed").counter().count());
+        verify(upstream, times(1)).getStockPrices(anyCollection());
+    }
+
+    @Test
+    void testRefreshDueQuotes_SymbolsWithoutAFreshPriceAreNotCached() {
+        // Arrange
+        when(upstream.getStockPrices(anyCollection())).thenReturn(Map.of(SYMBOL_AAPL, 100.0));
+        when(cacheLoader.getStockPrice(SYMBOL_MSFT)).thenReturn(250.0);
+        QuoteWarmer warmer = newWarmer();
+
+        // Act
+        int refreshed = warmer.refreshDueQuotes();
+
+        // Assert
+        assertEquals(1, refreshed);
+        assertEquals(1.0, meterRegistry.get("stock.quote.warmer.failed").counter().count());
+        assertEquals(250.0, quoteCache.getStockPrice(SYMBOL_MSFT));
+    }
+
+    private QuoteWarmer newWarmer() {
+        return new QuoteWarmer(() -> heldSymbols, upstream::getStockPrices, quoteCache, properties, meterRegistry,
+                now::get);
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(TimeUnit.NANOSECONDS.convert(duration));
+    }
+}
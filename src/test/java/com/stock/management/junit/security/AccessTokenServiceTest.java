@@ -0,0 +1,94 @@
+package com.stock.management.junit.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.stock.management.dto.AccessTokenDTO;
+import com.stock.management.security.AccessTokenService;
+import com.stock.management.security.TokenProperties;
+
+class AccessTokenServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final Instant NOW = Instant.parse("2024-11-22T10:00:00Z");
+
+    private TokenProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TokenProperties();
+        properties.setSecret(SECRET);
+        properties.setTtl(Duration.ofMinutes(15));
+    }
+
+    @Test
+    void testVerify_AcceptsIssuedToken() {
+        // Arrange
+        AccessTokenService service = newService(NOW);
+
+        // Act
+        AccessTokenDTO token = service.issue("user123");
+
+        // Assert
+        assertEquals("user123", service.verify(token.accessToken()));
+        assertEquals(AccessTokenDTO.BEARER, token.tokenType());
+        assertEquals(900, token.expiresIn());
+    }
+
+    @Test
+    void testVerify_RejectsExpiredToken() {
+        // Arrange
+        String token = newService(NOW).issue("user123").accessToken();
+
+        // Act & Assert
+        assertEquals("user123", newService(NOW.plusSeconds(899)).verify(token));
+        assertNull(newService(NOW.plusSeconds(900)).verify(token));
+    }
+
+    @Test
+    void testVerify_RejectsTokenSignedWithOtherKey() {
+        // Arrange
+        String token = newService(NOW).issue("user123").accessToken();
+        properties.setSecret("fedcba9876543210fedcba9876543210");
+
+        // Act & Assert
+        assertNull(newService(NOW).verify(token));
+    }
+
+    @Test
+    void testVerify_RejectsTamperedToken() {
+        // Arrange
+        AccessTokenService service = newService(NOW);
+        String token = service.issue("user123").accessToken();
+        String signature = token.substring(token.indexOf('.'));
+        String otherPayload = service.issue("admin").accessToken();
+
+        // Act & Assert
+        assertNull(service.verify(otherPayload.substring(0, otherPayload.indexOf('.')) + signature));
+        assertNull(service.verify("not-a-token"));
+        assertNull(service.verify("a.b"));
+        assertNull(service.verify("!!!.???"));
+    }
+
+    @Test
+    void testConstructor_RejectsShortSecret() {
+        // Arrange
+        properties.setSecret("short");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> newService(NOW));
+    }
+
+    private AccessTokenService newService(Instant now) {
+        return new AccessTokenService(properties, Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
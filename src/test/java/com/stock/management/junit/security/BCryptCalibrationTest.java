@@ -0,0 +1,30 @@
+package com.stock.management.junit.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.stock.management.security.BCryptCalibration;
+
+class BCryptCalibrationTest {
+
+    @Test
+    void testWorkFactorFor_TinyTargetReturnsMinimum() {
+        // Act
+        int strength = BCryptCalibration.workFactorFor(Duration.ofNanos(1), 4, 8);
+
+        // Assert
+        assertEquals(4, strength);
+    }
+
+    @Test
+    void testWorkFactorFor_LargeTargetReturnsMaximum() {
+        // Act
+        int strength = BCryptCalibration.workFactorFor(Duration.ofHours(1), 4, 8);
+
+        // Assert
+        assertEquals(8, strength);
+    }
+}
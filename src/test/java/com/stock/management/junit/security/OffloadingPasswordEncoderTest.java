@@ -0,0 +1,118 @@
+package com.stock.management.junit.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.stock.management.exception.ServiceBusyException;
+import com.stock.management.security.OffloadingPasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OffloadingPasswordEncoderTest {
+
+    @Mock
+    private PasswordEncoder delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OffloadingPasswordEncoder encoder;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.close();
+        }
+    }
+
+    @Test
+    void testEncodeAndMatches_DelegateOffTheCallerThread() {
+        // Arrange
+        encoder = new OffloadingPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(5), meterRegistry);
+        Thread caller = Thread.currentThread();
+        when(delegate.encode("password")).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread() != caller);
+            return "encodedPassword";
+        });
+        when(delegate.matches("password", "encodedPassword")).thenReturn(true);
+
+        // Act
+        String hash = encoder.encode("password");
+        boolean matches = encoder.matches("password", hash);
+
+        // Assert
+        assertEquals("encodedPassword", hash);
+        assertTrue(matches);
+        assertEquals(1, meterRegistry.get("stock.security.password.hash").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void testMatches_RejectsWhenQueueIsFull() throws Exception {
+        // Arrange
+        encoder = new OffloadingPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch hashing = new CountDownLatch(1);
+        when(delegate.matches(any(), any())).thenAnswer(invocation -> {
+            hashing.countDown();
+            release.await();
+            return true;
+        });
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "hash"));
+        assertTrue(hashing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "hash"));
+        while (meterRegistry.get("stock.security.password.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // Act & Assert
+        assertThrows(ServiceBusyException.class, () -> encoder.matches("c", "hash"));
+        assertEquals(1, meterRegistry.get("stock.security.password.rejected").tag("reason", "queue_full").counter().count());
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testMatches_RejectsWhenWaitIsExceeded() {
+        // Arrange
+        encoder = new OffloadingPasswordEncoder(delegate, 1, 1, Duration.ofMillis(50), meterRegistry);
+        when(delegate.matches(any(), any())).thenAnswer(invocation -> {
+            release.await();
+            return true;
+        });
+
+        // Act & Assert
+        assertThrows(ServiceBusyException.class, () -> encoder.matches("password", "hash"));
+        assertEquals(1, meterRegistry.get("stock.security.password.rejected").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    void testUpgradeEncoding_IsAnsweredByDelegate() {
+        // Arrange
+        encoder = new OffloadingPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(5), meterRegistry);
+        when(delegate.upgradeEncoding("hash")).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(encoder.upgradeEncoding("hash"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.stock.management.junit.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.stock.management.security.AccessTokenService;
+import com.stock.management.security.TokenAuthenticationFilter;
+import com.stock.management.security.TokenProperties;
+
+import jakarta.servlet.http.HttpServlet;
+
+class TokenAuthenticationFilterTest {
+
+    private AccessTokenService accessTokenService;
+    private TokenAuthenticationFilter filter;
+    private final AtomicReference<Authentication> seen = new AtomicReference<>();
+    private MockFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        TokenProperties properties = new TokenProperties();
+        properties.setSecret("0123456789abcdef0123456789abcdef");
+        properties.setTtl(Duration.ofMinutes(15));
+        accessTokenService = new AccessTokenService(properties);
+        filter = new TokenAuthenticationFilter(accessTokenService);
+        chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(jakarta.servlet.http.HttpServletRequest request,
+                                   jakarta.servlet.http.HttpServletResponse response) {
+                seen.set(SecurityContextHolder.getContext().getAuthentication());
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testDoFilter_AuthenticatesValidToken() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + accessTokenService.issue("user123").accessToken());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals("user123", seen.get().getName());
+    }
+
+    @Test
+    void testDoFilter_RejectsInvalidToken() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer forged.token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(401, response.getStatus());
+        assertEquals("Bearer error=\"invalid_token\"", response.getHeader(HttpHeaders.WWW_AUTHENTICATE));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void testDoFilter_PassesRequestsWithoutToken() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertNull(seen.get());
+    }
+}
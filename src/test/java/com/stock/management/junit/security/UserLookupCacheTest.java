@@ -0,0 +1,106 @@
+package com.stock.management.junit.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.stock.management.data.jpa.model.UserInfo;
+import com.stock.management.data.jpa.repository.UserSecurityRepository;
+import com.stock.management.security.CustomUserDetailsService;
+import com.stock.management.security.UserCacheProperties;
+import com.stock.management.security.UserLookupCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserLookupCacheTest {
+
+    private static final String USER_ID = "user123";
+
+    @Mock
+    private UserSecurityRepository userRepository;
+
+    private UserLookupCache userLookupCache;
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userLookupCache = new UserLookupCache(userRepository, new UserCacheProperties(), new SimpleMeterRegistry());
+        userDetailsService = new CustomUserDetailsService(userLookupCache, userRepository);
+        UserInfo user = new UserInfo();
+        user.setUserId(USER_ID);
+        user.setPassword("encodedPassword");
+        when(userRepository.findByUserId(USER_ID)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void testLoadUserByUsername_ReadsUserOnce() {
+        // Act
+        UserDetails first = userDetailsService.loadUserByUsername(USER_ID);
+        ((CredentialsContainer) first).eraseCredentials();
+        UserDetails second = userDetailsService.loadUserByUsername(USER_ID);
+
+        // Assert
+        assertNotSame(first, second);
+        assertEquals("encodedPassword", second.getPassword());
+        verify(userRepository, times(1)).findByUserId(USER_ID);
+    }
+
+    @Test
+    void testInvalidate_ReadsUserAgain() {
+        // Arrange
+        userDetailsService.loadUserByUsername(USER_ID);
+
+        // Act
+        userLookupCache.invalidate(USER_ID);
+        userDetailsService.loadUserByUsername(USER_ID);
+
+        // Assert
+        verify(userRepository, times(2)).findByUserId(USER_ID);
+    }
+
+    @Test
+    void testLoadUserByUsername_UnknownUserIsNotCached() {
+        // Arrange
+        when(userRepository.findByUserId("newuser")).thenReturn(Optional.empty());
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("newuser"));
+        UserInfo registered = new UserInfo();
+        registered.setUserId("newuser");
+        registered.setPassword("encodedPassword");
+        when(userRepository.findByUserId("newuser")).thenReturn(Optional.of(registered));
+
+        // Act
+        UserDetails user = userDetailsService.loadUserByUsername("newuser");
+
+        // Assert
+        assertEquals("newuser", user.getUsername());
+    }
+
+    @Test
+    void testUpdatePassword_StoresHashAndDropsCachedCredentials() {
+        // Arrange
+        UserDetails user = userDetailsService.loadUserByUsername(USER_ID);
+
+        // Act
+        UserDetails updated = userDetailsService.updatePassword(user, "{bcrypt}rehashedPassword");
+        userDetailsService.loadUserByUsername(USER_ID);
+
+        // Assert
+        assertEquals("{bcrypt}rehashedPassword", updated.getPassword());
+        verify(userRepository).updatePassword(USER_ID, "{bcrypt}rehashedPassword");
+        verify(userRepository, times(2)).findByUserId(USER_ID);
+    }
+}
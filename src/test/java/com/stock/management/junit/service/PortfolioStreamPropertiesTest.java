@@ -0,0 +1,44 @@
+package com.stock.management.junit.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import com.stock.management.service.PortfolioStreamProperties;
+
+class PortfolioStreamPropertiesTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(PropertiesConfig.class);
+
+    @Test
+    void testMaxUpdatesPerSecond_PositiveValueIsBound() {
+        contextRunner.withPropertyValues("stock.portfolio.stream.max-updates-per-second=0.5")
+                .run(context -> {
+                    // Assert
+                    assertNull(context.getStartupFailure());
+                    assertEquals(0.5, context.getBean(PortfolioStreamProperties.class).getMaxUpdatesPerSecond());
+                });
+    }
+
+    @Test
+    void testMaxUpdatesPerSecond_ZeroOrNegativeFailsTheStartup() {
+        for (String value : new String[] {"0", "-1"}) {
+            contextRunner.withPropertyValues("stock.portfolio.stream.max-updates-per-second=" + value)
+                    .run(context -> {
+                        // Assert
+                        assertNotNull(context.getStartupFailure(), "max-updates-per-second=" + value);
+                    });
+        }
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(PortfolioStreamProperties.class)
+    static class PropertiesConfig {
+    }
+}
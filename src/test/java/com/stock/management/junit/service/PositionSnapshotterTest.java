@@ -0,0 +1,92 @@
+package com.stock.management.junit.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.stock.management.data.jpa.repository.UserSecurityRepository;
+import com.stock.management.service.HoldingsChangedEvent;
+import com.stock.management.service.PositionSnapshotter;
+import com.stock.management.service.TradeJournalProperties;
+import com.stock.management.service.TradeJournalService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PositionSnapshotterTest {
+
+    @Mock
+    private TradeJournalService tradeJournalService;
+
+    @Mock
+    private UserSecurityRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PositionSnapshotter snapshotter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        TradeJournalProperties properties = new TradeJournalProperties();
+        properties.setSnapshotEntries(100);
+        snapshotter = new PositionSnapshotter(tradeJournalService, userRepository, properties, meterRegistry);
+    }
+
+    @Test
+    void testSnapshotDueUsers_SnapshotsOnlyTradedUsersPastTheInterval() {
+        // Arrange
+        snapshotter.onHoldingsChanged(new HoldingsChangedEvent("busy"));
+        snapshotter.onHoldingsChanged(new HoldingsChangedEvent("quiet"));
+        when(tradeJournalService.tailLength("busy")).thenReturn(100L);
+        when(tradeJournalService.tailLength("quiet")).thenReturn(99L);
+
+        // Act
+        int taken = snapshotter.snapshotDueUsers();
+
+        // Assert
+        assertEquals(1, taken);
+        verify(tradeJournalService).snapshot("busy");
+        verify(tradeJournalService, never()).snapshot("quiet");
+        verify(tradeJournalService, never()).tailLength("idle");
+        assertEquals(1, meterRegistry.get("stock.journal.snapshots").counter().count());
+    }
+
+    @Test
+    void testSnapshotDueUsers_ChecksUserAgainOnlyAfterNextTrade() {
+        // Arrange
+        snapshotter.onHoldingsChanged(new HoldingsChangedEvent("quiet"));
+        when(tradeJournalService.tailLength("quiet")).thenReturn(10L);
+        snapshotter.snapshotDueUsers();
+
+        // Act
+        snapshotter.snapshotDueUsers();
+
+        // Assert
+        verify(tradeJournalService, times(1)).tailLength("quiet");
+        verify(tradeJournalService, never()).snapshot(any());
+    }
+
+    @Test
+    void testRebuildAllHoldings_RebuildsEveryUser() {
+        // Arrange
+        when(userRepository.findAllUserIds()).thenReturn(List.of("a", "b"));
+        when(tradeJournalService.rebuildHoldings("a")).thenReturn(2);
+        when(tradeJournalService.rebuildHoldings("b")).thenReturn(0);
+
+        // Act
+        int corrected = snapshotter.rebuildAllHoldings();
+
+        // Assert
+        assertEquals(2, corrected);
+    }
+}
@@ -2,25 +2,36 @@ package com.stock.management.junit.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
-import com.stock.management.data.jpa.model.StockDetails;
-import com.stock.management.data.jpa.model.UserInfo;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.stock.management.data.jpa.model.StockHistoryEntry;
 import com.stock.management.data.jpa.repository.StockManagementRepository;
 import com.stock.management.dto.StockHistoryDTO;
+import com.stock.management.dto.StockHistoryPageDTO;
+import com.stock.management.exception.BadRequestException;
 import com.stock.management.exception.ResourceNotFoundException;
 import com.stock.management.service.StockHistoryService;
 
@@ -41,18 +52,10 @@ class StockHistoryServiceTest {
     void testGetStockHistory_Success() {
         // Arrange
         String userId = "user123";
-        UserInfo mockUser = new UserInfo(); // Or mock(UserInfo.class)
-        
-        StockDetails stock1 = new StockDetails(
-                1L, "AAPL", 0, 10, 0, 10,
-                LocalDate.of(2023, 11, 15), 150.0, false, null, mockUser
-        );
-        StockDetails stock2 = new StockDetails(
-                2L, "TSLA", 10, 0, 5, 5,
-                LocalDate.of(2023, 12, 1), 750.0, false, null, mockUser
-        );
-
-        when(stockManagementRepository.findByUserInfoUserId(userId)).thenReturn(Arrays.asList(stock1, stock2));
+        StockHistoryEntry stock1 = new StockHistoryEntry(1L, "AAPL", LocalDate.of(2023, 11, 15), 10, 0);
+        StockHistoryEntry stock2 = new StockHistoryEntry(2L, "TSLA", LocalDate.of(2023, 12, 1), 0, 5);
+
+        when(stockManagementRepository.findHistoryByUserId(userId)).thenReturn(Arrays.asList(stock1, stock2));
 
         // Act
         List<StockHistoryDTO> result = stockHistoryService.getStockHistory(userId);
@@ -73,14 +76,15 @@ class StockHistoryServiceTest {
         assertEquals(5, stockHistory2.quantityChanged());
         assertEquals("Removed", stockHistory2.action());
 
-        verify(stockManagementRepository, times(1)).findByUserInfoUserId(userId);
+        verify(stockManagementRepository, times(1)).findHistoryByUserId(userId);
+        verify(stockManagementRepository, never()).findByUserInfoUserId(userId);
     }
 
     @Test
     void testGetStockHistory_EmptyList_ThrowsException() {
         // Arrange
         String userId = "user123";
-        when(stockManagementRepository.findByUserInfoUserId(userId)).thenReturn(Collections.emptyList());
+        when(stockManagementRepository.findHistoryByUserId(userId)).thenReturn(Collections.emptyList());
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -88,25 +92,17 @@ class StockHistoryServiceTest {
         });
 
         assertEquals("No stock history found for user with ID: " + userId, exception.getMessage());
-        verify(stockManagementRepository, times(1)).findByUserInfoUserId(userId);
+        verify(stockManagementRepository, times(1)).findHistoryByUserId(userId);
     }
 
     @Test
     void testGetStockHistory_MixedActions() {
         // Arrange
         String userId = "user123";
-        UserInfo mockUser = new UserInfo(); // Or mock(UserInfo.class)
-
-        StockDetails stock1 = new StockDetails(
-                1L, "MSFT", 0, 15, 0, 15,
-                LocalDate.of(2023, 10, 25), 300.0, false, null, mockUser
-        );
-        StockDetails stock2 = new StockDetails(
-                2L, "AMZN", 10, 0, 8, 2,
-                LocalDate.of(2023, 10, 30), 2500.0, false, null, mockUser
-        );
+        StockHistoryEntry stock1 = new StockHistoryEntry(1L, "MSFT", LocalDate.of(2023, 10, 25), 15, 0);
+        StockHistoryEntry stock2 = new StockHistoryEntry(2L, "AMZN", LocalDate.of(2023, 10, 30), 0, 8);
 
-        when(stockManagementRepository.findByUserInfoUserId(userId)).thenReturn(Arrays.asList(stock1, stock2));
+        when(stockManagementRepository.findHistoryByUserId(userId)).thenReturn(Arrays.asList(stock1, stock2));
 
         // Act
         List<StockHistoryDTO> result = stockHistoryService.getStockHistory(userId);
@@ -124,4 +120,77 @@ class StockHistoryServiceTest {
         assertEquals("Removed", stockHistory2.action());
         assertEquals(8, stockHistory2.quantityChanged());
     }
+
+    @Test
+    void testGetStockHistoryPage_ReturnsCursorOfLastEntryWhenMoreRemain() {
+        // Arrange
+        String userId = "user123";
+        StockHistoryEntry first = new StockHistoryEntry(7L, "AAPL", LocalDate.of(2023, 11, 15), 10, 0);
+        StockHistoryEntry second = new StockHistoryEntry(9L, "TSLA", LocalDate.of(2023, 12, 1), 0, 5);
+        StockHistoryEntry third = new StockHistoryEntry(12L, "MSFT", LocalDate.of(2023, 12, 1), 3, 0);
+        when(stockManagementRepository.findHistoryPage(eq(userId), any(), any(), any(), anyLong(), any()))
+                .thenReturn(new ArrayList<>(List.of(first, second, third)));
+
+        // Act
+        StockHistoryPageDTO page = stockHistoryService.getStockHistoryPage(userId, null, null, null, 2);
+
+        // Assert
+        assertEquals(2, page.items().size());
+        assertEquals("Removed", page.items().get(1).action());
+        assertEquals(5, page.items().get(1).quantityChanged());
+        assertNotNull(page.nextCursor());
+        verify(stockManagementRepository).findHistoryPage(eq(userId), any(), any(), any(), eq(0L), eq(PageRequest.ofSize(3)));
+
+        // Act
+        stockHistoryService.getStockHistoryPage(userId, null, null, page.nextCursor(), 2);
+
+        // Assert
+        verify(stockManagementRepository).findHistoryPage(eq(userId), any(), any(), eq(LocalDate.of(2023, 12, 1)), eq(9L), any(Pageable.class));
+    }
+
+    @Test
+    void testGetStockHistoryPage_LastPageHasNoCursor() {
+        // Arrange
+        String userId = "user123";
+        LocalDate from = LocalDate.of(2023, 1, 1);
+        LocalDate to = LocalDate.of(2023, 12, 31);
+        when(stockManagementRepository.findHistoryPage(eq(userId), eq(from), eq(to), any(), anyLong(), any()))
+                .thenReturn(List.of(new StockHistoryEntry(7L, "AAPL", LocalDate.of(2023, 11, 15), 10, 0)));
+
+        // Act
+        StockHistoryPageDTO page = stockHistoryService.getStockHistoryPage(userId, from, to, null, 2);
+
+        // Assert
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testGetStockHistoryPage_InvalidRequests() {
+        // Act & Assert
+        assertEquals("Page size must be between 1 and 1000.", assertThrows(BadRequestException.class,
+                () -> stockHistoryService.getStockHistoryPage("user123", null, null, null, 1001)).getMessage());
+        assertEquals("Invalid cursor.", assertThrows(BadRequestException.class,
+                () -> stockHistoryService.getStockHistoryPage("user123", null, null, "not-a-cursor", 10)).getMessage());
+        assertEquals("'from' must not be after 'to'.", assertThrows(BadRequestException.class,
+                () -> stockHistoryService.getStockHistoryPage("user123", LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 1), null, 10)).getMessage());
+        verify(stockManagementRepository, never()).findHistoryPage(any(), any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void testStreamStockHistory_PassesEachEntryToConsumer() {
+        // Arrange
+        String userId = "user123";
+        when(stockManagementRepository.streamHistory(eq(userId), any(), any())).thenReturn(Stream.of(
+                new StockHistoryEntry(1L, "AAPL", LocalDate.of(2023, 11, 15), 10, 0),
+                new StockHistoryEntry(2L, "AAPL", LocalDate.of(2023, 11, 16), 0, 4)));
+        List<StockHistoryDTO> received = new ArrayList<>();
+
+        // Act
+        long count = stockHistoryService.streamStockHistory(userId, null, null, received::add);
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(new StockHistoryDTO("AAPL", LocalDate.of(2023, 11, 16), 4, "Removed"), received.get(1));
+    }
 }
@@ -1,33 +1,56 @@
 package com.stock.management.junit.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
+import com.stock.management.data.jpa.model.HoldingQuantity;
 import com.stock.management.data.jpa.model.StockDetails;
+import com.stock.management.data.jpa.model.StockHolding;
+import com.stock.management.data.jpa.model.StockHoldingId;
 import com.stock.management.data.jpa.model.UserInfo;
+import com.stock.management.data.jpa.repository.StockHoldingRepository;
 import com.stock.management.data.jpa.repository.StockManagementRepository;
 import com.stock.management.data.jpa.repository.UserSecurityRepository;
 import com.stock.management.dto.StockDTO;
+import com.stock.management.dto.TradeBatchResultDTO;
+import com.stock.management.dto.TradeImportDTO;
+import com.stock.management.dto.TradeRequestDTO;
+import com.stock.management.dto.TradeResultDTO;
 import com.stock.management.dto.UserStockDTO;
+import com.stock.management.exception.BadRequestException;
+import com.stock.management.exception.NoDataFoundForSymbolException;
 import com.stock.management.exception.ResourceNotFoundException;
 import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.service.HoldingsChangedEvent;
 import com.stock.management.service.StockManagementService;
 
 class StockManagementServiceTest {
@@ -45,6 +68,12 @@ class StockManagementServiceTest {
     @Mock
     private UserSecurityRepository userRepository;
 
+    @Mock
+    private StockHoldingRepository stockHoldingRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private StockManagementService stockManagementService;
 
@@ -78,7 +107,50 @@ class StockManagementServiceTest {
         assertEquals(SYMBOL_AAPL, result.getSymbol());
         assertEquals(10, result.getTotalStockQuantity());
         assertEquals(150.0, result.getPrice());
-        verify(stockManagementRepository, times(2)).save(any(StockDetails.class));  // Expecting two save calls
+        verify(stockManagementRepository, times(1)).save(any(StockDetails.class));
+        verify(stockHoldingRepository, times(1)).save(any(StockHolding.class));
+        verify(eventPublisher).publishEvent(new HoldingsChangedEvent(USER_ID));
+    }
+
+    @Test
+    void testAddOrUpdateStock_NonPositiveQuantityIsRejected() {
+        // Act & Assert
+        assertThrows(BadRequestException.class,
+                () -> stockManagementService.addOrUpdateStock(USER_ID, new StockDTO(SYMBOL_AAPL, 0)));
+        verify(stockHoldingRepository, never()).save(any(StockHolding.class));
+        verify(stockManagementRepository, never()).save(any(StockDetails.class));
+    }
+
+    @Test
+    void testAddOrUpdateStock_AddsToExistingQuantity() {
+        // Arrange
+        setupUserAndMocks(SYMBOL_AAPL, 10, 150.0);
+        ArgumentCaptor<StockDetails> saved = ArgumentCaptor.forClass(StockDetails.class);
+
+        // Act
+        stockManagementService.addOrUpdateStock(USER_ID, new StockDTO(SYMBOL_AAPL, 5));
+
+        // Assert
+        verify(stockManagementRepository).save(saved.capture());
+        assertEquals(10, saved.getValue().getExistingStockQuantity());
+        assertEquals(5, saved.getValue().getNewStockQuantity());
+        assertEquals(15, saved.getValue().getTotalStockQuantity());
+        assertEquals(150.0, saved.getValue().getPrice());
+    }
+
+    @Test
+    void testAddOrUpdateStock_UpdatesHoldingAverageCost() {
+        // Arrange
+        setupUserAndMocks(SYMBOL_AAPL, 10, 130.0);
+        ArgumentCaptor<StockHolding> saved = ArgumentCaptor.forClass(StockHolding.class);
+
+        // Act
+        stockManagementService.addOrUpdateStock(USER_ID, new StockDTO(SYMBOL_AAPL, 10));
+
+        // Assert
+        verify(stockHoldingRepository).save(saved.capture());
+        assertEquals(20, saved.getValue().getQuantity());
+        assertEquals(115.0, saved.getValue().getAverageCost());
     }
 
 
@@ -90,23 +162,41 @@ class StockManagementServiceTest {
         StockDTO stockDTO = new StockDTO("AAPL", 5);
         UserInfo user = new UserInfo();
         user.setUserId(userId);
-
-        StockDetails existingStock = new StockDetails();
-        existingStock.setSymbol("AAPL");
-        existingStock.setTotalStockQuantity(10);
-        existingStock.setExpired(false);
+        ArgumentCaptor<StockDetails> saved = ArgumentCaptor.forClass(StockDetails.class);
 
         // Mock dependencies
-        when(userRepository.findByUserId(userId)).thenReturn(Optional.of(user));
-        when(stockManagementRepository.findByUserInfoAndSymbolAndIsExpiredFalse(user, "AAPL"))
-            .thenReturn(Collections.singletonList(existingStock));
+        when(userRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(user));
+        when(stockHoldingRepository.findById(new StockHoldingId(userId, "AAPL")))
+            .thenReturn(Optional.of(new StockHolding(userId, "AAPL", 10, 100.0)));
         when(stockFetchingStrategy.getStockPrice("AAPL")).thenReturn(150.0);
 
         // Act
         stockManagementService.removeStock(userId, stockDTO);
 
         // Assert
-        verify(stockManagementRepository, times(2)).save(any(StockDetails.class)); // Expecting 2 save calls
+        verify(stockManagementRepository, times(1)).save(saved.capture());
+        assertEquals(5, saved.getValue().getRemovedStockQuantity());
+        assertEquals(5, saved.getValue().getTotalStockQuantity());
+        assertFalse(saved.getValue().isExpired());
+        verify(stockHoldingRepository, times(1)).save(any(StockHolding.class));
+    }
+
+    @Test
+    void testRemoveStock_AllStocksExpiresNewEntry() {
+        // Arrange
+        setupUserAndMocks(SYMBOL_AAPL, 10, 150.0);
+        ArgumentCaptor<StockDetails> saved = ArgumentCaptor.forClass(StockDetails.class);
+
+        // Act
+        stockManagementService.removeStock(USER_ID, new StockDTO(SYMBOL_AAPL, 10));
+
+        // Assert
+        verify(stockManagementRepository).save(saved.capture());
+        assertEquals(0, saved.getValue().getTotalStockQuantity());
+        assertTrue(saved.getValue().isExpired());
+        assertNotNull(saved.getValue().getExpiredDate());
+        verify(stockHoldingRepository, times(1)).delete(any(StockHolding.class));
+        verify(stockHoldingRepository, never()).save(any(StockHolding.class));
     }
 
 
@@ -126,18 +216,202 @@ class StockManagementServiceTest {
         });
 
         assertEquals("Cannot remove more stocks than currently held.", exception.getMessage());
+        verify(stockManagementRepository, never()).save(any(StockDetails.class));
+        verify(stockHoldingRepository, never()).save(any(StockHolding.class));
     }
 
     @Test
-    void testGetStocksByUser_Success() {
+    void testRemoveStock_NonPositiveQuantityIsRejected() {
+        // Arrange
+        setupUserAndMocks(SYMBOL_AAPL, 10, 150.0);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class,
+                () -> stockManagementService.removeStock(USER_ID, new StockDTO(SYMBOL_AAPL, -5)));
+        assertThrows(BadRequestException.class,
+                () -> stockManagementService.removeStock(USER_ID, new StockDTO(SYMBOL_AAPL, 0)));
+        verify(stockManagementRepository, never()).save(any(StockDetails.class));
+        verify(stockHoldingRepository, never()).save(any(StockHolding.class));
+    }
+
+    @Test
+    void testImportTrades_AppendsRowsWithoutExpiringEarlierOnes() {
+        // Arrange
+        when(userRepository.findByUserIdForUpdate(USER_ID)).thenReturn(Optional.of(user));
+        when(stockHoldingRepository.findByUserIdOrderBySymbol(USER_ID))
+            .thenReturn(List.of(new StockHolding(USER_ID, SYMBOL_AAPL, 10, 100.0)));
+        List<TradeImportDTO> trades = List.of(
+            new TradeImportDTO(SYMBOL_AAPL, 10, 130.0, LocalDate.of(2024, 1, 2), "Added"),
+            new TradeImportDTO(SYMBOL_GOOGL, 5, 2500.0, LocalDate.of(2024, 1, 3), "Added"),
+            new TradeImportDTO(SYMBOL_AAPL, 5, 140.0, LocalDate.of(2024, 1, 4), "Removed"));
+        ArgumentCaptor<List<StockDetails>> inserted = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<StockHolding> holdings = ArgumentCaptor.forClass(StockHolding.class);
+
+        // Act
+        int imported = stockManagementService.importTrades(USER_ID, trades);
+
+        // Assert
+        assertEquals(3, imported);
+        verify(stockManagementRepository).insertAll(inserted.capture());
+        List<StockDetails> rows = inserted.getValue();
+        assertEquals(20, rows.get(0).getTotalStockQuantity());
+        assertFalse(rows.get(0).isExpired());
+        assertNull(rows.get(0).getExpiredDate());
+        assertFalse(rows.get(1).isExpired());
+        assertEquals(15, rows.get(2).getTotalStockQuantity());
+        assertEquals(5, rows.get(2).getRemovedStockQuantity());
+        assertFalse(rows.get(2).isExpired());
+        verify(stockHoldingRepository, times(2)).save(holdings.capture());
+        assertEquals(15, holdings.getAllValues().get(0).getQuantity());
+        assertEquals(115.0, holdings.getAllValues().get(0).getAverageCost());
+        verify(stockFetchingStrategy, never()).getStockPrice(any());
+    }
+
+    @Test
+    void testImportTrades_RowClosingPositionIsExpired() {
+        // Arrange
+        when(userRepository.findByUserIdForUpdate(USER_ID)).thenReturn(Optional.of(user));
+        when(stockHoldingRepository.findByUserIdOrderBySymbol(USER_ID))
+            .thenReturn(List.of(new StockHolding(USER_ID, SYMBOL_AAPL, 10, 100.0)));
+        List<TradeImportDTO> trades = List.of(
+            new TradeImportDTO(SYMBOL_AAPL, 10, 140.0, LocalDate.of(2024, 1, 4), "Removed"),
+            new TradeImportDTO(SYMBOL_AAPL, 2, 130.0, LocalDate.of(2024, 1, 5), "Added"));
+        ArgumentCaptor<List<StockDetails>> inserted = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        stockManagementService.importTrades(USER_ID, trades);
+
+        // Assert
+        verify(stockManagementRepository).insertAll(inserted.capture());
+        List<StockDetails> rows = inserted.getValue();
+        assertTrue(rows.get(0).isExpired());
+        assertEquals(LocalDate.of(2024, 1, 4), rows.get(0).getExpiredDate());
+        assertFalse(rows.get(1).isExpired());
+        verify(stockHoldingRepository).save(any(StockHolding.class));
+        verify(stockHoldingRepository, never()).delete(any(StockHolding.class));
+    }
+
+    @Test
+    void testImportTrades_ExceedsQuantityWritesNothing() {
+        // Arrange
+        when(userRepository.findByUserIdForUpdate(USER_ID)).thenReturn(Optional.of(user));
+        when(stockHoldingRepository.findByUserIdOrderBySymbol(USER_ID)).thenReturn(Collections.emptyList());
+        List<TradeImportDTO> trades = List.of(
+            new TradeImportDTO(SYMBOL_AAPL, 10, 130.0, LocalDate.of(2024, 1, 2), "Added"),
+            new TradeImportDTO(SYMBOL_AAPL, 11, 140.0, LocalDate.of(2024, 1, 4), "Removed"));
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> {
+            stockManagementService.importTrades(USER_ID, trades);
+        });
+
+        assertEquals("Trade 1: cannot remove more stocks than currently held.", exception.getMessage());
+        verify(stockManagementRepository, never()).insertAll(anyList());
+        verify(stockHoldingRepository, never()).save(any(StockHolding.class));
+    }
+
+    @Test
+    void testApplyTrades_FetchesAllPricesInOneBulkCall() {
+        // Arrange
+        setupUserAndHoldings(new StockHolding(USER_ID, SYMBOL_AAPL, 10, 100.0));
+        when(stockFetchingStrategy.getStockPrices(anyCollection()))
+            .thenReturn(Map.of(SYMBOL_AAPL, 150.0, SYMBOL_GOOGL, 2800.0));
+        List<TradeRequestDTO> trades = List.of(
+            new TradeRequestDTO(SYMBOL_AAPL, 5, "Added"),
+            new TradeRequestDTO(SYMBOL_GOOGL, 2, "Added"),
+            new TradeRequestDTO(SYMBOL_AAPL, 12, "Removed"));
+        ArgumentCaptor<List<StockDetails>> inserted = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        TradeBatchResultDTO result = stockManagementService.applyTrades(USER_ID, trades, false);
+
+        // Assert
+        assertEquals(3, result.applied());
+        assertEquals(0, result.rejected());
+        assertEquals(TradeResultDTO.APPLIED, result.results().get(2).status());
+        assertEquals(3, result.results().get(2).totalQuantity());
+        verify(stockFetchingStrategy, times(1)).getStockPrices(Set.of(SYMBOL_AAPL, SYMBOL_GOOGL));
+        verify(stockFetchingStrategy, never()).getStockPrice(any());
+        verify(userRepository, times(1)).findByUserIdForUpdate(USER_ID);
+        verify(stockManagementRepository).insertAll(inserted.capture());
+        assertEquals(3, inserted.getValue().size());
+        assertFalse(inserted.getValue().get(0).isExpired());
+        assertFalse(inserted.getValue().get(2).isExpired());
+    }
+
+    @Test
+    void testApplyTrades_RejectsOversellAndAppliesTheRest() {
+        // Arrange
+        setupUserAndHoldings(new StockHolding(USER_ID, SYMBOL_AAPL, 10, 100.0));
+        when(stockFetchingStrategy.getStockPrices(anyCollection()))
+            .thenReturn(Map.of(SYMBOL_AAPL, 150.0, SYMBOL_GOOGL, 2800.0));
+        List<TradeRequestDTO> trades = List.of(
+            new TradeRequestDTO(SYMBOL_AAPL, 20, "Removed"),
+            new TradeRequestDTO(SYMBOL_GOOGL, 1, "Added"),
+            new TradeRequestDTO(SYMBOL_GOOGL, 0, "Added"));
+
+        // Act
+        TradeBatchResultDTO result = stockManagementService.applyTrades(USER_ID, trades, false);
+
+        // Assert
+        assertEquals(1, result.applied());
+        assertEquals(2, result.rejected());
+        assertEquals(TradeResultDTO.REJECTED, result.results().get(0).status());
+        assertEquals("Cannot remove more stocks than currently held.", result.results().get(0).error());
+        assertNull(result.results().get(0).price());
+        assertEquals(TradeResultDTO.APPLIED, result.results().get(1).status());
+        assertEquals("quantity must be positive.", result.results().get(2).error());
+        verify(stockHoldingRepository, times(1)).save(any(StockHolding.class));
+        verify(stockManagementRepository).insertAll(anyList());
+    }
+
+    @Test
+    void testApplyTrades_AtomicWritesNothingWhenATradeIsRejected() {
+        // Arrange
+        setupUserAndHoldings(new StockHolding(USER_ID, SYMBOL_AAPL, 10, 100.0));
+        when(stockFetchingStrategy.getStockPrices(anyCollection()))
+            .thenReturn(Map.of(SYMBOL_AAPL, 150.0, SYMBOL_GOOGL, 2800.0));
+        List<TradeRequestDTO> trades = List.of(
+            new TradeRequestDTO(SYMBOL_GOOGL, 1, "Added"),
+            new TradeRequestDTO(SYMBOL_AAPL, 20, "Removed"));
+
+        // Act
+        TradeBatchResultDTO result = stockManagementService.applyTrades(USER_ID, trades, true);
+
+        // Assert
+        assertEquals(0, result.applied());
+        assertEquals(1, result.rejected());
+        assertEquals(TradeResultDTO.NOT_APPLIED, result.results().get(0).status());
+        assertEquals(TradeResultDTO.REJECTED, result.results().get(1).status());
+        verify(stockManagementRepository, never()).insertAll(anyList());
+        verify(stockHoldingRepository, never()).save(any(StockHolding.class));
+    }
+
+    @Test
+    void testApplyTrades_UnknownSymbolIsRejected() {
         // Arrange
-        StockDetails stock1 = new StockDetails();
-        stock1.setSymbol(SYMBOL_AAPL);
-        stock1.setTotalStockQuantity(10);
+        setupUserAndHoldings();
+        when(stockFetchingStrategy.getStockPrices(anyCollection())).thenThrow(new NoDataFoundForSymbolException("BAD"));
+        when(stockFetchingStrategy.getStockPrice(SYMBOL_AAPL)).thenReturn(150.0);
+        when(stockFetchingStrategy.getStockPrice("BAD")).thenThrow(new NoDataFoundForSymbolException("BAD"));
+        List<TradeRequestDTO> trades = List.of(
+            new TradeRequestDTO("BAD", 1, "Added"),
+            new TradeRequestDTO(SYMBOL_AAPL, 1, "Added"));
+
+        // Act
+        TradeBatchResultDTO result = stockManagementService.applyTrades(USER_ID, trades, false);
 
-        StockDetails stock2 = new StockDetails();
-        stock2.setSymbol(SYMBOL_GOOGL);
-        stock2.setTotalStockQuantity(5);
+        // Assert
+        assertEquals("No data found for symbol: BAD", result.results().get(0).error());
+        assertEquals(TradeResultDTO.APPLIED, result.results().get(1).status());
+        assertEquals(150.0, result.results().get(1).price());
+    }
+
+    @Test
+    void testGetStocksByUser_Success() {
+        // Arrange
+        HoldingQuantity stock1 = new HoldingQuantity(SYMBOL_AAPL, 10);
+        HoldingQuantity stock2 = new HoldingQuantity(SYMBOL_GOOGL, 5);
 
         setupUserAndMocksForMultipleStocks(Arrays.asList(stock1, stock2), 150.0, 2800.0);
 
@@ -153,6 +427,24 @@ class StockManagementServiceTest {
         assertEquals(14000.0, stocks.get(1).totalPrice());
     }
 
+    @Test
+    void testGetStocksByUser_FetchesAllSymbolsInOneBulkCall() {
+        // Arrange
+        HoldingQuantity stock1 = new HoldingQuantity(SYMBOL_AAPL, 10);
+        HoldingQuantity stock2 = new HoldingQuantity(SYMBOL_GOOGL, 4);
+
+        setupUserAndMocksForMultipleStocks(Arrays.asList(stock1, stock2), 150.0, 2800.0);
+
+        // Act
+        List<UserStockDTO> stocks = stockManagementService.getStocksByUser(USER_ID);
+
+        // Assert
+        assertEquals(2, stocks.size());
+        assertEquals(11200.0, stocks.get(1).totalPrice());
+        verify(stockFetchingStrategy, times(1)).getStockPrices(List.of(SYMBOL_AAPL, SYMBOL_GOOGL));
+        verify(stockHoldingRepository, never()).findByUserIdOrderBySymbol(any());
+    }
+
     @Test
     void testGetStocksByUser_NoActiveStocks() {
         // Arrange
@@ -169,13 +461,8 @@ class StockManagementServiceTest {
     @Test
     void testCalculatePortfolioValue_Success() {
         // Arrange
-        StockDetails stock1 = new StockDetails();
-        stock1.setSymbol(SYMBOL_AAPL);
-        stock1.setTotalStockQuantity(10);
-
-        StockDetails stock2 = new StockDetails();
-        stock2.setSymbol(SYMBOL_GOOGL);
-        stock2.setTotalStockQuantity(5);
+        HoldingQuantity stock1 = new HoldingQuantity(SYMBOL_AAPL, 10);
+        HoldingQuantity stock2 = new HoldingQuantity(SYMBOL_GOOGL, 5);
 
         setupUserAndMocksForMultipleStocks(Arrays.asList(stock1, stock2), 150.0, 2800.0);
 
@@ -201,27 +488,31 @@ class StockManagementServiceTest {
 
     // Helper Methods
     private void setupUserAndMocks(String symbol, int existingQuantity, double stockPrice) {
-        StockDetails existingStock = new StockDetails();
-        existingStock.setSymbol(symbol);
-        existingStock.setTotalStockQuantity(existingQuantity);
-
-        when(userRepository.findByUserId(USER_ID)).thenReturn(Optional.of(user));
-        when(stockManagementRepository.findByUserInfoAndSymbolAndIsExpiredFalse(user, symbol))
-            .thenReturn(Collections.singletonList(existingStock));
+        when(userRepository.findByUserIdForUpdate(USER_ID)).thenReturn(Optional.of(user));
+        when(stockHoldingRepository.findById(new StockHoldingId(USER_ID, symbol)))
+            .thenReturn(existingQuantity == 0 ? Optional.empty()
+                    : Optional.of(new StockHolding(USER_ID, symbol, existingQuantity, 100.0)));
         when(stockFetchingStrategy.getStockPrice(symbol)).thenReturn(stockPrice);
     }
 
-    private void setupUserAndMocksForMultipleStocks(List<StockDetails> stocks, double... prices) {
+    private void setupUserAndHoldings(StockHolding... holdings) {
+        when(userRepository.findByUserIdForUpdate(USER_ID)).thenReturn(Optional.of(user));
+        when(stockHoldingRepository.findByUserIdOrderBySymbol(USER_ID)).thenReturn(Arrays.asList(holdings));
+    }
+
+    private void setupUserAndMocksForMultipleStocks(List<HoldingQuantity> stocks, double... prices) {
         when(userRepository.findByUserId(USER_ID)).thenReturn(Optional.of(user));
-        when(stockManagementRepository.findByUserInfoUserIdAndIsExpiredFalse(USER_ID)).thenReturn(stocks);
-        
+        when(stockHoldingRepository.findQuantitiesByUserIdOrderBySymbol(USER_ID)).thenReturn(stocks);
+
+        Map<String, Double> symbolPrices = new HashMap<>();
         for (int i = 0; i < stocks.size(); i++) {
-            when(stockFetchingStrategy.getStockPrice(stocks.get(i).getSymbol())).thenReturn(prices[i]);
+            symbolPrices.put(stocks.get(i).symbol(), prices[i]);
         }
+        when(stockFetchingStrategy.getStockPrices(anyCollection())).thenReturn(symbolPrices);
     }
 
     private void setupUserAndMocksForEmptyStocks() {
         when(userRepository.findByUserId(USER_ID)).thenReturn(Optional.of(user));
-        when(stockManagementRepository.findByUserInfoUserIdAndIsExpiredFalse(USER_ID)).thenReturn(Collections.emptyList());
+        when(stockHoldingRepository.findQuantitiesByUserIdOrderBySymbol(USER_ID)).thenReturn(Collections.emptyList());
     }
 }
@@ -0,0 +1,173 @@
+package com.stock.management.junit.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.stock.management.data.jpa.model.JournalEntry;
+import com.stock.management.data.jpa.model.PositionSnapshot;
+import com.stock.management.data.jpa.model.SnapshotPosition;
+import com.stock.management.data.jpa.model.StockHolding;
+import com.stock.management.data.jpa.model.UserInfo;
+import com.stock.management.data.jpa.repository.PositionSnapshotRepository;
+import com.stock.management.data.jpa.repository.StockHoldingRepository;
+import com.stock.management.data.jpa.repository.StockManagementRepository;
+import com.stock.management.data.jpa.repository.UserSecurityRepository;
+import com.stock.management.exception.ResourceNotFoundException;
+import com.stock.management.service.TradeJournalService;
+
+class TradeJournalServiceTest {
+
+    private static final String USER_ID = "user123";
+
+    @Mock
+    private StockManagementRepository stockManagementRepository;
+
+    @Mock
+    private PositionSnapshotRepository positionSnapshotRepository;
+
+    @Mock
+    private StockHoldingRepository stockHoldingRepository;
+
+    @Mock
+    private UserSecurityRepository userRepository;
+
+    @InjectMocks
+    private TradeJournalService tradeJournalService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        UserInfo user = new UserInfo();
+        user.setUserId(USER_ID);
+        when(userRepository.findByUserIdForUpdate(USER_ID)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void testRebuildPositions_AppliesTailToSnapshot() {
+        // Arrange
+        PositionSnapshot snapshot = new PositionSnapshot(USER_ID);
+        snapshot.setLastEntryId(100);
+        snapshot.getPositions().add(new SnapshotPosition("AAPL", 10, 100.0));
+        snapshot.getPositions().add(new SnapshotPosition("MSFT", 4, 300.0));
+        when(positionSnapshotRepository.findById(USER_ID)).thenReturn(Optional.of(snapshot));
+        when(stockManagementRepository.findJournalTail(USER_ID, 100)).thenReturn(List.of(
+            new JournalEntry(101, "AAPL", 10, 0, 130.0),
+            new JournalEntry(102, "MSFT", 0, 4, 320.0),
+            new JournalEntry(103, "GOOGL", 2, 0, 2500.0),
+            new JournalEntry(104, "AAPL", 0, 5, 140.0)));
+
+        // Act
+        List<StockHolding> positions = tradeJournalService.rebuildPositions(USER_ID);
+
+        // Assert
+        assertEquals(2, positions.size());
+        assertEquals("AAPL", positions.get(0).getSymbol());
+        assertEquals(15, positions.get(0).getQuantity());
+        assertEquals(115.0, positions.get(0).getAverageCost());
+        assertEquals("GOOGL", positions.get(1).getSymbol());
+        assertEquals(2, positions.get(1).getQuantity());
+    }
+
+    @Test
+    void testRebuildPositions_WithoutSnapshotReadsWholeLedger() {
+        // Arrange
+        when(positionSnapshotRepository.findById(USER_ID)).thenReturn(Optional.empty());
+        when(stockManagementRepository.findJournalTail(USER_ID, 0)).thenReturn(List.of(
+            new JournalEntry(1, "AAPL", 10, 0, 100.0)));
+
+        // Act
+        List<StockHolding> positions = tradeJournalService.rebuildPositions(USER_ID);
+
+        // Assert
+        assertEquals(1, positions.size());
+        assertEquals(10, positions.get(0).getQuantity());
+    }
+
+    @Test
+    void testSnapshot_FoldsTailAndRecordsLastEntry() {
+        // Arrange
+        PositionSnapshot snapshot = new PositionSnapshot(USER_ID);
+        snapshot.setLastEntryId(100);
+        snapshot.getPositions().add(new SnapshotPosition("MSFT", 4, 300.0));
+        when(positionSnapshotRepository.findById(USER_ID)).thenReturn(Optional.of(snapshot));
+        when(stockManagementRepository.findJournalTail(USER_ID, 100)).thenReturn(List.of(
+            new JournalEntry(150, "AAPL", 10, 0, 100.0),
+            new JournalEntry(151, "MSFT", 0, 4, 320.0)));
+        ArgumentCaptor<PositionSnapshot> saved = ArgumentCaptor.forClass(PositionSnapshot.class);
+
+        // Act
+        int folded = tradeJournalService.snapshot(USER_ID);
+
+        // Assert
+        assertEquals(2, folded);
+        verify(positionSnapshotRepository).save(saved.capture());
+        assertEquals(151, saved.getValue().getLastEntryId());
+        assertEquals(1, saved.getValue().getPositions().size());
+        assertEquals("AAPL", saved.getValue().getPositions().get(0).getSymbol());
+        assertEquals(10, saved.getValue().getPositions().get(0).getQuantity());
+    }
+
+    @Test
+    void testSnapshot_NothingNewWritesNothing() {
+        // Arrange
+        when(positionSnapshotRepository.findById(USER_ID)).thenReturn(Optional.empty());
+        when(stockManagementRepository.findJournalTail(USER_ID, 0)).thenReturn(Collections.emptyList());
+
+        // Act
+        int folded = tradeJournalService.snapshot(USER_ID);
+
+        // Assert
+        assertEquals(0, folded);
+        verify(positionSnapshotRepository, never()).save(any());
+    }
+
+    @Test
+    void testSnapshot_UnknownUser() {
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> tradeJournalService.snapshot("unknown"));
+    }
+
+    @Test
+    void testRebuildHoldings_CorrectsDiffering() {
+        // Arrange
+        when(positionSnapshotRepository.findById(USER_ID)).thenReturn(Optional.empty());
+        when(stockManagementRepository.findJournalTail(USER_ID, 0)).thenReturn(List.of(
+            new JournalEntry(1, "AAPL", 10, 0, 100.0),
+            new JournalEntry(2, "GOOGL", 2, 0, 2500.0),
+            new JournalEntry(3, "IBM", 5, 0, 200.0)));
+        StockHolding aapl = new StockHolding(USER_ID, "AAPL", 10, 100.0);
+        StockHolding ibm = new StockHolding(USER_ID, "IBM", 3, 200.0);
+        StockHolding msft = new StockHolding(USER_ID, "MSFT", 1, 300.0);
+        when(stockHoldingRepository.findByUserIdOrderBySymbol(USER_ID)).thenReturn(new ArrayList<>(List.of(aapl, ibm, msft)));
+        ArgumentCaptor<Iterable<StockHolding>> added = ArgumentCaptor.forClass(Iterable.class);
+
+        // Act
+        int corrected = tradeJournalService.rebuildHoldings(USER_ID);
+
+        // Assert
+        assertEquals(3, corrected);
+        assertEquals(5, ibm.getQuantity());
+        verify(stockHoldingRepository).delete(msft);
+        verify(stockHoldingRepository, never()).delete(aapl);
+        verify(stockHoldingRepository).saveAll(added.capture());
+        StockHolding googl = added.getValue().iterator().next();
+        assertEquals("GOOGL", googl.getSymbol());
+        assertEquals(2, googl.getQuantity());
+    }
+}
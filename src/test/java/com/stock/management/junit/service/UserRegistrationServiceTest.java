@@ -13,6 +13,7 @@ import com.stock.management.data.jpa.model.UserInfo;
 import com.stock.management.data.jpa.repository.UserSecurityRepository;
 import com.stock.management.dto.UserDTO;
 import com.stock.management.exception.BadRequestException;
+import com.stock.management.security.UserLookupCache;
 import com.stock.management.service.UserRegistrationService;
 
 public class UserRegistrationServiceTest {
@@ -23,6 +24,9 @@ public class UserRegistrationServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserLookupCache userLookupCache;
+
     @InjectMocks
     private UserRegistrationService userRegistrationService;
 
@@ -58,6 +62,7 @@ public class UserRegistrationServiceTest {
         assertEquals(validUserDTO.email(), result.getEmail());
         assertEquals("encodedPassword", result.getPassword());
         verify(userRepository, times(1)).save(any(UserInfo.class));
+        verify(userLookupCache).invalidate(validUserDTO.userId());
     }
 
     @Test
@@ -0,0 +1,181 @@
+package com.stock.management.junit.tradelog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import com.stock.management.data.jpa.model.RejectedTrade;
+import com.stock.management.data.jpa.model.TradeLogCheckpoint;
+import com.stock.management.data.jpa.repository.RejectedTradeRepository;
+import com.stock.management.data.jpa.repository.TradeLogCheckpointRepository;
+import com.stock.management.dto.TradeImportDTO;
+import com.stock.management.exception.BadRequestException;
+import com.stock.management.service.StockManagementService;
+import com.stock.management.tradelog.TradeLog;
+import com.stock.management.tradelog.TradeLogApplier;
+import com.stock.management.tradelog.TradeLogProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TradeLogApplierTest {
+
+    private static final LocalDate TRADE_DATE = LocalDate.of(2024, 3, 1);
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private StockManagementService stockManagementService;
+
+    @Mock
+    private TradeLogCheckpointRepository checkpointRepository;
+
+    @Mock
+    private RejectedTradeRepository rejectedTradeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TradeLog tradeLog;
+    private TradeLogApplier applier;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> mock(TransactionStatus.class));
+        when(checkpointRepository.findById(TradeLogApplier.CHECKPOINT)).thenReturn(Optional.empty());
+        tradeLog = new TradeLog(directory, 4096, false, 0, meterRegistry);
+        applier = new TradeLogApplier(tradeLog, stockManagementService, checkpointRepository, rejectedTradeRepository,
+                transactionManager, new TradeLogProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tradeLog.close();
+    }
+
+    @Test
+    void testApplyDurableTrades_WritesEachUsersTradesInOrderWithTheCheckpoint() {
+        // Arrange
+        tradeLog.append("alice", "AAPL", 10, 150.0, false, TRADE_DATE);
+        tradeLog.append("bob", "MSFT", 2, 300.0, false, TRADE_DATE);
+        tradeLog.append("alice", "AAPL", 4, 155.0, true, TRADE_DATE);
+
+        // Act
+        int applied = applier.applyDurableTrades();
+
+        // Assert
+        assertEquals(3, applied);
+        assertEquals(3, applier.appliedSequence());
+        verify(stockManagementService).importTrades("alice", List.of(
+                new TradeImportDTO("AAPL", 10, 150.0, TRADE_DATE, "Added"),
+                new TradeImportDTO("AAPL", 4, 155.0, TRADE_DATE, "Removed")));
+        verify(stockManagementService).importTrades("bob", List.of(
+                new TradeImportDTO("MSFT", 2, 300.0, TRADE_DATE, "Added")));
+        verify(checkpointRepository).save(
+                argThat((TradeLogCheckpoint checkpoint) -> checkpoint.getAppliedSequence() == 3));
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void testApplyDurableTrades_ResumesAfterTheCheckpoint() {
+        // Arrange
+        when(checkpointRepository.findById(TradeLogApplier.CHECKPOINT))
+                .thenReturn(Optional.of(new TradeLogCheckpoint(TradeLogApplier.CHECKPOINT, 1)));
+        tradeLog.append("alice", "AAPL", 10, 150.0, false, TRADE_DATE);
+        tradeLog.append("alice", "AAPL", 5, 160.0, false, TRADE_DATE);
+
+        // Act
+        int applied = applier.applyDurableTrades();
+
+        // Assert
+        assertEquals(1, applied);
+        verify(stockManagementService).importTrades("alice", List.of(
+                new TradeImportDTO("AAPL", 5, 160.0, TRADE_DATE, "Added")));
+    }
+
+    @Test
+    void testApplyDurableTrades_RecordsOnlyTheRejectedTrade() {
+        // Arrange
+        tradeLog.append("alice", "AAPL", 10, 150.0, false, TRADE_DATE);
+        tradeLog.append("bob", "MSFT", 2, 300.0, true, TRADE_DATE);
+        doThrow(new BadRequestException("Trade 0: cannot remove more stocks than currently held."))
+                .when(stockManagementService).importTrades(eq("bob"), anyList());
+
+        // Act
+        applier.applyDurableTrades();
+
+        // Assert
+        assertEquals(2, applier.appliedSequence());
+        verify(stockManagementService, times(2)).importTrades(eq("alice"), anyList());
+        verify(checkpointRepository).save(
+                argThat((TradeLogCheckpoint checkpoint) -> checkpoint.getAppliedSequence() == 1));
+        verify(checkpointRepository).save(
+                argThat((TradeLogCheckpoint checkpoint) -> checkpoint.getAppliedSequence() == 2));
+        verify(rejectedTradeRepository).save(argThat((RejectedTrade rejected) -> rejected.getLogSequence() == 2
+                && rejected.getUserId().equals("bob") && rejected.isRemoval()));
+        assertEquals(1.0, meterRegistry.get("stock.trade-log.skipped").counter().count());
+    }
+
+    @Test
+    void testApplyDurableTrades_TellsListenersTheAppliedSequence() {
+        // Arrange
+        List<Long> told = new ArrayList<>();
+        applier.addAppliedListener(told::add);
+        tradeLog.append("alice", "AAPL", 10, 150.0, false, TRADE_DATE);
+
+        // Act
+        applier.applyDurableTrades();
+        applier.applyDurableTrades();
+
+        // Assert
+        assertEquals(List.of(1L, 1L), told);
+    }
+
+    @Test
+    void testApplyDurableTrades_RetriesTheBatchAfterADatabaseError() {
+        // Arrange
+        tradeLog.append("alice", "AAPL", 10, 150.0, false, TRADE_DATE);
+        doThrow(new DataAccessResourceFailureException("Connection refused"))
+                .doReturn(1)
+                .when(stockManagementService).importTrades(eq("alice"), anyList());
+
+        // Act
+        try {
+            applier.applyDurableTrades();
+        } catch (DataAccessResourceFailureException expected) {
+            // retried on the next check
+        }
+        int applied = applier.applyDurableTrades();
+
+        // Assert
+        assertEquals(1, applied);
+        assertEquals(1, applier.appliedSequence());
+        verify(stockManagementService, times(2)).importTrades(eq("alice"), anyList());
+    }
+}
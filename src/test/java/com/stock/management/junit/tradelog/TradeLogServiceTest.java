@@ -0,0 +1,155 @@
+package com.stock.management.junit.tradelog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.stock.management.data.jpa.model.HoldingQuantity;
+import com.stock.management.data.jpa.repository.StockHoldingRepository;
+import com.stock.management.data.jpa.repository.UserSecurityRepository;
+import com.stock.management.dto.StockDTO;
+import com.stock.management.exception.BadRequestException;
+import com.stock.management.exception.ResourceNotFoundException;
+import com.stock.management.exception.ServiceBusyException;
+import com.stock.management.external.service.StockFetchingStrategy;
+import com.stock.management.tradelog.LoggedTrade;
+import com.stock.management.tradelog.TradeLog;
+import com.stock.management.tradelog.TradeLogApplier;
+import com.stock.management.tradelog.TradeLogProperties;
+import com.stock.management.tradelog.TradeLogService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TradeLogServiceTest {
+
+    private static final String USER_ID = "alice";
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private TradeLogApplier applier;
+
+    @Mock
+    private StockFetchingStrategy stockFetchingStrategy;
+
+    @Mock
+    private UserSecurityRepository userRepository;
+
+    @Mock
+    private StockHoldingRepository stockHoldingRepository;
+
+    private TradeLog tradeLog;
+    private TradeLogService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TradeLogProperties properties = new TradeLogProperties();
+        properties.setMaxPendingTrades(3);
+        tradeLog = new TradeLog(directory, 4096, true, 0, meterRegistry);
+        service = new TradeLogService(tradeLog, applier, stockFetchingStrategy, userRepository,
+                stockHoldingRepository, properties, meterRegistry);
+        when(stockFetchingStrategy.getStockPrice("AAPL")).thenReturn(150.0);
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+        when(stockHoldingRepository.findQuantitiesByUserIdOrderBySymbol(USER_ID))
+                .thenReturn(List.of(new HoldingQuantity("AAPL", 5)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tradeLog.close();
+    }
+
+    @Test
+    void testAddAndRemove_AcknowledgedOnceDurableInTheLog() {
+        // Act
+        LoggedTrade added = service.addOrUpdateStock(USER_ID, new StockDTO("AAPL", 10));
+        LoggedTrade removed = service.removeStock(USER_ID, new StockDTO("AAPL", 15));
+
+        // Assert
+        assertEquals(150.0, added.price());
+        assertEquals(List.of(added, removed), tradeLog.reader(0).next(10));
+        verify(stockHoldingRepository, times(1)).findQuantitiesByUserIdOrderBySymbol(USER_ID);
+    }
+
+    @Test
+    void testRemoveStock_MoreThanHeldWithLoggedTradesIsRejected() {
+        // Arrange
+        service.removeStock(USER_ID, new StockDTO("AAPL", 3));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.removeStock(USER_ID, new StockDTO("AAPL", 3)));
+        assertEquals(1, tradeLog.lastSequence());
+    }
+
+    @Test
+    void testSubmit_InvalidTradeOrUnknownUserIsRejected() {
+        // Arrange
+        when(userRepository.existsById("ghost")).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> service.addOrUpdateStock(USER_ID, new StockDTO("AAPL", 0)));
+        assertThrows(ResourceNotFoundException.class, () -> service.addOrUpdateStock("ghost", new StockDTO("AAPL", 1)));
+        assertEquals(0, tradeLog.lastSequence());
+    }
+
+    @Test
+    void testSubmit_TurnedAwayWhenTooManyTradesWaitToBeWritten() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            service.addOrUpdateStock(USER_ID, new StockDTO("AAPL", 1));
+        }
+
+        // Act & Assert
+        assertThrows(ServiceBusyException.class, () -> service.addOrUpdateStock(USER_ID, new StockDTO("AAPL", 1)));
+        when(applier.appliedSequence()).thenReturn(3L);
+        assertEquals(4, service.addOrUpdateStock(USER_ID, new StockDTO("AAPL", 1)).sequence());
+    }
+
+    @Test
+    void testForgetWrittenTrades_ForgetsQuantitiesOnlyOnceLoggedTradesAreWritten() {
+        // Arrange
+        service.addOrUpdateStock(USER_ID, new StockDTO("AAPL", 1));
+
+        // Act
+        service.forgetWrittenTrades(0);
+        service.addOrUpdateStock(USER_ID, new StockDTO("AAPL", 1));
+        service.forgetWrittenTrades(2);
+        service.addOrUpdateStock(USER_ID, new StockDTO("AAPL", 1));
+
+        // Assert
+        verify(stockHoldingRepository, times(2)).findQuantitiesByUserIdOrderBySymbol(USER_ID);
+    }
+
+    @Test
+    void testWriteDirectly_WritesLoggedTradesFirstAndChecksLaterTradesAgainstTheWrite() {
+        // Arrange
+        service.addOrUpdateStock(USER_ID, new StockDTO("AAPL", 1));
+
+        // Act
+        int written = service.writeDirectly(USER_ID, () -> {
+            when(stockHoldingRepository.findQuantitiesByUserIdOrderBySymbol(USER_ID)).thenReturn(List.of());
+            return 1;
+        });
+
+        // Assert
+        assertEquals(1, written);
+        verify(applier).applyDurableTrades();
+        assertThrows(IllegalArgumentException.class, () -> service.removeStock(USER_ID, new StockDTO("AAPL", 1)));
+        verify(stockHoldingRepository, times(2)).findQuantitiesByUserIdOrderBySymbol(USER_ID);
+    }
+}
@@ -0,0 +1,167 @@
+package com.stock.management.junit.tradelog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.stock.management.tradelog.LoggedTrade;
+import com.stock.management.tradelog.TradeLog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TradeLogTest {
+
+    private static final LocalDate TRADE_DATE = LocalDate.of(2024, 3, 1);
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testAppend_ReadOnlyOnceDurable() {
+        // Arrange
+        try (TradeLog tradeLog = new TradeLog(directory, SEGMENT_SIZE, true, 0, meterRegistry)) {
+            TradeLog.Reader reader = tradeLog.reader(0);
+
+            // Act
+            LoggedTrade first = tradeLog.append("alice", "AAPL", 10, 150.0, false, TRADE_DATE);
+            LoggedTrade second = tradeLog.append("bob", "MSFT", 3, 310.5, true, TRADE_DATE);
+            List<LoggedTrade> beforeForce = reader.next(10);
+            tradeLog.awaitDurable(second.sequence());
+            List<LoggedTrade> afterForce = reader.next(10);
+
+            // Assert
+            assertEquals(1, first.sequence());
+            assertEquals(2, second.sequence());
+            assertEquals(List.of(), beforeForce);
+            assertEquals(List.of(first, second), afterForce);
+            assertEquals(List.of(), reader.next(10));
+            assertEquals(1, meterRegistry.get("stock.trade-log.group-commit").summary().count());
+        }
+    }
+
+    @Test
+    void testAwaitDurable_ConcurrentAppendsShareForces() throws Exception {
+        // Arrange
+        int trades = 400;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (TradeLog tradeLog = new TradeLog(directory, 1 << 20, true, 0, meterRegistry)) {
+            // Act
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < trades; i++) {
+                futures.add(executor.submit(() -> tradeLog.awaitDurable(
+                        tradeLog.append("alice", "AAPL", 1, 100.0, false, TRADE_DATE).sequence())));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            // Assert
+            assertEquals(trades, tradeLog.reader(0).next(trades + 1).size());
+            long forces = meterRegistry.get("stock.trade-log.group-commit").summary().count();
+            assertTrue(forces <= trades, "forces: " + forces);
+            assertEquals(trades, (long) meterRegistry.get("stock.trade-log.group-commit").summary().totalAmount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAppend_RotatesSegmentsAndDeletesAppliedOnes() throws IOException {
+        // Arrange
+        try (TradeLog tradeLog = new TradeLog(directory, SEGMENT_SIZE, false, 0, meterRegistry)) {
+            // Act
+            for (int i = 0; i < 200; i++) {
+                tradeLog.append("user-" + i, "SYM" + i, i + 1, 10.0 + i, false, TRADE_DATE);
+            }
+            long segments = segmentCount();
+            List<LoggedTrade> trades = tradeLog.reader(0).next(500);
+            List<LoggedTrade> tail = tradeLog.reader(150).next(500);
+            int deleted = tradeLog.deleteSegmentsUpTo(150);
+
+            // Assert
+            assertTrue(segments > 2, "segments: " + segments);
+            assertEquals(200, trades.size());
+            assertEquals(200, trades.get(199).sequence());
+            assertEquals(50, tail.size());
+            assertEquals(151, tail.get(0).sequence());
+            assertTrue(deleted > 0);
+            assertEquals(segments - deleted, segmentCount());
+            assertEquals(tail, tradeLog.reader(150).next(500));
+        }
+    }
+
+    @Test
+    void testReopen_ResumesAfterTornTrade() throws IOException {
+        // Arrange
+        try (TradeLog tradeLog = new TradeLog(directory, SEGMENT_SIZE, true, 0, meterRegistry)) {
+            tradeLog.append("alice", "AAPL", 10, 150.0, false, TRADE_DATE);
+            tradeLog.awaitDurable(tradeLog.append("alice", "AAPL", 4, 160.0, true, TRADE_DATE).sequence());
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        long secondTrade;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            secondTrade = 8 + file.readInt();
+            // Corrupt the second trade's symbol, as if the machine failed while it was written
+            file.seek(secondTrade + 8 + 40);
+            file.writeByte('X');
+        }
+
+        // Act
+        try (TradeLog reopened = new TradeLog(directory, SEGMENT_SIZE, true, 0, meterRegistry)) {
+            List<LoggedTrade> recovered = reopened.reader(0).next(10);
+            LoggedTrade appended = reopened.append("bob", "MSFT", 1, 300.0, false, TRADE_DATE);
+            reopened.awaitDurable(appended.sequence());
+
+            // Assert
+            assertEquals(1, recovered.size());
+            assertEquals("AAPL", recovered.get(0).symbol());
+            assertEquals(2, appended.sequence());
+            assertEquals(List.of(recovered.get(0), appended), reopened.reader(0).next(10));
+        }
+    }
+
+    @Test
+    void testOpen_EmptyLogContinuesAfterAppliedSequence() {
+        // Arrange
+        try (TradeLog tradeLog = new TradeLog(directory, SEGMENT_SIZE, false, 41, meterRegistry)) {
+            // Act
+            LoggedTrade trade = tradeLog.append("alice", "AAPL", 1, 100.0, false, TRADE_DATE);
+
+            // Assert
+            assertEquals(42, trade.sequence());
+            assertEquals(List.of(trade), tradeLog.reader(41).next(10));
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.stock.management.support;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the Alpha Vantage GLOBAL_QUOTE endpoint.
+ * <p>
+ * Answers every request after a fixed latency with the price registered for the symbol, or
+ * {@link #DEFAULT_PRICE} when none is registered. Symbols registered with {@link #noData(String)}
+ * get the empty quote Alpha Vantage returns for unknown symbols. While {@link #rateLimit(String)}
+ * is set, every request gets the notice Alpha Vantage sends instead of a quote when rate limited.
+ */
+public final class StubQuoteServer implements AutoCloseable {
+
+    public static final double DEFAULT_PRICE = 100.0;
+
+    static {
+        // Without TCP_NODELAY the separately written headers and body hit delayed ACKs and add ~40 ms per call
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Double> prices = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> unknownSymbols = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile Duration latency;
+    private volatile String rateLimitNotice;
+
+    private StubQuoteServer(Duration latency) throws IOException {
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/query", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public static StubQuoteServer start(Duration latency) throws IOException {
+        return new StubQuoteServer(latency);
+    }
+
+    public StubQuoteServer price(String symbol, double price) {
+        prices.put(symbol, price);
+        return this;
+    }
+
+    public StubQuoteServer noData(String symbol) {
+        unknownSymbols.put(symbol, Boolean.TRUE);
+        return this;
+    }
+
+    /**
+     * @param notice the notice sent instead of quotes, or {@code null} to send quotes again
+     */
+    public void rateLimit(String notice) {
+        this.rateLimitNotice = notice;
+    }
+
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int requestCount() {
+        return requests.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            if (!latency.isZero()) {
+                Thread.sleep(latency.toMillis());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        String symbol = symbolOf(exchange.getRequestURI());
+        String notice = rateLimitNotice;
+        String body = notice != null
+                ? "{\"Note\": \"" + notice + "\"}"
+                : unknownSymbols.containsKey(symbol)
+                ? "{\"Global Quote\": {}}"
+                : "{\"Global Quote\": {\"01. symbol\": \"" + symbol + "\", \"02. open\": \"99.0000\", "
+                        + "\"05. price\": \"" + prices.getOrDefault(symbol, DEFAULT_PRICE) + "\", "
+                        + "\"07. latest trading day\": \"2024-11-29\"}}";
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String symbolOf(URI uri) {
+        for (String parameter : uri.getRawQuery().split("&")) {
+            if (parameter.startsWith("symbol=")) {
+                return parameter.substring("symbol=".length());
+            }
+        }
+        return "";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}